@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.shapes.ShapeFactory;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Access to the circuits of the Digital source tree
+ */
+final class Files {
+    private static final File ROOT = new File(System.getProperty("digital.root", ".."));
+
+    private Files() {
+    }
+
+    /**
+     * Returns a file of the source tree
+     *
+     * @param name the name relative to the root of the source tree
+     * @return the file
+     * @throws IOException if the file does not exist
+     */
+    static File get(String name) throws IOException {
+        File f = new File(ROOT, name);
+        if (!f.exists())
+            throw new IOException("file " + f.getAbsolutePath() + " not found, set the property digital.root");
+        return f;
+    }
+
+    /**
+     * Creates a library which uses the folder of the given file as root
+     *
+     * @param file the circuit file
+     * @return the library
+     * @throws IOException IOException
+     */
+    static ElementLibrary createLibrary(File file) throws IOException {
+        ElementLibrary library = new ElementLibrary();
+        library.setRootFilePath(file.getParentFile());
+        return library;
+    }
+
+    /**
+     * Loads a circuit
+     *
+     * @param file    the file
+     * @param library the library
+     * @return the circuit
+     * @throws IOException IOException
+     */
+    static Circuit load(File file, ElementLibrary library) throws IOException {
+        return Circuit.loadCircuit(file, new ShapeFactory(library));
+    }
+}
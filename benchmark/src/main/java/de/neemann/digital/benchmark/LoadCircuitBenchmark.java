@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.shapes.ShapeFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parsing of a circuit file by XStream.
+ * The file is read into memory once, so no disk access is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadCircuitBenchmark {
+
+    /**
+     * The circuit to load
+     */
+    @Param({"src/main/dig/processor/Processor.dig", "src/main/dig/processor/ProcessorVonNeumann.dig"})
+    private String circuitFile;
+
+    private byte[] data;
+    private ShapeFactory shapeFactory;
+
+    /**
+     * Reads the file
+     *
+     * @throws Exception Exception
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        File file = Files.get(circuitFile);
+        data = java.nio.file.Files.readAllBytes(file.toPath());
+        shapeFactory = new ShapeFactory(Files.createLibrary(file));
+    }
+
+    /**
+     * Parses the circuit
+     *
+     * @return the circuit
+     * @throws Exception Exception
+     */
+    @Benchmark
+    public Circuit loadCircuit() throws Exception {
+        return Circuit.loadCircuit(new ByteArrayInputStream(data), shapeFactory);
+    }
+}
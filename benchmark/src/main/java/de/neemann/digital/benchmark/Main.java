@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks.
+ * Accepts the usual JMH command line options and always adds the GC profiler.
+ */
+public final class Main {
+    private Main() {
+    }
+
+    /**
+     * Runs the benchmarks
+     *
+     * @param args the JMH command line arguments
+     * @throws RunnerException            RunnerException
+     * @throws CommandLineOptionException CommandLineOptionException
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
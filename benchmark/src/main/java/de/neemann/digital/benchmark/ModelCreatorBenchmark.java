@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.Model;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.model.ModelCreator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of a model from a loaded circuit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelCreatorBenchmark {
+
+    /**
+     * The circuit to create the model from
+     */
+    @Param({"src/main/dig/processor/Processor.dig", "src/test/resources/dig/trafficLight.dig"})
+    private String circuitFile;
+
+    private ElementLibrary library;
+    private Circuit circuit;
+
+    /**
+     * Loads the circuit
+     *
+     * @throws Exception Exception
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        File file = Files.get(circuitFile);
+        library = Files.createLibrary(file);
+        circuit = Files.load(file, library);
+    }
+
+    /**
+     * Creates the model
+     *
+     * @return the model
+     * @throws Exception Exception
+     */
+    @Benchmark
+    public Model createModel() throws Exception {
+        return new ModelCreator(circuit, library).createModel(false);
+    }
+}
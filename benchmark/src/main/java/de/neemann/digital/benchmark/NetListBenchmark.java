@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.element.Keys;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.VisualElement;
+import de.neemann.digital.draw.elements.Wire;
+import de.neemann.digital.draw.graphics.Vector;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.model.NetList;
+import de.neemann.digital.draw.shapes.ShapeFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static de.neemann.digital.draw.shapes.GenericShape.SIZE;
+
+/**
+ * Measures the creation of the net list of a large circuit.
+ * The circuit is made of many chains of wire segments which are pairwise connected by tunnels.
+ * The chains zigzag, so no segments are merged.
+ * A duplicate wire can not be handled by the wire net cache, so in this case the
+ * net list is built without the cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetListBenchmark {
+
+    /**
+     * The number of wire chains
+     */
+    @Param({"400"})
+    private int chains;
+
+    /**
+     * The number of wire segments in each chain
+     */
+    @Param({"100"})
+    private int segments;
+
+    /**
+     * If true, a duplicate wire is added
+     */
+    @Param({"false", "true"})
+    private boolean duplicateWire;
+
+    private Circuit circuit;
+
+    /**
+     * Creates the circuit
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        ShapeFactory sf = new ShapeFactory(new ElementLibrary());
+        circuit = new Circuit();
+        for (int ch = 0; ch < chains; ch++) {
+            int y = ch * 4 * SIZE;
+            for (int i = 0; i < segments; i++) {
+                int x = i * SIZE;
+                int y1 = (i & 1) == 0 ? y : y + SIZE;
+                int y2 = (i & 1) == 0 ? y + SIZE : y;
+                circuit.getWires().add(new Wire(new Vector(x, y1), new Vector(x + SIZE, y2)));
+            }
+            VisualElement tunnel = new VisualElement("Tunnel")
+                    .setPos(new Vector(0, y)).setShapeFactory(sf);
+            tunnel.getElementAttributes().set(Keys.NETNAME, "N" + (ch / 2));
+            circuit.add(tunnel);
+        }
+        if (duplicateWire) {
+            Wire w = circuit.getWires().get(0);
+            circuit.getWires().add(new Wire(w.p1, w.p2));
+        }
+    }
+
+    /**
+     * Creates the net list
+     *
+     * @return the net list
+     * @throws Exception Exception
+     */
+    @Benchmark
+    public NetList createNetList() throws Exception {
+        return new NetList(circuit);
+    }
+}
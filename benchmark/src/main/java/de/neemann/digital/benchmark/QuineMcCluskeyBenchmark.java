@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
+import de.neemann.digital.analyse.quinemc.QuineMcCluskey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the minimization of a random boolean function.
+ * A fixed seed is used, so every run minimizes the same function.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuineMcCluskeyBenchmark {
+
+    /**
+     * The number of variables
+     */
+    @Param({"6", "8", "10"})
+    private int vars;
+
+    private ArrayList<Variable> variables;
+    private BoolTableByteArray table;
+
+    /**
+     * Creates the function
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        variables = new ArrayList<>();
+        for (int i = 0; i < vars; i++)
+            variables.add(new Variable("v" + i));
+        Random r = new Random(vars);
+        table = new BoolTableByteArray(1 << vars);
+        for (int i = 0; i < table.size(); i++)
+            table.set(i, r.nextInt(4) == 0);
+    }
+
+    /**
+     * Minimizes the function
+     *
+     * @return the minimized expression
+     * @throws Exception Exception
+     */
+    @Benchmark
+    public Expression minimize() throws Exception {
+        return new QuineMcCluskey(variables)
+                .fillTableWith(table)
+                .simplify()
+                .getExpression();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.memory.ROM;
+import de.neemann.digital.core.memory.importer.Importer;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.model.ModelCreator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Model#doStep()} while the example processors run a program.
+ * Every operation is a single clock edge.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+    private static final int EDGES = 1000;
+
+    /**
+     * The processor to simulate
+     */
+    @Param({"Processor.dig", "ProcessorVonNeumann.dig"})
+    private String processor;
+
+    private Model model;
+    private ObservableValue clock;
+
+    /**
+     * Creates the model and loads the program
+     *
+     * @throws Exception Exception
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        File file = Files.get("src/main/dig/processor/" + processor);
+        ElementLibrary library = Files.createLibrary(file);
+        model = new ModelCreator(Files.load(file, library), library).createModel(false);
+        for (ROM rom : model.findNode(ROM.class))
+            if (rom.isProgramMemory())
+                rom.setData(Importer.read(Files.get("src/test/resources/programs/fibonacci.hex"), rom.getDataBits()));
+        if (model.getClocks().size() != 1)
+            throw new NodeException("expected a single clock in " + processor);
+        clock = model.getClocks().get(0).getClockOutput();
+        model.init();
+    }
+
+    /**
+     * Closes the model
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        model.close();
+    }
+
+    /**
+     * Toggles the clock
+     *
+     * @throws NodeException NodeException
+     */
+    @Benchmark
+    @OperationsPerInvocation(EDGES)
+    public void doStep() throws NodeException {
+        for (int i = 0; i < EDGES; i++) {
+            clock.setBool(!clock.getBool());
+            model.doStep();
+        }
+    }
+}
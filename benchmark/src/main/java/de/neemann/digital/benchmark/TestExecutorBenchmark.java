@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.testing.TestExecutor;
+import de.neemann.digital.testing.TestResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the execution of the test cases embedded in a circuit.
+ * The model creation is part of the measurement, since every test case creates its own model.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestExecutorBenchmark {
+
+    /**
+     * The circuit containing the test cases
+     */
+    @Param({"src/test/resources/dig/test/arith/FullSubRC.dig", "src/test/resources/dig/test/prng.dig"})
+    private String circuitFile;
+
+    private ElementLibrary library;
+    private Circuit circuit;
+    private List<Circuit.TestCase> testCases;
+
+    /**
+     * Loads the circuit
+     *
+     * @throws Exception Exception
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        File file = Files.get(circuitFile);
+        library = Files.createLibrary(file);
+        circuit = Files.load(file, library);
+        testCases = circuit.getTestCases();
+        if (testCases.isEmpty())
+            throw new IllegalStateException("no test cases in " + circuitFile);
+    }
+
+    /**
+     * Executes all test cases
+     *
+     * @param bh the black hole
+     * @throws Exception Exception
+     */
+    @Benchmark
+    public void execute(Blackhole bh) throws Exception {
+        for (Circuit.TestCase tc : testCases) {
+            TestResult result = new TestExecutor(tc, circuit, library).execute();
+            if (!result.allPassed())
+                throw new IllegalStateException("test case " + tc.getLabel() + " failed");
+            bh.consume(result);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+
+/**
+ * JMH benchmarks of the simulation core.
+ * The benchmarks cover the simulation of the example processors, the model creation, the loading of
+ * circuits, the execution of test cases and the minimization of boolean functions.
+ * All benchmarks are run with the GC profiler, so the allocation rates are reported as well.
+ */
+package de.neemann.digital.benchmark;
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse;
+
+import de.neemann.digital.analyse.espresso.Espresso;
+import de.neemann.digital.analyse.expression.ExpressionException;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.expression.format.FormatterException;
+import de.neemann.digital.analyse.quinemc.BoolTable;
+import de.neemann.digital.gui.components.table.ExpressionListener;
+
+import java.util.List;
+
+/**
+ * The heuristic minimizer based on {@link Espresso}.
+ * Used for tables which are too large to be minimized exactly.
+ * Only a single solution is reported.
+ */
+public class MinimizerEspresso implements MinimizerInterface {
+    @Override
+    public void minimize(List<Variable> vars, BoolTable boolTable, String resultName, ExpressionListener listener) throws ExpressionException, FormatterException {
+        listener.resultFound(resultName, new Espresso(vars)
+                .fillTableWith(boolTable)
+                .simplify()
+                .getExpression());
+    }
+}
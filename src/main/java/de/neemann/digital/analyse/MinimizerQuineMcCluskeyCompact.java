@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse;
+
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.ExpressionException;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.expression.format.FormatterException;
+import de.neemann.digital.analyse.quinemc.BoolTable;
+import de.neemann.digital.analyse.quinemc.QuineMcCluskey;
+import de.neemann.digital.analyse.quinemc.QuineMcCluskeyCompact;
+import de.neemann.digital.analyse.quinemc.TableRow;
+import de.neemann.digital.analyse.quinemc.primeselector.PrimeSelector;
+import de.neemann.digital.analyse.quinemc.primeselector.PrimeSelectorDefault;
+import de.neemann.digital.gui.components.table.ExpressionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The QMC minimizer based on {@link QuineMcCluskeyCompact}.
+ * Used for tables with many variables.
+ */
+public class MinimizerQuineMcCluskeyCompact implements MinimizerInterface {
+    @Override
+    public void minimize(List<Variable> vars, BoolTable boolTable, String resultName, ExpressionListener listener) throws ExpressionException, FormatterException {
+        QuineMcCluskeyCompact qmc = new QuineMcCluskeyCompact(vars)
+                .fillTableWith(boolTable);
+        PrimeSelector ps = new PrimeSelectorDefault();
+        Expression e = qmc.simplify(ps).getExpression();
+
+        if (ps.getAllSolutions() != null) {
+            for (ArrayList<TableRow> i : ps.getAllSolutions()) {
+                listener.resultFound(resultName, QuineMcCluskey.addAnd(null, i, vars));
+            }
+        } else {
+            listener.resultFound(resultName, e);
+        }
+    }
+}
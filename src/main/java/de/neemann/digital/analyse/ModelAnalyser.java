@@ -5,6 +5,8 @@
  */
 package de.neemann.digital.analyse;
 
+import de.neemann.digital.analyse.bdd.BDD;
+import de.neemann.digital.analyse.bdd.BoolTableBDD;
 import de.neemann.digital.analyse.expression.BitSetter;
 import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
 import de.neemann.digital.core.*;
@@ -21,15 +23,32 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Analyses a given model.
- * Calculates the truth table which is generated by the given model
+ * Calculates the truth table which is generated by the given model.
+ * If the circuit consists of single bit basic gates only, a {@link BitSlicedModel} is used
+ * which evaluates 64 rows of the table at once.
  */
 public class ModelAnalyser {
     private static final Logger LOGGER = LoggerFactory.getLogger(ModelAnalyser.class);
     private static final int MAX_INPUTS_ALLOWED = 24;
+    private static final int MIN_PARALLEL_ROWS = 1 << 16;
+    private static final long[] LANE_PATTERN = new long[]{
+            0xAAAAAAAAAAAAAAAAL,
+            0xCCCCCCCCCCCCCCCCL,
+            0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L,
+            0xFFFF0000FFFF0000L,
+            0xFFFFFFFF00000000L};
 
     private final Model model;
     private final ArrayList<Signal> inputs;
@@ -337,7 +356,9 @@ public class ModelAnalyser {
         long time = System.currentTimeMillis();
 
 
-        if (tableRows <= steps || tableRows <= 128)
+        if (bitSlicedFiller(tt, da))
+            LOGGER.debug("used bit sliced model");
+        else if (tableRows <= steps || tableRows <= 128)
             simpleFiller(tt);
         else
             dependantFiller(tt, da);
@@ -348,6 +369,86 @@ public class ModelAnalyser {
         return tt;
     }
 
+    /**
+     * Analyses the model symbolically.
+     * Every output is represented by a binary decision diagram, so the memory required does not
+     * grow with the number of rows of the table. All outputs share the same {@link BDD} manager.
+     * Only circuits which can be handled by the {@link BitSlicedModel} are supported.
+     *
+     * @return the truth table containing {@link BoolTableBDD} results or null if the model is not supported
+     * @throws PinException     PinException
+     * @throws AnalyseException AnalyseException
+     */
+    public TruthTable analyseBDD() throws PinException, AnalyseException {
+        if (inputs.size() > BoolTableBDD.MAX_VARS)
+            throw new AnalyseException(Lang.get("err_toManyInputs_max_N0_is_N1", BoolTableBDD.MAX_VARS, inputs.size()));
+
+        BitSlicedModel bsm = BitSlicedModel.create(model, getValues(inputs), getValues(outputs));
+        if (bsm == null || bsm.hasState())
+            return null;
+
+        BDD bdd = new BDD(inputs.size());
+        BDDOperations operations = new BDDOperations(bdd);
+        ArrayList<Integer> in = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++)
+            in.add(operations.keep(bdd.variable(i)));
+        List<Integer> out = bsm.evaluate(operations, in, BDD.ZERO, BDD.ONE);
+
+        TruthTable tt = new TruthTable();
+        tt.setModelAnalyzerInfo(getModelAnalyzerInfo());
+        for (Signal s : inputs)
+            tt.addVariable(s.getName());
+        for (int i = 0; i < outputs.size(); i++)
+            tt.addResult(outputs.get(i).getName(), new BoolTableBDD(bdd, out.get(i)));
+        operations.release();
+        LOGGER.debug("bdd nodes: " + bdd.getNodeCount());
+        return tt;
+    }
+
+    /**
+     * Keeps all intermediate results until the evaluation is complete
+     */
+    private static final class BDDOperations implements BitSlicedModel.Operations<Integer> {
+        private final BDD bdd;
+        private final ArrayList<Integer> kept;
+
+        private BDDOperations(BDD bdd) {
+            this.bdd = bdd;
+            kept = new ArrayList<>();
+        }
+
+        private int keep(int f) {
+            kept.add(bdd.ref(f));
+            return f;
+        }
+
+        private void release() {
+            for (int f : kept)
+                bdd.deref(f);
+            bdd.gc();
+        }
+
+        @Override
+        public Integer and(Integer a, Integer b) {
+            return keep(bdd.and(a, b));
+        }
+
+        @Override
+        public Integer or(Integer a, Integer b) {
+            return keep(bdd.or(a, b));
+        }
+
+        @Override
+        public Integer xor(Integer a, Integer b) {
+            return keep(bdd.xor(a, b));
+        }
+
+        @Override
+        public Integer not(Integer a) {
+            return keep(bdd.not(a));
+        }
+    }
+
     private boolean modelContainsSwitches() {
         for (Node n : model)
             if (n instanceof Relay
@@ -413,6 +514,115 @@ public class ModelAnalyser {
         }
     }
 
+    /**
+     * Fills the table using bit sliced models.
+     * The outputs are grouped by the inputs they depend on, and every group is evaluated
+     * by its own bit sliced model. If there are enough rows to calculate, the groups are
+     * evaluated in parallel.
+     *
+     * @return false if the circuit is not supported by the bit sliced model
+     */
+    private boolean bitSlicedFiller(TruthTable tt, DependencyAnalyser da) throws PinException, AnalyseException, NodeException {
+        HashMap<Signal, ArrayList<Signal>> dependsOn = new HashMap<>();
+        LinkedHashMap<ArrayList<Signal>, ArrayList<Signal>> groups = new LinkedHashMap<>();
+        for (Signal out : outputs) {
+            ArrayList<Signal> ins = reorder(da.getInputs(out), inputs);
+            dependsOn.put(out, ins);
+            groups.computeIfAbsent(ins, k -> new ArrayList<>()).add(out);
+        }
+
+        ArrayList<Callable<Map<Signal, BoolTableByteArray>>> tasks = new ArrayList<>();
+        long rows = 0;
+        for (Map.Entry<ArrayList<Signal>, ArrayList<Signal>> e : groups.entrySet()) {
+            ArrayList<Signal> ins = e.getKey();
+            ArrayList<Signal> outs = e.getValue();
+            if (ins.size() > MAX_INPUTS_ALLOWED)
+                throw new AnalyseException(Lang.get("err_toManyInputs_max_N0_is_N1", MAX_INPUTS_ALLOWED, ins.size()));
+
+            BitSlicedModel bsm = BitSlicedModel.create(model, getValues(ins), getValues(outs));
+            if (bsm == null)
+                return false;
+
+            tasks.add(() -> fillBitSliced(bsm, ins.size(), outs));
+            rows += 1L << ins.size();
+        }
+
+        HashMap<Signal, BoolTableByteArray> tables = new HashMap<>();
+        if (tasks.size() > 1 && rows >= MIN_PARALLEL_ROWS) {
+            try {
+                for (Future<Map<Signal, BoolTableByteArray>> f : ForkJoinPool.commonPool().invokeAll(tasks))
+                    tables.putAll(f.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NodeException(e.getMessage(), e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw new NodeException(cause.getMessage(), (Exception) cause);
+            }
+        } else {
+            for (Callable<Map<Signal, BoolTableByteArray>> t : tasks) {
+                try {
+                    tables.putAll(t.call());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new NodeException(e.getMessage(), e);
+                }
+            }
+        }
+
+        for (Signal out : outputs) {
+            ArrayList<Signal> ins = dependsOn.get(out);
+            BoolTableByteArray table = tables.get(out);
+            if (ins.size() == inputs.size())
+                tt.addResult(out.getName(), table);
+            else
+                tt.addResult(out.getName(), new BoolTableExpanded(table, ins, inputs));
+        }
+        return true;
+    }
+
+    private static Map<Signal, BoolTableByteArray> fillBitSliced(BitSlicedModel bsm, int inputCount, ArrayList<Signal> outs) {
+        int rows = 1 << inputCount;
+        BoolTableByteArray[] data = new BoolTableByteArray[outs.size()];
+        for (int i = 0; i < data.length; i++)
+            data[i] = new BoolTableByteArray(rows);
+
+        for (int row = 0; row < rows; row += BitSlicedModel.LANES) {
+            // the first input is the most significant bit of the row number
+            for (int i = 0; i < inputCount; i++) {
+                int bit = inputCount - 1 - i;
+                if (bit < LANE_PATTERN.length)
+                    bsm.setInput(i, LANE_PATTERN[bit]);
+                else
+                    bsm.setInput(i, ((row >> bit) & 1) == 0 ? 0 : -1);
+            }
+            bsm.evaluate();
+            int lanes = Math.min(BitSlicedModel.LANES, rows - row);
+            for (int o = 0; o < data.length; o++) {
+                long v = bsm.getOutput(o);
+                for (int l = 0; l < lanes; l++)
+                    data[o].set(row + l, ((v >>> l) & 1) != 0);
+            }
+        }
+
+        HashMap<Signal, BoolTableByteArray> tables = new HashMap<>();
+        for (int o = 0; o < data.length; o++)
+            tables.put(outs.get(o), data[o]);
+        return tables;
+    }
+
+    private static ArrayList<ObservableValue> getValues(ArrayList<Signal> signals) {
+        ArrayList<ObservableValue> values = new ArrayList<>(signals.size());
+        for (Signal s : signals)
+            values.add(s.getValue());
+        return values;
+    }
+
     private ModelAnalyserInfo getModelAnalyzerInfo() {
         return modelAnalyzerInfo;
     }
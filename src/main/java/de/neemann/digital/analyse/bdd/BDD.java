@@ -0,0 +1,477 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.bdd;
+
+import de.neemann.digital.analyse.expression.Constant;
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.ExpressionException;
+import de.neemann.digital.analyse.expression.NamedExpression;
+import de.neemann.digital.analyse.expression.Not;
+import de.neemann.digital.analyse.expression.Operation;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.quinemc.BoolTable;
+import de.neemann.digital.analyse.quinemc.ThreeStateValue;
+import de.neemann.digital.lang.Lang;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Manager of reduced ordered binary decision diagrams.
+ * <p>
+ * A function is represented by the int id of its root node. The nodes are stored in plain
+ * arrays. A unique table makes sure that every function is represented by exactly one node,
+ * so two functions are equal if and only if their ids are equal. The results of the if-then-else
+ * operation are stored in a computed cache. The tables start small, sized by the number of
+ * variables, and grow as nodes are created, so small functions are cheap to compare.
+ * <p>
+ * Nodes which are not referenced by {@link #ref(int)} can be reclaimed by the garbage
+ * collection, which is started if only a few free nodes are left. The operands of the running
+ * operation and the variables are always kept. So a result has to be referenced if it is used
+ * after the next operation.
+ * Variable 0 is the top most variable, which is the most significant bit of a row index.
+ * This class is not thread safe.
+ */
+public final class BDD {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BDD.class);
+
+    /**
+     * The constant zero function
+     */
+    public static final int ZERO = 0;
+    /**
+     * The constant one function
+     */
+    public static final int ONE = 1;
+
+    private static final int FREE = -1;
+    private static final int MIN_SIZE = 64;
+    private static final int MAX_CACHE_SIZE = 1 << 16;
+
+    private final int varCount;
+    private final int[] varNodes;
+    private int[] level;
+    private int[] low;
+    private int[] high;
+    private int[] next;
+    private int[] refs;
+    private int[] buckets;
+    private int used;
+    private int freeList;
+    private int freeCount;
+    private int[] cacheF;
+    private int[] cacheG;
+    private int[] cacheH;
+    private int[] cacheR;
+
+    /**
+     * Creates a new instance
+     *
+     * @param varCount the number of variables
+     */
+    public BDD(int varCount) {
+        this.varCount = varCount;
+        int size = MIN_SIZE;
+        while (size < varCount * 4)
+            size *= 2;
+        level = new int[size];
+        low = new int[size];
+        high = new int[size];
+        next = new int[size];
+        refs = new int[size];
+        buckets = new int[size];
+        Arrays.fill(buckets, -1);
+        // the terminals are below all variables
+        level[ZERO] = varCount;
+        level[ONE] = varCount;
+        used = 2;
+        freeList = -1;
+        createCache(size);
+        // the variables are never reclaimed
+        varNodes = new int[varCount];
+        for (int i = 0; i < varCount; i++)
+            varNodes[i] = ref(mk(i, ZERO, ONE));
+    }
+
+    /**
+     * @return the number of variables
+     */
+    public int getVarCount() {
+        return varCount;
+    }
+
+    /**
+     * Returns the function which is one if the given variable is one
+     *
+     * @param var the variable index
+     * @return the function
+     */
+    public int variable(int var) {
+        if (var < 0 || var >= varCount)
+            throw new IllegalArgumentException("invalid variable " + var);
+        return varNodes[var];
+    }
+
+    /**
+     * @param f the function
+     * @return the inverted function
+     */
+    public int not(int f) {
+        checkGc(f, ZERO, ZERO);
+        return ite(f, ZERO, ONE);
+    }
+
+    /**
+     * @param f the first function
+     * @param g the second function
+     * @return the and combination of both functions
+     */
+    public int and(int f, int g) {
+        checkGc(f, g, ZERO);
+        return ite(f, g, ZERO);
+    }
+
+    /**
+     * @param f the first function
+     * @param g the second function
+     * @return the or combination of both functions
+     */
+    public int or(int f, int g) {
+        checkGc(f, g, ZERO);
+        return ite(f, ONE, g);
+    }
+
+    /**
+     * @param f the first function
+     * @param g the second function
+     * @return the xor combination of both functions
+     */
+    public int xor(int f, int g) {
+        checkGc(f, g, ZERO);
+        return ite(f, ite(g, ZERO, ONE), g);
+    }
+
+    /**
+     * Returns the function 'if f then g else h'
+     *
+     * @param f the condition
+     * @param g the function used if f is one
+     * @param h the function used if f is zero
+     * @return the resulting function
+     */
+    public int ifThenElse(int f, int g, int h) {
+        checkGc(f, g, h);
+        return ite(f, g, h);
+    }
+
+    /**
+     * Creates the function represented by the given expression.
+     * The variables are numbered in the order of the given list.
+     *
+     * @param expression the expression
+     * @param variables  the variables
+     * @return the function
+     * @throws ExpressionException ExpressionException
+     */
+    public int create(Expression expression, List<Variable> variables) throws ExpressionException {
+        if (expression instanceof Constant)
+            return ((Constant) expression).getValue() ? ONE : ZERO;
+        if (expression instanceof Variable) {
+            int var = variables.indexOf(expression);
+            if (var < 0)
+                throw new ExpressionException(Lang.get("err_variable_N0_notFound", expression));
+            return variable(var);
+        }
+        if (expression instanceof Not)
+            return not(create(((Not) expression).getExpression(), variables));
+        if (expression instanceof NamedExpression)
+            return create(((NamedExpression) expression).getExpression(), variables);
+        if (expression instanceof Operation) {
+            boolean isAnd = expression instanceof Operation.And;
+            int r = isAnd ? ONE : ZERO;
+            for (Expression e : ((Operation) expression).getExpressions()) {
+                int c = ref(create(e, variables));
+                int n;
+                if (isAnd)
+                    n = and(r, c);
+                else if (expression instanceof Operation.Or)
+                    n = or(r, c);
+                else
+                    n = xor(r, c);
+                ref(n);
+                deref(r);
+                deref(c);
+                r = n;
+            }
+            deref(r);
+            return r;
+        }
+        throw new ExpressionException("unknown expression " + expression);
+    }
+
+    /**
+     * Creates the function which is one in all rows of the table which hold the given value.
+     *
+     * @param table the table
+     * @param value the value to look for
+     * @return the function
+     * @throws ExpressionException ExpressionException
+     */
+    public int create(BoolTable table, ThreeStateValue value) throws ExpressionException {
+        if (table.size() != 1 << varCount)
+            throw new ExpressionException(Lang.get("err_exact_N0_valuesNecessaryNot_N1", 1 << varCount, table.size()));
+        checkGc(ZERO, ZERO, ZERO);
+        return create(table, value, 0, 0);
+    }
+
+    private int create(BoolTable table, ThreeStateValue value, int var, int row) {
+        if (var == varCount)
+            return table.get(row).equals(value) ? ONE : ZERO;
+        int lo = create(table, value, var + 1, row);
+        int hi = create(table, value, var + 1, row | (1 << (varCount - 1 - var)));
+        return mk(var, lo, hi);
+    }
+
+    /**
+     * Increments the reference count of the given function.
+     * A referenced function is not reclaimed by the garbage collection.
+     *
+     * @param f the function
+     * @return the function for chained calls
+     */
+    public int ref(int f) {
+        if (f > ONE)
+            refs[f]++;
+        return f;
+    }
+
+    /**
+     * Decrements the reference count of the given function.
+     *
+     * @param f the function
+     */
+    public void deref(int f) {
+        if (f > ONE && refs[f] > 0)
+            refs[f]--;
+    }
+
+    /**
+     * Evaluates the function
+     *
+     * @param f   the function
+     * @param row the row index, the most significant bit is variable 0
+     * @return the value of the function
+     */
+    public boolean evaluate(int f, long row) {
+        while (f > ONE)
+            f = ((row >>> (varCount - 1 - level[f])) & 1) == 0 ? low[f] : high[f];
+        return f == ONE;
+    }
+
+    /**
+     * @param f the function
+     * @return the number of rows in which the function is one
+     */
+    public double satCount(int f) {
+        double[] fraction = new double[used];
+        Arrays.fill(fraction, -1);
+        return fraction(f, fraction) * Math.pow(2, varCount);
+    }
+
+    private double fraction(int f, double[] fraction) {
+        if (f <= ONE)
+            return f;
+        if (fraction[f] < 0)
+            fraction[f] = (fraction(low[f], fraction) + fraction(high[f], fraction)) / 2;
+        return fraction[f];
+    }
+
+    /**
+     * @param f the function
+     * @return the number of inner nodes used by the function
+     */
+    public int nodeCount(int f) {
+        boolean[] visited = new boolean[used];
+        int[] stack = new int[used];
+        int sp = 0;
+        int count = 0;
+        stack[sp++] = f;
+        while (sp > 0) {
+            int n = stack[--sp];
+            if (n <= ONE || visited[n])
+                continue;
+            visited[n] = true;
+            count++;
+            stack[sp++] = low[n];
+            stack[sp++] = high[n];
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of inner nodes currently allocated
+     */
+    public int getNodeCount() {
+        return used - 2 - freeCount;
+    }
+
+    /**
+     * Reclaims all nodes which are not reachable from a referenced function
+     */
+    public void gc() {
+        collect(ZERO, ZERO, ZERO);
+    }
+
+    private void checkGc(int f, int g, int h) {
+        if (available() < level.length / 16) {
+            collect(f, g, h);
+            // if only a few nodes are reclaimed it is better to grow
+            if (available() < level.length / 4)
+                grow();
+        }
+    }
+
+    private int available() {
+        return freeCount + level.length - used;
+    }
+
+    private void collect(int f, int g, int h) {
+        boolean[] marked = new boolean[used];
+        int[] stack = new int[used * 2 + 3];
+        int sp = 0;
+        for (int i = 2; i < used; i++)
+            if (refs[i] > 0)
+                stack[sp++] = i;
+        stack[sp++] = f;
+        stack[sp++] = g;
+        stack[sp++] = h;
+        while (sp > 0) {
+            int n = stack[--sp];
+            if (n <= ONE || marked[n])
+                continue;
+            marked[n] = true;
+            stack[sp++] = low[n];
+            stack[sp++] = high[n];
+        }
+
+        freeList = -1;
+        freeCount = 0;
+        for (int i = used - 1; i >= 2; i--)
+            if (!marked[i]) {
+                level[i] = FREE;
+                next[i] = freeList;
+                freeList = i;
+                freeCount++;
+            }
+        rehash();
+        Arrays.fill(cacheF, -1);
+        LOGGER.debug("bdd gc: " + freeCount + " of " + (used - 2) + " nodes reclaimed");
+    }
+
+    private void grow() {
+        int size = level.length * 2;
+        level = Arrays.copyOf(level, size);
+        low = Arrays.copyOf(low, size);
+        high = Arrays.copyOf(high, size);
+        next = Arrays.copyOf(next, size);
+        refs = Arrays.copyOf(refs, size);
+        buckets = new int[size];
+        rehash();
+        if (cacheF.length < MAX_CACHE_SIZE)
+            createCache(size);
+    }
+
+    private void createCache(int size) {
+        size = Math.min(size, MAX_CACHE_SIZE);
+        cacheF = new int[size];
+        cacheG = new int[size];
+        cacheH = new int[size];
+        cacheR = new int[size];
+        Arrays.fill(cacheF, -1);
+    }
+
+    private void rehash() {
+        Arrays.fill(buckets, -1);
+        final int mask = buckets.length - 1;
+        for (int i = 2; i < used; i++)
+            if (level[i] != FREE) {
+                int b = hash(level[i], low[i], high[i]) & mask;
+                next[i] = buckets[b];
+                buckets[b] = i;
+            }
+    }
+
+    private int ite(int f, int g, int h) {
+        if (f == ONE)
+            return g;
+        if (f == ZERO)
+            return h;
+        if (g == h)
+            return g;
+        if (g == ONE && h == ZERO)
+            return f;
+
+        int c = hash(f, g, h) & (cacheF.length - 1);
+        if (cacheF[c] == f && cacheG[c] == g && cacheH[c] == h)
+            return cacheR[c];
+
+        int v = Math.min(level[f], Math.min(level[g], level[h]));
+        int lo = ite(cofactor(f, v, false), cofactor(g, v, false), cofactor(h, v, false));
+        int hi = ite(cofactor(f, v, true), cofactor(g, v, true), cofactor(h, v, true));
+        int r = mk(v, lo, hi);
+
+        // the cache may have grown in the meantime
+        c = hash(f, g, h) & (cacheF.length - 1);
+        cacheF[c] = f;
+        cacheG[c] = g;
+        cacheH[c] = h;
+        cacheR[c] = r;
+        return r;
+    }
+
+    private int cofactor(int f, int var, boolean value) {
+        if (level[f] != var)
+            return f;
+        return value ? high[f] : low[f];
+    }
+
+    /**
+     * Returns the unique node with the given variable and children
+     */
+    private int mk(int var, int lo, int hi) {
+        if (lo == hi)
+            return lo;
+        for (int n = buckets[hash(var, lo, hi) & (buckets.length - 1)]; n >= 0; n = next[n])
+            if (level[n] == var && low[n] == lo && high[n] == hi)
+                return n;
+
+        int n;
+        if (freeList >= 0) {
+            n = freeList;
+            freeList = next[n];
+            freeCount--;
+        } else {
+            if (used == level.length)
+                grow();
+            n = used++;
+        }
+        level[n] = var;
+        low[n] = lo;
+        high[n] = hi;
+        refs[n] = 0;
+        int b = hash(var, lo, hi) & (buckets.length - 1);
+        next[n] = buckets[b];
+        buckets[b] = n;
+        return n;
+    }
+
+    private static int hash(int a, int b, int c) {
+        int h = a * 0x9E3779B1 + b * 0x85EBCA77 + c * 0xC2B2AE3D;
+        return h ^ (h >>> 15);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.bdd;
+
+import de.neemann.digital.analyse.expression.ExpressionException;
+import de.neemann.digital.analyse.quinemc.BoolTable;
+import de.neemann.digital.analyse.quinemc.ThreeStateValue;
+
+/**
+ * A bool table represented by two binary decision diagrams.
+ * One holds the rows which are one, the other one holds the don't cares.
+ * The memory required does not depend on the number of rows but on the structure of the function.
+ */
+public class BoolTableBDD implements BoolTable {
+    /**
+     * The maximum number of variables, limited by the int row index of a bool table
+     */
+    public static final int MAX_VARS = 30;
+
+    private final BDD bdd;
+    private final int ones;
+    private final int dontCares;
+
+    /**
+     * Creates a new instance without don't cares
+     *
+     * @param bdd  the bdd manager
+     * @param ones the function which is one in the rows which are one
+     */
+    public BoolTableBDD(BDD bdd, int ones) {
+        this(bdd, ones, BDD.ZERO);
+    }
+
+    /**
+     * Creates a new instance.
+     * If a row is one in both functions, the row is a don't care.
+     *
+     * @param bdd       the bdd manager
+     * @param ones      the function which is one in the rows which are one
+     * @param dontCares the function which is one in the rows which are don't care
+     */
+    public BoolTableBDD(BDD bdd, int ones, int dontCares) {
+        this.bdd = bdd;
+        this.ones = bdd.ref(ones);
+        this.dontCares = bdd.ref(dontCares);
+    }
+
+    /**
+     * Creates a bdd representation of the given table
+     *
+     * @param table the table
+     * @return the bdd representation
+     * @throws ExpressionException ExpressionException
+     */
+    public static BoolTableBDD create(BoolTable table) throws ExpressionException {
+        int vars = Integer.numberOfTrailingZeros(table.size());
+        BDD bdd = new BDD(vars);
+        int ones = bdd.ref(bdd.create(table, ThreeStateValue.one));
+        int dontCares = bdd.create(table, ThreeStateValue.dontCare);
+        BoolTableBDD b = new BoolTableBDD(bdd, ones, dontCares);
+        bdd.deref(ones);
+        return b;
+    }
+
+    @Override
+    public int size() {
+        return 1 << bdd.getVarCount();
+    }
+
+    @Override
+    public ThreeStateValue get(int i) {
+        if (bdd.evaluate(dontCares, i))
+            return ThreeStateValue.dontCare;
+        return ThreeStateValue.value(bdd.evaluate(ones, i));
+    }
+
+    /**
+     * @return the bdd manager
+     */
+    public BDD getBDD() {
+        return bdd;
+    }
+
+    /**
+     * @return the function which is one in the rows which are one
+     */
+    public int getOnes() {
+        return ones;
+    }
+
+    /**
+     * @return the function which is one in the rows which are don't care
+     */
+    public int getDontCares() {
+        return dontCares;
+    }
+
+    /**
+     * Checks if both tables contain the same values.
+     * Both tables have to use the same bdd manager.
+     *
+     * @param other the other table
+     * @return true if both tables are equal
+     */
+    public boolean isEquivalent(BoolTableBDD other) {
+        if (bdd != other.bdd)
+            throw new IllegalArgumentException("tables use different bdd managers");
+        if (dontCares != other.dontCares)
+            return false;
+        // ones in a don't care row are not relevant
+        int notDc = bdd.ref(bdd.not(dontCares));
+        int a = bdd.ref(bdd.and(ones, notDc));
+        boolean eq = a == bdd.and(other.ones, notDc);
+        bdd.deref(a);
+        bdd.deref(notDc);
+        return eq;
+    }
+}
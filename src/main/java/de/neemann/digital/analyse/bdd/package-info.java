@@ -0,0 +1,10 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+
+/**
+ * Reduced ordered binary decision diagrams
+ */
+package de.neemann.digital.analyse.bdd;
@@ -0,0 +1,517 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.espresso;
+
+import de.neemann.digital.analyse.expression.Constant;
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.ExpressionException;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.quinemc.BoolTable;
+import de.neemann.digital.analyse.quinemc.QuineMcCluskey;
+import de.neemann.digital.analyse.quinemc.TableRow;
+import de.neemann.digital.analyse.quinemc.ThreeStateValue;
+import de.neemann.digital.lang.Lang;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Heuristic minimization of a truth table in the style of the Espresso algorithm.
+ * <p>
+ * Unlike the algorithm of Quine and McCluskey, not all primes are created. Instead the cover
+ * of the table is improved by the expand, irredundant and reduce steps until the number of
+ * cubes and literals does not decrease anymore. The result is a prime and irredundant cover,
+ * but not necessarily a minimal one.
+ * <p>
+ * A cube is packed into a single <code>long</code>: The upper 32 bits hold the mask of the
+ * variables present in the cube, the lower 32 bits hold the values of this variables. Bit n of
+ * both words belongs to bit n of the row index of the truth table.
+ */
+public class Espresso {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Espresso.class);
+    private static final long[] EMPTY = new long[0];
+    private static final long UNIVERSE = 0;
+
+    private final List<Variable> variables;
+    private final int vars;
+    private long[] onSet;
+    private long[] dcSet;
+    private long[] cover;
+
+    /**
+     * Creates a new instance.
+     * At most 30 variables are supported.
+     *
+     * @param variables the variables to use
+     */
+    public Espresso(List<Variable> variables) {
+        this.variables = variables;
+        this.vars = variables.size();
+        onSet = EMPTY;
+        dcSet = EMPTY;
+        cover = EMPTY;
+    }
+
+    /**
+     * Fills the instance with the given values
+     *
+     * @param values the values
+     * @return this for chained calls
+     * @throws ExpressionException ExpressionException
+     */
+    public Espresso fillTableWith(BoolTable values) throws ExpressionException {
+        int n = 1 << vars;
+        if (n != values.size())
+            throw new ExpressionException(Lang.get("err_exact_N0_valuesNecessaryNot_N1", n, values.size()));
+        CubeList on = new CubeList();
+        CubeList dc = new CubeList();
+        final int full = n - 1;
+        for (int i = 0; i < n; i++) {
+            ThreeStateValue value = values.get(i);
+            if (value.equals(ThreeStateValue.one))
+                on.add(cube(full, i));
+            else if (value.equals(ThreeStateValue.dontCare))
+                dc.add(cube(full, i));
+        }
+        onSet = merge(on.toArray());
+        dcSet = merge(dc.toArray());
+        return this;
+    }
+
+    /**
+     * Minimizes the table
+     *
+     * @return this for chained calls
+     */
+    public Espresso simplify() {
+        if (onSet.length == 0) {
+            cover = EMPTY;
+            return this;
+        }
+
+        long[] offSet = complement(concat(onSet, dcSet));
+        LOGGER.debug("espresso on " + onSet.length + ", dc " + dcSet.length + ", off " + offSet.length);
+        if (offSet.length == 0) {
+            cover = new long[]{UNIVERSE};
+            return this;
+        }
+
+        long[] f = irredundant(expand(onSet, offSet));
+        long cost = cost(f);
+        while (true) {
+            long[] g = irredundant(expand(reduce(f), offSet));
+            long c = cost(g);
+            LOGGER.debug("espresso cubes " + g.length);
+            if (c >= cost)
+                break;
+            f = g;
+            cost = c;
+        }
+        cover = f;
+        return this;
+    }
+
+    /**
+     * Makes every cube as large as possible without intersecting the off-set.
+     * Cubes contained in an already expanded cube are dropped.
+     */
+    private long[] expand(long[] f, long[] offSet) {
+        // a raised literal is the better the more cubes have the opposite value
+        int[] count0 = new int[vars];
+        int[] count1 = new int[vars];
+        for (long c : f)
+            countLiterals(c, count0, count1);
+
+        long[] sorted = sortByLiterals(f);
+        boolean[] covered = new boolean[sorted.length];
+        CubeList result = new CubeList();
+        for (int i = 0; i < sorted.length; i++) {
+            if (covered[i])
+                continue;
+            long c = expandCube(sorted[i], offSet, count0, count1);
+            result.add(c);
+            for (int j = i + 1; j < sorted.length; j++)
+                if (!covered[j] && contains(c, sorted[j]))
+                    covered[j] = true;
+        }
+        return result.toArray();
+    }
+
+    private long expandCube(long c, long[] offSet, int[] count0, int[] count1) {
+        int care = care(c);
+        int[] bits = new int[Integer.bitCount(care)];
+        int[] weight = new int[bits.length];
+        int n = 0;
+        while (care != 0) {
+            int bit = Integer.numberOfTrailingZeros(care);
+            care &= care - 1;
+            int w = (value(c) & (1 << bit)) == 0 ? count1[bit] : count0[bit];
+            int j = n++;
+            while (j > 0 && weight[j - 1] < w) {
+                bits[j] = bits[j - 1];
+                weight[j] = weight[j - 1];
+                j--;
+            }
+            bits[j] = bit;
+            weight[j] = w;
+        }
+
+        for (int bit : bits) {
+            int mask = ~(1 << bit);
+            long raised = cube(care(c) & mask, value(c));
+            if (!intersectsAny(raised, offSet))
+                c = raised;
+        }
+        return c;
+    }
+
+    /**
+     * Removes all cubes which are covered by the remaining cubes and the don't cares.
+     * The smallest cubes are tried first.
+     */
+    private long[] irredundant(long[] f) {
+        long[] sorted = sortByLiterals(f);
+        boolean[] removed = new boolean[sorted.length];
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            long c = sorted[i];
+            if (tautology(cofactor(others(sorted, removed, i), c), vars - Integer.bitCount(care(c))))
+                removed[i] = true;
+        }
+        CubeList result = new CubeList();
+        for (int i = 0; i < sorted.length; i++)
+            if (!removed[i])
+                result.add(sorted[i]);
+        return result.toArray();
+    }
+
+    /**
+     * Makes every cube as small as possible without losing the coverage of the on-set.
+     * The largest cubes are reduced first.
+     */
+    private long[] reduce(long[] f) {
+        long[] sorted = sortByLiterals(f);
+        boolean[] removed = new boolean[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            long c = sorted[i];
+            long[] g = cofactor(others(sorted, removed, i), c);
+            if (tautology(g, vars - Integer.bitCount(care(c))))
+                removed[i] = true;
+            else {
+                // the part of c not covered by the other cubes
+                long s = supercube(complement(g));
+                sorted[i] = cube(care(c) | care(s), value(c) | value(s));
+            }
+        }
+        CubeList result = new CubeList();
+        for (int i = 0; i < sorted.length; i++)
+            if (!removed[i])
+                result.add(sorted[i]);
+        return result.toArray();
+    }
+
+    private long[] others(long[] f, boolean[] removed, int skip) {
+        CubeList l = new CubeList();
+        for (int j = 0; j < f.length; j++)
+            if (j != skip && !removed[j])
+                l.add(f[j]);
+        for (long d : dcSet)
+            l.add(d);
+        return l.toArray();
+    }
+
+    /**
+     * Checks if the given cubes cover all minterms.
+     * The unate reduction is used: A unate cover is a tautology only if it contains the universal cube.
+     *
+     * @param f    the cubes
+     * @param free the number of variables not removed by cofactors
+     */
+    private static boolean tautology(long[] f, int free) {
+        if (f.length == 0)
+            return false;
+        long minterms = 0;
+        for (long c : f) {
+            if (care(c) == 0)
+                return true;
+            minterms += 1L << (free - Integer.bitCount(care(c)));
+        }
+        if (minterms < 1L << free)
+            return false;
+
+        int bit = binateVariable(f);
+        if (bit < 0)
+            return false;
+        return tautology(cofactor(f, bit, 0), free - 1)
+                && tautology(cofactor(f, bit, 1 << bit), free - 1);
+    }
+
+    /**
+     * Creates the complement of the given cubes by a Shannon expansion at the most binate variable.
+     *
+     * @param f the cubes
+     */
+    private static long[] complement(long[] f) {
+        if (f.length == 0)
+            return new long[]{UNIVERSE};
+        for (long c : f)
+            if (care(c) == 0)
+                return EMPTY;
+        if (f.length == 1) {
+            // de Morgan
+            int care = care(f[0]);
+            long[] r = new long[Integer.bitCount(care)];
+            int n = 0;
+            while (care != 0) {
+                int bit = care & -care;
+                care ^= bit;
+                r[n++] = cube(bit, ~value(f[0]));
+            }
+            return r;
+        }
+
+        int bit = binateVariable(f);
+        if (bit < 0)
+            bit = mostFrequentVariable(f);
+
+        long[] c0 = complement(cofactor(f, bit, 0));
+        long[] c1 = complement(cofactor(f, bit, 1 << bit));
+        Arrays.sort(c0);
+        Arrays.sort(c1);
+
+        // cubes present in both halves don't depend on the split variable
+        CubeList r = new CubeList();
+        int mask = 1 << bit;
+        int i = 0;
+        int j = 0;
+        while (i < c0.length || j < c1.length) {
+            if (j == c1.length || (i < c0.length && c0[i] < c1[j]))
+                r.add(cube(care(c0[i]) | mask, value(c0[i++])));
+            else if (i == c0.length || c1[j] < c0[i])
+                r.add(cube(care(c1[j]) | mask, value(c1[j++]) | mask));
+            else {
+                r.add(c0[i++]);
+                j++;
+            }
+        }
+        return r.toArray();
+    }
+
+    /**
+     * @return the variable present in most cubes with both values, -1 if the cubes are unate
+     */
+    private static int binateVariable(long[] f) {
+        int[] count0 = new int[32];
+        int[] count1 = new int[32];
+        for (long c : f)
+            countLiterals(c, count0, count1);
+        int best = -1;
+        int bestCount = 0;
+        for (int b = 0; b < 32; b++)
+            if (count0[b] > 0 && count1[b] > 0 && count0[b] + count1[b] > bestCount) {
+                best = b;
+                bestCount = count0[b] + count1[b];
+            }
+        return best;
+    }
+
+    private static int mostFrequentVariable(long[] f) {
+        int[] count = new int[32];
+        for (long c : f) {
+            int care = care(c);
+            while (care != 0) {
+                count[Integer.numberOfTrailingZeros(care)]++;
+                care &= care - 1;
+            }
+        }
+        int best = 0;
+        for (int b = 1; b < 32; b++)
+            if (count[b] > count[best])
+                best = b;
+        return best;
+    }
+
+    private static void countLiterals(long c, int[] count0, int[] count1) {
+        int care = care(c);
+        while (care != 0) {
+            int bit = Integer.numberOfTrailingZeros(care);
+            care &= care - 1;
+            if ((value(c) & (1 << bit)) == 0)
+                count0[bit]++;
+            else
+                count1[bit]++;
+        }
+    }
+
+    /**
+     * Creates the cofactor of the given cubes with respect to a single variable.
+     */
+    private static long[] cofactor(long[] f, int bit, int value) {
+        int mask = 1 << bit;
+        CubeList r = new CubeList();
+        for (long c : f)
+            if ((care(c) & mask) == 0 || (value(c) & mask) == value)
+                r.add(cube(care(c) & ~mask, value(c)));
+        return r.toArray();
+    }
+
+    /**
+     * Creates the cofactor of the given cubes with respect to the cube p.
+     */
+    private static long[] cofactor(long[] f, long p) {
+        CubeList r = new CubeList();
+        for (long c : f)
+            if (intersects(c, p))
+                r.add(cube(care(c) & ~care(p), value(c)));
+        return r.toArray();
+    }
+
+    /**
+     * @return the smallest cube containing all given cubes
+     */
+    private static long supercube(long[] f) {
+        int care = -1;
+        int diff = 0;
+        for (long c : f) {
+            care &= care(c);
+            diff |= value(c) ^ value(f[0]);
+        }
+        return cube(care & ~diff, value(f[0]));
+    }
+
+    /**
+     * Merges cubes which differ in a single variable as long as possible.
+     * The resulting cubes cover exactly the same minterms, but are not necessarily primes.
+     */
+    private static long[] merge(long[] f) {
+        boolean merged = true;
+        while (merged && f.length > 1) {
+            merged = false;
+            Arrays.sort(f);
+            boolean[] used = new boolean[f.length];
+            CubeList r = new CubeList();
+            for (int i = 0; i < f.length; i++) {
+                if (used[i])
+                    continue;
+                long c = f[i];
+                int free = care(c) & ~value(c);
+                while (free != 0) {
+                    int bit = free & -free;
+                    free ^= bit;
+                    int j = Arrays.binarySearch(f, i + 1, f.length, c | bit);
+                    if (j >= 0 && !used[j]) {
+                        used[j] = true;
+                        c = cube(care(c) & ~bit, value(c));
+                        merged = true;
+                        break;
+                    }
+                }
+                r.add(c);
+            }
+            f = r.toArray();
+        }
+        return f;
+    }
+
+    private static long[] sortByLiterals(long[] f) {
+        long[] sorted = new long[f.length];
+        int n = 0;
+        for (int lit = 0; lit <= 32 && n < f.length; lit++)
+            for (long c : f)
+                if (Integer.bitCount(care(c)) == lit)
+                    sorted[n++] = c;
+        return sorted;
+    }
+
+    private static long cost(long[] f) {
+        long literals = 0;
+        for (long c : f)
+            literals += Integer.bitCount(care(c));
+        return ((long) f.length << 32) + literals;
+    }
+
+    private static long[] concat(long[] a, long[] b) {
+        long[] r = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, r, a.length, b.length);
+        return r;
+    }
+
+    private static boolean intersectsAny(long c, long[] f) {
+        for (long d : f)
+            if (intersects(c, d))
+                return true;
+        return false;
+    }
+
+    private static boolean intersects(long a, long b) {
+        return ((value(a) ^ value(b)) & care(a) & care(b)) == 0;
+    }
+
+    private static boolean contains(long a, long b) {
+        return (care(a) & ~care(b)) == 0 && ((value(a) ^ value(b)) & care(a)) == 0;
+    }
+
+    private static long cube(int care, int value) {
+        return ((long) care << 32) | (value & care & 0xFFFFFFFFL);
+    }
+
+    private static int care(long c) {
+        return (int) (c >>> 32);
+    }
+
+    private static int value(long c) {
+        return (int) c;
+    }
+
+    private TableRow createRow(long c) {
+        int care = care(c);
+        TableRow row = new TableRow(vars, value(c));
+        // the first variable is the most significant bit of the row index
+        for (int b = 0; b < vars; b++)
+            if ((care & (1 << b)) == 0)
+                row.setToOptimized(vars - 1 - b);
+        return row;
+    }
+
+    /**
+     * @return the cubes of the minimized cover
+     */
+    public ArrayList<TableRow> getCover() {
+        ArrayList<TableRow> rows = new ArrayList<>();
+        for (long c : cover)
+            rows.add(createRow(c));
+        return rows;
+    }
+
+    /**
+     * @return the simplified expression which represent this table
+     */
+    public Expression getExpression() {
+        if (cover.length == 0)
+            return Constant.ZERO;
+        return QuineMcCluskey.addAnd(null, getCover(), variables);
+    }
+
+    /**
+     * Growable list of packed cubes
+     */
+    private static final class CubeList {
+        private long[] data = new long[16];
+        private int size;
+
+        private void add(long c) {
+            if (size == data.length)
+                data = Arrays.copyOf(data, size * 2);
+            data[size++] = c;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
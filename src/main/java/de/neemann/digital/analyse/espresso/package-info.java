@@ -0,0 +1,10 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+
+/**
+ * Implementation of the Espresso heuristic two level minimization
+ */
+package de.neemann.digital.analyse.espresso;
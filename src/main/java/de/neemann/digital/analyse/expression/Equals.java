@@ -5,12 +5,15 @@
  */
 package de.neemann.digital.analyse.expression;
 
+import de.neemann.digital.analyse.bdd.BDD;
+
 import java.util.ArrayList;
 import java.util.Collection;
 
 /**
  * Checks if two expressions are equal.
- * Is an expensive operation with O(2^numVars). Use with care!
+ * Both expressions are converted to binary decision diagrams which are equal
+ * if and only if the expressions are equal.
  */
 public class Equals {
 
@@ -43,14 +46,9 @@ public class Equals {
         ArrayList<Variable> vars = new ArrayList<>(variables.size());
         vars.addAll(variables);
 
-        ContextFiller cf = new ContextFiller(vars);
-        int count = 1 << vars.size();
-        for (int i = 0; i < count; i++) {
-            cf.setContextTo(i);
-            if (a.calculate(cf) != b.calculate(cf))
-                return false;
-        }
-        return true;
+        BDD bdd = new BDD(vars.size());
+        int fa = bdd.ref(bdd.create(a, vars));
+        return fa == bdd.create(b, vars);
     }
 
 
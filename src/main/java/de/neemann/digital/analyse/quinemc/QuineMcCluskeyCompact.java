@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc;
+
+import de.neemann.digital.analyse.expression.Constant;
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.ExpressionException;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.quinemc.primeselector.PrimeSelector;
+import de.neemann.digital.lang.Lang;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The algorithm of Quine and McCluskey working on primitive data types.
+ * <p>
+ * A term is packed into a single <code>long</code>: The upper 32 bits hold the mask of the
+ * optimized variables, the lower 32 bits hold the values of the remaining variables. Bit n of
+ * both words belongs to bit n of the row index of the truth table. The terms of a step are kept
+ * in a sorted array, so two terms which can be combined are found by a binary search, and
+ * duplicates are removed by sorting. The minterms covered by a term are not tracked during the
+ * simplification steps, they are calculated for the primes only.
+ * <p>
+ * The primes are reduced by the same dominance rules as used by {@link QuineMcCluskey} before
+ * the remaining primes are passed to the given {@link PrimeSelector}.
+ */
+public class QuineMcCluskeyCompact {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuineMcCluskeyCompact.class);
+
+    private final List<Variable> variables;
+    private final int[] minterms;
+    private int mintermCount;
+    private long[] terms;
+    private int termCount;
+    private ArrayList<TableRow> primes;
+
+    /**
+     * Creates a new instance.
+     * At most 30 variables are supported.
+     *
+     * @param variables the variables to use
+     */
+    public QuineMcCluskeyCompact(List<Variable> variables) {
+        this.variables = variables;
+        int n = 1 << variables.size();
+        minterms = new int[n];
+        terms = new long[n];
+        primes = new ArrayList<>();
+    }
+
+    /**
+     * Fills the instance with the given values
+     *
+     * @param values the values
+     * @return this for chained calls
+     * @throws ExpressionException ExpressionException
+     */
+    public QuineMcCluskeyCompact fillTableWith(BoolTable values) throws ExpressionException {
+        int n = 1 << variables.size();
+        if (n != values.size())
+            throw new ExpressionException(Lang.get("err_exact_N0_valuesNecessaryNot_N1", n, values.size()));
+        mintermCount = 0;
+        termCount = 0;
+        for (int i = 0; i < n; i++) {
+            ThreeStateValue value = values.get(i);
+            if (!value.equals(ThreeStateValue.zero)) {
+                terms[termCount++] = i;
+                if (!value.equals(ThreeStateValue.dontCare))
+                    minterms[mintermCount++] = i;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Simplifies the table with the given {@link PrimeSelector}
+     *
+     * @param ps the prime selector
+     * @return this for chained calls
+     */
+    public QuineMcCluskeyCompact simplify(PrimeSelector ps) {
+        TermList primeTerms = new TermList();
+        while (termCount > 0) {
+            LOGGER.debug("QMC terms " + termCount);
+            simplifyStep(primeTerms);
+        }
+        simplifyPrimes(primeTerms, ps);
+        return this;
+    }
+
+    /**
+     * Combines all terms which differ in a single variable.
+     * The terms which can not be combined are primes.
+     */
+    private void simplifyStep(TermList primeTerms) {
+        final int full = (1 << variables.size()) - 1;
+        long[] used = new long[(termCount + 63) >>> 6];
+        TermList newTerms = new TermList();
+        for (int i = 0; i < termCount; i++) {
+            long t = terms[i];
+            int mask = (int) (t >>> 32);
+            int free = ~mask & ~(int) t & full;
+            while (free != 0) {
+                int bit = free & -free;
+                free ^= bit;
+                int j = Arrays.binarySearch(terms, i + 1, termCount, t | bit);
+                if (j >= 0) {
+                    used[i >>> 6] |= 1L << i;
+                    used[j >>> 6] |= 1L << j;
+                    newTerms.add(t | ((long) bit << 32));
+                }
+            }
+        }
+
+        for (int i = 0; i < termCount; i++)
+            if ((used[i >>> 6] & (1L << i)) == 0)
+                primeTerms.add(terms[i]);
+
+        terms = newTerms.data;
+        termCount = newTerms.sortUnique();
+    }
+
+    /**
+     * Removes the primes and minterms which are dominated by others and selects the
+     * final primes from the remaining ones.
+     */
+    private void simplifyPrimes(TermList primeTerms, PrimeSelector ps) {
+        int[] column = new int[1 << variables.size()];
+        Arrays.fill(column, -1);
+        for (int c = 0; c < mintermCount; c++)
+            column[minterms[c]] = c;
+
+        // calculate the minterms covered by the primes, primes covering only don't cares are dropped
+        int[][] cover = new int[primeTerms.size][];
+        int primeCount = 0;
+        long[] primeTerm = new long[primeTerms.size];
+        for (int p = 0; p < primeTerms.size; p++) {
+            int[] cols = coveredColumns(primeTerms.data[p], column);
+            if (cols.length > 0) {
+                primeTerm[primeCount] = primeTerms.data[p];
+                cover[primeCount++] = cols;
+            }
+        }
+
+        LOGGER.debug("initial primes " + primeCount);
+
+        boolean[] primeRemoved = new boolean[primeCount];
+        boolean[] colRemoved = new boolean[mintermCount];
+        while (true) {
+            // find primes to delete
+            int[][] colPrimes = createColumnPrimes(cover, primeRemoved);
+            boolean[] rowsToDelete = new boolean[primeCount];
+            boolean rowDeleted = false;
+            int nonEmpty = -1;
+            for (int r1 = 0; r1 < primeCount; r1++) {
+                if (primeRemoved[r1])
+                    continue;
+                if (cover[r1].length > 0 && nonEmpty < 0)
+                    nonEmpty = r1;
+                if (rowsToDelete[r1])
+                    continue;
+                for (int c : cover[r1])
+                    for (int r2 : colPrimes[c])
+                        if (r2 != r1 && !rowsToDelete[r2] && isSubset(cover[r2], cover[r1])) {
+                            rowsToDelete[r2] = true;
+                            rowDeleted = true;
+                        }
+            }
+            // primes covering nothing are contained in every other prime
+            if (nonEmpty >= 0)
+                for (int r = 0; r < primeCount; r++)
+                    if (!primeRemoved[r] && cover[r].length == 0 && !rowsToDelete[r]) {
+                        rowsToDelete[r] = true;
+                        rowDeleted = true;
+                    }
+            for (int r = 0; r < primeCount; r++)
+                if (rowsToDelete[r])
+                    primeRemoved[r] = true;
+
+            // find the columns to delete
+            colPrimes = createColumnPrimes(cover, primeRemoved);
+            boolean[] colsToDelete = new boolean[mintermCount];
+            boolean colDeleted = false;
+            for (int c1 = 0; c1 < mintermCount; c1++) {
+                if (colRemoved[c1] || colsToDelete[c1])
+                    continue;
+                // every column covered by all primes covering c1 is dominated by c1
+                int[] dominated = null;
+                for (int r : colPrimes[c1])
+                    dominated = dominated == null ? cover[r] : intersect(dominated, cover[r]);
+                if (dominated == null)
+                    dominated = remainingColumns(colRemoved);
+                for (int c2 : dominated)
+                    if (c2 != c1 && !colsToDelete[c2]) {
+                        colsToDelete[c2] = true;
+                        colDeleted = true;
+                    }
+            }
+
+            if (!rowDeleted && !colDeleted)
+                break;
+
+            for (int c = 0; c < mintermCount; c++)
+                if (colsToDelete[c])
+                    colRemoved[c] = true;
+            for (int r = 0; r < primeCount; r++)
+                if (!primeRemoved[r])
+                    cover[r] = removeColumns(cover[r], colsToDelete);
+        }
+
+        primes = new ArrayList<>();
+        for (int r = 0; r < primeCount; r++)
+            if (!primeRemoved[r])
+                primes.add(createRow(primeTerm[r], cover[r]));
+
+        LOGGER.debug("residual primes " + primes.size());
+
+        TreeSet<Integer> columns = new TreeSet<>();
+        for (int c = 0; c < mintermCount; c++)
+            if (!colRemoved[c])
+                columns.add(c);
+
+        if (ps != null && !columns.isEmpty()) {
+            ArrayList<TableRow> availPrimes = primes;
+            primes = new ArrayList<>();
+            ps.select(primes, availPrimes, columns);
+            LOGGER.debug("final primes " + primes.size());
+        }
+    }
+
+    private int[] coveredColumns(long term, int[] column) {
+        int mask = (int) (term >>> 32);
+        int value = (int) term;
+        int[] cols = new int[1 << Integer.bitCount(mask)];
+        int n = 0;
+        // enumerate all subsets of the mask
+        int sub = 0;
+        do {
+            int c = column[value | sub];
+            if (c >= 0)
+                cols[n++] = c;
+            sub = (sub - mask) & mask;
+        } while (sub != 0);
+        cols = Arrays.copyOf(cols, n);
+        Arrays.sort(cols);
+        return cols;
+    }
+
+    private int[][] createColumnPrimes(int[][] cover, boolean[] primeRemoved) {
+        int[] count = new int[mintermCount];
+        for (int r = 0; r < primeRemoved.length; r++)
+            if (!primeRemoved[r])
+                for (int c : cover[r])
+                    count[c]++;
+        int[][] colPrimes = new int[mintermCount][];
+        for (int c = 0; c < mintermCount; c++)
+            colPrimes[c] = new int[count[c]];
+        Arrays.fill(count, 0);
+        for (int r = 0; r < primeRemoved.length; r++)
+            if (!primeRemoved[r])
+                for (int c : cover[r])
+                    colPrimes[c][count[c]++] = r;
+        return colPrimes;
+    }
+
+    private int[] remainingColumns(boolean[] colRemoved) {
+        int[] cols = new int[mintermCount];
+        int n = 0;
+        for (int c = 0; c < mintermCount; c++)
+            if (!colRemoved[c])
+                cols[n++] = c;
+        return Arrays.copyOf(cols, n);
+    }
+
+    private static boolean isSubset(int[] a, int[] b) {
+        if (a.length > b.length)
+            return false;
+        int j = 0;
+        for (int x : a) {
+            while (j < b.length && b[j] < x)
+                j++;
+            if (j == b.length || b[j] != x)
+                return false;
+        }
+        return true;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] r = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j])
+                i++;
+            else if (a[i] > b[j])
+                j++;
+            else {
+                r[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == r.length ? r : Arrays.copyOf(r, n);
+    }
+
+    private static int[] removeColumns(int[] cols, boolean[] toDelete) {
+        int n = 0;
+        for (int c : cols)
+            if (!toDelete[c])
+                n++;
+        if (n == cols.length)
+            return cols;
+        int[] r = new int[n];
+        n = 0;
+        for (int c : cols)
+            if (!toDelete[c])
+                r[n++] = c;
+        return r;
+    }
+
+    private TableRow createRow(long term, int[] cols) {
+        int n = variables.size();
+        int mask = (int) (term >>> 32);
+        TableRow row = new TableRow(n, (int) term);
+        // the first variable is the most significant bit of the row index
+        for (int b = 0; b < n; b++)
+            if ((mask & (1 << b)) != 0)
+                row.setToOptimized(n - 1 - b);
+        for (int c : cols)
+            row.addSource(c);
+        return row;
+    }
+
+    /**
+     * @return the final primes
+     */
+    public ArrayList<TableRow> getPrimes() {
+        return primes;
+    }
+
+    /**
+     * @return the simplified expression which represent this table
+     */
+    public Expression getExpression() {
+        if (primes.isEmpty())
+            return Constant.ZERO;
+        return QuineMcCluskey.addAnd(null, primes, variables);
+    }
+
+    /**
+     * Growable list of packed terms
+     */
+    private static final class TermList {
+        private long[] data = new long[64];
+        private int size;
+
+        private void add(long term) {
+            if (size == data.length)
+                data = Arrays.copyOf(data, size * 2);
+            data[size++] = term;
+        }
+
+        /**
+         * Sorts the terms and removes duplicates
+         *
+         * @return the number of remaining terms
+         */
+        private int sortUnique() {
+            Arrays.sort(data, 0, size);
+            int n = 0;
+            for (int i = 0; i < size; i++)
+                if (n == 0 || data[n - 1] != data[i])
+                    data[n++] = data[i];
+            size = n;
+            return n;
+        }
+    }
+}
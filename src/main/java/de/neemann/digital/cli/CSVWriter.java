@@ -26,12 +26,24 @@ public class CSVWriter {
     }
 
     /**
-     * Writes the {@link TableModel} to the given writer
+     * Writes the {@link TableModel} to the given writer and closes the writer
      *
      * @param w the writer to use
      * @throws IOException IOException
      */
     public void writeTo(BufferedWriter w) throws IOException {
+        write(w);
+        w.close();
+    }
+
+    /**
+     * Writes the {@link TableModel} to the given writer.
+     * The writer is not closed, so further tables can be appended.
+     *
+     * @param w the writer to use
+     * @throws IOException IOException
+     */
+    public void write(BufferedWriter w) throws IOException {
         for (int c = 0; c < tableModel.getColumnCount(); c++)
             writeCell(w, tableModel.getColumnName(c));
         newLine(w);
@@ -41,7 +53,6 @@ public class CSVWriter {
                 writeCell(w, tableModel.getValueAt(r, c));
             newLine(w);
         }
-        w.close();
     }
 
     private void newLine(BufferedWriter w) throws IOException {
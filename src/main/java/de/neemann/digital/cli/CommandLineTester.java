@@ -17,26 +17,62 @@ import de.neemann.digital.testing.TestResult;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Tester used from the command line
+ * Tester used from the command line.
+ * If a folder is given, all circuits in this folder and its sub folders are tested.
+ * The test cases can be executed in parallel. In this case each test case is executed
+ * on its own copy of the circuit and the element library, and the results are written
+ * in the order the test cases complete.
  */
 public class CommandLineTester {
 
-    private final CircuitLoader circuitLoader;
-    private List<Circuit.TestCase> testCases;
-    private int testsPassed;
+    private final ArrayList<File> files;
+    private final boolean folder;
+    private CircuitLoader circuitLoader;
+    private File testCasesFile;
+    private final AtomicInteger testsPassed = new AtomicInteger();
+    private final AtomicInteger errorCount = new AtomicInteger();
     private boolean allowMissingInputs;
+    private int parallel = 1;
+    private boolean jsonLines;
+    private PrintStream out;
 
     /**
      * Creates a new instance.
      *
-     * @param file the file to test
+     * @param file the file or folder to test
      * @throws IOException IOException
      */
     public CommandLineTester(File file) throws IOException {
-        circuitLoader = new CircuitLoader(file);
+        files = new ArrayList<>();
+        folder = file.isDirectory();
+        if (folder)
+            scan(file);
+        else {
+            circuitLoader = new CircuitLoader(file);
+            files.add(file);
+        }
+    }
+
+    private void scan(File dir) {
+        File[] fileList = dir.listFiles();
+        if (fileList != null) {
+            Arrays.sort(fileList, Comparator.comparing(f -> f.getPath().toLowerCase()));
+            for (File f : fileList)
+                if (f.isDirectory())
+                    scan(f);
+                else if (f.isFile() && f.getName().endsWith(".dig"))
+                    files.add(f);
+        }
     }
 
     /**
@@ -47,8 +83,31 @@ public class CommandLineTester {
      * @throws IOException IOException
      */
     public CommandLineTester useTestCasesFrom(File file) throws IOException {
-        Circuit c = Circuit.loadCircuit(file, circuitLoader.getShapeFactory());
-        testCases = c.getTestCases();
+        // load the file once to report errors early
+        new CircuitLoader(file);
+        testCasesFile = file;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads used to execute the test cases.
+     *
+     * @param parallel the number of threads, values smaller than two disable the parallel execution
+     * @return this for chained calls
+     */
+    public CommandLineTester setParallel(int parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * If set, every result is written as a JSON object in a single line.
+     *
+     * @param jsonLines true if JSON lines are to be written
+     * @return this for chained calls
+     */
+    public CommandLineTester setJsonLines(boolean jsonLines) {
+        this.jsonLines = jsonLines;
         return this;
     }
 
@@ -59,55 +118,183 @@ public class CommandLineTester {
      * @return the number of failed test cases
      */
     public int execute(PrintStream out) {
-        if (testCases == null)
-            testCases = circuitLoader.getCircuit().getTestCases();
+        this.out = out;
+        if (parallel > 1) {
+            ForkJoinPool pool = new ForkJoinPool(parallel);
+            try {
+                ArrayList<RecursiveAction> tasks = new ArrayList<>();
+                for (File f : files)
+                    tasks.add(action(() -> testFile(f, true)));
+                for (RecursiveAction t : tasks)
+                    pool.execute(t);
+                for (RecursiveAction t : tasks)
+                    t.join();
+            } finally {
+                pool.shutdown();
+            }
+        } else
+            for (File f : files)
+                testFile(f, false);
+        return errorCount.get();
+    }
 
-        int errorCount = 0;
+    private void testFile(File file, boolean fork) {
+        CircuitLoader loader;
+        List<Circuit.TestCase> testCases;
+        try {
+            loader = getLoader(file);
+            testCases = getTestCases(loader);
+        } catch (IOException e) {
+            report(file, "", "error", e.getMessage());
+            return;
+        }
 
         if (testCases.isEmpty()) {
-            out.println("no test cases given");
-            errorCount++;
+            if (!folder)
+                report(file, "", "error", "no test cases given");
+            return;
+        }
+
+        if (fork && testCases.size() > 1) {
+            // every further test case gets its own circuit and library to avoid shared state
+            ArrayList<RecursiveAction> tasks = new ArrayList<>();
+            tasks.add(action(() -> testCase(file, loader, testCases.get(0))));
+            for (int i = 1; i < testCases.size(); i++) {
+                final int index = i;
+                tasks.add(action(() -> testCase(file, index)));
+            }
+            ForkJoinTask.invokeAll(tasks);
+        } else
+            for (Circuit.TestCase t : testCases)
+                testCase(file, loader, t);
+    }
+
+    private CircuitLoader getLoader(File file) throws IOException {
+        if (!folder && circuitLoader != null) {
+            // the loader created by the constructor is used only once
+            CircuitLoader l = circuitLoader;
+            circuitLoader = null;
+            return l;
+        }
+        return new CircuitLoader(file);
+    }
+
+    private List<Circuit.TestCase> getTestCases(CircuitLoader loader) throws IOException {
+        if (testCasesFile == null)
+            return loader.getCircuit().getTestCases();
+        return Circuit.loadCircuit(testCasesFile, loader.getShapeFactory()).getTestCases();
+    }
+
+    private void testCase(File file, int index) {
+        try {
+            CircuitLoader loader = new CircuitLoader(file);
+            testCase(file, loader, getTestCases(loader).get(index));
+        } catch (IOException e) {
+            report(file, "", "error", e.getMessage());
+        }
+    }
+
+    private void testCase(File file, CircuitLoader loader, Circuit.TestCase t) {
+        String label = t.getLabel();
+        if (label.isEmpty())
+            label = "unnamed";
+
+        try {
+            ErrorDetector errorDetector = new ErrorDetector();
+            TestResult tr = new TestExecutor(t, loader.getCircuit(), loader.getLibrary())
+                    .setAllowMissingInputs(allowMissingInputs)
+                    .setStreaming(true)
+                    .addObserver(errorDetector)
+                    .execute();
+
+            if (tr.allPassed())
+                report(file, label, "passed", null);
+            else if (tr.isErrorOccurred())
+                report(file, label, "failed", "failed due to an error");
+            else
+                report(file, label, "failed", "failed (" + tr.failedPercent() + "%)");
+            errorDetector.check();
+
+        } catch (Exception e) {
+            report(file, label, "error", e.getMessage());
+        }
+    }
+
+    private void report(File file, String label, String status, String message) {
+        if (status.equals("passed"))
+            testsPassed.incrementAndGet();
+        else
+            errorCount.incrementAndGet();
+
+        String line;
+        if (jsonLines) {
+            StringBuilder sb = new StringBuilder("{");
+            appendJson(sb, "file", file.getPath()).append(',');
+            appendJson(sb, "test", label).append(',');
+            appendJson(sb, "status", status);
+            if (message != null)
+                appendJson(sb.append(','), "message", message);
+            line = sb.append('}').toString();
         } else {
-            for (Circuit.TestCase t : testCases) {
-                String label = t.getLabel();
-                if (label.isEmpty())
-                    label = "unnamed";
-
-                try {
-                    ErrorDetector errorDetector = new ErrorDetector();
-                    TestResult tr = new TestExecutor(t, circuitLoader.getCircuit(), circuitLoader.getLibrary())
-                            .setAllowMissingInputs(allowMissingInputs)
-                            .addObserver(errorDetector)
-                            .execute();
-
-                    if (tr.allPassed()) {
-                        out.println(label + ": passed");
-                        testsPassed++;
-                    } else {
-                        String message = label + ": failed";
-                        if (tr.isErrorOccurred())
-                            message += " due to an error";
+            if (message == null)
+                message = status;
+            if (label.isEmpty())
+                line = message;
+            else
+                line = label + ": " + message;
+            if (folder)
+                line = file.getPath() + ": " + line;
+        }
+        synchronized (out) {
+            out.println(line);
+        }
+    }
+
+    private static StringBuilder appendJson(StringBuilder sb, String key, String value) {
+        sb.append('"').append(key).append("\":\"");
+        if (value != null)
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        sb.append("\\\"");
+                        break;
+                    case '\\':
+                        sb.append("\\\\");
+                        break;
+                    case '\n':
+                        sb.append("\\n");
+                        break;
+                    case '\r':
+                        sb.append("\\r");
+                        break;
+                    case '\t':
+                        sb.append("\\t");
+                        break;
+                    default:
+                        if (c < ' ')
+                            sb.append(String.format("\\u%04x", (int) c));
                         else
-                            message += " (" + tr.failedPercent() + "%)";
-                        out.println(message);
-                        errorCount++;
-                    }
-                    errorDetector.check();
-
-                } catch (Exception e) {
-                    out.println(label + ": " + e.getMessage());
-                    errorCount++;
+                            sb.append(c);
                 }
             }
-        }
-        return errorCount;
+        return sb.append('"');
+    }
+
+    private static RecursiveAction action(Runnable r) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                r.run();
+            }
+        };
     }
 
     /**
      * @return the number of passed tests
      */
     public int getTestsPassed() {
-        return testsPassed;
+        return testsPassed.get();
     }
 
     private CommandLineTester setAllowMissingInputs(boolean allowMissingInputs) {
@@ -122,6 +309,8 @@ public class CommandLineTester {
         private final Argument<String> circ;
         private final Argument<String> tests;
         private final Argument<Boolean> allowMissingInputs;
+        private final Argument<Integer> parallel;
+        private final Argument<Boolean> jsonl;
         private int testsPassed;
 
         /**
@@ -132,12 +321,17 @@ public class CommandLineTester {
             circ = addArgument(new Argument<>("circ", "", false));
             tests = addArgument(new Argument<>("tests", "", true));
             allowMissingInputs = addArgument(new Argument<>("allowMissingInputs", false, true));
+            parallel = addArgument(new Argument<>("parallel", 1, true));
+            jsonl = addArgument(new Argument<>("jsonl", false, true));
         }
 
         @Override
         protected void execute() throws CLIException {
             try {
-                CommandLineTester clt = new CommandLineTester(new File(circ.get())).setAllowMissingInputs(allowMissingInputs.get());
+                CommandLineTester clt = new CommandLineTester(new File(circ.get()))
+                        .setAllowMissingInputs(allowMissingInputs.get())
+                        .setParallel(parallel.get())
+                        .setJsonLines(jsonl.get());
                 if (tests.isSet())
                     clt.useTestCasesFrom(new File(tests.get()));
                 int errors = clt.execute(System.out);
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann.
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.cli;
+
+import de.neemann.digital.cli.cli.Argument;
+import de.neemann.digital.cli.cli.BasicCommand;
+import de.neemann.digital.cli.cli.CLIException;
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.ModelEventType;
+import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.stats.SimulationMetrics;
+import de.neemann.digital.core.wiring.Clock;
+import de.neemann.digital.draw.elements.PinException;
+import de.neemann.digital.draw.library.ElementNotFoundException;
+import de.neemann.digital.lang.Lang;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+
+/**
+ * CLI simulation profiler.
+ * Runs the circuit for the given number of clock cycles and writes the collected
+ * {@link SimulationMetrics} to a csv file.
+ */
+public class ProfileExport extends BasicCommand {
+    private final Argument<String> digFile;
+    private final Argument<Integer> cycles;
+    private final Argument<String> csvFile;
+
+    /**
+     * Creates the profile export command
+     */
+    public ProfileExport() {
+        super("profile");
+        digFile = addArgument(new Argument<>("dig", "", false));
+        cycles = addArgument(new Argument<>("cycles", 1000, true));
+        csvFile = addArgument(new Argument<>("csv", "", true));
+    }
+
+    @Override
+    protected void execute() throws CLIException {
+        Model model;
+        try {
+            model = new CircuitLoader(digFile.get()).createModel();
+        } catch (IOException | ElementNotFoundException | PinException | NodeException e) {
+            throw new CLIException(Lang.get("cli_errorCreatingProfile"), e);
+        }
+        try {
+            SimulationMetrics metrics = new SimulationMetrics();
+            model.setMetrics(metrics);
+            Exception[] error = new Exception[1];
+            model.addObserver(event -> {
+                if (event.getType() == ModelEventType.ERROR_OCCURRED)
+                    error[0] = event.getCause();
+            }, ModelEventType.ERROR_OCCURRED);
+            model.init();
+
+            ArrayList<Clock> clocks = model.getClocks();
+            if (clocks.size() > 1)
+                throw new NodeException(Lang.get("err_moreThanOneClockFound"));
+            if (clocks.size() == 1) {
+                ObservableValue clock = clocks.get(0).getClockOutput();
+                for (int i = 0; i < cycles.get() * 2 && model.isRunning(); i++) {
+                    clock.setBool(!clock.getBool());
+                    model.doStep();
+                }
+            }
+            if (error[0] != null)
+                throw new CLIException(Lang.get("cli_errorCreatingProfile"), error[0]);
+
+            BufferedWriter writer;
+            if (csvFile.isSet())
+                writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(csvFile.get())));
+            else
+                writer = new BufferedWriter(new OutputStreamWriter(System.out));
+
+            new CSVWriter(metrics.getSummaryTableModel()).write(writer);
+            writer.newLine();
+            new CSVWriter(metrics.getTableModel()).writeTo(writer);
+
+        } catch (IOException | NodeException e) {
+            throw new CLIException(Lang.get("cli_errorCreatingProfile"), e);
+        } finally {
+            model.close();
+        }
+    }
+}
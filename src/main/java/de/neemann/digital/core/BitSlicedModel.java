@@ -0,0 +1,470 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.core.basic.And;
+import de.neemann.digital.core.basic.FanIn;
+import de.neemann.digital.core.basic.NAnd;
+import de.neemann.digital.core.basic.NOr;
+import de.neemann.digital.core.basic.Not;
+import de.neemann.digital.core.basic.Or;
+import de.neemann.digital.core.basic.XNOr;
+import de.neemann.digital.core.basic.XOr;
+import de.neemann.digital.core.flipflops.FlipflopD;
+import de.neemann.digital.draw.elements.PinException;
+import de.neemann.digital.draw.model.InverterConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A bit sliced simulation of a model which consists of single bit gates and flip-flops only.
+ * Every signal is stored in a <code>long</code> which holds the values of 64 independent
+ * simulation lanes, so a single evaluation of the circuit computes the results of 64
+ * input vectors at once.
+ * <p>
+ * The gates are sorted topologically when the instance is created, so evaluating the circuit is
+ * a single pass over the gates. Supported are the basic gates {@link And}, {@link NAnd}, {@link Or},
+ * {@link NOr}, {@link XOr}, {@link XNOr} and {@link Not}, inverted gate inputs and single bit
+ * {@link FlipflopD}s which share a common clock. If the Q output of a flip-flop is one of the
+ * inputs, the flip-flop is treated as cut open, as it is done by the model analysis.
+ * High-Z values are not supported.
+ * If the part of the model which is needed to compute the outputs contains other components,
+ * wider signals or combinatorial feedback loops, {@link #create(Model, List, List)} returns null.
+ */
+public final class BitSlicedModel {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BitSlicedModel.class);
+    /**
+     * The number of lanes which are simulated at once
+     */
+    public static final int LANES = 64;
+
+    private static final int AND = 0;
+    private static final int NAND = 1;
+    private static final int OR = 2;
+    private static final int NOR = 3;
+    private static final int XOR = 4;
+    private static final int XNOR = 5;
+    private static final int NOT = 6;
+
+    private final long[] slots;
+    private final int[] opCode;
+    private final int[] opDest;
+    private final int[][] opSource;
+    private final int[] inputSlot;
+    private final int[] outputSlot;
+    private final int[] ffD;
+    private final int[] ffQ;
+    private final long[] ffDefault;
+    private final long[] ffNext;
+    private final int[] constSlot;
+
+    /**
+     * Creates a bit sliced simulation of the given model.
+     * The model needs not to be initialized.
+     *
+     * @param model   the model
+     * @param inputs  the inputs of the circuit, all inputs must have a width of one bit
+     * @param outputs the outputs of the circuit
+     * @return the bit sliced model or null if the model is not supported
+     * @throws PinException PinException
+     */
+    public static BitSlicedModel create(Model model, List<ObservableValue> inputs, List<ObservableValue> outputs) throws PinException {
+        try {
+            return new Compiler(model, inputs).compile(outputs);
+        } catch (NotSupportedException e) {
+            LOGGER.debug("bit sliced simulation not possible: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private BitSlicedModel(Compiler c, int[] outputSlot) {
+        slots = new long[c.slotCount];
+        constSlot = new int[c.constSlot.size()];
+        for (int i = 0; i < constSlot.length; i++) {
+            constSlot[i] = c.constSlot.get(i);
+            slots[constSlot[i]] = c.constValue.get(i);
+        }
+        int ops = c.opCode.size();
+        opCode = new int[ops];
+        opDest = new int[ops];
+        opSource = new int[ops][];
+        for (int i = 0; i < ops; i++) {
+            opCode[i] = c.opCode.get(i);
+            opDest[i] = c.opDest.get(i);
+            opSource[i] = c.opSource.get(i);
+        }
+        inputSlot = new int[c.inputs.size()];
+        for (int i = 0; i < inputSlot.length; i++)
+            inputSlot[i] = i;
+        this.outputSlot = outputSlot;
+        int ffs = c.ffs.size();
+        ffD = new int[ffs];
+        ffQ = new int[ffs];
+        ffDefault = new long[ffs];
+        ffNext = new long[ffs];
+        for (int i = 0; i < ffs; i++) {
+            ffD[i] = c.ffDSlot.get(i);
+            ffQ[i] = c.ffQSlot.get(i);
+            ffDefault[i] = (c.ffs.get(i).getDefault() & 1) == 0 ? 0 : -1;
+        }
+        reset();
+    }
+
+    /**
+     * Sets all flip-flops in all lanes to their default value.
+     */
+    public void reset() {
+        for (int i = 0; i < ffQ.length; i++) {
+            slots[ffQ[i]] = ffDefault[i];
+            slots[ffQ[i] + 1] = ~ffDefault[i];
+        }
+    }
+
+    /**
+     * @return true if the model contains flip-flops
+     */
+    public boolean hasState() {
+        return ffQ.length > 0;
+    }
+
+    /**
+     * Sets the value of an input.
+     * Bit n of the given value is the input value in lane n.
+     *
+     * @param input the number of the input
+     * @param lanes the values of the input in all lanes
+     */
+    public void setInput(int input, long lanes) {
+        slots[inputSlot[input]] = lanes;
+    }
+
+    /**
+     * Returns the value of an output.
+     * Bit n of the returned value is the output value in lane n.
+     * Only valid after {@link #evaluate()} was called.
+     *
+     * @param output the number of the output
+     * @return the values of the output in all lanes
+     */
+    public long getOutput(int output) {
+        return slots[outputSlot[output]];
+    }
+
+    /**
+     * Evaluates the combinatorial part of the circuit in all lanes.
+     */
+    public void evaluate() {
+        for (int i = 0; i < opCode.length; i++) {
+            final int[] src = opSource[i];
+            long v;
+            switch (opCode[i]) {
+                case AND:
+                case NAND:
+                    v = -1;
+                    for (int s : src)
+                        v &= slots[s];
+                    break;
+                case OR:
+                case NOR:
+                    v = 0;
+                    for (int s : src)
+                        v |= slots[s];
+                    break;
+                case XOR:
+                case XNOR:
+                    v = 0;
+                    for (int s : src)
+                        v ^= slots[s];
+                    break;
+                default:
+                    v = ~slots[src[0]];
+            }
+            if (opCode[i] == NAND || opCode[i] == NOR || opCode[i] == XNOR)
+                v = ~v;
+            slots[opDest[i]] = v;
+        }
+    }
+
+    /**
+     * Evaluates the combinatorial circuit with the given operations instead of the lanes.
+     * Used to create a symbolic representation of the outputs, e.g. a binary decision diagram.
+     * Only possible if the model contains no flip-flops.
+     *
+     * @param operations the operations to use
+     * @param inputs     the values of the inputs
+     * @param zero       the constant zero
+     * @param one        the constant one
+     * @param <T>        the type of the values
+     * @return the values of the outputs
+     */
+    public <T> List<T> evaluate(Operations<T> operations, List<T> inputs, T zero, T one) {
+        if (hasState())
+            throw new IllegalStateException("model contains flip-flops");
+        ArrayList<T> values = new ArrayList<>(Collections.nCopies(slots.length, zero));
+        for (int s : constSlot)
+            values.set(s, slots[s] == 0 ? zero : one);
+        for (int i = 0; i < inputSlot.length; i++)
+            values.set(inputSlot[i], inputs.get(i));
+
+        for (int i = 0; i < opCode.length; i++) {
+            final int[] src = opSource[i];
+            T v = values.get(src[0]);
+            for (int j = 1; j < src.length; j++) {
+                T b = values.get(src[j]);
+                switch (opCode[i]) {
+                    case AND:
+                    case NAND:
+                        v = operations.and(v, b);
+                        break;
+                    case OR:
+                    case NOR:
+                        v = operations.or(v, b);
+                        break;
+                    default:
+                        v = operations.xor(v, b);
+                }
+            }
+            if (opCode[i] == NAND || opCode[i] == NOR || opCode[i] == XNOR || opCode[i] == NOT)
+                v = operations.not(v);
+            values.set(opDest[i], v);
+        }
+
+        ArrayList<T> out = new ArrayList<>(outputSlot.length);
+        for (int s : outputSlot)
+            out.add(values.get(s));
+        return out;
+    }
+
+    /**
+     * Performs a rising clock edge in all lanes.
+     * All flip-flops store the value at their D input. Call {@link #evaluate()} afterwards
+     * to propagate the new state to the outputs.
+     */
+    public void clock() {
+        for (int i = 0; i < ffD.length; i++)
+            ffNext[i] = slots[ffD[i]];
+        for (int i = 0; i < ffQ.length; i++) {
+            slots[ffQ[i]] = ffNext[i];
+            slots[ffQ[i] + 1] = ~ffNext[i];
+        }
+    }
+
+    /**
+     * The operations used by a symbolic evaluation
+     *
+     * @param <T> the type of the values
+     */
+    public interface Operations<T> {
+        /**
+         * @param a first value
+         * @param b second value
+         * @return a and b
+         */
+        T and(T a, T b);
+
+        /**
+         * @param a first value
+         * @param b second value
+         * @return a or b
+         */
+        T or(T a, T b);
+
+        /**
+         * @param a first value
+         * @param b second value
+         * @return a xor b
+         */
+        T xor(T a, T b);
+
+        /**
+         * @param a the value
+         * @return not a
+         */
+        T not(T a);
+    }
+
+    private static final class Compiler {
+        private static final int VISITING = -1;
+
+        private final List<ObservableValue> inputs;
+        private final HashMap<ObservableValue, NodeInterface> driver;
+        private final HashMap<ObservableValue, Integer> slot;
+        private final HashMap<FlipflopD, Integer> ffIndex;
+        private final ArrayList<FlipflopD> ffs;
+        private final ArrayList<Integer> ffQSlot;
+        private final ArrayList<Integer> ffDSlot;
+        private final ArrayList<Integer> opCode;
+        private final ArrayList<Integer> opDest;
+        private final ArrayList<int[]> opSource;
+        private final ArrayList<Integer> constSlot;
+        private final ArrayList<Long> constValue;
+        private ObservableValue clock;
+        private int slotCount;
+
+        private Compiler(Model model, List<ObservableValue> inputs) throws PinException, NotSupportedException {
+            this.inputs = inputs;
+            driver = new HashMap<>();
+            slot = new HashMap<>();
+            ffIndex = new HashMap<>();
+            ffs = new ArrayList<>();
+            ffQSlot = new ArrayList<>();
+            ffDSlot = new ArrayList<>();
+            opCode = new ArrayList<>();
+            opDest = new ArrayList<>();
+            opSource = new ArrayList<>();
+            constSlot = new ArrayList<>();
+            constValue = new ArrayList<>();
+
+            for (ObservableValue in : inputs) {
+                if (in.getBits() != 1)
+                    throw new NotSupportedException("input " + in.getName() + " has more than one bit");
+                slot.put(in, slotCount++);
+            }
+
+            ArrayList<ObservableValue> values = new ArrayList<>(inputs);
+            for (Node n : model.getNodes())
+                for (ObservableValue v : n.getOutputs()) {
+                    driver.put(v, n);
+                    values.add(v);
+                }
+
+            // the inverted inputs are not nodes, so they are found by the observers of the values
+            while (!values.isEmpty()) {
+                ObservableValue v = values.remove(values.size() - 1);
+                for (Observer o : v.getObservers())
+                    if (o instanceof InverterConfig.Inverter) {
+                        ObservableValue out = ((InverterConfig.Inverter) o).getOutput();
+                        if (!driver.containsKey(out)) {
+                            driver.put(out, (InverterConfig.Inverter) o);
+                            values.add(out);
+                        }
+                    }
+            }
+        }
+
+        private BitSlicedModel compile(List<ObservableValue> outputs) throws NotSupportedException {
+            int[] outputSlot = new int[outputs.size()];
+            for (int i = 0; i < outputSlot.length; i++)
+                outputSlot[i] = resolve(outputs.get(i));
+
+            // resolving the D inputs can add further flip-flops
+            for (int i = 0; i < ffs.size(); i++)
+                ffDSlot.add(resolve(ffs.get(i).getDInput()));
+
+            LOGGER.debug("bit sliced model with " + opCode.size() + " gates and " + ffs.size() + " flip-flops created");
+            return new BitSlicedModel(this, outputSlot);
+        }
+
+        private int resolve(ObservableValue value) throws NotSupportedException {
+            Integer s = slot.get(value);
+            if (s != null) {
+                if (s == VISITING)
+                    throw new NotSupportedException("combinatorial feedback loop at " + value.getName());
+                return s;
+            }
+
+            if (value.getBits() != 1)
+                throw new NotSupportedException("signal " + value.getName() + " has more than one bit");
+
+            if (value.isConstant()) {
+                int c = slotCount++;
+                constSlot.add(c);
+                constValue.add((value.getValue() & 1) == 0 ? 0L : -1L);
+                slot.put(value, c);
+                return c;
+            }
+
+            NodeInterface d = driver.get(value);
+            Class<?> c = d == null ? null : d.getClass();
+            // subclasses like the FlipflopDAsync have additional inputs which are not supported
+            if (c == FlipflopD.class)
+                return resolveFlipflop((FlipflopD) d, value);
+
+            slot.put(value, VISITING);
+            int code;
+            ObservableValue[] in;
+            if (c == And.class || c == NAnd.class || c == Or.class || c == NOr.class || c == XOr.class || c == XNOr.class) {
+                if (c == And.class)
+                    code = AND;
+                else if (c == NAnd.class)
+                    code = NAND;
+                else if (c == Or.class)
+                    code = OR;
+                else if (c == NOr.class)
+                    code = NOR;
+                else if (c == XOr.class)
+                    code = XOR;
+                else
+                    code = XNOR;
+                in = ((FanIn) d).getInputs().toArray(new ObservableValue[0]);
+            } else if (c == Not.class) {
+                code = NOT;
+                in = new ObservableValue[]{((Not) d).getInput()};
+            } else if (c == InverterConfig.Inverter.class) {
+                code = NOT;
+                in = new ObservableValue[]{((InverterConfig.Inverter) d).getInput()};
+            } else
+                throw new NotSupportedException("signal " + value.getName() + " is not driven by a basic gate");
+
+            int[] src = new int[in.length];
+            for (int i = 0; i < in.length; i++)
+                src[i] = resolve(in[i]);
+
+            int dest = slotCount++;
+            opCode.add(code);
+            opDest.add(dest);
+            opSource.add(src);
+            slot.put(value, dest);
+            return dest;
+        }
+
+        private int resolveFlipflop(FlipflopD ff, ObservableValue value) throws NotSupportedException {
+            ObservableValues out = ff.getOutputs();
+            if (inputs.contains(out.get(0))) {
+                // the flip-flop is cut open and its Q output is an input, so ~Q is the inverted input
+                int dest = slotCount++;
+                opCode.add(NOT);
+                opDest.add(dest);
+                opSource.add(new int[]{slot.get(out.get(0))});
+                slot.put(value, dest);
+                return dest;
+            }
+
+            if (clock == null)
+                clock = ff.getClock();
+            else if (clock != ff.getClock())
+                throw new NotSupportedException("flip-flops with different clocks");
+
+            Integer i = ffIndex.get(ff);
+            if (i == null) {
+                // Q and ~Q are stored in adjacent slots
+                int q = slotCount;
+                slotCount += 2;
+                i = ffs.size();
+                ffs.add(ff);
+                ffQSlot.add(q);
+                ffIndex.put(ff, i);
+                slot.put(out.get(0), q);
+                slot.put(out.get(1), q + 1);
+            }
+            Integer s = slot.get(value);
+            if (s == null)
+                throw new NotSupportedException("unknown flip-flop output " + value.getName());
+            return s;
+        }
+    }
+
+    private static final class NotSupportedException extends Exception {
+        private NotSupportedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.core.wiring.bus.BusModelStateObserver;
+import de.neemann.digital.draw.elements.PinException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * A compiled, levelized schedule of the nodes of a model.
+ * The combinatorial nodes are sorted topologically once. During a micro step all pending
+ * combinatorial nodes are evaluated level by level, so every node is evaluated at most once
+ * per micro step. After that the pending nodes which have a state are updated in the same
+ * two phase manner the event driven model uses.
+ * <p>
+ * Such a schedule can only be created if there are no combinatorial feedback loops, no switches
+ * and no nets with more than one driver. In all other cases {@link #create(List, Model)} returns null
+ * and the model falls back to the event driven simulation.
+ */
+final class LevelizedSchedule {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LevelizedSchedule.class);
+
+    private final ArrayList<ArrayList<Node>> buckets;
+    private final int stateLevel;
+    private ArrayList<Node> spare;
+    private int pending;
+
+    /**
+     * Creates a levelized schedule for the given nodes.
+     *
+     * @param nodes the nodes to schedule
+     * @param model the model the nodes belong to
+     * @return the schedule or null if the nodes can not be levelized
+     * @throws PinException PinException
+     */
+    static LevelizedSchedule create(List<Node> nodes, Model model) throws PinException {
+        if (model.getObserver(BusModelStateObserver.class) != null) {
+            LOGGER.debug("model contains buses or switches, levelizing not possible");
+            return null;
+        }
+
+        HashSet<Node> nodeSet = new HashSet<>(nodes);
+        HashMap<Node, ArrayList<Node>> successors = new HashMap<>();
+        HashMap<Node, Integer> inDegree = new HashMap<>();
+        for (Node n : nodes)
+            if (!n.hasState())
+                inDegree.put(n, 0);
+
+        for (Node n : nodes) {
+            ArrayList<Node> succ = new ArrayList<>();
+            for (ObservableValue v : n.getOutputs())
+                if (!addSuccessors(v, succ, nodeSet, 0)) {
+                    LOGGER.debug("node " + n.getClass().getSimpleName() + " drives a bus or switch, levelizing not possible");
+                    return null;
+                }
+            if (!n.hasState()) {
+                successors.put(n, succ);
+                for (Node s : succ)
+                    if (!s.hasState())
+                        inDegree.put(s, inDegree.get(s) + 1);
+            }
+        }
+
+        // Kahn's algorithm; the level of a node is the length of the longest path leading to it
+        HashMap<Node, Integer> level = new HashMap<>();
+        ArrayList<Node> ready = new ArrayList<>();
+        for (Node n : inDegree.keySet())
+            if (inDegree.get(n) == 0) {
+                ready.add(n);
+                level.put(n, 0);
+            }
+
+        int levels = 0;
+        int sorted = 0;
+        while (!ready.isEmpty()) {
+            Node n = ready.remove(ready.size() - 1);
+            sorted++;
+            int l = level.get(n);
+            if (l + 1 > levels)
+                levels = l + 1;
+            for (Node s : successors.get(n))
+                if (!s.hasState()) {
+                    Integer sl = level.get(s);
+                    if (sl == null || sl < l + 1)
+                        level.put(s, l + 1);
+                    int d = inDegree.get(s) - 1;
+                    inDegree.put(s, d);
+                    if (d == 0)
+                        ready.add(s);
+                }
+        }
+
+        if (sorted < inDegree.size()) {
+            LOGGER.debug("model contains combinatorial feedback loops, levelizing not possible");
+            return null;
+        }
+
+        for (Node n : nodes)
+            if (n.hasState())
+                n.setLevel(levels);
+            else
+                n.setLevel(level.get(n));
+
+        LOGGER.debug("model levelized to " + levels + " combinatorial levels");
+        return new LevelizedSchedule(levels);
+    }
+
+    private static boolean addSuccessors(ObservableValue value, ArrayList<Node> succ, HashSet<Node> nodeSet, int depth) throws PinException {
+        if (depth > nodeSet.size())
+            return false;
+        for (Observer o : value.getObservers()) {
+            if (o instanceof Node) {
+                if (!nodeSet.contains(o))
+                    return false;
+                succ.add((Node) o);
+            } else if (o instanceof NodeWithoutDelay) {
+                for (ObservableValue v : ((NodeWithoutDelay) o).getOutputs())
+                    if (!addSuccessors(v, succ, nodeSet, depth + 1))
+                        return false;
+            } else if (o instanceof NodeInterface)
+                return false;
+        }
+        return true;
+    }
+
+    private LevelizedSchedule(int stateLevel) {
+        this.stateLevel = stateLevel;
+        buckets = new ArrayList<>(stateLevel + 1);
+        for (int i = 0; i <= stateLevel; i++)
+            buckets.add(new ArrayList<>());
+        spare = new ArrayList<>();
+    }
+
+    /**
+     * Adds a node to the schedule
+     *
+     * @param node the node
+     */
+    void add(Node node) {
+        if (!node.isScheduled()) {
+            node.setScheduled(true);
+            buckets.get(node.getLevel()).add(node);
+            pending++;
+        }
+    }
+
+    /**
+     * @return true if there is no node waiting for an update
+     */
+    boolean isEmpty() {
+        return pending == 0;
+    }
+
+    /**
+     * @return the number of nodes waiting for an update
+     */
+    int size() {
+        return pending;
+    }
+
+    /**
+     * @return the nodes waiting for an update
+     */
+    ArrayList<Node> getPending() {
+        ArrayList<Node> p = new ArrayList<>(pending);
+        for (ArrayList<Node> b : buckets)
+            p.addAll(b);
+        return p;
+    }
+
+    /**
+     * Evaluates all pending nodes.
+     * Nodes which become pending while the schedule is evaluated at a level that has already
+     * passed, are evaluated in the next call.
+     *
+     * @param model the model
+     * @throws NodeException NodeException
+     */
+    void evaluate(Model model) throws NodeException {
+        for (int l = 0; l < stateLevel; l++) {
+            ArrayList<Node> act = takeBucket(l);
+            if (act != null) {
+                model.incStepCounter();
+                for (int i = 0; i < act.size(); i++) {
+                    Node n = act.get(i);
+                    n.readInputs();
+                    n.writeOutputs();
+                }
+                act.clear();
+            }
+        }
+
+        ArrayList<Node> act = takeBucket(stateLevel);
+        if (act != null) {
+            model.incStepCounter();
+            for (int i = 0; i < act.size(); i++)
+                act.get(i).readInputs();
+            for (int i = 0; i < act.size(); i++)
+                act.get(i).writeOutputs();
+            act.clear();
+        }
+    }
+
+    private ArrayList<Node> takeBucket(int l) {
+        ArrayList<Node> act = buckets.get(l);
+        if (act.isEmpty())
+            return null;
+
+        buckets.set(l, spare);
+        spare = act;
+        pending -= act.size();
+        for (int i = 0; i < act.size(); i++)
+            act.get(i).setScheduled(false);
+        return act;
+    }
+}
@@ -7,10 +7,12 @@ package de.neemann.digital.core;
 
 import de.neemann.digital.analyse.AnalyseException;
 import de.neemann.digital.core.io.Button;
+import de.neemann.digital.core.stats.SimulationMetrics;
 import de.neemann.digital.core.wiring.AsyncSeq;
 import de.neemann.digital.core.wiring.Break;
 import de.neemann.digital.core.wiring.Clock;
 import de.neemann.digital.core.wiring.Reset;
+import de.neemann.digital.draw.elements.PinException;
 import de.neemann.digital.gui.components.WindowPosManager;
 import de.neemann.digital.lang.Lang;
 import org.slf4j.Logger;
@@ -77,7 +79,14 @@ public class Model implements Iterable<Node>, SyncAccess {
     private Signal invalidSignal = null;
     private AsyncSeq asyncInfos;
     private boolean asyncMode = false;
+    private boolean levelizedMode = false;
+    private LevelizedSchedule schedule;
+    private boolean parallelMode = false;
+    private ParallelStepper parallelStepper;
     private boolean allowGlobalValues = false;
+    private SimulationMetrics metrics;
+    private Random random;
+    private final StepCondition needsUpdateCondition = this::needsUpdate;
 
     private final ArrayList<ModelStateObserver> observers;
     private ArrayList<ModelStateObserver> observersStep;
@@ -112,6 +121,53 @@ public class Model implements Iterable<Node>, SyncAccess {
         return this;
     }
 
+    /**
+     * Sets this model to levelized mode.
+     * In levelized mode the combinatorial nodes are sorted topologically at the end of the
+     * initialization, and every micro step evaluates the pending nodes in this fixed order.
+     * If the circuit contains feedback loops, switches or buses, the model silently falls back to
+     * the event driven simulation.
+     *
+     * @param levelizedMode true if the model should run levelized
+     * @return this for chained calls
+     */
+    public Model setLevelizedMode(boolean levelizedMode) {
+        this.levelizedMode = levelizedMode;
+        return this;
+    }
+
+    /**
+     * Sets this model to parallel mode.
+     * In parallel mode large micro steps are distributed to all available cores.
+     * This mode is not used if the model runs levelized or with noise.
+     *
+     * @param parallelMode true if the model should run in parallel
+     * @return this for chained calls
+     */
+    public Model setParallelMode(boolean parallelMode) {
+        this.parallelMode = parallelMode;
+        return this;
+    }
+
+    /**
+     * Sets the metrics which are to be collected while the model is running.
+     * The metrics slow down the simulation, so they should only be set if needed.
+     *
+     * @param metrics the metrics, null disables the collection
+     * @return this for chained calls
+     */
+    public Model setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * @return true if the model runs levelized
+     */
+    public boolean isLevelized() {
+        return schedule != null;
+    }
+
     /**
      * Sets the window position manager.
      * Allows the model to place new and close old gui windows.
@@ -152,6 +208,10 @@ public class Model implements Iterable<Node>, SyncAccess {
         return version;
     }
 
+    void incStepCounter() {
+        version++;
+    }
+
     /**
      * Adds a node to the model
      *
@@ -184,6 +244,8 @@ public class Model implements Iterable<Node>, SyncAccess {
      * @param noise setup with or without noise
      */
     public void init(boolean noise) {
+        if (parallelMode)
+            parallelStepper = new ParallelStepper();
         nodesToUpdateNext.addAll(nodes);
         state = State.INITIALIZING;
         doStep(noise);
@@ -198,11 +260,28 @@ public class Model implements Iterable<Node>, SyncAccess {
                     doMicroStep(false);
             }
             LOGGER.debug("stabilizing took " + version + " micro steps");
+            if (levelizedMode && !asyncMode)
+                createSchedule();
             state = State.RUNNING;
+            if (metrics != null)
+                metrics.modelStarted(this);
             fireEvent(ModelEvent.STARTED);
         }
     }
 
+    private void createSchedule() {
+        try {
+            schedule = LevelizedSchedule.create(nodes, this);
+        } catch (PinException e) {
+            LOGGER.debug("could not levelize model", e);
+        }
+        if (schedule != null) {
+            for (Node n : nodesToUpdateNext)
+                schedule.add(n);
+            nodesToUpdateNext.clear();
+        }
+    }
+
     /**
      * Closes the model.
      * A STOPPED event is fired.
@@ -223,6 +302,9 @@ public class Model implements Iterable<Node>, SyncAccess {
                 for (ModelStateObserver ob : observersMicroStep)
                     LOGGER.debug("Observer Micro: " + ob.getClass().getSimpleName());
 
+            if (metrics != null)
+                metrics.modelClosed();
+
             fireEvent(ModelEvent.CLOSED);
             fireEvent(ModelEvent.POSTCLOSED);
         }
@@ -253,7 +335,10 @@ public class Model implements Iterable<Node>, SyncAccess {
      * @param node the node
      */
     final void addToUpdateList(Node node) {
-        nodesToUpdateNext.add(node);
+        if (schedule != null)
+            schedule.add(node);
+        else
+            nodesToUpdateNext.add(node);
     }
 
     /**
@@ -272,7 +357,7 @@ public class Model implements Iterable<Node>, SyncAccess {
      * @param noise calculation is performed using noise
      */
     public void doStep(boolean noise) {
-        stepWithCondition(noise, this::needsUpdate);
+        stepWithCondition(noise, needsUpdateCondition);
     }
 
     synchronized private void stepWithCondition(boolean noise, StepCondition cond) {
@@ -280,18 +365,23 @@ public class Model implements Iterable<Node>, SyncAccess {
             int counter = 0;
             while (cond.doNextMicroStep() && state != State.CLOSED) {
                 if (counter++ > MAX_LOOP_COUNTER) {
-                    if (oscillatingNodes == null)
+                    if (oscillatingNodes == null) {
                         oscillatingNodes = new HashSet<>();
+                        if (metrics != null)
+                            metrics.oscillationDetected();
+                    }
                     if (counter > COLLECTING_LOOP_COUNTER) {
                         NodeException seemsToOscillate = new NodeException(Lang.get("err_seemsToOscillate")).addNodes(oscillatingNodes);
                         oscillatingNodes = null;
                         throw seemsToOscillate;
                     } else {
-                        oscillatingNodes.addAll(nodesToUpdateNext);
+                        oscillatingNodes.addAll(nodesToUpdate());
                     }
                 }
                 doMicroStep(noise);
             }
+            if (metrics != null && counter > 0)
+                metrics.step(counter);
         } catch (Exception e) {
             errorOccurred(e);
         }
@@ -309,6 +399,13 @@ public class Model implements Iterable<Node>, SyncAccess {
      * @param noise if true the micro step is performed with noise
      */
     synchronized public void doMicroStep(boolean noise) {
+        if (schedule != null) {
+            if (metrics != null)
+                metrics.microStep(schedule.size());
+            doLevelizedStep();
+            return;
+        }
+
         version++;
         // swap lists
         ArrayList<Node> nl = nodesToUpdateNext;
@@ -317,20 +414,27 @@ public class Model implements Iterable<Node>, SyncAccess {
 
         nodesToUpdateNext.clear();
 
+        if (metrics != null)
+            metrics.microStep(nodesToUpdateAct.size());
+
         try {
+            final int size = nodesToUpdateAct.size();
             if (noise) {
-                Collections.shuffle(nodesToUpdateAct);
-                for (Node n : nodesToUpdateAct) {
+                shuffle(nodesToUpdateAct);
+                for (int i = 0; i < size; i++) {
+                    Node n = nodesToUpdateAct.get(i);
                     n.readInputs();
                     n.writeOutputs();
                 }
+            } else if (parallelStepper != null && nodesToUpdateAct.size() >= ParallelStepper.PARALLEL_THRESHOLD) {
+                parallelStepper.step(nodesToUpdateAct);
+            } else if (metrics != null) {
+                metrics.evaluate(nodesToUpdateAct);
             } else {
-                for (Node n : nodesToUpdateAct) {
-                    n.readInputs();
-                }
-                for (Node n : nodesToUpdateAct) {
-                    n.writeOutputs();
-                }
+                for (int i = 0; i < size; i++)
+                    nodesToUpdateAct.get(i).readInputs();
+                for (int i = 0; i < size; i++)
+                    nodesToUpdateAct.get(i).writeOutputs();
             }
             if (observersMicroStep != null)
                 fireEvent(ModelEvent.MICROSTEP);
@@ -342,6 +446,34 @@ public class Model implements Iterable<Node>, SyncAccess {
         }
     }
 
+    /*
+     * Shuffles the list in place without the allocations of Collections.shuffle.
+     */
+    private void shuffle(ArrayList<Node> list) {
+        if (random == null)
+            random = new Random();
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Node n = list.get(i);
+            list.set(i, list.get(j));
+            list.set(j, n);
+        }
+    }
+
+    private void doLevelizedStep() {
+        try {
+            schedule.evaluate(this);
+
+            if (observersMicroStep != null)
+                fireEvent(ModelEvent.MICROSTEP);
+
+            if (schedule.isEmpty())
+                fireEvent(ModelEvent.STEP);
+        } catch (Exception e) {
+            errorOccurred(e);
+        }
+    }
+
     /**
      * Runs the model until a positive edge at the break element is detected.
      *
@@ -434,6 +566,8 @@ public class Model implements Iterable<Node>, SyncAccess {
      * @return true if model has more nodes to update
      */
     public boolean needsUpdate() {
+        if (schedule != null)
+            return !schedule.isEmpty();
         return !nodesToUpdateNext.isEmpty();
     }
 
@@ -441,6 +575,8 @@ public class Model implements Iterable<Node>, SyncAccess {
      * @return the nodes to update in the next step
      */
     public Collection<Node> nodesToUpdate() {
+        if (schedule != null)
+            return schedule.getPending();
         return nodesToUpdateNext;
     }
 
@@ -526,20 +662,22 @@ public class Model implements Iterable<Node>, SyncAccess {
         switch (event.getType()) {
             case MICROSTEP:
                 if (observersMicroStep != null)
-                    for (ModelStateObserver observer : observersMicroStep)
-                        observer.handleEvent(event);
+                    fireEvent(observersMicroStep, event);
                 break;
             case STEP:
                 if (observersStep != null)
-                    for (ModelStateObserver observer : observersStep)
-                        observer.handleEvent(event);
+                    fireEvent(observersStep, event);
                 break;
             default:
-                for (ModelStateObserver observer : observers)
-                    observer.handleEvent(event);
+                fireEvent(observers, event);
         }
     }
 
+    private static void fireEvent(ArrayList<ModelStateObserver> observers, ModelEvent event) {
+        for (int i = 0; i < observers.size(); i++)
+            observers.get(i).handleEvent(event);
+    }
+
     /**
      * Registers a Clock to the model.
      *
@@ -27,6 +27,10 @@ public abstract class Node implements NodeInterface {
     // used to store the origin of this node
     // only used to create better error messages
     private File origin;
+    // the level of this node if the model runs levelized, -1 otherwise
+    private int level = -1;
+    // true if this node is waiting in a levelized schedule
+    private boolean scheduled;
 
     /**
      * Creates new stateless Node
@@ -123,4 +127,20 @@ public abstract class Node implements NodeInterface {
     public Model getModel() {
         return model;
     }
+
+    int getLevel() {
+        return level;
+    }
+
+    void setLevel(int level) {
+        this.level = level;
+    }
+
+    boolean isScheduled() {
+        return scheduled;
+    }
+
+    void setScheduled(boolean scheduled) {
+        this.scheduled = scheduled;
+    }
 }
@@ -5,19 +5,30 @@
  */
 package de.neemann.digital.core;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * A simple observable
+ * A simple observable.
+ * The observers are stored in a plain array which is only allocated if the first observer is added.
+ * So firing a change does not allocate any objects.
+ * If the observers are modified while a change is fired, the array is copied before it is
+ * modified, so the running event is delivered to the observers present when it was fired.
  */
 public class Observable {
-    private final ArrayList<Observer> observers;
+    private static final Observer[] EMPTY = new Observer[0];
+
+    private Observer[] observers;
+    private int count;
+    // number of running fireHasChanged calls
+    private int firing;
 
     /**
      * Creates a new instance
      */
     public Observable() {
-        observers = new ArrayList<>();
+        observers = EMPTY;
     }
 
     /**
@@ -27,8 +38,13 @@ public class Observable {
      * @return observer the observer to add
      */
     public Observer addObserver(Observer observer) {
-        if (observer != null && !observers.contains(observer))
-            observers.add(observer);
+        if (observer != null && !hasObserver(observer)) {
+            if (count == observers.length)
+                observers = Arrays.copyOf(observers, count == 0 ? 2 : count * 2);
+            else if (firing > 0)
+                observers = observers.clone();
+            observers[count++] = observer;
+        }
         return observer;
     }
 
@@ -36,7 +52,7 @@ public class Observable {
      * @return the numbers of observers
      */
     public int observerCount() {
-        return observers.size();
+        return count;
     }
 
     /**
@@ -45,7 +61,11 @@ public class Observable {
      * @param observer the observer to use
      */
     public void removeObserver(Observer observer) {
-        observers.remove(observer);
+        for (int i = 0; i < count; i++)
+            if (observers[i].equals(observer)) {
+                removeAt(i);
+                return;
+            }
     }
 
     /**
@@ -54,15 +74,36 @@ public class Observable {
      * @param observerClass the class of observers to remove
      */
     public void removeObserver(Class<? extends Observer> observerClass) {
-        observers.removeIf(observer -> observer.getClass() == observerClass);
+        int i = 0;
+        while (i < count) {
+            if (observers[i].getClass() == observerClass)
+                removeAt(i);
+            else
+                i++;
+        }
+    }
+
+    private void removeAt(int i) {
+        if (firing > 0)
+            observers = observers.clone();
+        count--;
+        System.arraycopy(observers, i + 1, observers, i, count - i);
+        observers[count] = null;
     }
 
     /**
      * Fires a has changed event to all observers
      */
     public void fireHasChanged() {
-        for (Observer o : observers)
-            o.hasChanged();
+        Observer[] obs = observers;
+        int n = count;
+        firing++;
+        try {
+            for (int i = 0; i < n; i++)
+                obs[i].hasChanged();
+        } finally {
+            firing--;
+        }
     }
 
 
@@ -73,14 +114,17 @@ public class Observable {
      * @return true if the given observer observes this observable
      */
     public boolean hasObserver(Observer observer) {
-        return observers.contains(observer);
+        for (int i = 0; i < count; i++)
+            if (observers[i].equals(observer))
+                return true;
+        return false;
     }
 
     /**
-     * @return tje list of observers
+     * @return the list of observers
      */
-    public ArrayList<Observer> getObservers() {
-        return observers;
+    public List<Observer> getObservers() {
+        return Collections.unmodifiableList(Arrays.asList(observers).subList(0, count));
     }
 
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.core.arithmetic.Add;
+import de.neemann.digital.core.arithmetic.BarrelShifter;
+import de.neemann.digital.core.arithmetic.BitCount;
+import de.neemann.digital.core.arithmetic.BitExtender;
+import de.neemann.digital.core.arithmetic.Comparator;
+import de.neemann.digital.core.arithmetic.Div;
+import de.neemann.digital.core.arithmetic.Mul;
+import de.neemann.digital.core.arithmetic.Neg;
+import de.neemann.digital.core.arithmetic.Sub;
+import de.neemann.digital.core.basic.And;
+import de.neemann.digital.core.basic.NAnd;
+import de.neemann.digital.core.basic.NOr;
+import de.neemann.digital.core.basic.Not;
+import de.neemann.digital.core.basic.Or;
+import de.neemann.digital.core.basic.XNOr;
+import de.neemann.digital.core.basic.XOr;
+import de.neemann.digital.core.flipflops.FlipflopD;
+import de.neemann.digital.core.flipflops.FlipflopDAsync;
+import de.neemann.digital.core.flipflops.FlipflopJK;
+import de.neemann.digital.core.flipflops.FlipflopJKAsync;
+import de.neemann.digital.core.flipflops.FlipflopRS;
+import de.neemann.digital.core.flipflops.FlipflopRSAsync;
+import de.neemann.digital.core.flipflops.FlipflopT;
+import de.neemann.digital.core.wiring.BitSelector;
+import de.neemann.digital.core.wiring.Decoder;
+import de.neemann.digital.core.wiring.Demultiplexer;
+import de.neemann.digital.core.wiring.Driver;
+import de.neemann.digital.core.wiring.DriverInvSel;
+import de.neemann.digital.core.wiring.Multiplexer;
+import de.neemann.digital.core.wiring.PriorityEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Performs the read phase of a micro step on several cores.
+ * Inside the read phase the nodes do not depend on each other, so the list of nodes to update
+ * is split into chunks which are processed by a {@link ForkJoinPool}.
+ * <p>
+ * Only nodes of the classes listed in {@link #PARALLEL_SAFE} are read in parallel. Their
+ * {@code readInputs} method only calculates the new state of the node from its inputs.
+ * All other nodes may have side effects like closing the model or updating a window, so they
+ * are read sequentially by the stepping thread.
+ * The write phase is always executed by the stepping thread, because writing a value notifies
+ * its observers, which are not necessarily thread safe.
+ */
+final class ParallelStepper {
+    /**
+     * Smallest number of nodes in a micro step which are processed in parallel
+     */
+    static final int PARALLEL_THRESHOLD = 1024;
+    private static final int MIN_CHUNK = 256;
+
+    private static final HashSet<Class<?>> PARALLEL_SAFE = new HashSet<>(Arrays.asList(
+            And.class, NAnd.class, Or.class, NOr.class, XOr.class, XNOr.class, Not.class,
+            Add.class, Sub.class, Mul.class, Div.class, Neg.class, Comparator.class,
+            BarrelShifter.class, BitExtender.class, BitCount.class,
+            Multiplexer.class, Demultiplexer.class, Decoder.class, BitSelector.class,
+            PriorityEncoder.class, Driver.class, DriverInvSel.class,
+            FlipflopD.class, FlipflopDAsync.class, FlipflopJK.class, FlipflopJKAsync.class,
+            FlipflopRS.class, FlipflopRSAsync.class, FlipflopT.class));
+
+    private final ForkJoinPool pool;
+    private final ArrayList<Node> parallel;
+    private final AtomicReference<NodeException> exception;
+    private int chunk;
+
+    /**
+     * Creates a new instance
+     */
+    ParallelStepper() {
+        pool = ForkJoinPool.commonPool();
+        parallel = new ArrayList<>();
+        exception = new AtomicReference<>();
+    }
+
+    /**
+     * Returns true if the given node can be read by a pool thread
+     *
+     * @param node the node
+     * @return true if the nodes readInputs method has no side effects
+     */
+    static boolean isParallelSafe(Node node) {
+        return PARALLEL_SAFE.contains(node.getClass());
+    }
+
+    /**
+     * Performs a micro step
+     *
+     * @param act the nodes to update
+     * @throws NodeException NodeException
+     */
+    void step(ArrayList<Node> act) throws NodeException {
+        try {
+            for (int i = 0; i < act.size(); i++) {
+                Node n = act.get(i);
+                if (isParallelSafe(n))
+                    parallel.add(n);
+            }
+
+            if (parallel.size() >= PARALLEL_THRESHOLD) {
+                chunk = Math.max(MIN_CHUNK, parallel.size() / (pool.getParallelism() * 4));
+                pool.invoke(new Phase(0, (parallel.size() + chunk - 1) / chunk));
+                NodeException e = exception.getAndSet(null);
+                if (e != null)
+                    throw e;
+
+                for (int i = 0; i < act.size(); i++) {
+                    Node n = act.get(i);
+                    if (!isParallelSafe(n))
+                        n.readInputs();
+                }
+            } else {
+                for (int i = 0; i < act.size(); i++)
+                    act.get(i).readInputs();
+            }
+        } finally {
+            parallel.clear();
+        }
+
+        for (int i = 0; i < act.size(); i++)
+            act.get(i).writeOutputs();
+    }
+
+    private void processChunk(int c) throws NodeException {
+        int from = c * chunk;
+        int to = Math.min(parallel.size(), from + chunk);
+        for (int i = from; i < to; i++)
+            parallel.get(i).readInputs();
+    }
+
+    private final class Phase extends RecursiveAction {
+        private final int fromChunk;
+        private final int toChunk;
+
+        private Phase(int fromChunk, int toChunk) {
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk > 1) {
+                int mid = (fromChunk + toChunk) >>> 1;
+                invokeAll(new Phase(fromChunk, mid), new Phase(mid, toChunk));
+            } else {
+                try {
+                    processChunk(fromChunk);
+                } catch (NodeException e) {
+                    exception.compareAndSet(null, e);
+                }
+            }
+        }
+    }
+}
@@ -66,6 +66,13 @@ public class Not extends Node implements Element, Countable {
         return output.asList();
     }
 
+    /**
+     * @return the input
+     */
+    public ObservableValue getInput() {
+        return input;
+    }
+
     /**
      * @return the output
      */
@@ -494,6 +494,15 @@ public final class Keys {
     public static final Key<Boolean> SETTINGS_SHOW_TUNNEL_RENAME_DIALOG
             = new Key<>("tunnelRenameDialog", true).setSecondary();
 
+    /**
+     * above this number of variables the heuristic minimizer is used
+     */
+    public static final Key<Integer> SETTINGS_HEURISTIC_MINIMIZER_VARS =
+            new Key.KeyInteger("heuristicMinimizerVars", 12)
+                    .setMin(5)
+                    .setMax(16)
+                    .setSecondary();
+
     /**
      * output format for numbers
      */
@@ -845,6 +854,18 @@ public final class Keys {
     public static final Key<Boolean> IS_GENERIC =
             new Key<>("isGeneric", false).setSecondary();
 
+    /**
+     * The circuit is simulated levelized if possible
+     */
+    public static final Key<Boolean> LEVELIZED_SIMULATION =
+            new Key<>("levelizedSimulation", false).setSecondary();
+
+    /**
+     * The circuit is simulated using all available cores
+     */
+    public static final Key<Boolean> PARALLEL_SIMULATION =
+            new Key<>("parallelSimulation", false).setSecondary();
+
 
     /**
      * Enables the tutorial
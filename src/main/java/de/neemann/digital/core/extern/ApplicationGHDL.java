@@ -123,7 +123,7 @@ public class ApplicationGHDL extends ApplicationVHDLStdIO {
         private final File folder;
 
         private GHDLProcessInterface(Process process, File folder) {
-            super(process);
+            super(process, Format.PACKED);
             this.folder = folder;
         }
 
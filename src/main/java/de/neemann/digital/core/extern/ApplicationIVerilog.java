@@ -154,7 +154,7 @@ public class ApplicationIVerilog extends ApplicationVerilogStdIO {
         private final File folder;
 
         private IVerilogProcessInterface(Process process, File folder) {
-            super(process);
+            super(process, Format.PACKED);
             this.folder = folder;
         }
 
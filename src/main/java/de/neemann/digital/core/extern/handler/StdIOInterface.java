@@ -16,19 +16,29 @@ import java.util.LinkedList;
 
 /**
  * Communicates with an external process by sending values and receiving results via the stdio.
- * All bits of all values are send as a stream of '0', '1' or 'Z'. The lsb is send first.
- * The last bit is followed by an end of line character.
+ * Two formats are supported.
  * <p>
+ * In the {@link Format#BITS} format all bits of all values are send as a stream of '0', '1' or 'Z'.
+ * The lsb is send first. The last bit is followed by an end of line character.
  * If the application wants to send values back, a new line needs to start with the string "Digital:".
  * After that all bit of all values needs to be send. The lsb needs to be send first.
  * The last bit needs to be followed by an end of line character.
+ * <p>
+ * In the {@link Format#PACKED} format the bits of all values are concatenated to a single word,
+ * starting with the lsb of the first value. This word is send as a hexadecimal number, msb first,
+ * followed by a space and the high z mask of the word, also as a hexadecimal number. Both numbers
+ * are padded with leading zeros to the number of digits needed to represent all bits.
+ * The line is terminated by an end of line character. The application sends values back in the
+ * same format, prefixed by the string "Digital:".
  */
 public class StdIOInterface implements ProcessInterface {
     private static final Logger LOGGER = LoggerFactory.getLogger(StdIOInterface.class);
     private static final String PREFIX = "Digital:";
     private static final int MAX_CONSOLE_LINES = 30;
     private static final long TIMEOUT = 5000;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
     private final Process process;
+    private final Format format;
     private BufferedWriter writer;
     private Thread thread;
     private LinkedList<String> consoleOut;
@@ -39,14 +49,39 @@ public class StdIOInterface implements ProcessInterface {
 
 
     /**
-     * Set the already started process
+     * The format used to transfer the values
+     */
+    public enum Format {
+        /**
+         * Every bit is transferred as a single character
+         */
+        BITS,
+        /**
+         * The values and the high z mask are transferred as packed hexadecimal words
+         */
+        PACKED
+    }
+
+    /**
+     * Set the already started process.
+     * The {@link Format#BITS} format is used.
      *
      * @param process the process to use
      */
     public StdIOInterface(Process process) {
+        this(process, Format.BITS);
+    }
+
+    /**
+     * Set the already started process
+     *
+     * @param process the process to use
+     * @param format  the format used to transfer the values
+     */
+    public StdIOInterface(Process process, Format format) {
         this.process = process;
+        this.format = format;
         setInputOutputStream(process.getInputStream(), process.getOutputStream());
-
     }
 
     /**
@@ -127,6 +162,10 @@ public class StdIOInterface implements ProcessInterface {
 
     @Override
     public void writeValues(ObservableValues values) throws IOException {
+        if (format == Format.PACKED) {
+            writePacked(values);
+            return;
+        }
         try {
             for (ObservableValue v : values) {
                 final int bits = v.getBits();
@@ -154,6 +193,10 @@ public class StdIOInterface implements ProcessInterface {
 
     @Override
     public void readValues(ObservableValues values) throws IOException {
+        if (format == Format.PACKED) {
+            readPacked(values);
+            return;
+        }
         String line = readLine();
         if (line != null) {
             int pos = PREFIX.length();
@@ -197,6 +240,99 @@ public class StdIOInterface implements ProcessInterface {
             throw new IOException(Lang.get("err_processTerminatedUnexpected_O", getConsoleOutNoWarn(consoleOut)));
     }
 
+    private void writePacked(ObservableValues values) throws IOException {
+        int bits = bitSum(values);
+        long[] value = new long[(bits + 63) / 64];
+        long[] highZ = new long[value.length];
+        int pos = 0;
+        for (ObservableValue v : values) {
+            long z = v.getHighZ();
+            setBits(value, pos, v.getValue() & ~z, v.getBits());
+            setBits(highZ, pos, z, v.getBits());
+            pos += v.getBits();
+        }
+
+        int digits = (bits + 3) / 4;
+        char[] line = new char[digits * 2 + 2];
+        for (int d = 0; d < digits; d++) {
+            int bit = (digits - 1 - d) * 4;
+            line[d] = HEX[(int) (value[bit >> 6] >>> (bit & 63)) & 15];
+            line[digits + 1 + d] = HEX[(int) (highZ[bit >> 6] >>> (bit & 63)) & 15];
+        }
+        line[digits] = ' ';
+        line[line.length - 1] = '\n';
+
+        try {
+            writer.write(line);
+            writer.flush();
+        } catch (IOException e) {
+            throw new IOException(Lang.get("err_writingToStdOut_O", getConsoleOut()), e);
+        }
+    }
+
+    private void readPacked(ObservableValues values) throws IOException {
+        String line = readLine();
+        if (line == null)
+            throw new IOException(Lang.get("err_processTerminatedUnexpected_O", getConsoleOutNoWarn(consoleOut)));
+
+        int bits = bitSum(values);
+        int digits = (bits + 3) / 4;
+        int pos = PREFIX.length();
+        if (pos + digits * 2 + 1 > line.length())
+            throw new IOException(Lang.get("err_notEnoughDataReceived_O", getConsoleOut()));
+
+        long[] value = new long[(bits + 63) / 64];
+        long[] highZ = new long[value.length];
+        parseHex(line, pos, digits, value);
+        char c = line.charAt(pos + digits);
+        if (c != ' ')
+            throw new IOException(Lang.get("err_invalidCharacterReceived_N_O", "" + c, getConsoleOut()));
+        parseHex(line, pos + digits + 1, digits, highZ);
+
+        pos = 0;
+        for (ObservableValue v : values) {
+            v.set(getBits(value, pos, v.getBits()), getBits(highZ, pos, v.getBits()));
+            pos += v.getBits();
+        }
+    }
+
+    private void parseHex(String line, int pos, int digits, long[] words) throws IOException {
+        for (int d = 0; d < digits; d++) {
+            char c = line.charAt(pos + d);
+            int h = Character.digit(c, 16);
+            if (h < 0)
+                throw new IOException(Lang.get("err_invalidCharacterReceived_N_O", "" + c, getConsoleOut()));
+            int bit = (digits - 1 - d) * 4;
+            words[bit >> 6] |= (long) h << (bit & 63);
+        }
+    }
+
+    private static int bitSum(ObservableValues values) {
+        int bits = 0;
+        for (ObservableValue v : values)
+            bits += v.getBits();
+        return bits;
+    }
+
+    private static void setBits(long[] words, int pos, long value, int bits) {
+        if (bits < 64)
+            value &= (1L << bits) - 1;
+        int shift = pos & 63;
+        words[pos >> 6] |= value << shift;
+        if (shift + bits > 64)
+            words[(pos >> 6) + 1] |= value >>> (64 - shift);
+    }
+
+    private static long getBits(long[] words, int pos, int bits) {
+        int shift = pos & 63;
+        long value = words[pos >> 6] >>> shift;
+        if (shift + bits > 64)
+            value |= words[(pos >> 6) + 1] << (64 - shift);
+        if (bits < 64)
+            value &= (1L << bits) - 1;
+        return value;
+    }
+
     /**
      * Returns the console out without warnings.
      * Used to remove not needed content which obfuscates the real error cause.
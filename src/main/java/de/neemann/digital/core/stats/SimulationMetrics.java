@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core.stats;
+
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.Node;
+import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.draw.elements.PinException;
+import de.neemann.digital.lang.Lang;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects runtime metrics of a running model.
+ * In contrast to the {@link Statistics}, which counts the components of a circuit, this class shows
+ * where the simulation time goes: The number of micro steps per step, the number of nodes updated in
+ * a micro step, the number of evaluations and the time spent in every node class, the number of
+ * observers of the values and the number of steps in which the oscillation detection was triggered.
+ * <p>
+ * Collecting the metrics slows down the simulation, so they are only collected if enabled by
+ * {@link Model#setMetrics(SimulationMetrics)}. The evaluations are only timed in the event driven
+ * simulation. In the levelized and parallel mode only the steps and micro steps are counted.
+ * While the model is running, the metrics are published as a JMX MBean.
+ */
+public class SimulationMetrics implements SimulationMetricsMXBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimulationMetrics.class);
+    private static final AtomicInteger MODEL_NUMBER = new AtomicInteger();
+    private static final int FAN_OUT_ENTRIES = 20;
+
+    private final HashMap<Class<?>, NodeMetric> nodeMetrics;
+    private long steps;
+    private long microSteps;
+    private long maxMicroStepsPerStep;
+    private long worklistTotal;
+    private long maxWorklist;
+    private long oscillationHits;
+    private ArrayList<FanOut> fanOut;
+    private ObjectName objectName;
+
+    /**
+     * Creates a new instance
+     */
+    public SimulationMetrics() {
+        nodeMetrics = new HashMap<>();
+        fanOut = new ArrayList<>();
+    }
+
+    /**
+     * Called by the model if it is started.
+     * Registers this instance at the platform MBean server.
+     *
+     * @param model the model
+     */
+    public void modelStarted(Model model) {
+        ArrayList<FanOut> list = new ArrayList<>();
+        for (Node n : model)
+            try {
+                for (ObservableValue v : n.getOutputs())
+                    list.add(new FanOut(n.getClass().getSimpleName() + "." + v.getName(), v.observerCount()));
+            } catch (PinException e) {
+                // nodes which can not provide their outputs are ignored
+            }
+        list.sort((a, b) -> Integer.compare(b.observers, a.observers));
+        synchronized (this) {
+            fanOut = new ArrayList<>(list.subList(0, Math.min(FAN_OUT_ENTRIES, list.size())));
+        }
+        try {
+            register("model" + MODEL_NUMBER.incrementAndGet());
+        } catch (JMException e) {
+            LOGGER.info("could not register simulation metrics", e);
+        }
+    }
+
+    /**
+     * Called by the model if it is closed.
+     * Removes this instance from the platform MBean server.
+     */
+    public void modelClosed() {
+        try {
+            unregister();
+        } catch (JMException e) {
+            LOGGER.info("could not unregister simulation metrics", e);
+        }
+    }
+
+    /**
+     * Called by the model if a step is completed
+     *
+     * @param microStepsInStep the number of micro steps the step needed
+     */
+    public synchronized void step(int microStepsInStep) {
+        steps++;
+        if (microStepsInStep > maxMicroStepsPerStep)
+            maxMicroStepsPerStep = microStepsInStep;
+    }
+
+    /**
+     * Called by the model if a micro step is started
+     *
+     * @param worklist the number of nodes to update
+     */
+    public synchronized void microStep(int worklist) {
+        microSteps++;
+        worklistTotal += worklist;
+        if (worklist > maxWorklist)
+            maxWorklist = worklist;
+    }
+
+    /**
+     * Called by the model if the oscillation detection is triggered
+     */
+    public synchronized void oscillationDetected() {
+        oscillationHits++;
+    }
+
+    /**
+     * Evaluates the given nodes and measures the time spent in every node.
+     * Called by the model instead of evaluating the nodes itself.
+     *
+     * @param nodes the nodes to update
+     * @throws NodeException NodeException
+     */
+    public void evaluate(ArrayList<Node> nodes) throws NodeException {
+        int size = nodes.size();
+        long[] time = new long[size];
+        for (int i = 0; i < size; i++) {
+            long t = System.nanoTime();
+            nodes.get(i).readInputs();
+            time[i] = System.nanoTime() - t;
+        }
+        for (int i = 0; i < size; i++) {
+            long t = System.nanoTime();
+            nodes.get(i).writeOutputs();
+            time[i] += System.nanoTime() - t;
+        }
+        synchronized (this) {
+            for (int i = 0; i < size; i++) {
+                Class<?> c = nodes.get(i).getClass();
+                NodeMetric m = nodeMetrics.get(c);
+                if (m == null) {
+                    m = new NodeMetric(c.getSimpleName());
+                    nodeMetrics.put(c, m);
+                }
+                m.evaluations++;
+                m.nanos += time[i];
+            }
+        }
+    }
+
+    @Override
+    public synchronized long getSteps() {
+        return steps;
+    }
+
+    @Override
+    public synchronized long getMicroSteps() {
+        return microSteps;
+    }
+
+    @Override
+    public synchronized long getMaxMicroStepsPerStep() {
+        return maxMicroStepsPerStep;
+    }
+
+    @Override
+    public synchronized double getAverageWorklistSize() {
+        if (microSteps == 0)
+            return 0;
+        return (double) worklistTotal / microSteps;
+    }
+
+    @Override
+    public synchronized long getMaxWorklistSize() {
+        return maxWorklist;
+    }
+
+    @Override
+    public synchronized long getOscillationHits() {
+        return oscillationHits;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getEvaluations() {
+        TreeMap<String, Long> map = new TreeMap<>();
+        for (NodeMetric m : nodeMetrics.values())
+            map.merge(m.name, m.evaluations, Long::sum);
+        return map;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getEvaluationTimes() {
+        TreeMap<String, Long> map = new TreeMap<>();
+        for (NodeMetric m : nodeMetrics.values())
+            map.merge(m.name, m.nanos, Long::sum);
+        return map;
+    }
+
+    @Override
+    public synchronized int getMaxFanOut() {
+        if (fanOut.isEmpty())
+            return 0;
+        return fanOut.get(0).observers;
+    }
+
+    /**
+     * @return the values with the most observers, the value with the most observers first
+     */
+    public synchronized List<FanOut> getFanOut() {
+        return new ArrayList<>(fanOut);
+    }
+
+    @Override
+    public synchronized void reset() {
+        nodeMetrics.clear();
+        steps = 0;
+        microSteps = 0;
+        maxMicroStepsPerStep = 0;
+        worklistTotal = 0;
+        maxWorklist = 0;
+        oscillationHits = 0;
+    }
+
+    /**
+     * Registers this instance at the platform MBean server
+     *
+     * @param name the name used to identify the model
+     * @throws JMException JMException
+     */
+    public void register(String name) throws JMException {
+        unregister();
+        objectName = new ObjectName("de.neemann.digital:type=SimulationMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    }
+
+    /**
+     * Removes this instance from the platform MBean server
+     *
+     * @throws JMException JMException
+     */
+    public void unregister() throws JMException {
+        if (objectName != null) {
+            ObjectName n = objectName;
+            objectName = null;
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(n);
+        }
+    }
+
+    /**
+     * @return the name this instance is registered with, null if not registered
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * Creates the table model of the node classes, the most time consuming class first.
+     *
+     * @return the table model
+     */
+    public synchronized TableModel getTableModel() {
+        ArrayList<NodeMetric> list = new ArrayList<>();
+        for (NodeMetric m : nodeMetrics.values())
+            list.add(new NodeMetric(m));
+        list.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+        return new MyTableModel(list);
+    }
+
+    /**
+     * Creates the table model of the summary values
+     *
+     * @return the table model
+     */
+    public synchronized TableModel getSummaryTableModel() {
+        ArrayList<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{"steps", steps});
+        rows.add(new Object[]{"microSteps", microSteps});
+        rows.add(new Object[]{"maxMicroStepsPerStep", maxMicroStepsPerStep});
+        rows.add(new Object[]{"averageWorklistSize", getAverageWorklistSize()});
+        rows.add(new Object[]{"maxWorklistSize", maxWorklist});
+        rows.add(new Object[]{"oscillationHits", oscillationHits});
+        for (FanOut f : fanOut)
+            rows.add(new Object[]{"fanOut " + f.name, f.observers});
+        return new SummaryTableModel(rows);
+    }
+
+    /**
+     * The number of observers of a value
+     */
+    public static final class FanOut {
+        private final String name;
+        private final int observers;
+
+        private FanOut(String name, int observers) {
+            this.name = name;
+            this.observers = observers;
+        }
+
+        /**
+         * @return the name of the value, prefixed by the class of the node which writes the value
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the number of observers
+         */
+        public int getObservers() {
+            return observers;
+        }
+    }
+
+    private static final class NodeMetric {
+        private final String name;
+        private long evaluations;
+        private long nanos;
+
+        private NodeMetric(String name) {
+            this.name = name;
+        }
+
+        private NodeMetric(NodeMetric m) {
+            name = m.name;
+            evaluations = m.evaluations;
+            nanos = m.nanos;
+        }
+    }
+
+    private abstract static class ReadOnlyTableModel implements TableModel {
+        @Override
+        public boolean isCellEditable(int row, int col) {
+            return false;
+        }
+
+        @Override
+        public void setValueAt(Object o, int row, int col) {
+        }
+
+        @Override
+        public void addTableModelListener(TableModelListener tableModelListener) {
+        }
+
+        @Override
+        public void removeTableModelListener(TableModelListener tableModelListener) {
+        }
+    }
+
+    private static final class MyTableModel extends ReadOnlyTableModel {
+        private final ArrayList<NodeMetric> metrics;
+
+        private MyTableModel(ArrayList<NodeMetric> metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public int getRowCount() {
+            return metrics.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 4;
+        }
+
+        @Override
+        public String getColumnName(int i) {
+            switch (i) {
+                case 0:
+                    return Lang.get("stat_part");
+                case 1:
+                    return Lang.get("stat_evaluations");
+                case 2:
+                    return Lang.get("stat_timeNs");
+                default:
+                    return Lang.get("stat_timePerEvaluationNs");
+            }
+        }
+
+        @Override
+        public Class<?> getColumnClass(int i) {
+            if (i == 0) return String.class;
+            else return Long.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int col) {
+            NodeMetric m = metrics.get(row);
+            switch (col) {
+                case 0:
+                    return m.name;
+                case 1:
+                    return m.evaluations;
+                case 2:
+                    return m.nanos;
+                default:
+                    return m.evaluations == 0 ? 0 : m.nanos / m.evaluations;
+            }
+        }
+    }
+
+    private static final class SummaryTableModel extends ReadOnlyTableModel {
+        private final ArrayList<Object[]> rows;
+
+        private SummaryTableModel(ArrayList<Object[]> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 2;
+        }
+
+        @Override
+        public String getColumnName(int i) {
+            if (i == 0)
+                return Lang.get("stat_metric");
+            return Lang.get("stat_value");
+        }
+
+        @Override
+        public Class<?> getColumnClass(int i) {
+            if (i == 0) return String.class;
+            else return Number.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int col) {
+            return rows.get(row)[col];
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core.stats;
+
+import java.util.Map;
+
+/**
+ * The JMX view of the {@link SimulationMetrics}
+ */
+public interface SimulationMetricsMXBean {
+
+    /**
+     * @return the number of steps
+     */
+    long getSteps();
+
+    /**
+     * @return the number of micro steps
+     */
+    long getMicroSteps();
+
+    /**
+     * @return the largest number of micro steps needed by a single step
+     */
+    long getMaxMicroStepsPerStep();
+
+    /**
+     * @return the average number of nodes updated in a micro step
+     */
+    double getAverageWorklistSize();
+
+    /**
+     * @return the largest number of nodes updated in a micro step
+     */
+    long getMaxWorklistSize();
+
+    /**
+     * @return the number of steps in which the oscillation detection was triggered
+     */
+    long getOscillationHits();
+
+    /**
+     * @return the number of evaluations of every node class
+     */
+    Map<String, Long> getEvaluations();
+
+    /**
+     * @return the time in nanoseconds spent in every node class
+     */
+    Map<String, Long> getEvaluationTimes();
+
+    /**
+     * @return the largest number of observers of a single value
+     */
+    int getMaxFanOut();
+
+    /**
+     * Resets all counters
+     */
+    void reset();
+}
@@ -22,11 +22,15 @@ import java.util.HashSet;
 public final class BusModelStateObserver implements ModelStateObserverTyped {
     private final ArrayList<AbstractBusHandler> busList;
     private final HashSet<PlainSwitch.RealSwitch> closedSwitches;
+    private final HashMap<CommonBusValue, ConnectedBusHandler> netMap;
+    private final HashMap<CommonBusValue, ArrayList<PlainSwitch.RealSwitch>> switchesAt;
     private int version;
 
     BusModelStateObserver() {
         busList = new ArrayList<>();
         closedSwitches = new HashSet<>();
+        netMap = new HashMap<>();
+        switchesAt = new HashMap<>();
     }
 
     @Override
@@ -63,69 +67,133 @@ public final class BusModelStateObserver implements ModelStateObserverTyped {
 
     /**
      * Closes or opens a switch.
-     * Is used to reconfigure a net with switches
+     * Is used to reconfigure a net with switches.
+     * Only the nets connected to the given switch are reconfigured.
      *
      * @param realSwitch the switch
      * @param closed     true if switch is closed
      */
     public void setClosed(PlainSwitch.RealSwitch realSwitch, boolean closed) {
         if (closed) {
-            closedSwitches.add(realSwitch);
+            if (closedSwitches.add(realSwitch))
+                close(realSwitch);
         } else {
-            closedSwitches.remove(realSwitch);
-            realSwitch.getInput1().resetHandler();
-            realSwitch.getInput2().resetHandler();
+            if (closedSwitches.remove(realSwitch))
+                open(realSwitch);
         }
-        reconfigureNets();
     }
 
     /**
-     * Reconfiguration of the nets.
-     * If a switch is closed the nets on both contacts of the switch are connected to a single
-     * common net, After that the state of the new merged nets are updated.
-     * Needs to be called every time a switch has changed.
+     * Connects the nets on both contacts of the switch.
+     * If the contacts already belong to different merged nets, the smaller merged net is
+     * added to the larger one. After that the state of the merged net is updated.
      */
-    private void reconfigureNets() {
-        busList.removeIf(abstractBusHandler -> abstractBusHandler instanceof ConnectedBusHandler);
-        HashMap<CommonBusValue, ConnectedBusHandler> netMap = new HashMap<>();
-        ArrayList<ConnectedBusHandler> createdHandlers = new ArrayList<>();
-        for (PlainSwitch.RealSwitch s : closedSwitches) {
-            ConnectedBusHandler h1 = netMap.get(s.getInput1());
-            ConnectedBusHandler h2 = netMap.get(s.getInput2());
-            if (h1 == null) {
-                if (h2 == null) {
-                    ConnectedBusHandler h = new ConnectedBusHandler(this);
-                    createdHandlers.add(h);
-                    h.addNet(s.getInput1());
-                    h.addNet(s.getInput2());
-                    h.addExclude(s.getOutput1(), s.getOutput2());
-                    netMap.put(s.getInput1(), h);
-                    netMap.put(s.getInput2(), h);
-                } else {
-                    h2.addNet(s.getInput1());
-                    h2.addExclude(s.getOutput1(), s.getOutput2());
-                    netMap.put(s.getInput1(), h2);
-                }
+    private void close(PlainSwitch.RealSwitch s) {
+        addSwitch(s.getInput1(), s);
+        addSwitch(s.getInput2(), s);
+
+        ConnectedBusHandler h1 = netMap.get(s.getInput1());
+        ConnectedBusHandler h2 = netMap.get(s.getInput2());
+        ConnectedBusHandler h;
+        if (h1 == null) {
+            if (h2 == null) {
+                h = new ConnectedBusHandler(this);
+                addNet(h, s.getInput1());
+                addNet(h, s.getInput2());
             } else {
-                if (h2 == null) {
-                    h1.addNet(s.getInput2());
-                    h1.addExclude(s.getOutput1(), s.getOutput2());
-                    netMap.put(s.getInput2(), h1);
-                } else {
-                    if (h1 != h2) {
-                        // merge the nets
-                        h1.addNet(h2);
-                        h1.addExcludesFrom(h2);
-                        for (CommonBusValue v : h2.getValues())
-                            netMap.put(v, h1);
-                        createdHandlers.remove(h2);
-                    }
+                h = h2;
+                addNet(h, s.getInput1());
+            }
+        } else {
+            h = h1;
+            if (h2 == null)
+                addNet(h, s.getInput2());
+            else if (h1 != h2) {
+                // merge the smaller net into the larger one
+                if (h1.getValues().size() < h2.getValues().size()) {
+                    h = h2;
+                    h2 = h1;
+                }
+                h.addNet(h2);
+                h.addExcludesFrom(h2);
+                for (CommonBusValue v : h2.getValues())
+                    netMap.put(v, h);
+                busList.remove(h2);
+            }
+        }
+        h.addExclude(s.getOutput1(), s.getOutput2());
+        h.removeExcludes();
+        h.recalculate();
+    }
+
+    /**
+     * Disconnects the nets on both contacts of the switch.
+     * The merged net containing the switch may fall apart, so it is split into its
+     * connected parts. All other merged nets are not touched.
+     * The new handlers are recalculated not until all nets of the old merged net are
+     * assigned to their new handler, because a recalculation can cause other nets to be
+     * recalculated as well.
+     */
+    private void open(PlainSwitch.RealSwitch s) {
+        removeSwitch(s.getInput1(), s);
+        removeSwitch(s.getInput2(), s);
+
+        ConnectedBusHandler h = netMap.get(s.getInput1());
+        if (h == null)
+            return;
+
+        busList.remove(h);
+        ArrayList<CommonBusValue> nets = h.getValues();
+        for (CommonBusValue v : nets)
+            netMap.remove(v);
+
+        ArrayList<AbstractBusHandler> createdHandlers = new ArrayList<>();
+        for (CommonBusValue v : nets)
+            if (!netMap.containsKey(v)) {
+                if (switchesAt.containsKey(v))
+                    createdHandlers.add(createConnectedNet(v));
+                else
+                    createdHandlers.add(v.isolate());
+            }
+        for (AbstractBusHandler ch : createdHandlers)
+            ch.recalculate();
+    }
+
+    private ConnectedBusHandler createConnectedNet(CommonBusValue start) {
+        ConnectedBusHandler h = new ConnectedBusHandler(this);
+        addNet(h, start);
+        ArrayList<CommonBusValue> todo = new ArrayList<>();
+        todo.add(start);
+        while (!todo.isEmpty()) {
+            CommonBusValue v = todo.remove(todo.size() - 1);
+            for (PlainSwitch.RealSwitch s : switchesAt.get(v)) {
+                h.addExclude(s.getOutput1(), s.getOutput2());
+                CommonBusValue other = s.getInput1() == v ? s.getInput2() : s.getInput1();
+                if (!netMap.containsKey(other)) {
+                    addNet(h, other);
+                    todo.add(other);
                 }
             }
         }
-        for (ConnectedBusHandler h : createdHandlers)
-            h.removeExcludes();
-        for (ConnectedBusHandler h : createdHandlers)
-            h.recalculate();
+        h.removeExcludes();
+        return h;
+    }
+
+    private void addNet(ConnectedBusHandler h, CommonBusValue v) {
+        h.addNet(v);
+        netMap.put(v, h);
+    }
+
+    private void addSwitch(CommonBusValue v, PlainSwitch.RealSwitch s) {
+        switchesAt.computeIfAbsent(v, k -> new ArrayList<>()).add(s);
+    }
+
+    private void removeSwitch(CommonBusValue v, PlainSwitch.RealSwitch s) {
+        ArrayList<PlainSwitch.RealSwitch> list = switchesAt.get(v);
+        if (list != null) {
+            list.remove(s);
+            if (list.isEmpty())
+                switchesAt.remove(v);
+        }
     }
 }
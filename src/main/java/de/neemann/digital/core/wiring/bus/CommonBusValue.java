@@ -57,10 +57,20 @@ public final class CommonBusValue extends ObservableValue implements NodeInterfa
      * Resets the handler. So this net is isolated to a single simple net.
      */
     void resetHandler() {
-        setHandler(new SingleBusHandler(obs, this, resistor, inputs).addOrigin(origin));
+        isolate();
         hasChanged();
     }
 
+    /**
+     * Isolates this net to a single simple net without recalculating its state.
+     *
+     * @return the new handler
+     */
+    AbstractBusHandler isolate() {
+        setHandler(new SingleBusHandler(obs, this, resistor, inputs).addOrigin(origin));
+        return handler;
+    }
+
     /**
      * @return the pull resistor is this net
      */
@@ -11,6 +11,7 @@ import de.neemann.digital.core.element.PinDescription;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 /**
@@ -21,7 +22,9 @@ public final class ConnectedBusHandler extends AbstractBusHandler {
     private PinDescription.PullResistor resistor = PinDescription.PullResistor.none;
     private final ArrayList<CommonBusValue> values;
     private final ArrayList<ObservableValue> inputs;
-    private final ArrayList<ObservableValue> excludes;
+    private final HashSet<ObservableValue> excludes;
+    private boolean recalculating;
+    private boolean recalculateAgain;
 
     /**
      * Creates a new instance
@@ -32,7 +35,7 @@ public final class ConnectedBusHandler extends AbstractBusHandler {
         super(obs);
         values = new ArrayList<>();
         inputs = new ArrayList<>();
-        excludes = new ArrayList<>();
+        excludes = new HashSet<>();
     }
 
     /**
@@ -79,6 +82,28 @@ public final class ConnectedBusHandler extends AbstractBusHandler {
         return resistor;
     }
 
+    /**
+     * Setting the nets can cause this handler to be recalculated again before all nets are set.
+     * In this case the nested recalculation is deferred until the running one is completed.
+     * Otherwise the running recalculation would overwrite some nets with an outdated state.
+     */
+    @Override
+    void recalculate() {
+        if (recalculating)
+            recalculateAgain = true;
+        else {
+            recalculating = true;
+            try {
+                do {
+                    recalculateAgain = false;
+                    super.recalculate();
+                } while (recalculateAgain);
+            } finally {
+                recalculating = false;
+            }
+        }
+    }
+
     @Override
     public void set(long value, long highz) {
         for (ObservableValue val : values)
@@ -12,7 +12,6 @@ import de.neemann.digital.draw.graphics.Orientation;
 import de.neemann.digital.draw.graphics.Style;
 import de.neemann.digital.draw.graphics.Vector;
 import de.neemann.digital.draw.shapes.Drawable;
-import de.neemann.digital.testing.parser.TestRow;
 
 import javax.swing.*;
 
@@ -92,35 +91,18 @@ public class DataPlotter implements Drawable {
 
     @Override
     public void drawTo(Graphic g, Style highLight) {
-        ValueTable data;
-        final boolean staticData = modelSync == SyncAccess.NOSYNC;
-        if (staticData) {
-            data = dataOriginal;
-        } else {
-            data = modelSync.read(new Runnable() {
-                private ValueTable data;
-
-                @Override
-                public void run() {
-                    data = new ValueTable(dataOriginal);
-                }
-            }).data;
-        }
-
+        // the number of rows and the visible rows are read at once, so that
+        // rows added by the running model in between are not missed
+        final VisibleRows visible = modelSync.read(new VisibleRows(modelSync == SyncAccess.NOSYNC));
         final int availDataWidth = width - textWidth;
-        final int preferredDataWidth = (int) (size * data.getRows());
-
-        autoScaleOffset = preferredDataWidth - availDataWidth + 2;
-        if (!manualScaling && width > 0 && !staticData && autoScaleOffset > 0)
-            offset = autoScaleOffset;
+        final int dataAreaWidth = visible.dataAreaWidth;
+        final int from = visible.from;
+        final int to = visible.to;
+        final ValueTable data = visible.data;
+        final int dataOffs = visible.dataOffs;
 
         if (scrollBar != null)
-            scrollBar.setValues(offset, availDataWidth, 0, preferredDataWidth);
-
-        int dataAreaWidth = availDataWidth;
-        // if no width is given, plot all the data
-        if (width == 0)
-            dataAreaWidth = preferredDataWidth - offset;
+            scrollBar.setValues(offset, availDataWidth, 0, visible.preferredDataWidth);
 
         int yOffs = SIZE / 2;
         int y = BORDER;
@@ -141,8 +123,10 @@ public class DataPlotter implements Drawable {
         for (int i = 0; i < signals; i++) last[i] = new LastState();
 
         boolean first = true;
-        double pos = 0;
-        for (TestRow s : data) {
+        final int end = Math.min(to, dataOffs + data.getRows());
+        for (int row = from; row < end; row++) {
+            final int r = row - dataOffs;
+            final double pos = row * size;
             int x1 = (int) (pos + textWidth - offset);
             int x2 = (int) (pos + textWidth - offset + size);
 
@@ -156,7 +140,7 @@ public class DataPlotter implements Drawable {
                 y = BORDER;
                 for (int i = 0; i < signals; i++) {
                     Style style;
-                    switch (s.getValue(i).getState()) {
+                    switch (data.getState(r, i)) {
                         case FAIL:
                             style = Style.FAILED;
                             break;
@@ -169,7 +153,7 @@ public class DataPlotter implements Drawable {
 
                     long width = data.getMax(i);
                     if (width == 0) width = 1;
-                    long value = s.getValue(i).getValue();
+                    long value = data.getLong(r, i);
                     int ry;
                     long sWidth = (width >>> 32);
                     if (sWidth == 0) {
@@ -191,7 +175,7 @@ public class DataPlotter implements Drawable {
                         last[i].hasChanged = false;
                     }
 
-                    if (!s.getValue(i).getType().equals(Value.Type.HIGHZ))
+                    if (data.getType(r, i) != Value.Type.HIGHZ)
                         g.drawLine(new Vector(x1, y + ry), new Vector(x2, y + ry), style);
 
                     if (!first && ry != last[i].y)
@@ -208,12 +192,6 @@ public class DataPlotter implements Drawable {
                 }
                 first = false;
             }
-
-            if (width > 0 && x1 > width)
-                break;
-
-            pos += size;
-
         }
         g.drawLine(new Vector(textWidth + dataAreaWidth, BORDER - SEP2), new Vector(textWidth + dataAreaWidth, (SIZE + SEP) * signals + BORDER - SEP2), Style.DASH);
     }
@@ -286,6 +264,51 @@ public class DataPlotter implements Drawable {
         return false;
     }
 
+    /**
+     * Determines the visible rows and copies them from the model.
+     */
+    private final class VisibleRows implements Runnable {
+        private final boolean staticData;
+        private int preferredDataWidth;
+        private int dataAreaWidth;
+        private int from;
+        private int to;
+        private ValueTable data;
+        private int dataOffs;
+
+        private VisibleRows(boolean staticData) {
+            this.staticData = staticData;
+        }
+
+        @Override
+        public void run() {
+            final int rows = dataOriginal.getRows();
+            final int availDataWidth = width - textWidth;
+            preferredDataWidth = (int) (size * rows);
+
+            autoScaleOffset = preferredDataWidth - availDataWidth + 2;
+            if (!manualScaling && width > 0 && !staticData && autoScaleOffset > 0)
+                offset = autoScaleOffset;
+
+            dataAreaWidth = availDataWidth;
+            // if no width is given, plot all the data
+            if (width == 0)
+                dataAreaWidth = preferredDataWidth - offset;
+
+            // only the visible rows are copied and drawn
+            from = Math.max(0, (int) (offset / size) - 1);
+            to = Math.min(rows, (int) ((offset + dataAreaWidth) / size) + 2);
+            if (staticData) {
+                data = dataOriginal;
+                dataOffs = 0;
+            } else {
+                int f = Math.min(from, rows);
+                data = new ValueTable(dataOriginal, f, Math.max(f, to));
+                dataOffs = from;
+            }
+        }
+    }
+
     private static final class LastState {
         private long value;
         private int y;
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.data;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Columnar store of samples.
+ * Every column is made up of a long value and a type byte per row. The rows are stored in chunks
+ * of {@link #CHUNK_SIZE} rows, so growing the store never copies more than one chunk and removing
+ * rows at the front releases whole chunks. To keep small tables small, the first chunk on the heap
+ * starts with a small capacity which is doubled as needed.
+ * The chunks are either allocated on the heap or mapped from a file. In the later case only the
+ * chunks accessed are held in memory by the operating system.
+ */
+final class SampleStore implements Closeable {
+    private static final int CHUNK_BITS = 12;
+    /**
+     * The number of rows stored in a chunk
+     */
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MIN_CAPACITY = 16;
+    private static final Value.Type[] TYPES = Value.Type.values();
+
+    private final int columns;
+    private final FileChannel channel;
+    private final ArrayList<Chunk> chunks;
+    private final ArrayList<Chunk> spare;
+    private long fileSize;
+    private long first;
+    private long end;
+    private long removed;
+
+    /**
+     * Creates a new store on the heap
+     *
+     * @param columns the number of columns
+     */
+    SampleStore(int columns) {
+        this.columns = columns;
+        channel = null;
+        chunks = new ArrayList<>();
+        spare = new ArrayList<>();
+    }
+
+    /**
+     * Creates a new store backed by a memory mapped file.
+     * An existing file is overwritten.
+     *
+     * @param columns the number of columns
+     * @param file    the file to use
+     * @throws IOException IOException
+     */
+    SampleStore(int columns, File file) throws IOException {
+        this.columns = columns;
+        channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        chunks = new ArrayList<>();
+        spare = new ArrayList<>();
+    }
+
+    /**
+     * @return the number of rows stored
+     */
+    int size() {
+        return (int) (end - first);
+    }
+
+    /**
+     * Appends a new row.
+     * The content of the new row is undefined until it is set by {@link #set(int, int, long, Value.Type)}.
+     *
+     * @return the index of the new row
+     */
+    int append() {
+        int ci = chunkIndex(end);
+        if (ci == chunks.size())
+            chunks.add(createChunk(channel == null && ci == 0 ? MIN_CAPACITY : CHUNK_SIZE));
+        else {
+            Chunk c = chunks.get(ci);
+            if ((end & CHUNK_MASK) == c.capacity)
+                chunks.set(ci, c.grow(columns));
+        }
+        return (int) (end++ - first);
+    }
+
+    /**
+     * Sets a value
+     *
+     * @param row   the row
+     * @param col   the column
+     * @param value the value
+     * @param type  the type of the value
+     */
+    void set(int row, int col, long value, Value.Type type) {
+        long abs = first + row;
+        Chunk c = chunks.get(chunkIndex(abs));
+        int i = col * c.capacity + (int) (abs & CHUNK_MASK);
+        c.values.put(i, value);
+        c.types.put(i, (byte) type.ordinal());
+    }
+
+    /**
+     * Returns a value
+     *
+     * @param row the row
+     * @param col the column
+     * @return the value
+     */
+    long getValue(int row, int col) {
+        long abs = first + row;
+        Chunk c = chunks.get(chunkIndex(abs));
+        return c.values.get(col * c.capacity + (int) (abs & CHUNK_MASK));
+    }
+
+    /**
+     * Returns the type of value
+     *
+     * @param row the row
+     * @param col the column
+     * @return the type
+     */
+    Value.Type getType(int row, int col) {
+        long abs = first + row;
+        Chunk c = chunks.get(chunkIndex(abs));
+        return TYPES[c.types.get(col * c.capacity + (int) (abs & CHUNK_MASK))];
+    }
+
+    /**
+     * Returns the stored value
+     *
+     * @param row the row
+     * @param col the column
+     * @return the value
+     */
+    Value get(int row, int col) {
+        return new Value(getValue(row, col), getType(row, col));
+    }
+
+    /**
+     * @return the number of rows removed from the front since the store was created
+     */
+    long getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Removes rows from the front of the store
+     *
+     * @param n the number of rows to remove
+     */
+    void removeFirst(int n) {
+        n = Math.min(n, size());
+        removed += n;
+        first += n;
+        while (first >= CHUNK_SIZE) {
+            release(chunks.remove(0));
+            first -= CHUNK_SIZE;
+            end -= CHUNK_SIZE;
+        }
+    }
+
+    /**
+     * Removes all rows
+     */
+    void clear() {
+        for (Chunk c : chunks)
+            release(c);
+        chunks.clear();
+        first = 0;
+        end = 0;
+    }
+
+    /**
+     * Creates a copy on the heap of the rows in the given range
+     *
+     * @param from the first row to copy
+     * @param to   the row behind the last row to copy
+     * @return the copy
+     */
+    SampleStore copy(int from, int to) {
+        SampleStore c = new SampleStore(columns);
+        int n = to - from;
+        for (int r = 0; r < n; r += CHUNK_SIZE)
+            c.chunks.add(c.createChunk(Math.min(CHUNK_SIZE, Math.max(MIN_CAPACITY, n - r))));
+        c.end = n;
+        int done = 0;
+        while (done < n) {
+            long abs = first + from + done;
+            Chunk src = chunks.get(chunkIndex(abs));
+            int srcOffs = (int) (abs & CHUNK_MASK);
+            Chunk dst = c.chunks.get(done >> CHUNK_BITS);
+            int dstOffs = done & CHUNK_MASK;
+            int len = Math.min(n - done, Math.min(CHUNK_SIZE - srcOffs, CHUNK_SIZE - dstOffs));
+            for (int col = 0; col < columns; col++) {
+                int s = col * src.capacity + srcOffs;
+                int d = col * dst.capacity + dstOffs;
+                for (int i = 0; i < len; i++) {
+                    dst.values.put(d + i, src.values.get(s + i));
+                    dst.types.put(d + i, src.types.get(s + i));
+                }
+            }
+            done += len;
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        chunks.clear();
+        spare.clear();
+        first = 0;
+        end = 0;
+        if (channel != null)
+            channel.close();
+    }
+
+    private int chunkIndex(long abs) {
+        return (int) (abs >> CHUNK_BITS);
+    }
+
+    private Chunk createChunk(int capacity) {
+        if (!spare.isEmpty())
+            return spare.remove(spare.size() - 1);
+
+        if (channel == null)
+            return new Chunk(capacity, columns);
+
+        int entries = columns * CHUNK_SIZE;
+        try {
+            ByteBuffer values = channel.map(FileChannel.MapMode.READ_WRITE, fileSize, entries * 8L);
+            fileSize += entries * 8L;
+            ByteBuffer types = channel.map(FileChannel.MapMode.READ_WRITE, fileSize, entries);
+            fileSize += entries;
+            return new Chunk(CHUNK_SIZE, values.asLongBuffer(), types);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(Chunk c) {
+        // The regions of a mapped file are always reused. On the heap only
+        // one chunk is kept to avoid reallocation if the store is used as a ring.
+        if (c.capacity == CHUNK_SIZE && (channel != null || spare.isEmpty()))
+            spare.add(c);
+    }
+
+    private static final class Chunk {
+        private final int capacity;
+        private final LongBuffer values;
+        private final ByteBuffer types;
+
+        private Chunk(int capacity, int columns) {
+            this(capacity, LongBuffer.wrap(new long[capacity * columns]), ByteBuffer.wrap(new byte[capacity * columns]));
+        }
+
+        private Chunk(int capacity, LongBuffer values, ByteBuffer types) {
+            this.capacity = capacity;
+            this.values = values;
+            this.types = types;
+        }
+
+        private Chunk grow(int columns) {
+            Chunk c = new Chunk(Math.min(capacity * 2, CHUNK_SIZE), columns);
+            for (int col = 0; col < columns; col++)
+                for (int i = 0; i < capacity; i++) {
+                    c.values.put(col * c.capacity + i, values.get(col * capacity + i));
+                    c.types.put(col * c.capacity + i, types.get(col * capacity + i));
+                }
+            return c;
+        }
+    }
+}
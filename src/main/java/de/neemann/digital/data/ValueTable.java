@@ -13,15 +13,21 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
- * Stores values in a table
+ * Stores values in a table.
+ * The values are stored column by column in a {@link SampleStore}, so a row of plain values
+ * does not create any objects. Rows which carry additional information like a description,
+ * a row number or matched values are kept as they are in addition to their values.
  */
-public class ValueTable extends Observable implements Iterable<TestRow> {
+public class ValueTable extends Observable implements Iterable<TestRow>, Closeable {
 
     private final String[] names;
-    private final ArrayList<TestRow> values;
+    private SampleStore values;
+    private final HashMap<Long, TestRow> richRows;
     private ArrayList<Integer> tableRowIndex;
     private final long[] max;
     private int maxSize = 0;
@@ -42,7 +48,8 @@ public class ValueTable extends Observable implements Iterable<TestRow> {
      */
     public ValueTable(String... names) {
         this.names = names;
-        values = new ArrayList<>();
+        values = new SampleStore(names.length);
+        richRows = new HashMap<>();
         max = new long[names.length];
     }
 
@@ -52,11 +59,50 @@ public class ValueTable extends Observable implements Iterable<TestRow> {
      * @param toCopy the ValueTable to copy
      */
     public ValueTable(ValueTable toCopy) {
+        this(toCopy, 0, toCopy.getRows());
+    }
+
+    /**
+     * Creates a copy of some rows of the given ValueTable.
+     * The max values are taken from the given table.
+     *
+     * @param toCopy the ValueTable to copy
+     * @param from   the first row to copy
+     * @param to     the row behind the last row to copy
+     */
+    ValueTable(ValueTable toCopy, int from, int to) {
         this.names = toCopy.names;
-        values = (ArrayList<TestRow>) toCopy.values.clone();
+        values = toCopy.values.copy(from, to);
+        richRows = new HashMap<>();
+        if (!toCopy.richRows.isEmpty()) {
+            long offs = toCopy.values.getRemoved();
+            for (int i = from; i < to; i++) {
+                TestRow r = toCopy.richRows.get(offs + i);
+                if (r != null)
+                    richRows.put((long) (i - from), r);
+            }
+        }
         max = toCopy.max.clone();
     }
 
+    /**
+     * Stores the values in a memory mapped file instead of the heap.
+     * Allows to store a very large number of rows.
+     * Must be called before the first row is added.
+     * An existing file is overwritten. The file is released by {@link #close()}.
+     *
+     * @param file the file to use
+     * @return this for chained calls
+     * @throws IOException IOException
+     */
+    public ValueTable setBackingFile(File file) throws IOException {
+        if (values.size() > 0)
+            throw new RuntimeException("backing file must be set on an empty table");
+        values.close();
+        values = new SampleStore(names.length, file);
+        return this;
+    }
+
     /**
      * @return number of rows
      */
@@ -86,20 +132,40 @@ public class ValueTable extends Observable implements Iterable<TestRow> {
             if (tableRowIndex != null)
                 throw new RuntimeException("delete not allowed if table index is present");
 
-            while (values.size() >= maxSize)
-                values.remove(0);
+            int n = values.size() - maxSize + 1;
+            if (!richRows.isEmpty()) {
+                long offs = values.getRemoved();
+                for (int i = 0; i < n; i++)
+                    richRows.remove(offs + i);
+            }
+            values.removeFirst(n);
         }
         if (tableRowIndex != null)
             tableRowIndex.add(values.size());
-        values.add(row);
 
-        checkMax(row.getValues());
+        Value[] v = row.getValues();
+        int r = values.append();
+        for (int i = 0; i < v.length; i++)
+            values.set(r, i, v[i].getValue(), v[i].getType());
+        if (!isPlain(row))
+            richRows.put(values.getRemoved() + r, row);
+
+        checkMax(v);
 
         fireHasChanged();
 
         return this;
     }
 
+    private static boolean isPlain(TestRow row) {
+        if (row.getClass() != TestRow.class || row.getDescription() != null || row.getRow() >= 0)
+            return false;
+        for (Value v : row.getValues())
+            if (v.getClass() != Value.class)
+                return false;
+        return true;
+    }
+
     /**
      * omit the last added value in a table representation
      *
@@ -129,7 +195,68 @@ public class ValueTable extends Observable implements Iterable<TestRow> {
      * @return the value stored at the given position
      */
     public Value getValue(int rowIndex, int columnIndex) {
-        return values.get(rowIndex).getValue(columnIndex);
+        TestRow r = getRichRow(rowIndex);
+        if (r != null)
+            return r.getValue(columnIndex);
+        return values.get(rowIndex, columnIndex);
+    }
+
+    /**
+     * Returns a value without creating a {@link Value} instance
+     *
+     * @param rowIndex    the row
+     * @param columnIndex the column
+     * @return the value stored at the given position
+     */
+    public long getLong(int rowIndex, int columnIndex) {
+        return values.getValue(rowIndex, columnIndex);
+    }
+
+    /**
+     * Returns the type of a value without creating a {@link Value} instance
+     *
+     * @param rowIndex    the row
+     * @param columnIndex the column
+     * @return the type of the value stored at the given position
+     */
+    public Value.Type getType(int rowIndex, int columnIndex) {
+        return values.getType(rowIndex, columnIndex);
+    }
+
+    /**
+     * Returns the state of a value
+     *
+     * @param rowIndex    the row
+     * @param columnIndex the column
+     * @return the state of the value stored at the given position
+     */
+    public Value.State getState(int rowIndex, int columnIndex) {
+        TestRow r = getRichRow(rowIndex);
+        if (r != null)
+            return r.getValue(columnIndex).getState();
+        return Value.State.NORMAL;
+    }
+
+    /**
+     * Returns a row
+     *
+     * @param rowIndex the row
+     * @return the row
+     */
+    public TestRow getRow(int rowIndex) {
+        TestRow r = getRichRow(rowIndex);
+        if (r != null)
+            return r;
+        Value[] v = new Value[names.length];
+        for (int i = 0; i < v.length; i++)
+            v[i] = values.get(rowIndex, i);
+        return new TestRow(v);
+    }
+
+    private TestRow getRichRow(int rowIndex) {
+        if (richRows.isEmpty())
+            return null;
+        return richRows.get(values.getRemoved() + rowIndex);
     }
 
     /**
@@ -151,9 +278,9 @@ public class ValueTable extends Observable implements Iterable<TestRow> {
      */
     public TestRow getTableRow(int rowIndex) {
         if (tableRowIndex == null)
-            return values.get(rowIndex);
+            return getRow(rowIndex);
         else
-            return values.get(tableRowIndex.get(rowIndex));
+            return getRow(tableRowIndex.get(rowIndex));
     }
 
     /**
@@ -163,10 +290,12 @@ public class ValueTable extends Observable implements Iterable<TestRow> {
      * @return the source line number
      */
     public String getDescription(int rowIndex) {
-        if (tableRowIndex == null)
-            return values.get(rowIndex).getDescription();
-        else
-            return values.get(tableRowIndex.get(rowIndex)).getDescription();
+        if (tableRowIndex != null)
+            rowIndex = tableRowIndex.get(rowIndex);
+        TestRow r = getRichRow(rowIndex);
+        if (r == null)
+            return null;
+        return r.getDescription();
     }
 
     /**
@@ -190,7 +319,21 @@ public class ValueTable extends Observable implements Iterable<TestRow> {
 
     @Override
     public Iterator<TestRow> iterator() {
-        return values.iterator();
+        return new Iterator<TestRow>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < values.size();
+            }
+
+            @Override
+            public TestRow next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return getRow(row++);
+            }
+        };
     }
 
     /**
@@ -240,16 +383,14 @@ public class ValueTable extends Observable implements Iterable<TestRow> {
             for (String s : names)
                 w.write(",\"" + s + '"');
             w.write("\n");
-            int row = 0;
-            for (TestRow s : this) {
-                w.write("\"" + (row++) + "\"");
-                if (columnInfo == null) {
-                    for (Value value : s.getValues())
+            for (int row = 0; row < values.size(); row++) {
+                w.write("\"" + row + "\"");
+                for (int i = 0; i < names.length; i++) {
+                    Value value = getValue(row, i);
+                    if (columnInfo == null)
                         w.write(",\"" + value + "\"");
-                } else {
-                    int i = 0;
-                    for (Value value : s.getValues())
-                        w.write(",\"" + columnInfo[i++].format(value) + "\"");
+                    else
+                        w.write(",\"" + columnInfo[i].format(value) + "\"");
                 }
                 w.write("\n");
             }
@@ -263,6 +404,7 @@ public class ValueTable extends Observable implements Iterable<TestRow> {
      */
     public void clear() {
         values.clear();
+        richRows.clear();
         Arrays.fill(max, 0);
         fireHasChanged();
     }
@@ -285,22 +427,27 @@ public class ValueTable extends Observable implements Iterable<TestRow> {
             sb.append(n).append(" ");
         sb.append("\n");
 
-        if (tableRowIndex == null)
-            for (TestRow row : values) {
-                for (Value v : row.getValues())
-                    sb.append(v.toString()).append(" ");
-                sb.append("\n");
-            }
-        else
-            for (int i : tableRowIndex) {
-                for (Value v : values.get(i).getValues())
-                    sb.append(v.toString()).append(" ");
-                sb.append("\n");
-            }
+        for (int i = 0; i < getTableRows(); i++) {
+            for (Value v : getTableRow(i).getValues())
+                sb.append(v.toString()).append(" ");
+            sb.append("\n");
+        }
 
         return sb.toString();
     }
 
+    /**
+     * Releases the backing file if there is one.
+     * The table is empty afterwards.
+     *
+     * @throws IOException IOException
+     */
+    @Override
+    public void close() throws IOException {
+        values.close();
+        richRows.clear();
+    }
+
     /**
      * Columns formatting information
      */
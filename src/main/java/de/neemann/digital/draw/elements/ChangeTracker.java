@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.elements;
+
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.Observer;
+import de.neemann.digital.draw.graphics.GraphicMinMax;
+import de.neemann.digital.draw.shapes.Drawable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tracks the wires and elements of a circuit whose values have changed while the model runs.
+ * An observer is added to every value shown by a wire or by an input or output of an element.
+ * If a value changes, all wires and elements showing this value are marked as changed.
+ * Elements whose shape does not depend only on its inputs and outputs are always reported as changed.
+ * <p>
+ * The observers are added and removed while holding the models lock. The change flags
+ * are set by the model thread and can be read without holding the lock.
+ */
+public final class ChangeTracker {
+    private final IdentityHashMap<ObservableValue, ValueObserver> observers;
+    private final ArrayList<VisualElement> alwaysChanged;
+
+    /**
+     * Creates a new instance and adds the observers to the values of the circuit.
+     * The circuit needs to be connected to a model.
+     *
+     * @param circuit the circuit to track
+     */
+    public ChangeTracker(Circuit circuit) {
+        observers = new IdentityHashMap<>();
+        alwaysChanged = new ArrayList<>();
+        for (Wire w : circuit.getWires())
+            if (w.getValue() != null)
+                add(w.getValue(), w);
+        for (VisualElement ve : circuit.getElements()) {
+            IOState state = ve.getState();
+            if (state != null) {
+                if (ve.getShape().dependsOnlyOnPins()) {
+                    for (ObservableValue v : state.getInputs())
+                        add(v, ve);
+                    for (ObservableValue v : state.getOutputs())
+                        add(v, ve);
+                } else
+                    alwaysChanged.add(ve);
+            }
+        }
+        for (ValueObserver o : observers.values())
+            o.value.addObserver(o);
+    }
+
+    private void add(ObservableValue value, Drawable drawable) {
+        observers.computeIfAbsent(value, ValueObserver::new).drawables.add(drawable);
+    }
+
+    /**
+     * Removes all observers from the model values.
+     */
+    public void detach() {
+        for (ValueObserver o : observers.values())
+            o.value.removeObserver(o);
+    }
+
+    /**
+     * Returns the areas covered by the wires and elements which have changed since the last call.
+     * The change flags are reset.
+     *
+     * @param maxAreas the maximum number of areas to return
+     * @return the areas or null if more than maxAreas areas have changed
+     */
+    public List<GraphicMinMax> getChangedAreas(int maxAreas) {
+        Set<Drawable> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        changed.addAll(alwaysChanged);
+        boolean tooMany = false;
+        for (ValueObserver o : observers.values())
+            if (o.changed) {
+                o.changed = false;
+                if (!tooMany) {
+                    changed.addAll(o.drawables);
+                    tooMany = changed.size() > maxAreas;
+                }
+            }
+        if (tooMany)
+            return null;
+
+        ArrayList<GraphicMinMax> areas = new ArrayList<>(changed.size());
+        for (Drawable d : changed) {
+            if (d instanceof Wire) {
+                Wire w = (Wire) d;
+                GraphicMinMax mm = new GraphicMinMax();
+                mm.check(w.p1);
+                mm.check(w.p2);
+                areas.add(mm);
+            } else
+                areas.add(((VisualElement) d).getBounds());
+        }
+        return areas;
+    }
+
+    private static final class ValueObserver implements Observer {
+        private final ObservableValue value;
+        private final ArrayList<Drawable> drawables;
+        private volatile boolean changed;
+
+        private ValueObserver(ObservableValue value) {
+            this.value = value;
+            drawables = new ArrayList<>();
+        }
+
+        @Override
+        public void hasChanged() {
+            changed = true;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import de.neemann.digital.core.wiring.Clock;
 import de.neemann.digital.draw.graphics.Vector;
 import de.neemann.digital.draw.graphics.*;
 import de.neemann.digital.draw.model.InverterConfig;
+import de.neemann.digital.draw.model.WireNets;
 import de.neemann.digital.draw.shapes.CustomCircuitShapeType;
 import de.neemann.digital.draw.shapes.Drawable;
 import de.neemann.digital.draw.shapes.ShapeFactory;
@@ -40,6 +41,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static de.neemann.digital.core.element.PinInfo.input;
+import static de.neemann.digital.draw.shapes.GenericShape.SIZE;
 
 /**
  * This class contains all the visual elements which form the visual representation of a circuit.
@@ -57,6 +59,9 @@ public class Circuit implements Copyable<Circuit> {
     private List<String> measurementOrdering;
     private transient boolean dotsPresent = false;
     private transient File origin;
+    private transient WireNets wireNets;
+    private transient CircuitIndex index;
+    private transient long modCount;
 
     /**
      * Creates a proper configured XStream instance
@@ -203,6 +208,7 @@ public class Circuit implements Copyable<Circuit> {
             measurementOrdering.addAll(original.measurementOrdering);
 
         origin = original.origin;
+        wireNets = original.wireNets;
 
         version = 1;
     }
@@ -224,6 +230,7 @@ public class Circuit implements Copyable<Circuit> {
         circuit.wires.addAll(wires);
         circuit.visualElements.addAll(visualElements);
         circuit.origin = origin;
+        circuit.wireNets = wireNets;
         return circuit;
     }
 
@@ -256,25 +263,56 @@ public class Circuit implements Copyable<Circuit> {
      * @param modelSync   sync interface to access the model. Is locked while drawing circuit
      */
     public void drawTo(Graphic graphic, Collection<Drawable> highLighted, Style highlight, SyncAccess modelSync) {
+        drawTo(graphic, highLighted, highlight, modelSync, null, null);
+    }
+
+    /**
+     * Draws the part of this circuit which is visible in the given rectangle.
+     * Wires and elements outside of the rectangle are skipped.
+     * If min or max is null, the complete circuit is drawn.
+     *
+     * @param graphic     the graphic instance used
+     * @param highLighted a list of Drawables to highlight
+     * @param highlight   style used to draw the highlighted elements
+     * @param modelSync   sync interface to access the model. Is locked while drawing circuit
+     * @param min         upper left corner of the visible rectangle, maybe null
+     * @param max         lower right corner of the visible rectangle, maybe null
+     */
+    public void drawTo(Graphic graphic, Collection<Drawable> highLighted, Style highlight, SyncAccess modelSync, Vector min, Vector max) {
         if (!dotsPresent) {
             new DotCreator(wires).applyDots();
             dotsPresent = true;
         }
 
+        final List<Wire> visibleWires;
+        final List<VisualElement> visibleElements;
+        if (min == null || max == null) {
+            visibleWires = wires;
+            visibleElements = visualElements;
+        } else {
+            // the margin covers the line width and the dots
+            Vector margin = new Vector(SIZE, SIZE);
+            Vector vMin = min.sub(margin);
+            Vector vMax = max.add(margin);
+            CircuitIndex ci = getIndex();
+            visibleWires = ci.getWires(vMin, vMax);
+            visibleElements = ci.getElements(vMin, vMax);
+        }
+
         // reads the models state which is a fast operation
         modelSync.read(() -> {
-            for (Wire w : wires)
+            for (Wire w : visibleWires)
                 w.readObservableValues();
-            for (VisualElement p : visualElements)
+            for (VisualElement p : visibleElements)
                 p.getShape().readObservableValues();
         });
 
         // after that draw the model which is rather slow
         graphic.openGroup();
-        for (Wire w : wires)
+        for (Wire w : visibleWires)
             w.drawTo(graphic, highLighted.contains(w) ? highlight : null);
         graphic.closeGroup();
-        for (VisualElement p : visualElements) {
+        for (VisualElement p : visibleElements) {
             graphic.openGroup();
             p.drawTo(graphic, highLighted.contains(p) ? highlight : null);
             graphic.closeGroup();
@@ -289,6 +327,7 @@ public class Circuit implements Copyable<Circuit> {
      */
     public Circuit add(VisualElement visualElement) {
         visualElements.add(visualElement);
+        modCount++;
         return this;
     }
 
@@ -306,6 +345,7 @@ public class Circuit implements Copyable<Circuit> {
         WireConsistencyChecker checker = new WireConsistencyChecker(wires);
         wires = checker.check();
 
+        modCount++;
         dotsPresent = false;
         return this;
     }
@@ -321,6 +361,7 @@ public class Circuit implements Copyable<Circuit> {
         WireConsistencyChecker checker = new WireConsistencyChecker(wires);
         wires = checker.check();
 
+        modCount++;
         dotsPresent = false;
         return this;
     }
@@ -332,9 +373,18 @@ public class Circuit implements Copyable<Circuit> {
         WireConsistencyChecker checker = new WireConsistencyChecker(wires);
         wires = checker.check();
 
+        modCount++;
         dotsPresent = false;
     }
 
+    /**
+     * Called if wires or elements of this circuit were moved, rotated or otherwise modified
+     * in place in a way that does not require a consistency check of the wires.
+     */
+    public void geometryChanged() {
+        modCount++;
+    }
+
     /**
      * Returns a list of all visual elements
      *
@@ -578,6 +628,7 @@ public class Circuit implements Copyable<Circuit> {
             wires = checker.check();
         }
 
+        modCount++;
         dotsPresent = false;
     }
 
@@ -587,7 +638,8 @@ public class Circuit implements Copyable<Circuit> {
      * @param partToDelete the element to delete
      */
     public void delete(VisualElement partToDelete) {
-        visualElements.remove(partToDelete);
+        if (visualElements.remove(partToDelete))
+            modCount++;
     }
 
     /**
@@ -599,6 +651,7 @@ public class Circuit implements Copyable<Circuit> {
         if (wires.remove(wireToDelete)) {
             WireConsistencyChecker checker = new WireConsistencyChecker(wires);
             wires = checker.check();
+            modCount++;
             dotsPresent = false;
         }
     }
@@ -622,7 +675,7 @@ public class Circuit implements Copyable<Circuit> {
      * @return the first element or null if there is no element at the given position
      */
     public VisualElement getElementAt(Vector pos, boolean includeText) {
-        for (VisualElement element : visualElements)
+        for (VisualElement element : getElementCandidates(pos))
             if (element.matches(pos, includeText))
                 return element;
         return null;
@@ -637,12 +690,40 @@ public class Circuit implements Copyable<Circuit> {
      */
     public List<VisualElement> getElementListAt(Vector pos, boolean includeText) {
         ArrayList<VisualElement> list = new ArrayList<>();
-        for (VisualElement element : visualElements)
+        for (VisualElement element : getElementCandidates(pos))
             if (element.matches(pos, includeText))
                 list.add(element);
         return list;
     }
 
+    /**
+     * Returns the elements which possibly match the given position.
+     * Elements which are only clickable at the border are matched with a tolerance, so the
+     * rectangle queried is enlarged accordingly.
+     *
+     * @param pos the position
+     * @return the elements in the order of the circuit
+     */
+    private List<VisualElement> getElementCandidates(Vector pos) {
+        Vector d = new Vector(SIZE, SIZE);
+        return getIndex().getElements(pos.sub(d), pos.add(d));
+    }
+
+    /**
+     * Returns the spatial index of this circuit.
+     * The index is created again if this circuit was modified since the index was created.
+     *
+     * @return the index
+     */
+    private CircuitIndex getIndex() {
+        CircuitIndex ci = index;
+        if (ci == null || !ci.isValid(modCount, wires, visualElements)) {
+            ci = new CircuitIndex(modCount, wires, visualElements);
+            index = ci;
+        }
+        return ci;
+    }
+
 
     /**
      * Returns true if there is a pin at the given position
@@ -664,6 +745,15 @@ public class Circuit implements Copyable<Circuit> {
         return wires;
     }
 
+    /**
+     * @return the nets of the last model creation, used to create the next net list incrementally
+     */
+    public synchronized WireNets getWireNets() {
+        if (wireNets == null)
+            wireNets = new WireNets();
+        return wireNets;
+    }
+
     /**
      * Returns true if there is a wire at the given position
      *
@@ -671,7 +761,7 @@ public class Circuit implements Copyable<Circuit> {
      * @return true if there is a wire at the given position
      */
     public boolean isWireAt(Vector pos) {
-        for (Wire w : wires)
+        for (Wire w : getIndex().getWires(pos, pos))
             if (w.isPosOnWire(pos))
                 return true;
         return false;
@@ -687,7 +777,8 @@ public class Circuit implements Copyable<Circuit> {
     public Wire getWireAt(Vector pos, int radius) {
         float minDist = 0;
         Wire best = null;
-        for (Wire w : wires)
+        Vector r = new Vector(radius, radius);
+        for (Wire w : getIndex().getWires(pos.sub(r), pos.add(r)))
             if (w.contains(pos, radius)) {
                 float d = w.distance(pos);
                 if (best == null || d < minDist) {
@@ -701,12 +792,14 @@ public class Circuit implements Copyable<Circuit> {
     /**
      * Deletes the references to the ObservableValues representing the elements or wire state.
      * So this circuit is detached from a generated model.
+     * The shapes of the elements are recreated, so their size may have changed.
      */
     public void clearState() {
         for (VisualElement vp : visualElements)
             vp.setState(null);
         for (Wire w : wires)
             w.setValue(null);
+        modCount++;
     }
 
     /**
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.elements;
+
+import de.neemann.digital.draw.graphics.GraphicMinMax;
+import de.neemann.digital.draw.graphics.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A grid based spatial index of the wires and elements of a circuit.
+ * Every wire and element is stored in all grid cells its bounding box overlaps. Items which
+ * overlap too many cells are kept in a separate list which is always checked.
+ * <p>
+ * The index is immutable. It is valid as long as the modification counter of the circuit and
+ * its lists are unchanged. Queries return the items in the order of the circuit's lists.
+ */
+final class CircuitIndex {
+    private static final int CELL_BITS = 7;
+    private static final int MAX_CELLS = 64;
+
+    private final long modCount;
+    private final ArrayList<Wire> wires;
+    private final ArrayList<VisualElement> elements;
+    private final int wireCount;
+    private final int elementCount;
+    private final int[] wireBox;
+    private final int[] elementBox;
+    private final HashMap<Long, Cell> cells;
+    private final Cell large;
+
+    /**
+     * Creates a new index
+     *
+     * @param modCount the modification counter of the circuit
+     * @param wires    the wires
+     * @param elements the elements
+     */
+    CircuitIndex(long modCount, ArrayList<Wire> wires, ArrayList<VisualElement> elements) {
+        this.modCount = modCount;
+        this.wires = wires;
+        this.elements = elements;
+        wireCount = wires.size();
+        elementCount = elements.size();
+        cells = new HashMap<>();
+        large = new Cell();
+
+        wireBox = new int[wireCount * 4];
+        for (int i = 0; i < wireCount; i++) {
+            Wire w = wires.get(i);
+            set(wireBox, i, Vector.min(w.p1, w.p2), Vector.max(w.p1, w.p2));
+            add(wireBox, i, true);
+        }
+
+        elementBox = new int[elementCount * 4];
+        for (int i = 0; i < elementCount; i++) {
+            GraphicMinMax b = elements.get(i).getBounds();
+            set(elementBox, i, b.getMin(), b.getMax());
+            add(elementBox, i, false);
+        }
+    }
+
+    private static void set(int[] box, int i, Vector min, Vector max) {
+        box[i * 4] = min.x;
+        box[i * 4 + 1] = min.y;
+        box[i * 4 + 2] = max.x;
+        box[i * 4 + 3] = max.y;
+    }
+
+    private void add(int[] box, int i, boolean wire) {
+        int cx0 = box[i * 4] >> CELL_BITS;
+        int cy0 = box[i * 4 + 1] >> CELL_BITS;
+        int cx1 = box[i * 4 + 2] >> CELL_BITS;
+        int cy1 = box[i * 4 + 3] >> CELL_BITS;
+        if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > MAX_CELLS) {
+            large.add(i, wire);
+            return;
+        }
+        for (int cx = cx0; cx <= cx1; cx++)
+            for (int cy = cy0; cy <= cy1; cy++)
+                cells.computeIfAbsent(key(cx, cy), k -> new Cell()).add(i, wire);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+
+    /**
+     * Checks if this index is valid for the given circuit state
+     *
+     * @param modCount the modification counter of the circuit
+     * @param wires    the wires of the circuit
+     * @param elements the elements of the circuit
+     * @return true if the index can be used
+     */
+    boolean isValid(long modCount, ArrayList<Wire> wires, ArrayList<VisualElement> elements) {
+        return this.modCount == modCount
+                && this.wires == wires && wireCount == wires.size()
+                && this.elements == elements && elementCount == elements.size();
+    }
+
+    /**
+     * Returns the wires whose bounding box overlaps the given rectangle
+     *
+     * @param min upper left corner
+     * @param max lower right corner
+     * @return the wires in the order of the circuit
+     */
+    ArrayList<Wire> getWires(Vector min, Vector max) {
+        BitSet found = collect(min, max, true);
+        ArrayList<Wire> list = new ArrayList<>(found.cardinality());
+        for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1))
+            list.add(wires.get(i));
+        return list;
+    }
+
+    /**
+     * Returns the elements whose bounding box, including the text, overlaps the given rectangle
+     *
+     * @param min upper left corner
+     * @param max lower right corner
+     * @return the elements in the order of the circuit
+     */
+    ArrayList<VisualElement> getElements(Vector min, Vector max) {
+        BitSet found = collect(min, max, false);
+        ArrayList<VisualElement> list = new ArrayList<>(found.cardinality());
+        for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1))
+            list.add(elements.get(i));
+        return list;
+    }
+
+    private BitSet collect(Vector min, Vector max, boolean wire) {
+        int[] box = wire ? wireBox : elementBox;
+        BitSet found = new BitSet();
+        int cx0 = min.x >> CELL_BITS;
+        int cy0 = min.y >> CELL_BITS;
+        int cx1 = max.x >> CELL_BITS;
+        int cy1 = max.y >> CELL_BITS;
+        if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) <= cells.size()) {
+            for (int cx = cx0; cx <= cx1; cx++)
+                for (int cy = cy0; cy <= cy1; cy++) {
+                    Cell c = cells.get(key(cx, cy));
+                    if (c != null)
+                        c.collect(wire, box, min, max, found);
+                }
+        } else {
+            for (Map.Entry<Long, Cell> e : cells.entrySet()) {
+                int cx = (int) (e.getKey() >> 32);
+                int cy = (int) (long) e.getKey();
+                if (cx0 <= cx && cx <= cx1 && cy0 <= cy && cy <= cy1)
+                    e.getValue().collect(wire, box, min, max, found);
+            }
+        }
+        large.collect(wire, box, min, max, found);
+        return found;
+    }
+
+    private static final class Cell {
+        private int[] wires = new int[2];
+        private int wireCount;
+        private int[] elements = new int[2];
+        private int elementCount;
+
+        private void add(int i, boolean wire) {
+            if (wire) {
+                if (wireCount == wires.length)
+                    wires = Arrays.copyOf(wires, wireCount * 2);
+                wires[wireCount++] = i;
+            } else {
+                if (elementCount == elements.length)
+                    elements = Arrays.copyOf(elements, elementCount * 2);
+                elements[elementCount++] = i;
+            }
+        }
+
+        private void collect(boolean wire, int[] box, Vector min, Vector max, BitSet found) {
+            int[] items = wire ? wires : elements;
+            int count = wire ? wireCount : elementCount;
+            for (int n = 0; n < count; n++) {
+                int i = items[n];
+                if (box[i * 4] <= max.x && min.x <= box[i * 4 + 2]
+                        && box[i * 4 + 1] <= max.y && min.y <= box[i * 4 + 3])
+                    found.set(i);
+            }
+        }
+    }
+}
@@ -256,6 +256,23 @@ public class VisualElement implements Drawable, Movable, AttributeListener {
         }
     }
 
+    /**
+     * Returns the area covered by this element.
+     * Includes the position, the shape and the text of this element.
+     *
+     * @return the bounding box
+     */
+    GraphicMinMax getBounds() {
+        GraphicMinMax b = new GraphicMinMax();
+        b.check(pos);
+        for (GraphicMinMax m : new GraphicMinMax[]{getMinMax(false), getMinMax(true)})
+            if (m.getMin() != null) {
+                b.check(m.getMin());
+                b.check(m.getMax());
+            }
+        return b;
+    }
+
     @Override
     public void move(Vector delta) {
         setPos(pos.add(delta));
@@ -334,6 +351,13 @@ public class VisualElement implements Drawable, Movable, AttributeListener {
             interactor = getShape().applyStateMonitor(ioState);
     }
 
+    /**
+     * @return the state of the elements inputs and outputs, null if there is no running model
+     */
+    public IOState getState() {
+        return ioState;
+    }
+
     /**
      * Is called if this element is clicked with the mouse.
      * The call is delegated to the {@link Interactor} of the {@link Shape}
@@ -11,7 +11,7 @@ import de.neemann.digital.draw.elements.Circuit;
 import de.neemann.digital.draw.elements.PinException;
 import de.neemann.digital.draw.elements.VisualElement;
 import de.neemann.digital.draw.model.ModelCreator;
-import de.neemann.digital.draw.model.NetList;
+import de.neemann.digital.draw.model.ModelTemplate;
 import de.neemann.digital.hdl.hgs.Parser;
 import de.neemann.digital.hdl.hgs.ParserException;
 import de.neemann.digital.hdl.hgs.refs.Reference;
@@ -21,6 +21,7 @@ import de.neemann.digital.lang.Lang;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.TreeSet;
 
 /**
@@ -34,7 +35,7 @@ public final class ElementTypeDescriptionCustom extends ElementTypeDescription {
     private final ResolveGenerics resolveGenerics;
     private final LibraryInterface library;
     private String description;
-    private NetList netList;
+    private final HashMap<Circuit, ModelTemplate> templates;
     private String declarationDefault;
 
     /**
@@ -50,6 +51,7 @@ public final class ElementTypeDescriptionCustom extends ElementTypeDescription {
         this.circuit = circuit;
         this.library = library;
         resolveGenerics = new ResolveGenerics(circuit, library);
+        templates = new HashMap<>();
         setShortName(file.getName());
         addAttribute(Keys.ROTATE);
         addAttribute(Keys.LABEL);
@@ -112,18 +114,29 @@ public final class ElementTypeDescriptionCustom extends ElementTypeDescription {
      * @throws ElementNotFoundException ElementNotFoundException
      */
     ModelCreator getModelCreator(String subName, int depth, VisualElement errorVisualElement, VisualElement containingVisualElement) throws PinException, NodeException, ElementNotFoundException {
-        if (netList == null)
-            netList = new NetList(circuit);
-
         if (depth > MAX_DEPTH)
             throw new NodeException(Lang.get("err_recursiveNestingAt_N0", circuit.getOrigin()));
 
-        if (isGeneric()) {
-            Circuit c = resolveGenerics.resolveCircuit(containingVisualElement.getElementAttributes()).getCircuit();
+        return new ModelCreator(getTemplate(containingVisualElement), library, subName, depth, errorVisualElement);
+    }
 
-            return new ModelCreator(c, library, true, new NetList(new NetList(c), errorVisualElement), subName, depth, errorVisualElement);
-        } else
-            return new ModelCreator(circuit, library, true, new NetList(netList, errorVisualElement), subName, depth, errorVisualElement);
+    /**
+     * Returns the template used to create the instances of this circuit.
+     * Generic circuits have a template for every set of generic arguments.
+     */
+    private synchronized ModelTemplate getTemplate(VisualElement containingVisualElement) throws PinException, NodeException, ElementNotFoundException {
+        Circuit c;
+        if (isGeneric())
+            c = resolveGenerics.resolveCircuit(containingVisualElement.getElementAttributes()).getCircuit();
+        else
+            c = circuit;
+
+        ModelTemplate t = templates.get(c);
+        if (t == null) {
+            t = new ModelTemplate(c, library);
+            templates.put(c, t);
+        }
+        return t;
     }
 
     /**
@@ -41,12 +41,7 @@ public final class InverterConfig implements HGSMap {
             return orig;
 
         ObservableValue out = new ObservableValue("~" + orig.getName(), orig.getBits());
-        orig.addObserver(new NodeWithoutDelay(out) {
-            @Override
-            public void hasChanged() {
-                out.set(~orig.getValue(), orig.getHighZ());
-            }
-        });
+        orig.addObserver(new Inverter(orig, out));
         out.set(~orig.getValue(), orig.getHighZ());
         return out;
     }
@@ -113,6 +108,39 @@ public final class InverterConfig implements HGSMap {
         return inputs.contains(key);
     }
 
+    /**
+     * The inverter used to invert an input signal without delay
+     */
+    public static final class Inverter extends NodeWithoutDelay {
+        private final ObservableValue in;
+        private final ObservableValue out;
+
+        private Inverter(ObservableValue in, ObservableValue out) {
+            super(out);
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public void hasChanged() {
+            out.set(~in.getValue(), in.getHighZ());
+        }
+
+        /**
+         * @return the input of this inverter
+         */
+        public ObservableValue getInput() {
+            return in;
+        }
+
+        /**
+         * @return the inverted output
+         */
+        public ObservableValue getOutput() {
+            return out;
+        }
+    }
+
     /**
      * Builder to create InverterConfig instances
      */
@@ -84,6 +84,22 @@ public class ModelCreator implements Iterable<ModelEntry> {
         this(circuit, library, readAsCustom, new NetList(circuit), "", 0, null);
     }
 
+    /**
+     * Creates a new instance of a nested circuit from a prepared template.
+     *
+     * @param template                the template of the nested circuit
+     * @param library                 the library to use
+     * @param subName                 name of the circuit, used to name unique elements
+     * @param depth                   recursion depth, used to detect a circuit which contains itself
+     * @param containingVisualElement the topmost containing visual element
+     * @throws PinException             PinException
+     * @throws NodeException            NodeException
+     * @throws ElementNotFoundException ElementNotFoundException
+     */
+    public ModelCreator(ModelTemplate template, LibraryInterface library, String subName, int depth, VisualElement containingVisualElement) throws PinException, NodeException, ElementNotFoundException {
+        this(template.getCircuit(), library, true, template.createNetList(containingVisualElement), subName, depth, containingVisualElement);
+    }
+
     /**
      * Creates a new instance
      *
@@ -101,6 +117,7 @@ public class ModelCreator implements Iterable<ModelEntry> {
     public ModelCreator(Circuit circuit, LibraryInterface library, boolean isNestedCircuit, NetList netList, String subName, int depth, VisualElement containingVisualElement) throws PinException, NodeException, ElementNotFoundException {
         this.circuit = circuit;
         this.netList = netList;
+        ModelTemplate template = netList.getTemplate();
         entries = new ArrayList<>();
         if (isNestedCircuit)
             ioMap = new HashMap<>();
@@ -111,13 +128,19 @@ public class ModelCreator implements Iterable<ModelEntry> {
             checkWiresForSplitterConnection(circuit);
 
         try {
-            for (VisualElement ve : circuit.getElements()) {
+            List<VisualElement> elements = circuit.getElements();
+            for (int index = 0; index < elements.size(); index++) {
+                VisualElement ve = elements.get(index);
                 VisualElement cve = ve;
                 if (containingVisualElement != null)
                     cve = containingVisualElement;
 
                 ElementAttributes attr = ve.getElementAttributes();
-                ElementTypeDescription elementType = library.getElementType(ve.getElementName(), attr);
+                ElementTypeDescription elementType;
+                if (template != null)
+                    elementType = template.getType(index, ve, library);
+                else
+                    elementType = library.getElementType(ve.getElementName(), attr);
                 if (attr.getLabel().contains("*")
                         && !ve.equalsDescription(In.DESCRIPTION)
                         && !ve.equalsDescription(Out.DESCRIPTION)) {
@@ -126,7 +149,7 @@ public class ModelCreator implements Iterable<ModelEntry> {
                 }
                 Element element = elementType.createElement(attr);
                 ve.setElement(element);
-                Pins pins = ve.getPins();
+                Pins pins = template != null ? template.createPins(index, ve) : ve.getPins();
                 pins.bindOutputsToOutputPins(element.getOutputs());
 
                 // sets the nodes origin to create better error messages
@@ -154,8 +177,11 @@ public class ModelCreator implements Iterable<ModelEntry> {
                 if (isNotAIO)
                     entries.add(new ModelEntry(element, pins, ve, elementType.getInputDescription(ve.getElementAttributes()), isNestedCircuit, circuit.getOrigin(), cve));
 
-                for (Pin p : pins)
-                    netList.add(p);
+                if (template != null)
+                    template.addPinsTo(pins, netList);
+                else
+                    for (Pin p : pins)
+                        netList.add(p);
             }
 
             // connect all custom elements to the parents net
@@ -289,7 +315,10 @@ public class ModelCreator implements Iterable<ModelEntry> {
      * @throws NodeException NodeException
      */
     public Model createModel(boolean attachWires) throws PinException, NodeException {
-        Model m = new Model().setAllowGlobalValues(attachWires);
+        Model m = new Model()
+                .setAllowGlobalValues(attachWires)
+                .setLevelizedMode(circuit.getAttributes().get(Keys.LEVELIZED_SIMULATION))
+                .setParallelMode(circuit.getAttributes().get(Keys.PARALLEL_SIMULATION));
 
         for (Net n : netList)
             n.interconnect(m, attachWires);
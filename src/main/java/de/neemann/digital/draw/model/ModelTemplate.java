@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.model;
+
+import de.neemann.digital.core.element.ElementTypeDescription;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.Pin;
+import de.neemann.digital.draw.elements.PinException;
+import de.neemann.digital.draw.elements.Pins;
+import de.neemann.digital.draw.elements.VisualElement;
+import de.neemann.digital.draw.graphics.Vector;
+import de.neemann.digital.draw.library.ElementNotFoundException;
+import de.neemann.digital.draw.library.ElementTypeDescriptionCustom;
+import de.neemann.digital.draw.library.LibraryInterface;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The prepared structure of a nested circuit.
+ * Holds everything which is the same in all instances of a nested circuit: The net list built
+ * from the wires, the index of the net at every position, the element type of every visual element
+ * and the pins transformed to the circuits coordinate system.
+ * If a circuit is used many times, creating a new instance only requires to create the elements
+ * and to copy the pins and nets.
+ * <p>
+ * The types and pins of nested custom elements are not stored, because the nested circuit
+ * may be modified and reloaded independently of the circuit containing it.
+ */
+public final class ModelTemplate {
+    private final Circuit circuit;
+    private final NetList netList;
+    private final HashMap<Vector, Integer> netAt;
+    private final ElementTypeDescription[] types;
+    private final Pins[] pins;
+
+    /**
+     * Creates a new template
+     *
+     * @param circuit the circuit
+     * @param library the library used to resolve the element types
+     * @throws PinException             PinException
+     * @throws ElementNotFoundException ElementNotFoundException
+     */
+    public ModelTemplate(Circuit circuit, LibraryInterface library) throws PinException, ElementNotFoundException {
+        this.circuit = circuit;
+        netList = new NetList(circuit);
+
+        HashMap<Vector, Net> netOfPos = new HashMap<>();
+        HashMap<Net, Integer> indexOf = new HashMap<>();
+        for (Net net : netList) {
+            net.addPointsTo(netOfPos);
+            indexOf.put(net, indexOf.size());
+        }
+        netAt = new HashMap<>();
+        for (Map.Entry<Vector, Net> e : netOfPos.entrySet())
+            netAt.put(e.getKey(), indexOf.get(e.getValue()));
+
+        List<VisualElement> elements = circuit.getElements();
+        types = new ElementTypeDescription[elements.size()];
+        pins = new Pins[elements.size()];
+        for (int i = 0; i < elements.size(); i++) {
+            VisualElement ve = elements.get(i);
+            ElementTypeDescription type = library.getElementType(ve.getElementName(), ve.getElementAttributes());
+            if (!(type instanceof ElementTypeDescriptionCustom)) {
+                types[i] = type;
+                pins[i] = ve.getPins();
+            }
+        }
+    }
+
+    /**
+     * @return the circuit this template is created from
+     */
+    public Circuit getCircuit() {
+        return circuit;
+    }
+
+    /**
+     * Creates a copy of the templates net list
+     *
+     * @param visualElement the containing visual element, only used to create better error messages
+     * @return the new net list
+     */
+    NetList createNetList(VisualElement visualElement) {
+        return new NetList(netList, visualElement, this);
+    }
+
+    /**
+     * Returns the element type of a visual element
+     *
+     * @param index   the index of the visual element in the circuit
+     * @param ve      the visual element
+     * @param library the library
+     * @return the element type
+     * @throws ElementNotFoundException ElementNotFoundException
+     */
+    ElementTypeDescription getType(int index, VisualElement ve, LibraryInterface library) throws ElementNotFoundException {
+        ElementTypeDescription type = types[index];
+        if (type == null)
+            type = library.getElementType(ve.getElementName(), ve.getElementAttributes());
+        return type;
+    }
+
+    /**
+     * Creates the pins of a visual element
+     *
+     * @param index the index of the visual element in the circuit
+     * @param ve    the visual element
+     * @return the new pins
+     */
+    Pins createPins(int index, VisualElement ve) {
+        Pins tp = pins[index];
+        if (tp == null)
+            return ve.getPins();
+
+        Pins p = new Pins();
+        for (Pin pin : tp)
+            p.add(new Pin(pin.getPos(), pin).setVisualElement(ve));
+        return p;
+    }
+
+    /**
+     * Adds the given pins to the nets at their positions
+     *
+     * @param p       the pins
+     * @param netList the net list created by {@link #createNetList(VisualElement)}
+     */
+    void addPinsTo(Pins p, NetList netList) {
+        for (Pin pin : p) {
+            Integer n = netAt.get(pin.getPos());
+            if (n != null)
+                netList.get(n).add(pin);
+        }
+    }
+}
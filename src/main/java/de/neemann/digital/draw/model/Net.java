@@ -68,6 +68,19 @@ public class Net {
         labelSet = new HashSet<>();
     }
 
+    /**
+     * Creates a net containing the given wires
+     *
+     * @param points the end points of the wires
+     * @param wires  the wires
+     */
+    Net(HashSet<Vector> points, ArrayList<Wire> wires) {
+        this.points = points;
+        this.wires = wires;
+        pins = new ArrayList<>();
+        labelSet = new HashSet<>();
+    }
+
     /**
      * Creates a single point net
      *
@@ -101,6 +114,17 @@ public class Net {
         return null;
     }
 
+    /**
+     * Adds a wire connected to this net
+     *
+     * @param wire the wire
+     */
+    void addWire(Wire wire) {
+        wires.add(wire);
+        points.add(wire.p1);
+        points.add(wire.p2);
+    }
+
     /**
      * Checks if the given position is part of this net
      *
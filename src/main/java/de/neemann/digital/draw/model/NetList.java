@@ -11,8 +11,10 @@ import de.neemann.digital.draw.graphics.Vector;
 import de.neemann.digital.lang.Lang;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 
 /**
@@ -23,18 +25,20 @@ public class NetList implements Iterable<Net> {
     private final ArrayList<Net> netList;
     private HashMap<Vector, Net> posMap;
     private HashMap<Pin, Net> pinMap;
+    private ModelTemplate template;
 
     /**
-     * Creates a net list from the given circuit
+     * Creates a net list from the given circuit.
+     * The wires, the pins overlapping directly and the tunnels are joined by a union-find
+     * structure, so the time required grows nearly linear with the size of the circuit.
      *
      * @param circuit the circuit
      * @throws PinException PinException
      */
     public NetList(Circuit circuit) throws PinException {
-        netList = new ArrayList<>();
-        for (Wire w : circuit.getWires())
-            add(w);
-
+        ArrayList<Net> nets = circuit.getWireNets().createNets(circuit.getWires());
+        if (nets == null)
+            nets = createNets(circuit.getWires());
 
         // handles a direct pin overlap by adding a single point net
         HashSet<Vector> allPinPositions = new HashSet<>();
@@ -42,22 +46,23 @@ public class NetList implements Iterable<Net> {
         for (VisualElement ve : circuit.getElements())
             for (Pin p : ve.getPins()) {
                 Vector v = p.getPos();
-                if (allPinPositions.contains(v))
+                if (!allPinPositions.add(v))
                     directConnection.add(v);
-                else
-                    allPinPositions.add(v);
             }
 
-        HashMap<Vector, Net> allNetPositions = getAllNetPositions();
+        HashMap<Vector, Net> allNetPositions = new HashMap<>();
+        for (Net n : nets)
+            n.addPointsTo(allNetPositions);
         for (Vector v : directConnection)
             if (!allNetPositions.containsKey(v)) {
                 Net net = new Net(v);
-                netList.add(net);
+                nets.add(net);
                 allNetPositions.put(v, net);
             }
 
-
-        boolean hasLabel = false;
+        UnionFind labelSets = null;
+        IdentityHashMap<Net, Integer> netIndex = null;
+        HashMap<String, Integer> netOfLabel = null;
         for (VisualElement ve : circuit.getElements())
             if (ve.equalsDescription(Tunnel.DESCRIPTION)) {
                 String label = ve.getElementAttributes().get(Keys.NETNAME).trim();
@@ -70,53 +75,85 @@ public class NetList implements Iterable<Net> {
                     }
 
                     found.addLabel(label);
-                    hasLabel = true;
+
+                    if (labelSets == null) {
+                        labelSets = new UnionFind(nets.size());
+                        netIndex = new IdentityHashMap<>();
+                        netOfLabel = new HashMap<>();
+                        for (Net n : nets)
+                            netIndex.put(n, labelSets.add());
+                    }
+                    int i = netIndex.get(found);
+                    Integer other = netOfLabel.putIfAbsent(label, i);
+                    if (other != null)
+                        labelSets.union(i, other);
                 }
             }
 
-        if (hasLabel)
-            mergeLabels();
+        if (labelSets != null)
+            netList = mergeLabels(nets, labelSets);
+        else
+            netList = nets;
 
         for (Net n : netList)
             n.setOrigin(circuit.getOrigin());
     }
 
-    private void mergeLabels() {
-        ArrayList<Net> oldNetList = new ArrayList<>(netList);
-        netList.clear();
-
-        HashMap<String, Net> map = new HashMap<>();
-        for (Net n : oldNetList) {
-            HashSet<String> labels = n.getLabels();
-            switch (labels.size()) {
-                case 0:
-                    netList.add(n);
-                    break;
-                case 1:
-                    String label = labels.iterator().next();
-                    Net net = map.get(label);
-                    if (net == null) {
-                        netList.add(n);
-                        map.put(label, n);
-                    } else {
-                        net.addAllPointsFrom(n);
-                        for (String l : n.getLabels())
-                            map.put(l, net);
-                    }
-                    break;
-                default:
-                    for (String la : new ArrayList<>(labels)) {
-                        net = map.get(la);
-                        if (net != null) {
-                            n.addAllPointsFrom(net);
-                            netList.remove(net);
-                        }
-                    }
-                    netList.add(n);
-                    for (String l : n.getLabels())
-                        map.put(l, n);
-            }
+    /**
+     * Creates the nets formed by the given wires.
+     *
+     * @param wires the wires
+     * @return the nets
+     */
+    private static ArrayList<Net> createNets(ArrayList<Wire> wires) {
+        HashMap<Vector, Integer> pointIndex = new HashMap<>();
+        UnionFind uf = new UnionFind(wires.size() * 2);
+        for (Wire w : wires)
+            uf.union(getIndex(pointIndex, uf, w.p1), getIndex(pointIndex, uf, w.p2));
+
+        Net[] netOf = new Net[uf.size()];
+        ArrayList<Net> nets = new ArrayList<>();
+        for (Wire w : wires) {
+            int r = uf.find(pointIndex.get(w.p1));
+            if (netOf[r] == null) {
+                netOf[r] = new Net(w);
+                nets.add(netOf[r]);
+            } else
+                netOf[r].addWire(w);
         }
+        return nets;
+    }
+
+    private static int getIndex(HashMap<Vector, Integer> pointIndex, UnionFind uf, Vector p) {
+        Integer i = pointIndex.get(p);
+        if (i == null) {
+            i = uf.add();
+            pointIndex.put(p, i);
+        }
+        return i;
+    }
+
+    /**
+     * Merges the nets connected by labels.
+     * Every net is merged into the first net of its set, so the order of the nets is kept.
+     *
+     * @param nets      the nets
+     * @param labelSets the sets of nets connected by labels
+     * @return the merged nets
+     */
+    private static ArrayList<Net> mergeLabels(ArrayList<Net> nets, UnionFind labelSets) {
+        int[] target = new int[nets.size()];
+        Arrays.fill(target, -1);
+        ArrayList<Net> merged = new ArrayList<>();
+        for (int i = 0; i < nets.size(); i++) {
+            int r = labelSets.find(i);
+            if (target[r] < 0) {
+                target[r] = i;
+                merged.add(nets.get(i));
+            } else
+                nets.get(target[r]).addAllPointsFrom(nets.get(i));
+        }
+        return merged;
     }
 
     /**
@@ -126,9 +163,28 @@ public class NetList implements Iterable<Net> {
      * @param visualElement the containing visual element, only used to create better error messages
      */
     public NetList(NetList toCopy, VisualElement visualElement) {
+        this(toCopy, visualElement, null);
+    }
+
+    /**
+     * Creates a copy of the given net list which belongs to a template
+     *
+     * @param toCopy        the net list to copy
+     * @param visualElement the containing visual element, only used to create better error messages
+     * @param template      the template the net list belongs to
+     */
+    NetList(NetList toCopy, VisualElement visualElement, ModelTemplate template) {
         netList = new ArrayList<>();
         for (Net net : toCopy)
             netList.add(new Net(net, visualElement));
+        this.template = template;
+    }
+
+    /**
+     * @return the template this net list is created from, null if not created from a template
+     */
+    ModelTemplate getTemplate() {
+        return template;
     }
 
     /**
@@ -141,6 +197,7 @@ public class NetList implements Iterable<Net> {
         this.netList.addAll(netList.netList);
         if (pinMap != null)
             pinMap.putAll(netList.pinMap);
+        posMap = null;
     }
 
     /**
@@ -158,27 +215,14 @@ public class NetList implements Iterable<Net> {
             net.add(pin);
     }
 
-    private void add(Wire w) {
-        for (Net net : netList) {
-            Vector added = net.tryMerge(w);
-            if (added != null) {
-                netChanged(net, added);
-                return;
-            }
-        }
-        netList.add(new Net(w));
-    }
-
-    private void netChanged(Net changedNet, Vector added) {
-        for (Net n : netList) {
-            if (n != changedNet) {
-                if (n.contains(added)) {
-                    n.addAllPointsFrom(changedNet);
-                    netList.remove(changedNet);
-                    return;
-                }
-            }
-        }
+    /**
+     * Returns the net with the given index
+     *
+     * @param index the index
+     * @return the net
+     */
+    Net get(int index) {
+        return netList.get(index);
     }
 
     /**
@@ -217,10 +261,9 @@ public class NetList implements Iterable<Net> {
      * @return the net
      */
     public Net getNetOfPos(Vector pos) {
-        for (Net n : netList)
-            if (n.contains(pos))
-                return n;
-        return null;
+        if (posMap == null)
+            posMap = getAllNetPositions();
+        return posMap.get(pos);
     }
 
     private HashMap<Vector, Net> getAllNetPositions() {
@@ -238,8 +281,10 @@ public class NetList implements Iterable<Net> {
      */
     public void remove(Net childNet) {
         netList.remove(childNet);
-        for (Pin p : childNet.getPins())
-            if (pinMap.get(p) == childNet)
-                pinMap.remove(p);
+        if (pinMap != null)
+            for (Pin p : childNet.getPins())
+                if (pinMap.get(p) == childNet)
+                    pinMap.remove(p);
+        posMap = null;
     }
 }
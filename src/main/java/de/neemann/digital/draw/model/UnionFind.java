@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.model;
+
+import java.util.Arrays;
+
+/**
+ * Simple union-find structure over the elements 0..n-1.
+ * Uses union by size and path halving, so a sequence of operations runs in nearly linear time.
+ */
+final class UnionFind {
+    private int[] parent;
+    private int[] size;
+    private int count;
+
+    /**
+     * Creates a new instance
+     *
+     * @param capacity the initial capacity
+     */
+    UnionFind(int capacity) {
+        parent = new int[Math.max(capacity, 4)];
+        size = new int[parent.length];
+    }
+
+    /**
+     * Adds a new element which forms a set on its own
+     *
+     * @return the new element
+     */
+    int add() {
+        if (count == parent.length) {
+            parent = Arrays.copyOf(parent, count * 2);
+            size = Arrays.copyOf(size, count * 2);
+        }
+        parent[count] = count;
+        size[count] = 1;
+        return count++;
+    }
+
+    /**
+     * @return the number of elements
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Returns the representative of the set the given element belongs to
+     *
+     * @param e the element
+     * @return the representative
+     */
+    int find(int e) {
+        while (parent[e] != e) {
+            parent[e] = parent[parent[e]];
+            e = parent[e];
+        }
+        return e;
+    }
+
+    /**
+     * Merges the sets the two given elements belong to
+     *
+     * @param a the first element
+     * @param b the second element
+     * @return the representative of the merged set
+     */
+    int union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a == b)
+            return a;
+        if (size[a] < size[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        parent[b] = a;
+        size[a] += size[b];
+        return a;
+    }
+}
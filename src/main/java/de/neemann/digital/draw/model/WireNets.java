@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.model;
+
+import de.neemann.digital.draw.elements.Wire;
+import de.neemann.digital.draw.graphics.Vector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Keeps the groups of connected wires of a circuit between two model creations.
+ * The wires are compared by their content against the wires of the previous call. Only the
+ * groups containing a removed wire are dissolved. Their remaining wires and the added wires
+ * are merged into the unchanged groups. So after a small edit of a large circuit only a small
+ * part of the nets needs to be recomputed.
+ * <p>
+ * An instance is shared by a circuit and its copies, so it is used from the undo history as well.
+ */
+public final class WireNets {
+    private final HashMap<Segment, Group> groupOf = new HashMap<>();
+    private final HashMap<Vector, Group> groupAt = new HashMap<>();
+    private final LinkedHashSet<Group> groups = new LinkedHashSet<>();
+
+    /**
+     * Creates the nets formed by the given wires.
+     * Every call returns new {@link Net} instances.
+     *
+     * @param wires the wires of the circuit
+     * @return the nets or null if the wires contain duplicates
+     */
+    synchronized ArrayList<Net> createNets(List<Wire> wires) {
+        HashMap<Segment, Wire> current = new HashMap<>();
+        for (Wire w : wires)
+            if (current.put(new Segment(w), w) != null) {
+                // identical wires are rare, so they are not supported by the cache
+                clear();
+                return null;
+            }
+
+        update(current);
+
+        ArrayList<Net> nets = new ArrayList<>(groups.size());
+        for (Group g : groups) {
+            ArrayList<Wire> netWires = new ArrayList<>(g.segments.size());
+            for (Segment s : g.segments)
+                netWires.add(current.get(s));
+            nets.add(new Net(new HashSet<>(g.points), netWires));
+        }
+        return nets;
+    }
+
+    private void update(HashMap<Segment, Wire> current) {
+        ArrayList<Segment> added = new ArrayList<>();
+        for (Segment s : current.keySet())
+            if (!groupOf.containsKey(s))
+                added.add(s);
+
+        HashSet<Group> dissolved = new HashSet<>();
+        for (Segment s : groupOf.keySet())
+            if (!current.containsKey(s))
+                dissolved.add(groupOf.get(s));
+
+        if (added.isEmpty() && dissolved.isEmpty())
+            return;
+
+        ArrayList<Segment> toAdd = new ArrayList<>();
+        for (Group g : dissolved) {
+            groups.remove(g);
+            for (Segment s : g.segments) {
+                groupOf.remove(s);
+                if (current.containsKey(s))
+                    toAdd.add(s);
+            }
+            for (Vector p : g.points)
+                groupAt.remove(p);
+        }
+        toAdd.addAll(added);
+
+        for (Segment s : toAdd)
+            add(s);
+    }
+
+    private void add(Segment s) {
+        Group g1 = groupAt.get(s.p1);
+        Group g2 = groupAt.get(s.p2);
+        Group g;
+        if (g1 == null && g2 == null) {
+            g = new Group();
+            groups.add(g);
+        } else if (g1 == null || g1 == g2)
+            g = g2;
+        else if (g2 == null)
+            g = g1;
+        else {
+            // two groups are connected by the new wire, so the smaller one is moved to the larger one
+            Group large = g1.points.size() >= g2.points.size() ? g1 : g2;
+            Group small = large == g1 ? g2 : g1;
+            for (Vector p : small.points)
+                groupAt.put(p, large);
+            for (Segment ss : small.segments)
+                groupOf.put(ss, large);
+            large.points.addAll(small.points);
+            large.segments.addAll(small.segments);
+            groups.remove(small);
+            g = large;
+        }
+        g.segments.add(s);
+        g.points.add(s.p1);
+        g.points.add(s.p2);
+        groupOf.put(s, g);
+        groupAt.put(s.p1, g);
+        groupAt.put(s.p2, g);
+    }
+
+    private void clear() {
+        groupOf.clear();
+        groupAt.clear();
+        groups.clear();
+    }
+
+    private static final class Group {
+        private final HashSet<Vector> points = new HashSet<>();
+        private final ArrayList<Segment> segments = new ArrayList<>();
+    }
+
+    private static final class Segment {
+        private final Vector p1;
+        private final Vector p2;
+
+        private Segment(Wire w) {
+            p1 = w.p1;
+            p2 = w.p2;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Segment segment = (Segment) o;
+            return p1.equals(segment.p1) && p2.equals(segment.p2);
+        }
+
+        @Override
+        public int hashCode() {
+            return p1.hashCode() * 31 + p2.hashCode();
+        }
+    }
+}
@@ -89,4 +89,9 @@ public class DataShape implements Shape {
         logDataModel = valueTableObserver.getLogData();
         model.addObserver(valueTableObserver);
     }
+
+    @Override
+    public boolean dependsOnlyOnPins() {
+        return false;
+    }
 }
@@ -51,6 +51,18 @@ public interface Shape extends Drawable, ObservableValueReader {
     default void registerModel(ModelCreator modelCreator, Model model, ModelEntry element) {
     }
 
+    /**
+     * Returns true if the drawing of this shape only depends on the inputs and outputs of the element.
+     * Is used to redraw only the changed parts of the circuit while the simulation runs.
+     * Shapes which show an internal state of the element or the global model state have to return false.
+     * Such shapes are redrawn every time the model has changed.
+     *
+     * @return true if the shape only depends on its inputs and outputs
+     */
+    default boolean dependsOnlyOnPins() {
+        return true;
+    }
+
     /**
      * @return if true, only the border of the shape is clickable.
      */
@@ -71,6 +71,11 @@ public class StepperMotorShape implements Shape {
         return null;
     }
 
+    @Override
+    public boolean dependsOnlyOnPins() {
+        return false;
+    }
+
     @Override
     public void readObservableValues() {
         if (motor != null) {
@@ -1035,7 +1035,7 @@ public final class Main extends JFrame implements ClosingWindowListener.ConfirmS
             @Override
             public void actionPerformed(ActionEvent e) {
                 if (filename != null)
-                    new TestAllDialog(Main.this, filename.getParentFile(), shapeFactory, library).setVisible(true);
+                    new TestAllDialog(Main.this, filename.getParentFile(), library).setVisible(true);
             }
         }.setToolTip(Lang.get("menu_runAllTests_tt")).setAccelerator("F11");
 
@@ -1626,7 +1626,7 @@ public final class Main extends JFrame implements ClosingWindowListener.ConfirmS
                 if (model != null && model.isRunning()) {
                     try {
                         advanceSimulator.advance(model);
-                        circuitComponent.graphicHasChanged();
+                        circuitComponent.modelHasChanged();
                     } catch (Exception e) {
                         showError(Lang.get("msg_errorSettingModelToTestCase"), e);
                     }
@@ -1699,10 +1699,10 @@ public final class Main extends JFrame implements ClosingWindowListener.ConfirmS
             switch (event.getType()) {
                 case EXTERNALCHANGE:
                     model.doStep();
-                    circuitComponent.graphicHasChanged();
+                    circuitComponent.modelHasChanged();
                     break;
                 case BREAK:
-                    circuitComponent.graphicHasChanged();
+                    circuitComponent.modelHasChanged();
                     break;
             }
         }
@@ -1720,7 +1720,7 @@ public final class Main extends JFrame implements ClosingWindowListener.ConfirmS
         private final Timer timer;
 
         private FastObserver() {
-            timer = new Timer(100, actionEvent -> circuitComponent.graphicHasChanged());
+            timer = new Timer(100, actionEvent -> circuitComponent.modelHasChanged());
         }
 
         @Override
@@ -1732,7 +1732,7 @@ public final class Main extends JFrame implements ClosingWindowListener.ConfirmS
                 case CLOSED:
                 case BREAK:
                     timer.stop();
-                    SwingUtilities.invokeLater(circuitComponent::graphicHasChanged);
+                    circuitComponent.modelHasChanged();
                     break;
             }
         }
@@ -1764,8 +1764,9 @@ public final class Main extends JFrame implements ClosingWindowListener.ConfirmS
                     if (!realTimeClockRunning) {
                         circuitComponent.removeHighLighted();
                         modelCreator.addNodeElementsTo(model.nodesToUpdate(), circuitComponent.getHighLighted());
-                    }
-                    circuitComponent.graphicHasChanged();
+                        circuitComponent.graphicHasChanged();
+                    } else
+                        circuitComponent.modelHasChanged();
                     if (!realTimeClockRunning)
                         checkMicroStepActions(model);
                     break;
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.gui.components;
+
+import de.neemann.digital.core.SyncAccess;
+import de.neemann.digital.draw.elements.ChangeTracker;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.graphics.GraphicMinMax;
+
+import java.util.List;
+
+/**
+ * Manages the {@link ChangeTracker} used by the {@link CircuitComponent} while the model runs.
+ * The tracker is kept across frames and is only created again if it was invalidated because
+ * the circuit or the model has changed.
+ */
+final class ChangedAreas {
+    private final int maxAreas;
+    private ChangeTracker tracker;
+    private boolean outdated = true;
+
+    /**
+     * Creates a new instance
+     *
+     * @param maxAreas the maximum number of areas to redraw, if more areas have changed, the
+     *                 complete circuit needs to be redrawn
+     */
+    ChangedAreas(int maxAreas) {
+        this.maxAreas = maxAreas;
+    }
+
+    /**
+     * Marks the tracker as outdated.
+     * The tracker is created again by the next call of {@link #update(Circuit, SyncAccess)}.
+     */
+    void invalidate() {
+        outdated = true;
+    }
+
+    /**
+     * Ensures that there is an up to date tracker for the given circuit.
+     * Is called before the complete circuit is drawn, so that no change is missed.
+     *
+     * @param circuit   the circuit drawn
+     * @param modelSync the sync interface of the running model
+     * @return true if a new tracker was created
+     */
+    boolean update(Circuit circuit, SyncAccess modelSync) {
+        if (tracker != null && !outdated)
+            return false;
+
+        detach(modelSync);
+        modelSync.read(() -> tracker = new ChangeTracker(circuit));
+        outdated = false;
+        return true;
+    }
+
+    /**
+     * Removes the tracker from the model
+     *
+     * @param modelSync the sync interface of the model the tracker is attached to
+     */
+    void detach(SyncAccess modelSync) {
+        if (tracker != null) {
+            ChangeTracker t = tracker;
+            modelSync.read(t::detach);
+            tracker = null;
+        }
+        outdated = true;
+    }
+
+    /**
+     * Returns the areas which have changed since the last call.
+     *
+     * @return the changed areas or null if the complete circuit needs to be redrawn
+     */
+    List<GraphicMinMax> getChangedAreas() {
+        if (tracker == null || outdated)
+            return null;
+        return tracker.getChangedAreas(maxAreas);
+    }
+}
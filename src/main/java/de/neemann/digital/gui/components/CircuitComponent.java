@@ -43,6 +43,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static de.neemann.digital.draw.shapes.GenericShape.SIZE;
 import static de.neemann.digital.draw.shapes.GenericShape.SIZE2;
@@ -78,6 +79,8 @@ public class CircuitComponent extends JComponent implements ChangedListener, Lib
         ATTR_LIST.add(Keys.PRELOAD_PROGRAM);
         ATTR_LIST.add(Keys.PROGRAM_TO_PRELOAD);
         ATTR_LIST.add(Keys.IS_GENERIC);
+        ATTR_LIST.add(Keys.LEVELIZED_SIMULATION);
+        ATTR_LIST.add(Keys.PARALLEL_SIMULATION);
     }
 
     /**
@@ -92,6 +95,8 @@ public class CircuitComponent extends JComponent implements ChangedListener, Lib
     private static final int MOUSE_BORDER_LARGE = 50;
 
     private static final int DRAG_DISTANCE = (int) (SIZE2 * Screen.getInstance().getScaling());
+    private static final int FRAME_TIME_MS = 1000 / 30;
+    private static final int MAX_CHANGED_AREAS = 100;
 
     private final Main parent;
     private final ElementLibrary library;
@@ -117,6 +122,8 @@ public class CircuitComponent extends JComponent implements ChangedListener, Lib
     private final ToolTipAction redoAction;
     private final UndoManager<Circuit> undoManager;
     private final Mouse mouse = Mouse.getMouse();
+    private final javax.swing.Timer frameTimer;
+    private final AtomicBoolean frameScheduled = new AtomicBoolean();
 
     private MouseController activeMouseController;
     private AffineTransform transform = new AffineTransform();
@@ -124,6 +131,9 @@ public class CircuitComponent extends JComponent implements ChangedListener, Lib
     private SyncAccess modelSync = SyncAccess.NOSYNC;
     private boolean isManualScale;
     private boolean graphicHasChangedFlag = true;
+    private volatile boolean modelHasChangedFlag = false;
+    private long lastFrameTime;
+    private final ChangedAreas changedAreas = new ChangedAreas(MAX_CHANGED_AREAS);
     private boolean hadFocusAtClick = true;
     private boolean lockMessageShown = false;
     private boolean antiAlias = true;
@@ -252,6 +262,12 @@ public class CircuitComponent extends JComponent implements ChangedListener, Lib
         undoManager = new UndoManager<>(new Circuit());
         addListener(this);
 
+        frameTimer = new javax.swing.Timer(0, e -> {
+            frameScheduled.set(false);
+            repaint();
+        });
+        frameTimer.setRepeats(false);
+
         MouseDispatcher dispatcher = new MouseDispatcher();
         addMouseMotionListener(dispatcher);
         addMouseListener(dispatcher);
@@ -489,9 +505,25 @@ public class CircuitComponent extends JComponent implements ChangedListener, Lib
      */
     public void graphicHasChanged() {
         graphicHasChangedFlag = true;
+        changedAreas.invalidate();
         repaint();
     }
 
+    /**
+     * Is called if the values of the running model have changed.
+     * Only the wires and elements whose values have changed are redrawn.
+     * The repaints are limited to a maximum frame rate, so this method can be called
+     * at a high rate from any thread.
+     */
+    public void modelHasChanged() {
+        modelHasChangedFlag = true;
+        if (frameScheduled.compareAndSet(false, true)) {
+            long delay = lastFrameTime + FRAME_TIME_MS - System.currentTimeMillis();
+            frameTimer.setInitialDelay((int) Math.max(0, Math.min(delay, FRAME_TIME_MS)));
+            frameTimer.restart();
+        }
+    }
+
     /**
      * undo last action
      */
@@ -682,6 +714,7 @@ public class CircuitComponent extends JComponent implements ChangedListener, Lib
      * @param modelSync used to access the running model
      */
     public void setModeAndReset(boolean runMode, SyncAccess modelSync) {
+        changedAreas.detach(this.modelSync);
         this.modelSync = modelSync;
         if (runMode) {
             redoAction.setEnabled(false);
@@ -853,35 +886,43 @@ public class CircuitComponent extends JComponent implements ChangedListener, Lib
             fitCircuit();
 
         final double scaleX = transform.getScaleX();
-        if (graphicHasChangedFlag || newBufferRequired) {
+        List<GraphicMinMax> areas = null;
+        boolean redrawAll = graphicHasChangedFlag || newBufferRequired;
+        if (!redrawAll && modelHasChangedFlag) {
+            modelHasChangedFlag = false;
+            areas = changedAreas.getChangedAreas();
+            redrawAll = areas == null;
+        }
 
+        if (redrawAll) {
             if (newBufferRequired)
                 buffer = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration().createCompatibleImage(getWidth(), getHeight());
 
-            Graphics2D gr2 = buffer.createGraphics();
-
-            GraphicSwing gr = new GraphicSwing(gr2, (int) (2 / scaleX));
-            gr.enableAntiAlias(antiAlias);
-
-            gr2.setColor(ColorScheme.getSelected().getColor(ColorKey.BACKGROUND));
-            gr2.fillRect(0, 0, getWidth(), getHeight());
-
-            if (scaleX > 0.3 && Settings.getInstance().get(Keys.SETTINGS_GRID))
-                drawGrid(gr2);
-
-            gr2.transform(transform);
+            graphicHasChangedFlag = false;
+            modelHasChangedFlag = false;
+            // the tracker is created before the values are read, so no change can be missed
+            if (modelSync != SyncAccess.NOSYNC)
+                changedAreas.update(getCircuitOrShallowCopy(), modelSync);
 
             long time = System.currentTimeMillis();
-            getCircuitOrShallowCopy().drawTo(gr, highLighted, highLightStyle, modelSync);
+            drawToBuffer(new Rectangle(0, 0, getWidth(), getHeight()), null);
             time = System.currentTimeMillis() - time;
 
             if (time > 500) antiAlias = false;
             if (time < 50) antiAlias = true;
 
 //            System.out.println("repaint: " + time + "ms");
-
-            graphicHasChangedFlag = false;
+        } else if (areas != null) {
+            Rectangle visible = new Rectangle(0, 0, getWidth(), getHeight());
+            for (GraphicMinMax area : areas) {
+                Point p1 = transform(area.getMin().add(-SIZE, -SIZE));
+                Point p2 = transform(area.getMax().add(SIZE, SIZE));
+                Rectangle r = new Rectangle(p1.x, p1.y, p2.x - p1.x + 1, p2.y - p1.y + 1);
+                if (r.intersects(visible))
+                    drawToBuffer(r, area);
+            }
         }
+        lastFrameTime = System.currentTimeMillis();
 
         g.drawImage(buffer, 0, 0, null);
 
@@ -894,12 +935,49 @@ public class CircuitComponent extends JComponent implements ChangedListener, Lib
         gr2.setTransform(oldTrans);
     }
 
-    private void drawGrid(Graphics2D gr2) {
-        Vector g1 = raster(getPosVector(0, 0));
+    /**
+     * Draws the circuit to the given area of the back buffer.
+     * Only the given area of the buffer is modified.
+     *
+     * @param area    the area in screen coordinates
+     * @param visible the area in circuit coordinates, if null the whole visible area is drawn
+     */
+    private void drawToBuffer(Rectangle area, GraphicMinMax visible) {
+        Graphics2D gr2 = buffer.createGraphics();
+        gr2.clip(area);
+
+        final double scaleX = transform.getScaleX();
+        GraphicSwing gr = new GraphicSwing(gr2, (int) (2 / scaleX));
+        gr.enableAntiAlias(antiAlias);
+
+        gr2.setColor(ColorScheme.getSelected().getColor(ColorKey.BACKGROUND));
+        gr2.fillRect(area.x, area.y, area.width, area.height);
+
+        if (scaleX > 0.3 && Settings.getInstance().get(Keys.SETTINGS_GRID))
+            drawGrid(gr2, area);
+
+        gr2.transform(transform);
+
+        Vector min;
+        Vector max;
+        if (visible == null) {
+            min = getPosVector(0, 0);
+            max = getPosVector(getWidth(), getHeight());
+        } else {
+            min = visible.getMin();
+            max = visible.getMax();
+        }
+        getCircuitOrShallowCopy().drawTo(gr, highLighted, highLightStyle, modelSync, min, max);
+        gr2.dispose();
+    }
+
+    private void drawGrid(Graphics2D gr2, Rectangle area) {
+        // one additional grid point at each side covers the rounding to the raster
+        Vector g1 = raster(getPosVector(area.x, area.y)).add(-SIZE, -SIZE);
         Point2D p1 = new Point2D.Double();
         transform.transform(new Point(g1.x, g1.y), p1);
 
-        Vector g2 = raster(getPosVector(getWidth(), getHeight()));
+        Vector g2 = raster(getPosVector(area.x + area.width, area.y + area.height)).add(SIZE, SIZE);
         Point2D p2 = new Point2D.Double();
         transform.transform(new Point(g2.x, g2.y), p2);
 
@@ -2552,6 +2630,8 @@ public class CircuitComponent extends JComponent implements ChangedListener, Lib
             Point p = new Point(e.getX(), e.getY());
             SwingUtilities.convertPointToScreen(p, CircuitComponent.this);
             actor.interact(CircuitComponent.this, p, getPosVector(e), modelSync);
+            // the interaction may change the state of a shape which is not tracked by the change tracker
+            graphicHasChanged();
         }
     }
 
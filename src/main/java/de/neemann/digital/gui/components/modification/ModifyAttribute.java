@@ -20,6 +20,7 @@ public class ModifyAttribute<VALUE> extends ModificationOfVisualElement {
 
     private final Key<VALUE> key;
     private final VALUE value;
+    private VALUE previous;
 
     /**
      * Creates a new instance
@@ -37,7 +38,20 @@ public class ModifyAttribute<VALUE> extends ModificationOfVisualElement {
     @Override
     public void modify(Circuit circuit) throws ModifyException {
         VisualElement ve = getVisualElement(circuit);
+        previous = ve.getElementAttributes().get(key);
         ve.getElementAttributes().set(key, value);
+        circuit.geometryChanged();
+    }
+
+    @Override
+    public boolean isRevertible() {
+        return true;
+    }
+
+    @Override
+    public void revert(Circuit circuit) throws ModifyException {
+        getVisualElement(circuit).getElementAttributes().set(key, previous);
+        circuit.geometryChanged();
     }
 
     /**
@@ -17,6 +17,7 @@ import de.neemann.digital.undo.ModifyException;
 public class ModifyAttributes extends ModificationOfVisualElement {
 
     private final ElementAttributes attributes;
+    private ElementAttributes previous;
 
     /**
      * Creates a new instance
@@ -32,6 +33,19 @@ public class ModifyAttributes extends ModificationOfVisualElement {
     @Override
     public void modify(Circuit circuit) throws ModifyException {
         VisualElement ve = getVisualElement(circuit);
+        previous = new ElementAttributes(ve.getElementAttributes());
         ve.getElementAttributes().getValuesFrom(attributes);
+        circuit.geometryChanged();
+    }
+
+    @Override
+    public boolean isRevertible() {
+        return true;
+    }
+
+    @Override
+    public void revert(Circuit circuit) throws ModifyException {
+        getVisualElement(circuit).getElementAttributes().getValuesFrom(previous);
+        circuit.geometryChanged();
     }
 }
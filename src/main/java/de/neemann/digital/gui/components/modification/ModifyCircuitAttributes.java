@@ -15,6 +15,7 @@ import de.neemann.digital.undo.Modification;
  */
 public class ModifyCircuitAttributes implements Modification<Circuit> {
     private final ElementAttributes attributes;
+    private ElementAttributes previous;
 
     /**
      * Creates a new instance
@@ -27,9 +28,20 @@ public class ModifyCircuitAttributes implements Modification<Circuit> {
 
     @Override
     public void modify(Circuit circuit) {
+        previous = new ElementAttributes(circuit.getAttributes());
         circuit.getAttributes().getValuesFrom(attributes);
     }
 
+    @Override
+    public boolean isRevertible() {
+        return true;
+    }
+
+    @Override
+    public void revert(Circuit circuit) {
+        circuit.getAttributes().getValuesFrom(previous);
+    }
+
     @Override
     public String toString() {
         return Lang.get("mod_circuitAttrModified");
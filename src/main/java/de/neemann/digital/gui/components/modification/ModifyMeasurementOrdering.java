@@ -10,12 +10,14 @@ import de.neemann.digital.lang.Lang;
 import de.neemann.digital.undo.Modification;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Modifies the measurement ordering
  */
 public class ModifyMeasurementOrdering implements Modification<Circuit> {
     private final ArrayList<String> names;
+    private List<String> previous;
 
     /**
      * Creates a new instance
@@ -28,9 +30,20 @@ public class ModifyMeasurementOrdering implements Modification<Circuit> {
 
     @Override
     public void modify(Circuit circuit) {
+        previous = circuit.getMeasurementOrdering();
         circuit.setMeasurementOrdering(names);
     }
 
+    @Override
+    public boolean isRevertible() {
+        return true;
+    }
+
+    @Override
+    public void revert(Circuit circuit) {
+        circuit.setMeasurementOrdering(previous);
+    }
+
     @Override
     public String toString() {
         return Lang.get("mod_modifiedMeasurementOrdering");
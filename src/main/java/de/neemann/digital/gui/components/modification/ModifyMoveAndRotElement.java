@@ -36,5 +36,6 @@ public class ModifyMoveAndRotElement extends ModificationOfVisualElement {
         VisualElement ve = getVisualElement(circuit);
         ve.setPos(pos);
         ve.setRotation(rotation);
+        circuit.geometryChanged();
     }
 }
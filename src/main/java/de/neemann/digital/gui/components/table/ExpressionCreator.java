@@ -29,11 +29,13 @@ import java.util.concurrent.TimeUnit;
  */
 public class ExpressionCreator {
     private static final Logger LOGGER = LoggerFactory.getLogger(ExpressionCreator.class);
-    private static final int MAX_INPUTS_ALLOWED = 12;
+    private static final int MAX_INPUTS_ALLOWED = 16;
+    private static final int MAX_INPUTS_HEURISTIC = 24;
     private static final int COMPLEX_VAR_SIZE = 8;
 
     private final TruthTable theTable;
     private ProgressListener progressListener;
+    private int heuristicVarSize = 12;
 
     /**
      * Creates a new instance
@@ -113,8 +115,9 @@ public class ExpressionCreator {
                 localVars = tr.getVars();
             }
         }
-        if (!Main.isExperimentalMode() && localVars.size() > MAX_INPUTS_ALLOWED)
-            throw new AnalyseException(Lang.get("err_toManyInputsIn_N0_max_N1_is_N2", resultName, MAX_INPUTS_ALLOWED, localVars.size()));
+        int maxInputs = localVars.size() > heuristicVarSize ? MAX_INPUTS_HEURISTIC : MAX_INPUTS_ALLOWED;
+        if (!Main.isExperimentalMode() && localVars.size() > maxInputs)
+            throw new AnalyseException(Lang.get("err_toManyInputsIn_N0_max_N1_is_N2", resultName, maxInputs, localVars.size()));
 
 
         listener = new CheckResultListener(listener, localVars, boolTable);
@@ -123,11 +126,26 @@ public class ExpressionCreator {
     }
 
     private MinimizerInterface getMinimizer(int size) {
-        if (size <= 4)
+        if (size > heuristicVarSize)
+            return new MinimizerEspresso();
+        else if (size <= 4)
             return new MinimizerQuineMcCluskeyExam();
-        else {
+        else if (size <= COMPLEX_VAR_SIZE)
             return new MinimizerQuineMcCluskey();
-        }
+        else
+            return new MinimizerQuineMcCluskeyCompact();
+    }
+
+    /**
+     * Sets the number of variables above which the heuristic minimizer is used.
+     * Below this number the exact minimizers are used.
+     *
+     * @param heuristicVarSize the number of variables
+     * @return this for chained calls
+     */
+    public ExpressionCreator setHeuristicVarSize(int heuristicVarSize) {
+        this.heuristicVarSize = heuristicVarSize;
+        return this;
     }
 
     /**
@@ -36,6 +36,7 @@ import de.neemann.digital.draw.library.ElementLibrary;
 import de.neemann.digital.draw.shapes.ShapeFactory;
 import de.neemann.digital.gui.Main;
 import de.neemann.digital.gui.SaveAsHelper;
+import de.neemann.digital.gui.Settings;
 import de.neemann.digital.gui.components.AttributeDialog;
 import de.neemann.digital.gui.components.ElementOrderer;
 import de.neemann.digital.gui.components.karnaugh.KarnaughMapDialog;
@@ -721,7 +722,10 @@ public class TableDialog extends JDialog {
                 new Thread(() -> {
                     ExpressionListenerStore storage = new ExpressionListenerStore(null);
                     try {
-                        new ExpressionCreator(table).setProgressListener(progress).create(storage);
+                        new ExpressionCreator(table)
+                                .setHeuristicVarSize(Settings.getInstance().get(Keys.SETTINGS_HEURISTIC_MINIMIZER_VARS))
+                                .setProgressListener(progress)
+                                .create(storage);
                     } catch (ExpressionException | FormatterException | AnalyseException e) {
                         SwingUtilities.invokeLater(() -> {
                             progress.dispose();
@@ -746,7 +750,9 @@ public class TableDialog extends JDialog {
                 }).start();
             } else {
                 lastGeneratedExpressions = new ExpressionListenerStore(expressionListener);
-                new ExpressionCreator(table).create(lastGeneratedExpressions);
+                new ExpressionCreator(table)
+                        .setHeuristicVarSize(Settings.getInstance().get(Keys.SETTINGS_HEURISTIC_MINIMIZER_VARS))
+                        .create(lastGeneratedExpressions);
                 kvMap.setResult(table, lastGeneratedExpressions.getResults());
             }
 
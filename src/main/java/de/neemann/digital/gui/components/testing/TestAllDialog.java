@@ -5,11 +5,14 @@
  */
 package de.neemann.digital.gui.components.testing;
 
+import de.neemann.digital.core.element.Keys;
 import de.neemann.digital.draw.library.ElementLibrary;
 import de.neemann.digital.draw.shapes.ShapeFactory;
 import de.neemann.digital.gui.Main;
+import de.neemann.digital.gui.Settings;
 import de.neemann.digital.lang.Lang;
 import de.neemann.digital.testing.FolderTestRunner;
+import de.neemann.digital.testing.TestResultCache;
 
 import javax.swing.*;
 import javax.swing.event.TableModelEvent;
@@ -23,6 +26,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 
@@ -30,20 +34,20 @@ import java.util.Comparator;
  * Tests all the files in a given folder
  */
 public class TestAllDialog extends JDialog {
+    private static final TestResultCache CACHE = new TestResultCache();
 
     private final FolderTestRunner folderTestRunner;
 
     /**
      * Creates a new dialog and starts the test execution.
      *
-     * @param frame        the parent frame
-     * @param folder       the folder to scan
-     * @param shapeFactory the shape factory to use
-     * @param library      the element library
+     * @param frame   the parent frame
+     * @param folder  the folder to scan
+     * @param library the element library
      */
-    public TestAllDialog(Frame frame, File folder, ShapeFactory shapeFactory, ElementLibrary library) {
+    public TestAllDialog(Frame frame, File folder, ElementLibrary library) {
         super(frame, Lang.get("msg_testResult"), false);
-        folderTestRunner = new FolderTestRunner(folder);
+        folderTestRunner = new FolderTestRunner(folder).setCache(CACHE);
 
         final FileModel tableModel = new FileModel(folderTestRunner.getFiles());
         JTable table = new JTable(tableModel);
@@ -73,10 +77,17 @@ public class TestAllDialog extends JDialog {
             }
         });
 
+        File rootPath = library.getRootFilePath();
         folderTestRunner.startTests(
                 (f, row) -> SwingUtilities.invokeLater(() -> tableModel.messageChanged(row)),
-                shapeFactory,
-                library);
+                () -> createLibrary(rootPath));
+    }
+
+    private static ElementLibrary createLibrary(File rootPath) throws IOException {
+        ElementLibrary library = new ElementLibrary(Settings.getInstance().get(Keys.SETTINGS_JAR_PATH));
+        library.setRootFilePath(rootPath);
+        new ShapeFactory(library, Settings.getInstance().get(Keys.SETTINGS_IEEE_SHAPES));
+        return library;
     }
 
     private void openCircuit(JTable table, Frame frame, ElementLibrary library) {
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing;
+
+import de.neemann.digital.core.BitSlicedModel;
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.ModelEventType;
+import de.neemann.digital.core.Node;
+import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.Signal;
+import de.neemann.digital.core.wiring.Clock;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.PinException;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.library.ElementNotFoundException;
+import de.neemann.digital.draw.model.ModelCreator;
+import de.neemann.digital.lang.Lang;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a large number of input vectors through a circuit.
+ * In contrast to the {@link TestExecutor} there is no test case interpreter involved.
+ * The input vectors are given column wise, one <code>long[]</code> for every input, and
+ * the output values are returned the same way. Every vector is applied to the inputs, then
+ * the model is stabilized and the outputs are read.
+ * <p>
+ * All vectors are processed by a single model instance. If the circuit has a state, the vectors
+ * are applied in the given order, and the state is carried over from one vector to the next.
+ * If the circuit is purely combinatorial, the vectors are independent and can be distributed to
+ * several models running in parallel, see {@link #setThreads(int)}.
+ * If a combinatorial circuit consists of single bit basic gates only, a {@link BitSlicedModel}
+ * is used instead, which evaluates 64 vectors at once.
+ */
+public class BatchExecutor {
+    private final ModelFactory factory;
+    private final String[] inputNames;
+    private final String[] outputNames;
+    private int threads = 1;
+
+    /**
+     * Creates a new instance
+     *
+     * @param circuit the circuit to simulate
+     * @param library the library to use
+     * @param inputs  the names of the inputs
+     * @param outputs the names of the outputs
+     */
+    public BatchExecutor(Circuit circuit, ElementLibrary library, String[] inputs, String[] outputs) {
+        this(() -> new ModelCreator(circuit, library).createModel(false), inputs, outputs);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param factory the factory used to create the models
+     * @param inputs  the names of the inputs
+     * @param outputs the names of the outputs
+     */
+    public BatchExecutor(ModelFactory factory, String[] inputs, String[] outputs) {
+        this.factory = factory;
+        this.inputNames = inputs;
+        this.outputNames = outputs;
+    }
+
+    /**
+     * Sets the number of threads to use.
+     * More than one thread is only used if the circuit has no state.
+     *
+     * @param threads the number of threads
+     * @return this for chained calls
+     */
+    public BatchExecutor setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    /**
+     * Executes the given input vectors
+     *
+     * @param inputs the input values, <code>inputs[i][row]</code> is the value of input i in the given row
+     * @return the output values, <code>result[o][row]</code> is the value of output o in the given row
+     * @throws NodeException            NodeException
+     * @throws PinException             PinException
+     * @throws ElementNotFoundException ElementNotFoundException
+     * @throws TestingDataException     TestingDataException
+     */
+    public long[][] execute(long[][] inputs) throws NodeException, PinException, ElementNotFoundException, TestingDataException {
+        if (inputs.length != inputNames.length)
+            throw new IllegalArgumentException("expected " + inputNames.length + " input columns, found " + inputs.length);
+        int rows = inputs.length == 0 ? 0 : inputs[0].length;
+        for (long[] column : inputs)
+            if (column.length != rows)
+                throw new IllegalArgumentException("input columns differ in length");
+
+        long[][] outputs = new long[outputNames.length][rows];
+
+        Runner first = new Runner(factory.create());
+        if (!first.hasState()) {
+            BitSlicedModel bitSliced;
+            try {
+                bitSliced = first.createBitSliced();
+            } catch (PinException e) {
+                first.close();
+                throw e;
+            }
+            if (bitSliced != null) {
+                // the model is only used to build the bit sliced model
+                first.close();
+                runBitSliced(bitSliced, inputs, outputs, rows);
+                return outputs;
+            }
+        }
+
+        if (threads == 1 || rows < threads * 2 || first.hasState()) {
+            first.run(inputs, outputs, 0, rows);
+            return outputs;
+        }
+
+        ArrayList<Runner> runners = new ArrayList<>();
+        runners.add(first);
+        for (int i = 1; i < threads; i++)
+            runners.add(new Runner(factory.create()));
+
+        ExecutorService ex = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final Runner r = runners.get(i);
+                final int from = (int) ((long) rows * i / threads);
+                final int to = (int) ((long) rows * (i + 1) / threads);
+                futures.add(ex.submit(() -> {
+                    r.run(inputs, outputs, from, to);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures)
+                f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NodeException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof NodeException)
+                throw (NodeException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new NodeException(cause.getMessage(), (Exception) cause);
+        } finally {
+            ex.shutdown();
+        }
+        return outputs;
+    }
+
+    private static void runBitSliced(BitSlicedModel model, long[][] inputs, long[][] outputs, int rows) {
+        for (int block = 0; block < rows; block += BitSlicedModel.LANES) {
+            int lanes = Math.min(BitSlicedModel.LANES, rows - block);
+            for (int i = 0; i < inputs.length; i++) {
+                long[] column = inputs[i];
+                long v = 0;
+                for (int l = 0; l < lanes; l++)
+                    v |= (column[block + l] & 1) << l;
+                model.setInput(i, v);
+            }
+            model.evaluate();
+            for (int o = 0; o < outputs.length; o++) {
+                long v = model.getOutput(o);
+                long[] column = outputs[o];
+                for (int l = 0; l < lanes; l++)
+                    column[block + l] = (v >>> l) & 1;
+            }
+        }
+    }
+
+    private final class Runner {
+        private final Model model;
+        private final ObservableValue[] in;
+        private final ObservableValue[] out;
+        private Exception cause;
+
+        private Runner(Model model) throws TestingDataException {
+            this.model = model;
+            in = new ObservableValue[inputNames.length];
+            for (int i = 0; i < inputNames.length; i++)
+                in[i] = findInput(inputNames[i]);
+            out = new ObservableValue[outputNames.length];
+            for (int i = 0; i < outputNames.length; i++)
+                out[i] = findOutput(outputNames[i]);
+
+            model.addObserver(event -> {
+                if (event.getType() == ModelEventType.ERROR_OCCURRED)
+                    cause = event.getCause();
+            }, ModelEventType.ERROR_OCCURRED);
+        }
+
+        private ObservableValue findInput(String name) throws TestingDataException {
+            for (Signal s : model.getInputs())
+                if (s.getName().equals(name))
+                    return s.getValue();
+            for (Clock c : model.getClocks())
+                if (name.equals(c.getLabel()))
+                    return c.getClockOutput();
+            throw new TestingDataException(Lang.get("err_testSignal_N_notFound", name));
+        }
+
+        private ObservableValue findOutput(String name) throws TestingDataException {
+            for (Signal s : model.getTestOutputs())
+                if (s.getName().equals(name))
+                    return s.getValue();
+            throw new TestingDataException(Lang.get("err_testSignal_N_notFound", name));
+        }
+
+        private BitSlicedModel createBitSliced() throws PinException {
+            return BitSlicedModel.create(model, Arrays.asList(in), Arrays.asList(out));
+        }
+
+        private void close() {
+            model.close();
+        }
+
+        private boolean hasState() {
+            return !model.findNode(Node::hasState).isEmpty();
+        }
+
+        private void run(long[][] inputs, long[][] outputs, int from, int to) throws NodeException {
+            try {
+                model.init();
+                for (int row = from; row < to && model.isRunning(); row++) {
+                    for (int i = 0; i < in.length; i++)
+                        in[i].setValue(inputs[i][row]);
+                    model.doStep();
+                    for (int o = 0; o < out.length; o++)
+                        outputs[o][row] = out[o].getValue();
+                }
+                if (cause != null) {
+                    if (cause instanceof NodeException)
+                        throw (NodeException) cause;
+                    throw new NodeException(cause.getMessage(), cause);
+                }
+            } finally {
+                model.close();
+            }
+        }
+    }
+
+    /**
+     * Factory to create the models
+     */
+    public interface ModelFactory {
+        /**
+         * @return a new model which is not yet initialized
+         * @throws NodeException            NodeException
+         * @throws PinException             PinException
+         * @throws ElementNotFoundException ElementNotFoundException
+         */
+        Model create() throws NodeException, PinException, ElementNotFoundException;
+    }
+}
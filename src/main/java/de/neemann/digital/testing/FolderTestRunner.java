@@ -11,7 +11,6 @@ import de.neemann.digital.draw.elements.PinException;
 import de.neemann.digital.draw.library.ElementLibrary;
 import de.neemann.digital.draw.library.ElementNotFoundException;
 import de.neemann.digital.draw.model.ModelCreator;
-import de.neemann.digital.draw.shapes.ShapeFactory;
 import de.neemann.digital.lang.Lang;
 import de.neemann.digital.testing.parser.ParserException;
 
@@ -21,13 +20,22 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Runs all tests in al circuits in a folder
+ * Runs all tests in al circuits in a folder.
+ * The files are tested in parallel by a work stealing pool. Every worker thread uses its own
+ * element library created by a {@link LibraryFactory}, because creating a model modifies the
+ * circuits loaded by the library.
+ * If a {@link TestResultCache} is set, files which are not modified since the last run are
+ * not tested again.
  */
 public class FolderTestRunner {
     private final ArrayList<FileToTest> files;
-    private Thread thread;
+    private TestResultCache cache;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private ForkJoinPool pool;
 
     /**
      * Creates a new instance
@@ -51,18 +59,44 @@ public class FolderTestRunner {
         }
     }
 
+    /**
+     * Sets the cache to use
+     *
+     * @param cache the cache
+     * @return this for chained calls
+     */
+    public FolderTestRunner setCache(TestResultCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads used to run the tests
+     *
+     * @param threads the number of threads
+     * @return this for chained calls
+     */
+    public FolderTestRunner setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
     /**
      * Starts all the tests.
-     * The test execution is done in a new thread, so this method returns immediately.
+     * The test execution is done in background threads, so this method returns immediately.
+     * The listener is called from the background threads in the order the tests complete.
      *
      * @param fileChangedListener the listsener to notify if a file status changed
-     * @param shapeFactory        the shape factory
-     * @param library             the element library
+     * @param libraryFactory      creates the element library used by a worker thread
      */
-    public void startTests(FileChangedListener fileChangedListener, ShapeFactory shapeFactory, ElementLibrary library) {
-        thread = new Thread(new TestRunner(files, fileChangedListener, shapeFactory, library));
-        thread.setDaemon(true);
-        thread.start();
+    public void startTests(FileChangedListener fileChangedListener, LibraryFactory libraryFactory) {
+        TestRunner runner = new TestRunner(files, fileChangedListener, libraryFactory, cache);
+        pool = new ForkJoinPool(threads);
+        for (int i = 0; i < files.size(); i++) {
+            final int index = i;
+            pool.execute(() -> runner.test(index));
+        }
+        pool.shutdown();
     }
 
     /**
@@ -71,7 +105,7 @@ public class FolderTestRunner {
      * @throws InterruptedException InterruptedException
      */
     public void waitUntilFinished() throws InterruptedException {
-        thread.join();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
     }
 
     /**
@@ -110,9 +144,9 @@ public class FolderTestRunner {
 
         private final File file;
         private final String name;
-        private String message = "-";
-        private FileToTest.Status status = FileToTest.Status.unknown;
-        private int rowCount;
+        private volatile String message = "-";
+        private volatile FileToTest.Status status = FileToTest.Status.unknown;
+        private volatile int rowCount;
 
 
         private FileToTest(int rootLength, File file) {
@@ -165,64 +199,90 @@ public class FolderTestRunner {
         }
     }
 
-    private static final class TestRunner implements Runnable {
+    private static final class TestRunner {
         private final ArrayList<FileToTest> files;
         private final FileChangedListener fileChangedListener;
-        private final ShapeFactory shapeFactory;
-        private final ElementLibrary library;
+        private final LibraryFactory libraryFactory;
+        private final TestResultCache cache;
+        private final ThreadLocal<ElementLibrary> libraries;
 
-        private TestRunner(ArrayList<FileToTest> files, FileChangedListener fileChangedListener, ShapeFactory shapeFactory, ElementLibrary library) {
+        private TestRunner(ArrayList<FileToTest> files, FileChangedListener fileChangedListener, LibraryFactory libraryFactory, TestResultCache cache) {
             this.files = files;
             this.fileChangedListener = fileChangedListener;
-            this.shapeFactory = shapeFactory;
-            this.library = library;
+            this.libraryFactory = libraryFactory;
+            this.cache = cache;
+            libraries = new ThreadLocal<>();
         }
 
-        @Override
-        public void run() {
-            for (int i = 0; i < files.size(); i++) {
-                FileToTest f = files.get(i);
-                try {
-                    Circuit circuit = Circuit.loadCircuit(f.file, shapeFactory);
-                    List<Circuit.TestCase> testCases = circuit.getTestCases();
-                    if (testCases.isEmpty()) {
-                        // if no test data is available, at least check if the model is error free
+        private ElementLibrary getLibrary() throws IOException {
+            ElementLibrary library = libraries.get();
+            if (library == null) {
+                library = libraryFactory.create();
+                libraries.set(library);
+            }
+            return library;
+        }
+
+        private void test(int i) {
+            FileToTest f = files.get(i);
+            try {
+                ElementLibrary library = getLibrary();
+                Circuit circuit = Circuit.loadCircuit(f.file, library.getShapeFactory());
+                String key = null;
+                if (cache != null) {
+                    key = TestResultCache.createKey(f.file, circuit, library);
+                    TestResultCache.Entry e = cache.get(f.file, key);
+                    if (e != null) {
+                        f.setTestRows(e.getRowCount());
+                        setMessage(f, i, e.getMessage(), e.getStatus());
+                        return;
+                    }
+                }
+
+                List<Circuit.TestCase> testCases = circuit.getTestCases();
+                if (testCases.isEmpty()) {
+                    // if no test data is available, at least check if the model is error free
+                    try {
+                        new ModelCreator(circuit, library).createModel(false);
+                        // if error free, issue a no test date message
+                        setMessage(f, i, Lang.get("err_noTestData"), FileToTest.Status.unknown);
+                    } catch (Exception e) {
+                        setMessage(f, i, Lang.get("msg_errorCreatingModel"), FileToTest.Status.error);
+                    }
+                } else {
+                    StringBuilder sb = new StringBuilder();
+                    int rowCount = 0;
+                    for (Circuit.TestCase tc : testCases) {
                         try {
-                            new ModelCreator(circuit, library).createModel(false);
-                            // if error free, issue a no test date message
-                            setMessage(f, i, Lang.get("err_noTestData"), FileToTest.Status.unknown);
-                        } catch (Exception e) {
-                            setMessage(f, i, Lang.get("msg_errorCreatingModel"), FileToTest.Status.error);
-                        }
-                    } else {
-                        StringBuilder sb = new StringBuilder();
-                        int rowCount = 0;
-                        for (Circuit.TestCase tc : testCases) {
-                            try {
-                                TestResult tr = new TestExecutor(tc, circuit, library).execute();
-                                if (tr.allPassed()) {
-                                    rowCount += tr.getRowsTested();
-                                } else {
-                                    if (sb.length() > 0)
-                                        sb.append("; ");
-                                    sb.append(Lang.get("msg_test_N_Failed", tc.getLabel()));
-                                }
-                            } catch (TestingDataException | NodeException e) {
+                            TestResult tr = new TestExecutor(tc, circuit, library)
+                                    .setStreaming(true)
+                                    .execute();
+                            if (tr.allPassed()) {
+                                rowCount += tr.getRowsTested();
+                            } else {
                                 if (sb.length() > 0)
                                     sb.append("; ");
-                                sb.append(tc.getLabel()).append(": ").append(e.getMessage());
+                                sb.append(Lang.get("msg_test_N_Failed", tc.getLabel()));
                             }
+                        } catch (TestingDataException | NodeException e) {
+                            if (sb.length() > 0)
+                                sb.append("; ");
+                            sb.append(tc.getLabel()).append(": ").append(e.getMessage());
                         }
-                        if (sb.length() == 0) {
-                            f.setTestRows(rowCount);
-                            setMessage(f, i, Lang.get("msg_testPassed_N", rowCount), FileToTest.Status.passed);
-                        } else
-                            setMessage(f, i, sb.toString(), FileToTest.Status.failed);
                     }
-
-                } catch (IOException | ElementNotFoundException | PinException | ParserException | RuntimeException e) {
-                    setMessage(f, i, e.getMessage(), FileToTest.Status.error);
+                    if (sb.length() == 0) {
+                        f.setTestRows(rowCount);
+                        setMessage(f, i, Lang.get("msg_testPassed_N", rowCount), FileToTest.Status.passed);
+                    } else
+                        setMessage(f, i, sb.toString(), FileToTest.Status.failed);
                 }
+
+                // errors are not cached because they may be caused by the environment
+                if (key != null && f.getStatus() != FileToTest.Status.error)
+                    cache.put(f.file, key, f.getStatus(), f.getMessage(), f.getRowCount());
+
+            } catch (IOException | ElementNotFoundException | PinException | ParserException | RuntimeException e) {
+                setMessage(f, i, e.getMessage(), FileToTest.Status.error);
             }
         }
 
@@ -244,4 +304,18 @@ public class FolderTestRunner {
          */
         void messageChanged(FileToTest f, int row);
     }
+
+    /**
+     * Creates the element libraries used by the worker threads
+     */
+    public interface LibraryFactory {
+        /**
+         * Creates a new library.
+         * The library must have a shape factory and the root path must be set.
+         *
+         * @return the new library
+         * @throws IOException IOException
+         */
+        ElementLibrary create() throws IOException;
+    }
 }
@@ -6,18 +6,20 @@
 package de.neemann.digital.testing;
 
 import de.neemann.digital.data.Value;
-import de.neemann.digital.testing.parser.LineListener;
-import de.neemann.digital.testing.parser.TestRow;
+import de.neemann.digital.testing.parser.RowBuffer;
+import de.neemann.digital.testing.parser.RowListener;
 
 import java.util.ArrayList;
 
 /**
- * Resolves don't cares in the inputs list
+ * Resolves don't cares in the inputs list.
+ * The row buffer is modified in place, so no objects are created.
  */
-public class LineListenerResolveDontCare implements LineListener {
+public class LineListenerResolveDontCare implements RowListener {
 
-    private final LineListener parent;
-    private final ArrayList<TestExecutor.TestSignal> inputs;
+    private final RowListener parent;
+    private final int[] inputs;
+    private final int[] dcIndex;
 
     /**
      * Create a new instance
@@ -25,34 +27,30 @@ public class LineListenerResolveDontCare implements LineListener {
      * @param parent the parent listener
      * @param inputs the input test signals
      */
-    public LineListenerResolveDontCare(LineListener parent, ArrayList<TestExecutor.TestSignal> inputs) {
+    public LineListenerResolveDontCare(RowListener parent, ArrayList<TestExecutor.TestSignal> inputs) {
         this.parent = parent;
-        this.inputs = inputs;
+        this.inputs = new int[inputs.size()];
+        for (int i = 0; i < inputs.size(); i++)
+            this.inputs[i] = inputs.get(i).getIndex();
+        dcIndex = new int[inputs.size()];
     }
 
     @Override
-    public void add(TestRow testRow) {
-        Value[] row = testRow.getValues();
-        ArrayList<Integer> dcIndex = null;
-        for (TestExecutor.TestSignal in : inputs) {
-            if (row[in.getIndex()].getType() == Value.Type.DONTCARE) {
-                if (dcIndex == null)
-                    dcIndex = new ArrayList<>();
-                dcIndex.add(in.getIndex());
-            }
-        }
-        if (dcIndex == null)
-            parent.add(testRow);
+    public void add(RowBuffer row) {
+        int dcCount = 0;
+        for (int in : inputs)
+            if (row.getType(in) == Value.Type.DONTCARE)
+                dcIndex[dcCount++] = in;
+
+        if (dcCount == 0)
+            parent.add(row);
         else {
-            int count = 1 << dcIndex.size();
+            int count = 1 << dcCount;
             for (int n = 0; n < count; n++) {
-                int mask = 1;
-                for (int in : dcIndex) {
-                    boolean val = (n & mask) != 0;
-                    row[in] = new Value(val ? 1 : 0);
-                    mask *= 2;
-                }
-                parent.add(new TestRow(row, testRow.getDescription() + ";X=" + n));
+                for (int i = 0; i < dcCount; i++)
+                    row.set(dcIndex[i], (n >> i) & 1, Value.Type.NORMAL);
+                row.setDontCare(n);
+                parent.add(row);
             }
         }
     }
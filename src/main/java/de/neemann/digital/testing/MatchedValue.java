@@ -29,6 +29,42 @@ public class MatchedValue extends Value {
         mask = (1L << found.getBits()) - 1;
     }
 
+    /**
+     * Creates a new instance
+     *
+     * @param expected the expected value
+     * @param found    the found value
+     * @param highZ    true if the found value is high z
+     * @param bits     the number of bits of the found value
+     */
+    MatchedValue(Value expected, long found, boolean highZ, int bits) {
+        super(found, highZ ? Type.HIGHZ : Type.NORMAL);
+        this.expected = expected;
+        mask = (1L << bits) - 1;
+    }
+
+    /**
+     * Checks if the found value matches the expected value.
+     * Gives the same result as {@link #isPassed()} without creating any objects.
+     *
+     * @param expectedType the type of the expected value
+     * @param expected     the expected value
+     * @param found        the found value
+     * @return true if test is passed
+     */
+    static boolean isPassed(Value.Type expectedType, long expected, ObservableValue found) {
+        if (expectedType == Value.Type.DONTCARE)
+            return true;
+        if (found.isHighZ())
+            return expectedType == Value.Type.HIGHZ;
+        if (expectedType != Value.Type.NORMAL)
+            return false;
+        long mask = (1L << found.getBits()) - 1;
+        if (mask == 0)
+            return found.getValue() == expected;
+        return (found.getValue() & mask) == (expected & mask);
+    }
+
     /**
      * @return true if test is passed
      */
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing;
+
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.data.Value;
+import de.neemann.digital.data.ValueTable;
+import de.neemann.digital.testing.parser.RowBuffer;
+import de.neemann.digital.testing.parser.TestRow;
+
+import java.util.ArrayList;
+
+/**
+ * Bounded ring buffer of the last executed test rows.
+ * The rows are stored in primitive arrays which are reused, so capturing a row
+ * does not create any objects. The {@link TestRow} instances are only created if
+ * the rows are moved to a {@link ValueTable}.
+ */
+final class RowRing {
+    private final ArrayList<TestExecutor.TestSignal> inputs;
+    private final ArrayList<TestExecutor.TestSignal> outputs;
+    private final long[][] values;
+    private final Value.Type[][] types;
+    private final long[][] found;
+    private final boolean[][] foundHighZ;
+    private final int[] rowNumber;
+    private final int[] line;
+    private int first;
+    private int size;
+
+    /**
+     * Creates a new instance
+     *
+     * @param capacity     the number of rows to keep
+     * @param testExecutor the test executor
+     */
+    RowRing(int capacity, TestExecutor testExecutor) {
+        inputs = testExecutor.getInputs();
+        outputs = testExecutor.getOutputs();
+        int width = testExecutor.getNames().size();
+        values = new long[capacity][width];
+        types = new Value.Type[capacity][width];
+        found = new long[capacity][outputs.size()];
+        foundHighZ = new boolean[capacity][outputs.size()];
+        rowNumber = new int[capacity];
+        line = new int[capacity];
+    }
+
+    /**
+     * Captures a row after the model has been advanced.
+     * If the ring is full, the oldest row is dropped.
+     *
+     * @param row the row
+     * @param num the number of the row
+     */
+    void capture(RowBuffer row, int num) {
+        int slot;
+        if (size < values.length) {
+            slot = (first + size) % values.length;
+            size++;
+        } else {
+            slot = first;
+            first = (first + 1) % values.length;
+        }
+
+        for (TestExecutor.TestSignal in : inputs) {
+            int i = in.getIndex();
+            if (TestResult.isClockInput(row, in)) {
+                values[slot][i] = in.getValue().getValue();
+                types[slot][i] = Value.Type.NORMAL;
+            } else {
+                values[slot][i] = row.getValue(i);
+                types[slot][i] = row.getType(i);
+            }
+        }
+        for (int o = 0; o < outputs.size(); o++) {
+            int i = outputs.get(o).getIndex();
+            values[slot][i] = row.getValue(i);
+            types[slot][i] = row.getType(i);
+            ObservableValue ov = outputs.get(o).getValue();
+            found[slot][o] = ov.getValue();
+            foundHighZ[slot][o] = ov.isHighZ();
+        }
+        rowNumber[slot] = num;
+        line[slot] = row.getLine();
+    }
+
+    /**
+     * Moves all captured rows to the given table
+     *
+     * @param table the table
+     * @return the number of rows moved
+     */
+    int drainTo(ValueTable table) {
+        int n = size;
+        for (int j = 0; j < size; j++) {
+            int slot = (first + j) % values.length;
+            Value[] res = new Value[values[slot].length];
+            for (TestExecutor.TestSignal in : inputs)
+                res[in.getIndex()] = new Value(values[slot][in.getIndex()], types[slot][in.getIndex()]);
+            for (int o = 0; o < outputs.size(); o++) {
+                TestExecutor.TestSignal out = outputs.get(o);
+                int i = out.getIndex();
+                res[i] = new MatchedValue(new Value(values[slot][i], types[slot][i]),
+                        found[slot][o], foundHighZ[slot][o], out.getValue().getBits());
+            }
+            table.add(new TestRow(res, "L" + line[slot]).setRow(rowNumber[slot]));
+        }
+        first = 0;
+        size = 0;
+        return n;
+    }
+}
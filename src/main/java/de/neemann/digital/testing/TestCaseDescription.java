@@ -16,7 +16,7 @@ import java.util.ArrayList;
  */
 public class TestCaseDescription {
     private final String dataString;
-    private transient LineEmitter lines;
+    private transient TestProgram lines;
     private transient ArrayList<String> names;
     private transient ArrayList<VirtualSignal> virtualSignals;
     private transient ModelInitializer modelInitializer;
@@ -79,7 +79,7 @@ public class TestCaseDescription {
      * @return the data lines
      * @throws TestingDataException TestingDataException
      */
-    public LineEmitter getLines() throws TestingDataException {
+    public TestProgram getLines() throws TestingDataException {
         check();
         return lines;
     }
@@ -18,6 +18,8 @@ import de.neemann.digital.draw.model.ModelCreator;
 import de.neemann.digital.lang.Lang;
 import de.neemann.digital.testing.parser.*;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 
@@ -28,12 +30,14 @@ public class TestExecutor {
     private final String label;
     private final ArrayList<String> names;
     private final Model model;
-    private final LineEmitter lines;
+    private final TestProgram lines;
     private final Context context;
     private final ArrayList<TestSignal> inputs;
     private final ArrayList<TestSignal> outputs;
     private boolean allowMissingInputs;
     private boolean errorOccurred;
+    private boolean streaming;
+    private File spillFile;
 
     /**
      * Creates a new testing result.
@@ -168,18 +172,15 @@ public class TestExecutor {
             private int r = row;
 
             @Override
-            public void add(TestRow testRow) {
-                Value[] values = testRow.getValues();
-                Value[] res = new Value[values.length];
-
+            public void add(RowBuffer testRow) {
                 if (r >= 0) {
-                    advanceModel(testRow, values, res, this);
+                    advanceModel(testRow, this);
                     r--;
                 }
             }
 
             @Override
-            public void addClockRow(String description) {
+            public void addClockRow(RowBuffer row) {
             }
 
         }, false);
@@ -193,19 +194,34 @@ public class TestExecutor {
      * @throws TestingDataException TestingDataException
      */
     public TestResult execute() throws ParserException, TestingDataException {
-        return execute(new TestResult(this), true);
+        TestResult tr;
+        try {
+            tr = new TestResult(this, streaming, spillFile);
+        } catch (IOException e) {
+            model.close();
+            throw new TestingDataException(Lang.get("err_whileExecutingTests_N0", label, e), e);
+        }
+        try {
+            return execute(tr, true);
+        } finally {
+            try {
+                tr.close();
+            } catch (IOException e) {
+                throw new TestingDataException(Lang.get("err_whileExecutingTests_N0", label, e), e);
+            }
+        }
     }
 
     /**
-     * Executes the test and sends all the test lines to the {@link LineListener} provided.
+     * Executes the test and sends all the test lines to the {@link RowListener} provided.
      *
      * @param lineListener the line listener to use
      * @param closeModel   if true the model is closed
      * @throws ParserException ParserException
      */
-    private <LL extends LineListener> LL execute(LL lineListener, boolean closeModel) throws ParserException, TestingDataException {
+    private <LL extends RowListener> LL execute(LL lineListener, boolean closeModel) throws ParserException, TestingDataException {
         try {
-            lines.emitLines(new LineListenerResolveDontCare(lineListener, inputs), context);
+            lines.execute(new LineListenerResolveDontCare(lineListener, inputs), context);
             return lineListener;
         } catch (RuntimeException re) {
             errorOccurred = true;
@@ -222,40 +238,35 @@ public class TestExecutor {
         signals.add(name);
     }
 
-    void advanceModel(TestRow testRow, Value[] values, Value[] res, TestResultListener trl) {
+    void advanceModel(RowBuffer row, TestResultListener trl) {
         boolean clockIsUsed = false;
         // set all values except the clocks
         for (TestSignal in : inputs) {
-            if (values[in.index].getType() != Value.Type.CLOCK) {
+            if (row.getType(in.index) != Value.Type.CLOCK) {
                 if (in.value != null)
-                    values[in.index].copyTo(in.value);
+                    row.copyTo(in.index, in.value);
             } else {
                 clockIsUsed = true;
             }
-            res[in.index] = values[in.index];
         }
 
         if (clockIsUsed) {  // a clock signal is used
             model.doStep();  // propagate all except clock
-            trl.addClockRow(testRow.getDescription());
+            trl.addClockRow(row);
 
             // set clock
             for (TestSignal in : inputs)
-                if (values[in.index].getType() == Value.Type.CLOCK) {
-                    values[in.index].copyTo(in.value);
-                    res[in.index] = values[in.index];
-                }
+                if (row.getType(in.index) == Value.Type.CLOCK)
+                    row.copyTo(in.index, in.value);
 
             // propagate clock change
             model.doStep();
-            trl.addClockRow(testRow.getDescription());
+            trl.addClockRow(row);
 
             // restore clock
             for (TestSignal in : inputs)   // invert the clock values
-                if (values[in.index].getType() == Value.Type.CLOCK) {
+                if (row.getType(in.index) == Value.Type.CLOCK)
                     in.value.setBool(!in.value.getBool());
-                    res[in.index] = new Value(in.value);
-                }
         }
 
         model.doStep();
@@ -284,6 +295,32 @@ public class TestExecutor {
         return this;
     }
 
+    /**
+     * Selects the streaming mode.
+     * In this mode the passed and failed rows are only counted, and just the rows around
+     * the failures are stored in the result table. Used if the results are not shown
+     * in a table, e.g. if the tests are executed from the command line.
+     *
+     * @param streaming true if the streaming mode is to be used
+     * @return this for chained calls
+     */
+    public TestExecutor setStreaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
+    /**
+     * Writes all test rows to the given file.
+     * The file can be read by {@link TestResultFile#read(File, int, int)}.
+     *
+     * @param spillFile the file to write the rows to
+     * @return this for chained calls
+     */
+    public TestExecutor setSpillFile(File spillFile) {
+        this.spillFile = spillFile;
+        return this;
+    }
+
     /**
      * Adds a observer to the model of this test executor
      *
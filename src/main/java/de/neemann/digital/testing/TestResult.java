@@ -7,70 +7,150 @@ package de.neemann.digital.testing;
 
 import de.neemann.digital.data.Value;
 import de.neemann.digital.data.ValueTable;
+import de.neemann.digital.testing.parser.RowBuffer;
 import de.neemann.digital.testing.parser.TestRow;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
- * The test result created by the test executor
+ * The test result created by the test executor.
+ * <p>
+ * In the streaming mode only the passed and failed rows are counted. The rows are kept in a
+ * small ring buffer, and only the rows around the failures are moved to the result table.
+ * So the memory required does not depend on the number of rows tested.
+ * Optionally, all rows can be written to a {@link TestResultFile}.
  */
 public class TestResult implements TestResultListener {
     private static final int MAX_RESULTS = 1 << 10;
     private static final int ERR_RESULTS = MAX_RESULTS * 2;
+    private static final int CONTEXT_ROWS = 8;
+    private static final int MAX_FAILURES = 64;
 
     private final TestExecutor testExecutor;
     private final ValueTable results;
+    private final RowRing ring;
+    private final TestResultFile.Writer spill;
     private int passedCount;
     private int failedCount;
     private boolean toManyResults;
     private int visibleRows;
     private int rowCount;
+    private int storedFailures;
+    private int rowsAfterFailure;
 
     /**
      * Creates a new instance
      *
      * @param testExecutor the test executor that created tis instance
+     * @param streaming    if true, only the rows around the failures are stored
+     * @param spillFile    the file to write all rows to, maybe null
+     * @throws IOException IOException
      */
-    TestResult(TestExecutor testExecutor) {
+    TestResult(TestExecutor testExecutor, boolean streaming, File spillFile) throws IOException {
         this.testExecutor = testExecutor;
         results = new ValueTable(testExecutor.getNames());
+        if (streaming)
+            ring = new RowRing(CONTEXT_ROWS + 1, testExecutor);
+        else
+            ring = null;
+        if (spillFile != null)
+            spill = new TestResultFile.Writer(spillFile, testExecutor);
+        else
+            spill = null;
     }
 
-    @Override
-    public void add(TestRow testRow) {
-        Value[] values = testRow.getValues();
-        Value[] res = new Value[values.length];
+    /**
+     * Returns true if the given input is a clock.
+     * After the row is executed, the value of the clock input is the inverted value of the row.
+     *
+     * @param row the row
+     * @param in  the input
+     * @return true if the input is a clock
+     */
+    static boolean isClockInput(RowBuffer row, TestExecutor.TestSignal in) {
+        return row.getType(in.getIndex()) == Value.Type.CLOCK && in.getValue() != null;
+    }
 
-        testExecutor.advanceModel(testRow, values, res, this);
+    /**
+     * Closes the spill file
+     *
+     * @throws IOException IOException
+     */
+    void close() throws IOException {
+        if (spill != null)
+            spill.close();
+    }
+
+    @Override
+    public void add(RowBuffer row) {
+        testExecutor.advanceModel(row, this);
 
         boolean ok = true;
-        for (TestExecutor.TestSignal out : testExecutor.getOutputs()) {
-            MatchedValue matchedValue = new MatchedValue(values[out.getIndex()], out.getValue());
-            res[out.getIndex()] = matchedValue;
-            if (!matchedValue.isPassed())
+        for (TestExecutor.TestSignal out : testExecutor.getOutputs())
+            if (!MatchedValue.isPassed(row.getType(out.getIndex()), row.getValue(out.getIndex()), out.getValue())) {
                 ok = false;
-        }
+                break;
+            }
 
         if (ok)
             passedCount++;
         else
             failedCount++;
 
-        if (visibleRows < (ok ? MAX_RESULTS : ERR_RESULTS)) {
+        if (spill != null) {
+            try {
+                spill.write(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        if (ring != null)
+            addStreaming(row, ok);
+        else if (visibleRows < (ok ? MAX_RESULTS : ERR_RESULTS)) {
+            // the values are only created if the row is stored
             visibleRows++;
-            results.add(new TestRow(res, testRow.getDescription()).setRow(rowCount));
+            Value[] res = new Value[row.size()];
+            for (TestExecutor.TestSignal in : testExecutor.getInputs()) {
+                if (isClockInput(row, in))
+                    res[in.getIndex()] = new Value(in.getValue());
+                else
+                    res[in.getIndex()] = row.get(in.getIndex());
+            }
+            for (TestExecutor.TestSignal out : testExecutor.getOutputs())
+                res[out.getIndex()] = new MatchedValue(row.get(out.getIndex()), out.getValue());
+            results.add(new TestRow(res, row.getDescription()).setRow(rowCount));
         } else
             toManyResults = true;
         rowCount++;
     }
 
+    private void addStreaming(RowBuffer row, boolean ok) {
+        ring.capture(row, rowCount);
+        if (!ok && storedFailures < MAX_FAILURES) {
+            storedFailures++;
+            visibleRows += ring.drainTo(results);
+            rowsAfterFailure = CONTEXT_ROWS;
+        } else if (rowsAfterFailure > 0) {
+            rowsAfterFailure--;
+            visibleRows += ring.drainTo(results);
+        }
+        toManyResults = visibleRows <= rowCount;
+    }
+
     @Override
-    public void addClockRow(String description) {
+    public void addClockRow(RowBuffer row) {
+        if (ring != null)
+            return;
         if (visibleRows < ERR_RESULTS) {
             Value[] r = new Value[testExecutor.getNames().size()];
             for (TestExecutor.TestSignal out : testExecutor.getOutputs())
                 r[out.getIndex()] = new Value(out.getValue());
             for (TestExecutor.TestSignal in : testExecutor.getInputs())
                 r[in.getIndex()] = new Value(in.getValue());
-            results.add(new TestRow(r, description)).omitInTable();
+            results.add(new TestRow(r, row.getDescription())).omitInTable();
         } else
             toManyResults = true;
     }
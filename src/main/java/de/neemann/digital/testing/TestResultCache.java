@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing;
+
+import de.neemann.digital.core.element.ElementAttributes;
+import de.neemann.digital.core.element.ElementTypeDescription;
+import de.neemann.digital.core.element.Keys;
+import de.neemann.digital.core.memory.ROM;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.VisualElement;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.library.ElementNotFoundException;
+import de.neemann.digital.draw.library.ElementTypeDescriptionCustom;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the results of the tests of a circuit file.
+ * A result is valid as long as neither the circuit file, nor one of the library circuits used
+ * directly or indirectly, nor a data file reloaded by a ROM, nor the test data has changed.
+ * This is checked by a hash over the content of all these files and the test data.
+ * The cache can be used by several threads concurrently.
+ */
+public class TestResultCache {
+    private final ConcurrentHashMap<File, Entry> entries;
+
+    /**
+     * Creates a new empty cache
+     */
+    public TestResultCache() {
+        entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the cached result
+     *
+     * @param file the circuit file
+     * @param key  the key created by {@link #createKey(File, Circuit, ElementLibrary)}
+     * @return the result or null if there is no valid result
+     */
+    public Entry get(File file, String key) {
+        Entry e = entries.get(file);
+        if (e == null || !e.key.equals(key))
+            return null;
+        return e;
+    }
+
+    /**
+     * Stores a result
+     *
+     * @param file     the circuit file
+     * @param key      the key created by {@link #createKey(File, Circuit, ElementLibrary)}
+     * @param status   the status of the file
+     * @param message  the message to show
+     * @param rowCount the number of test rows
+     */
+    public void put(File file, String key, FolderTestRunner.FileToTest.Status status, String message, int rowCount) {
+        entries.put(file, new Entry(key, status, message, rowCount));
+    }
+
+    /**
+     * @return the number of cached results
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Creates the key of a circuit.
+     * The key is a hash over the circuit file, all library circuits and ROM data files used
+     * and the test data.
+     *
+     * @param file    the circuit file
+     * @param circuit the circuit loaded from the file
+     * @param library the library used to resolve the elements
+     * @return the key
+     * @throws IOException              IOException
+     * @throws ElementNotFoundException ElementNotFoundException
+     */
+    public static String createKey(File file, Circuit circuit, ElementLibrary library) throws IOException, ElementNotFoundException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        addFile(digest, file);
+        for (Circuit.TestCase tc : circuit.getTestCases())
+            digest.update(tc.getTestCaseDescription().getDataString().getBytes(StandardCharsets.UTF_8));
+        addReferencedFiles(digest, circuit, library, new HashSet<>());
+
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest())
+            sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+
+    private static void addReferencedFiles(MessageDigest digest, Circuit circuit, ElementLibrary library, HashSet<File> visited) throws IOException, ElementNotFoundException {
+        for (VisualElement ve : circuit.getElements()) {
+            ElementAttributes attr = ve.getElementAttributes();
+            if (attr.get(Keys.AUTO_RELOAD_ROM)) {
+                File hexFile = attr.getFile(ROM.LAST_DATA_FILE_KEY);
+                // a missing file causes an error which is not cached
+                if (hexFile != null && hexFile.isFile())
+                    addFile(digest, hexFile);
+            }
+
+            ElementTypeDescription d = library.getElementType(ve.getElementName());
+            if (d instanceof ElementTypeDescriptionCustom) {
+                ElementTypeDescriptionCustom custom = (ElementTypeDescriptionCustom) d;
+                if (visited.add(custom.getFile())) {
+                    if (custom.getFile() != null)
+                        addFile(digest, custom.getFile());
+                    addReferencedFiles(digest, custom.getCircuit(), library, visited);
+                }
+            }
+        }
+    }
+
+    private static void addFile(MessageDigest digest, File file) throws IOException {
+        digest.update(file.getPath().getBytes(StandardCharsets.UTF_8));
+        digest.update(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * A cached test result
+     */
+    public static final class Entry {
+        private final String key;
+        private final FolderTestRunner.FileToTest.Status status;
+        private final String message;
+        private final int rowCount;
+
+        private Entry(String key, FolderTestRunner.FileToTest.Status status, String message, int rowCount) {
+            this.key = key;
+            this.status = status;
+            this.message = message;
+            this.rowCount = rowCount;
+        }
+
+        /**
+         * @return the status of the file
+         */
+        public FolderTestRunner.FileToTest.Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the message to show
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * @return the number of test rows
+         */
+        public int getRowCount() {
+            return rowCount;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing;
+
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.data.Value;
+import de.neemann.digital.data.ValueTable;
+import de.neemann.digital.testing.parser.RowBuffer;
+import de.neemann.digital.testing.parser.TestRow;
+
+import java.io.*;
+import java.util.ArrayList;
+
+/**
+ * Compact binary file which contains all rows of a test execution.
+ * Used to spill the results of large tests to disk instead of keeping them in memory.
+ * A file starts with a header containing the signal names, followed by the rows.
+ * Every value is stored as a type byte followed by a variable length integer.
+ */
+public final class TestResultFile {
+    private static final int MAGIC = 0x44545231;
+    private static final int INPUT = 0;
+    private static final int OUTPUT = 1;
+    private static final int FOUND_HIGH_Z = 0x10;
+
+    private TestResultFile() {
+    }
+
+    /**
+     * Reads rows from a result file
+     *
+     * @param file     the file
+     * @param firstRow the first row to read
+     * @param maxRows  the maximum number of rows to read
+     * @return the table containing the rows
+     * @throws IOException IOException
+     */
+    public static ValueTable read(File file, int firstRow, int maxRows) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC)
+                throw new IOException("not a test result file: " + file);
+            int width = in.readInt();
+            ArrayList<String> names = new ArrayList<>(width);
+            int[] roles = new int[width];
+            int[] bits = new int[width];
+            for (int i = 0; i < width; i++) {
+                names.add(in.readUTF());
+                roles[i] = in.readByte();
+                if (roles[i] == OUTPUT)
+                    bits[i] = in.readByte();
+            }
+
+            ValueTable table = new ValueTable(names);
+            int rowNum = 0;
+            while (table.getRows() < maxRows) {
+                int t = in.read();
+                if (t < 0)
+                    break;
+                Value[] row = new Value[width];
+                for (int i = 0; i < width; i++) {
+                    if (i > 0)
+                        t = in.readUnsignedByte();
+                    Value.Type type = Value.Type.values()[t & 0xf];
+                    long v = hasValue(type) ? readVarLong(in) : 0;
+                    if (roles[i] == OUTPUT) {
+                        boolean highZ = (t & FOUND_HIGH_Z) != 0;
+                        long found = highZ ? 0 : readVarLong(in);
+                        row[i] = new MatchedValue(new Value(v, type), found, highZ, bits[i]);
+                    } else
+                        row[i] = new Value(v, type);
+                }
+                if (rowNum >= firstRow)
+                    table.add(new TestRow(row, null).setRow(rowNum));
+                rowNum++;
+            }
+            return table;
+        }
+    }
+
+    private static boolean hasValue(Value.Type type) {
+        return type == Value.Type.NORMAL || type == Value.Type.CLOCK;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long u = (value << 1) ^ (value >> 63);
+        while ((u & ~0x7FL) != 0) {
+            out.write((int) ((u & 0x7F) | 0x80));
+            u >>>= 7;
+        }
+        out.write((int) u);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long u = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.readUnsignedByte();
+            u |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                break;
+            shift += 7;
+        }
+        return (u >>> 1) ^ -(u & 1);
+    }
+
+    /**
+     * Writes the rows of a test execution to a file
+     */
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final int[] roles;
+        private final TestExecutor.TestSignal[] signals;
+
+        /**
+         * Creates a new writer and writes the header
+         *
+         * @param file         the file to write
+         * @param testExecutor the test executor
+         * @throws IOException IOException
+         */
+        Writer(File file, TestExecutor testExecutor) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            ArrayList<String> names = testExecutor.getNames();
+            roles = new int[names.size()];
+            signals = new TestExecutor.TestSignal[names.size()];
+            for (TestExecutor.TestSignal in : testExecutor.getInputs())
+                signals[in.getIndex()] = in;
+            for (TestExecutor.TestSignal o : testExecutor.getOutputs()) {
+                signals[o.getIndex()] = o;
+                roles[o.getIndex()] = OUTPUT;
+            }
+
+            out.writeInt(MAGIC);
+            out.writeInt(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                out.writeUTF(names.get(i));
+                out.writeByte(roles[i]);
+                if (roles[i] == OUTPUT)
+                    out.writeByte(signals[i].getValue().getBits());
+            }
+        }
+
+        /**
+         * Writes a row after the model has been advanced
+         *
+         * @param row the row
+         * @throws IOException IOException
+         */
+        void write(RowBuffer row) throws IOException {
+            for (int i = 0; i < roles.length; i++) {
+                TestExecutor.TestSignal s = signals[i];
+                if (roles[i] == OUTPUT) {
+                    ObservableValue ov = s.getValue();
+                    Value.Type type = row.getType(i);
+                    out.write(type.ordinal() | (ov.isHighZ() ? FOUND_HIGH_Z : 0));
+                    if (hasValue(type))
+                        writeVarLong(out, row.getValue(i));
+                    if (!ov.isHighZ())
+                        writeVarLong(out, ov.getValue());
+                } else if (TestResult.isClockInput(row, s)) {
+                    out.write(Value.Type.NORMAL.ordinal());
+                    writeVarLong(out, s.getValue().getValue());
+                } else {
+                    Value.Type type = row.getType(i);
+                    out.write(type.ordinal());
+                    if (hasValue(type))
+                        writeVarLong(out, row.getValue(i));
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
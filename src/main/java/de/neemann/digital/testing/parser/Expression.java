@@ -18,4 +18,16 @@ public interface Expression {
      * @throws ParserException ParserException
      */
     long value(Context c) throws ParserException;
+
+    /**
+     * Compiles this expression.
+     * The code created pushes the value of the expression to the stack.
+     * The default implementation calls the {@link #value(Context)} method
+     * when the program is executed.
+     *
+     * @param builder the builder of the program
+     */
+    default void compile(TestProgram.Builder builder) {
+        builder.call(this);
+    }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing.parser;
+
+/**
+ * A constant expression
+ */
+public class ExpressionConstant implements Expression {
+    private final long value;
+
+    /**
+     * Creates a new instance
+     *
+     * @param value the value
+     */
+    public ExpressionConstant(long value) {
+        this.value = value;
+    }
+
+    @Override
+    public long value(Context c) {
+        return value;
+    }
+
+    @Override
+    public void compile(TestProgram.Builder builder) {
+        builder.constant(value);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing.parser;
+
+/**
+ * Expression which applies an {@link Operator} to one or two operands.
+ */
+public class ExpressionOperation implements Expression {
+    private final Operator operator;
+    private final Expression a;
+    private final Expression b;
+
+    /**
+     * Creates a binary operation
+     *
+     * @param operator the operator
+     * @param a        the first operand
+     * @param b        the second operand
+     */
+    public ExpressionOperation(Operator operator, Expression a, Expression b) {
+        this.operator = operator;
+        this.a = a;
+        this.b = b;
+    }
+
+    /**
+     * Creates a unary operation
+     *
+     * @param operator the operator
+     * @param a        the operand
+     */
+    public ExpressionOperation(Operator operator, Expression a) {
+        this(operator, a, null);
+    }
+
+    @Override
+    public long value(Context c) throws ParserException {
+        if (b == null)
+            return operator.calc(a.value(c), 0);
+        return operator.calc(a.value(c), b.value(c));
+    }
+
+    @Override
+    public void compile(TestProgram.Builder builder) {
+        a.compile(builder);
+        if (b != null)
+            b.compile(builder);
+        builder.operation(operator);
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing.parser;
+
+/**
+ * Expression which reads a variable
+ */
+public class ExpressionVariable implements Expression {
+    private final String name;
+
+    /**
+     * Creates a new instance
+     *
+     * @param name the name of the variable
+     */
+    public ExpressionVariable(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public long value(Context c) throws ParserException {
+        return c.getVar(name);
+    }
+
+    @Override
+    public void compile(TestProgram.Builder builder) {
+        builder.load(name);
+    }
+}
@@ -20,4 +20,15 @@ public interface LineEmitter {
      */
     void emitLines(LineListener listener, Context context) throws ParserException;
 
+    /**
+     * Compiles this emitter.
+     * The default implementation calls the {@link #emitLines(LineListener, Context)} method
+     * when the program is executed.
+     *
+     * @param builder the builder of the program
+     */
+    default void compile(TestProgram.Builder builder) {
+        builder.emitter(this);
+    }
+
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing.parser;
+
+/**
+ * Line emitter which implements the let statement.
+ * It does not emit any lines but sets a variable in the current context.
+ */
+public class LineEmitterLet implements LineEmitter {
+    private final String name;
+    private final Expression expression;
+
+    /**
+     * Creates a new instance
+     *
+     * @param name       the name of the variable
+     * @param expression the expression to calculate the value
+     */
+    public LineEmitterLet(String name, Expression expression) {
+        this.name = name;
+        this.expression = expression;
+    }
+
+    @Override
+    public void emitLines(LineListener listener, Context context) throws ParserException {
+        context.setVar(name, expression.value(context));
+    }
+
+    @Override
+    public void compile(TestProgram.Builder builder) {
+        expression.compile(builder);
+        builder.store(name);
+    }
+}
@@ -48,4 +48,10 @@ public class LineEmitterList implements LineEmitter {
             l.emitLines(listener, context);
     }
 
+    @Override
+    public void compile(TestProgram.Builder builder) {
+        for (LineEmitter l : lines)
+            l.compile(builder);
+    }
+
 }
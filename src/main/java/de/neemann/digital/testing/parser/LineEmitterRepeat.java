@@ -42,4 +42,9 @@ public class LineEmitterRepeat implements LineEmitter {
             inner.emitLines(listener, c);
         }
     }
+
+    @Override
+    public void compile(TestProgram.Builder builder) {
+        builder.repeat(name, size, inner);
+    }
 }
@@ -56,4 +56,11 @@ public class LineEmitterSimple implements LineEmitter {
 
         listener.add(new TestRow(vals.toArray(new Value[vals.size()]), description));
     }
+
+    @Override
+    public void compile(TestProgram.Builder builder) {
+        for (ValueAppender ve : appender)
+            ve.compile(builder);
+        builder.row(line);
+    }
 }
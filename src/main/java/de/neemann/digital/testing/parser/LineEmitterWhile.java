@@ -28,4 +28,9 @@ public class LineEmitterWhile implements LineEmitter {
         while (condition.value(context) != 0)
             inner.emitLines(listener, context);
     }
+
+    @Override
+    public void compile(TestProgram.Builder builder) {
+        builder.repeatWhile(condition, inner);
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing.parser;
+
+/**
+ * The operators available in test data expressions.
+ * Unary operators only use their first operand.
+ */
+public enum Operator {
+    /**
+     * a &lt; b
+     */
+    LESS,
+    /**
+     * a &lt;= b
+     */
+    LESS_EQUAL,
+    /**
+     * a &gt; b
+     */
+    GREATER,
+    /**
+     * a &gt;= b
+     */
+    GREATER_EQUAL,
+    /**
+     * a = b
+     */
+    EQUAL,
+    /**
+     * a != b
+     */
+    NOT_EQUAL,
+    /**
+     * bitwise or
+     */
+    OR,
+    /**
+     * bitwise xor
+     */
+    XOR,
+    /**
+     * bitwise and
+     */
+    AND,
+    /**
+     * logical shift right
+     */
+    SHIFT_RIGHT,
+    /**
+     * shift left
+     */
+    SHIFT_LEFT,
+    /**
+     * addition
+     */
+    ADD,
+    /**
+     * subtraction
+     */
+    SUB,
+    /**
+     * multiplication
+     */
+    MUL,
+    /**
+     * division
+     */
+    DIV,
+    /**
+     * remainder
+     */
+    MOD,
+    /**
+     * unary minus
+     */
+    NEG,
+    /**
+     * bitwise not
+     */
+    NOT,
+    /**
+     * logical not
+     */
+    LOG_NOT;
+
+    /**
+     * Applies the operator
+     *
+     * @param a the first operand
+     * @param b the second operand, ignored by unary operators
+     * @return the result
+     */
+    long calc(long a, long b) {
+        switch (this) {
+            case LESS:
+                return a < b ? 1 : 0;
+            case LESS_EQUAL:
+                return a <= b ? 1 : 0;
+            case GREATER:
+                return a > b ? 1 : 0;
+            case GREATER_EQUAL:
+                return a >= b ? 1 : 0;
+            case EQUAL:
+                return a == b ? 1 : 0;
+            case NOT_EQUAL:
+                return a == b ? 0 : 1;
+            case OR:
+                return a | b;
+            case XOR:
+                return a ^ b;
+            case AND:
+                return a & b;
+            case SHIFT_RIGHT:
+                return a >>> b;
+            case SHIFT_LEFT:
+                return a << b;
+            case ADD:
+                return a + b;
+            case SUB:
+                return a - b;
+            case MUL:
+                return a * b;
+            case DIV:
+                return a / b;
+            case MOD:
+                return a % b;
+            case NEG:
+                return -a;
+            case NOT:
+                return ~a;
+            default:
+                return a == 0 ? 1 : 0;
+        }
+    }
+
+    /**
+     * @return true if this is a unary operator
+     */
+    public boolean isUnary() {
+        return this == NEG || this == NOT || this == LOG_NOT;
+    }
+}
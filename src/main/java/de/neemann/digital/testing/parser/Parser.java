@@ -37,7 +37,7 @@ public class Parser {
     private final ArrayList<VirtualSignal> virtualSignals;
     private final Tokenizer tok;
     private final HashMap<String, Function> functions = new HashMap<>();
-    private LineEmitter emitter;
+    private TestProgram program;
 
     /**
      * Creates a new instance
@@ -63,8 +63,9 @@ public class Parser {
      */
     public Parser parse() throws IOException, ParserException {
         parseHeader();
-        emitter = parseRows(null);
+        LineEmitter emitter = parseRows(null);
         expect(Tokenizer.Token.EOF);
+        program = new TestProgram.Builder(names.size()).build(emitter);
         return this;
     }
 
@@ -162,7 +163,7 @@ public class Parser {
                     expect(Tokenizer.Token.EQUAL);
                     final Expression intValue = parseExpression();
                     expect(Tokenizer.Token.SEMICOLON);
-                    list.add((listener, context) -> context.setVar(varName, intValue.value(context)));
+                    list.add(new LineEmitterLet(varName, intValue));
                     break;
                 case REPEAT:
                     tok.consume();
@@ -229,8 +230,7 @@ public class Parser {
                 line = new LineEmitterSimple(names.size(), tok.getLine());
             switch (token) {
                 case NUMBER:
-                    Value num = new Value(convToLong(tok.getIdent()));
-                    line.add((vals, context) -> vals.add(num));
+                    line.add(new ValueAppenderValue(new Value(convToLong(tok.getIdent()))));
                     break;
                 case BITS:
                     expect(Tokenizer.Token.OPEN);
@@ -242,15 +242,14 @@ public class Parser {
                     break;
                 case IDENT:
                     try {
-                        final Value value = new Value(tok.getIdent().toUpperCase());
-                        line.add((vals, context) -> vals.add(value));
+                        line.add(new ValueAppenderValue(new Value(tok.getIdent().toUpperCase())));
                     } catch (Bits.NumberFormatException e) {
                         throw new ParserException(Lang.get("err_notANumber_N0_inLine_N1", tok.getIdent(), tok.getLine()));
                     }
                     break;
                 case OPEN:
                     exp = parseExpression();
-                    line.add((vals, context) -> vals.add(new Value(exp.value(context))));
+                    line.add(new ValueAppenderExpression(exp));
                     expect(Tokenizer.Token.CLOSE);
                     break;
                 case EOF:
@@ -303,10 +302,10 @@ public class Parser {
     }
 
     /**
-     * @return the line emitter
+     * @return the compiled test data
      */
-    public LineEmitter getLines() {
-        return emitter;
+    public TestProgram getLines() {
+        return program;
     }
 
     private boolean isToken(Tokenizer.Token t) throws IOException {
@@ -354,7 +353,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.SMALER)) {
             Expression a = ac;
             Expression b = parseGreater();
-            ac = (c) -> a.value(c) < b.value(c) ? 1 : 0;
+            ac = new ExpressionOperation(Operator.LESS, a, b);
         }
         return ac;
     }
@@ -364,7 +363,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.SMALEREQUAL)) {
             Expression a = ac;
             Expression b = parseGreater();
-            ac = (c) -> a.value(c) <= b.value(c) ? 1 : 0;
+            ac = new ExpressionOperation(Operator.LESS_EQUAL, a, b);
         }
         return ac;
     }
@@ -374,7 +373,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.GREATER)) {
             Expression a = ac;
             Expression b = parseEquals();
-            ac = (c) -> a.value(c) > b.value(c) ? 1 : 0;
+            ac = new ExpressionOperation(Operator.GREATER, a, b);
         }
         return ac;
     }
@@ -384,7 +383,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.GREATEREQUAL)) {
             Expression a = ac;
             Expression b = parseEquals();
-            ac = (c) -> a.value(c) >= b.value(c) ? 1 : 0;
+            ac = new ExpressionOperation(Operator.GREATER_EQUAL, a, b);
         }
         return ac;
     }
@@ -394,7 +393,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.EQUAL)) {
             Expression a = ac;
             Expression b = parseNotEquals();
-            ac = (c) -> a.value(c) == b.value(c) ? 1 : 0;
+            ac = new ExpressionOperation(Operator.EQUAL, a, b);
         }
         return ac;
     }
@@ -405,7 +404,7 @@ public class Parser {
             expect(Tokenizer.Token.EQUAL);
             Expression a = ac;
             Expression b = parseOR();
-            ac = (c) -> a.value(c) == b.value(c) ? 0 : 1;
+            ac = new ExpressionOperation(Operator.NOT_EQUAL, a, b);
         }
         return ac;
     }
@@ -415,7 +414,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.OR)) {
             Expression a = ac;
             Expression b = parseXOR();
-            ac = (c) -> a.value(c) | b.value(c);
+            ac = new ExpressionOperation(Operator.OR, a, b);
         }
         return ac;
     }
@@ -425,7 +424,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.XOR)) {
             Expression a = ac;
             Expression b = parseAND();
-            ac = (c) -> a.value(c) ^ b.value(c);
+            ac = new ExpressionOperation(Operator.XOR, a, b);
         }
         return ac;
     }
@@ -435,7 +434,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.AND)) {
             Expression a = ac;
             Expression b = parseShiftRight();
-            ac = (c) -> a.value(c) & b.value(c);
+            ac = new ExpressionOperation(Operator.AND, a, b);
         }
         return ac;
     }
@@ -445,7 +444,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.SHIFTRIGHT)) {
             Expression a = ac;
             Expression b = parseShiftLeft();
-            ac = (c) -> a.value(c) >>> b.value(c);
+            ac = new ExpressionOperation(Operator.SHIFT_RIGHT, a, b);
         }
         return ac;
     }
@@ -455,7 +454,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.SHIFTLEFT)) {
             Expression a = ac;
             Expression b = parseAdd();
-            ac = (c) -> a.value(c) << b.value(c);
+            ac = new ExpressionOperation(Operator.SHIFT_LEFT, a, b);
         }
         return ac;
     }
@@ -465,7 +464,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.ADD)) {
             Expression a = ac;
             Expression b = parseSub();
-            ac = (c) -> a.value(c) + b.value(c);
+            ac = new ExpressionOperation(Operator.ADD, a, b);
         }
         return ac;
     }
@@ -475,7 +474,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.SUB)) {
             Expression a = ac;
             Expression b = parseMul();
-            ac = (c) -> a.value(c) - b.value(c);
+            ac = new ExpressionOperation(Operator.SUB, a, b);
         }
         return ac;
     }
@@ -485,7 +484,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.MUL)) {
             Expression a = ac;
             Expression b = parseDiv();
-            ac = (c) -> a.value(c) * b.value(c);
+            ac = new ExpressionOperation(Operator.MUL, a, b);
         }
         return ac;
     }
@@ -495,7 +494,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.DIV)) {
             Expression a = ac;
             Expression b = parseMod();
-            ac = (c) -> a.value(c) / b.value(c);
+            ac = new ExpressionOperation(Operator.DIV, a, b);
         }
         return ac;
     }
@@ -505,7 +504,7 @@ public class Parser {
         while (isToken(Tokenizer.Token.MOD)) {
             Expression a = ac;
             Expression b = parseIdent();
-            ac = (c) -> a.value(c) % b.value(c);
+            ac = new ExpressionOperation(Operator.MOD, a, b);
         }
         return ac;
     }
@@ -524,19 +523,15 @@ public class Parser {
                     expect(Tokenizer.Token.CLOSE);
                     return findFunction(name, args);
                 } else
-                    return (c) -> c.getVar(name);
+                    return new ExpressionVariable(name);
             case NUMBER:
-                long num = convToLong(tok.getIdent());
-                return (c) -> num;
+                return new ExpressionConstant(convToLong(tok.getIdent()));
             case SUB:
-                Expression negExp = parseIdent();
-                return (c) -> -negExp.value(c);
+                return new ExpressionOperation(Operator.NEG, parseIdent());
             case BIN_NOT:
-                Expression notExp = parseIdent();
-                return (c) -> ~notExp.value(c);
+                return new ExpressionOperation(Operator.NOT, parseIdent());
             case LOG_NOT:
-                Expression boolNotExp = parseIdent();
-                return (c) -> boolNotExp.value(c) == 0 ? 1 : 0;
+                return new ExpressionOperation(Operator.LOG_NOT, parseIdent());
             case OPEN:
                 Expression exp = parseExpression();
                 expect(Tokenizer.Token.CLOSE);
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing.parser;
+
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.data.Value;
+
+/**
+ * A reusable test data row.
+ * The values are stored in a primitive array, so no objects are created while
+ * a {@link TestProgram} emits its rows. {@link Value} or {@link TestRow} instances
+ * are only created if requested.
+ */
+public final class RowBuffer {
+    private final long[] values;
+    private final Value.Type[] types;
+    private int count;
+    private int line;
+    private Context context;
+    private String description;
+    private int dontCare = -1;
+
+    /**
+     * Creates a new instance
+     *
+     * @param width the number of columns
+     */
+    public RowBuffer(int width) {
+        values = new long[width];
+        types = new Value.Type[width];
+    }
+
+    /**
+     * @return the number of columns
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the value of a column
+     *
+     * @param i the column
+     * @return the value
+     */
+    public long getValue(int i) {
+        return values[i];
+    }
+
+    /**
+     * Returns the type of a column
+     *
+     * @param i the column
+     * @return the type
+     */
+    public Value.Type getType(int i) {
+        return types[i];
+    }
+
+    /**
+     * Returns a column as a value
+     *
+     * @param i the column
+     * @return the value
+     */
+    public Value get(int i) {
+        return new Value(values[i], types[i]);
+    }
+
+    /**
+     * Sets a column
+     *
+     * @param i     the column
+     * @param value the value
+     * @param type  the type
+     */
+    public void set(int i, long value, Value.Type type) {
+        values[i] = value;
+        types[i] = type;
+    }
+
+    /**
+     * Copies the value of a column to the given observable value
+     *
+     * @param i  the column
+     * @param ov the value to write to
+     */
+    public void copyTo(int i, ObservableValue ov) {
+        if (types[i] == Value.Type.HIGHZ)
+            ov.setToHighZ();
+        else
+            ov.setValue(values[i]);
+    }
+
+    /**
+     * Sets the number of the don't care combination shown in the description.
+     *
+     * @param dontCare the combination or -1 if there are no don't cares resolved
+     */
+    public void setDontCare(int dontCare) {
+        this.dontCare = dontCare;
+    }
+
+    /**
+     * @return the source line of this row
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return the description of this row
+     */
+    public String getDescription() {
+        String d = description;
+        if (d == null) {
+            d = "L" + line;
+            String conString = context.toString();
+            if (!conString.isEmpty())
+                d += ";" + conString;
+        }
+        if (dontCare >= 0)
+            d += ";X=" + dontCare;
+        return d;
+    }
+
+    /**
+     * @return a copy of this row
+     */
+    public TestRow toTestRow() {
+        Value[] v = new Value[values.length];
+        for (int i = 0; i < v.length; i++)
+            v[i] = get(i);
+        return new TestRow(v, getDescription());
+    }
+
+    void put(long value, Value.Type type) {
+        if (count < values.length) {
+            values[count] = value;
+            types[count] = type;
+        }
+        count++;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    void setSource(int line, Context context, String description) {
+        this.line = line;
+        this.context = context;
+        this.description = description;
+    }
+
+    void clear() {
+        count = 0;
+        dontCare = -1;
+    }
+}
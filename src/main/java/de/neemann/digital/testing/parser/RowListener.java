@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing.parser;
+
+/**
+ * Listener which receives the rows created by a {@link TestProgram}.
+ */
+public interface RowListener {
+    /**
+     * Adds a row.
+     * The buffer is reused for the next row, so it must not be kept after the method returns.
+     *
+     * @param row the row
+     */
+    void add(RowBuffer row);
+}
@@ -0,0 +1,564 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing.parser;
+
+import de.neemann.digital.data.Value;
+import de.neemann.digital.lang.Lang;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The compiled test data.
+ * The tree of {@link LineEmitter}s and {@link Expression}s created by the parser is compiled to
+ * a flat instruction array which is executed using a primitive value stack. Variables are stored
+ * in numbered slots instead of hash maps, and the rows are written to a reusable {@link RowBuffer}.
+ * So the execution of loops with many iterations does not create any objects.
+ * <p>
+ * The scoping of the variables is the same as in the tree: Every loop opens a new scope, which
+ * is cleared each time the loop is entered. A variable is read from the innermost scope in which
+ * it is defined. If there is no such scope, the variable is read from the context given to the
+ * program, which also gives access to the signals of the model. The variables of the outermost
+ * scope are written to this context when the program terminates.
+ * <p>
+ * The program is immutable and can be executed by several threads concurrently.
+ */
+public final class TestProgram implements LineEmitter {
+    private static final int CONST = 0;
+    private static final int LOAD = 1;
+    private static final int STORE = 2;
+    private static final int CALL = 3;
+    private static final int JUMP = 4;
+    private static final int JUMP_ZERO = 5;
+    private static final int SCOPE = 6;
+    private static final int FOR = 7;
+    private static final int NEXT = 8;
+    private static final int COL_VALUE = 9;
+    private static final int COL_POP = 10;
+    private static final int COL_BITS = 11;
+    private static final int COL_APPEND = 12;
+    private static final int ROW = 13;
+    private static final int EMITTER = 14;
+    private static final int END = 15;
+    private static final int OPERATION = 16;
+    private static final Operator[] OPERATORS = Operator.values();
+
+    private final int[] code;
+    private final long[] constants;
+    private final Value[] values;
+    private final Expression[] expressions;
+    private final ValueAppender[] appenders;
+    private final LineEmitter[] emitters;
+    private final String[] refNames;
+    private final int[][] refSlots;
+    private final Scope[] scopes;
+    private final int slotCount;
+    private final int stackSize;
+    private final int width;
+
+    private TestProgram(Builder b) {
+        code = Arrays.copyOf(b.code, b.pc);
+        constants = toLongArray(b.constants);
+        values = b.values.toArray(new Value[0]);
+        expressions = b.expressions.toArray(new Expression[0]);
+        appenders = b.appenders.toArray(new ValueAppender[0]);
+        emitters = b.emitters.toArray(new LineEmitter[0]);
+        scopes = b.scopes.toArray(new Scope[0]);
+        slotCount = b.slotCount;
+        stackSize = Math.max(1, b.maxDepth);
+        width = b.width;
+
+        refNames = new String[b.refs.size()];
+        refSlots = new int[b.refs.size()][];
+        for (int i = 0; i < refNames.length; i++) {
+            Ref r = b.refs.get(i);
+            refNames[i] = r.name;
+            ArrayList<Integer> slots = new ArrayList<>();
+            Scope s = scopes[r.scope];
+            while (s != null) {
+                Integer slot = s.slots.get(r.name);
+                if (slot != null)
+                    slots.add(slot);
+                s = s.parent;
+            }
+            refSlots[i] = new int[slots.size()];
+            for (int j = 0; j < slots.size(); j++)
+                refSlots[i][j] = slots.get(j);
+        }
+    }
+
+    private static long[] toLongArray(ArrayList<Long> list) {
+        long[] l = new long[list.size()];
+        for (int i = 0; i < l.length; i++)
+            l[i] = list.get(i);
+        return l;
+    }
+
+    /**
+     * @return the number of columns of the created rows
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public void emitLines(LineListener listener, Context context) throws ParserException {
+        execute(row -> listener.add(row.toTestRow()), context);
+    }
+
+    @Override
+    public void compile(Builder builder) {
+        builder.emitter(this);
+    }
+
+    /**
+     * Executes the program.
+     * All rows are written to the same {@link RowBuffer} instance.
+     *
+     * @param listener the listener which receives the rows
+     * @param context  the context used to read variables which are not defined by the program
+     * @throws ParserException ParserException
+     */
+    public void execute(RowListener listener, Context context) throws ParserException {
+        final ProgramContext pc = new ProgramContext(context);
+        final long[] vars = pc.vars;
+        final boolean[] defined = pc.defined;
+        final long[] stack = new long[stackSize];
+        final RowBuffer row = new RowBuffer(width);
+        final int[] code = this.code;
+
+        int sp = 0;
+        int ip = 0;
+        while (true) {
+            final int op = code[ip];
+            switch (op) {
+                case CONST:
+                    stack[sp++] = constants[code[ip + 1]];
+                    ip += 2;
+                    break;
+                case LOAD:
+                    stack[sp++] = load(pc, code[ip + 1]);
+                    ip += 2;
+                    break;
+                case STORE:
+                    vars[code[ip + 1]] = stack[--sp];
+                    defined[code[ip + 1]] = true;
+                    ip += 2;
+                    break;
+                case CALL:
+                    pc.scope = code[ip + 2];
+                    stack[sp++] = expressions[code[ip + 1]].value(pc);
+                    ip += 3;
+                    break;
+                case JUMP:
+                    ip = code[ip + 1];
+                    break;
+                case JUMP_ZERO:
+                    if (stack[--sp] == 0)
+                        ip = code[ip + 1];
+                    else
+                        ip += 2;
+                    break;
+                case SCOPE:
+                    for (int s : scopes[code[ip + 1]].slotList)
+                        defined[s] = false;
+                    ip += 2;
+                    break;
+                case FOR:
+                    // counter, count, exit, variable
+                    final long i = vars[code[ip + 1]];
+                    if (i < code[ip + 2]) {
+                        vars[code[ip + 4]] = i;
+                        defined[code[ip + 4]] = true;
+                        ip += 5;
+                    } else
+                        ip = code[ip + 3];
+                    break;
+                case NEXT:
+                    vars[code[ip + 1]]++;
+                    ip = code[ip + 2];
+                    break;
+                case COL_VALUE:
+                    final Value v = values[code[ip + 1]];
+                    row.put(v.getValue(), v.getType());
+                    ip += 2;
+                    break;
+                case COL_POP:
+                    row.put(stack[--sp], Value.Type.NORMAL);
+                    ip++;
+                    break;
+                case COL_BITS:
+                    final long value = stack[--sp];
+                    for (int b = code[ip + 1] - 1; b >= 0; b--)
+                        row.put((value >>> b) & 1, Value.Type.NORMAL);
+                    ip += 2;
+                    break;
+                case COL_APPEND:
+                    pc.scope = code[ip + 2];
+                    ArrayList<Value> list = new ArrayList<>();
+                    appenders[code[ip + 1]].appendValues(list, pc);
+                    for (Value val : list)
+                        row.put(val.getValue(), val.getType());
+                    ip += 3;
+                    break;
+                case ROW:
+                    final int line = code[ip + 1];
+                    if (row.getCount() != width)
+                        throw new ParserException(Lang.get("err_testDataExpected_N0_found_N1_numbersInLine_N2", width, row.getCount(), line));
+                    pc.scope = code[ip + 2];
+                    row.setSource(line, pc, null);
+                    listener.add(row);
+                    row.clear();
+                    ip += 3;
+                    break;
+                case EMITTER:
+                    pc.scope = code[ip + 2];
+                    emitters[code[ip + 1]].emitLines(testRow -> {
+                        for (Value val : testRow.getValues())
+                            row.put(val.getValue(), val.getType());
+                        row.setSource(0, pc, testRow.getDescription());
+                        listener.add(row);
+                        row.clear();
+                    }, pc);
+                    ip += 3;
+                    break;
+                case END:
+                    // the variables of the outermost scope are visible to the caller
+                    for (Map.Entry<String, Integer> e : scopes[0].slots.entrySet())
+                        if (defined[e.getValue()])
+                            context.setVar(e.getKey(), vars[e.getValue()]);
+                    return;
+                default:
+                    final Operator o = OPERATORS[op - OPERATION];
+                    if (o.isUnary())
+                        stack[sp - 1] = o.calc(stack[sp - 1], 0);
+                    else {
+                        sp--;
+                        stack[sp - 1] = o.calc(stack[sp - 1], stack[sp]);
+                    }
+                    ip++;
+            }
+        }
+    }
+
+    private long load(ProgramContext pc, int ref) throws ParserException {
+        for (int slot : refSlots[ref])
+            if (pc.defined[slot])
+                return pc.vars[slot];
+        return pc.root.getVar(refNames[ref]);
+    }
+
+    /**
+     * The context which gives the expressions which are not compiled access to the variables of the program.
+     */
+    private final class ProgramContext extends Context {
+        private final Context root;
+        private final long[] vars;
+        private final boolean[] defined;
+        private int scope;
+
+        private ProgramContext(Context root) {
+            this.root = root;
+            vars = new long[slotCount];
+            defined = new boolean[slotCount];
+        }
+
+        @Override
+        public long getVar(String name) throws ParserException {
+            Scope s = scopes[scope];
+            while (s != null) {
+                Integer slot = s.slots.get(name);
+                if (slot != null && defined[slot])
+                    return vars[slot];
+                s = s.parent;
+            }
+            return root.getVar(name);
+        }
+
+        @Override
+        public Context setVar(String varName, long value) {
+            Integer slot = scopes[scope].slots.get(varName);
+            if (slot == null)
+                root.setVar(varName, value);
+            else {
+                vars[slot] = value;
+                defined[slot] = true;
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(root.toString());
+            fillString(sb, scopes[scope]);
+            return sb.toString();
+        }
+
+        private void fillString(StringBuilder sb, Scope s) {
+            if (s.parent != null)
+                fillString(sb, s.parent);
+            for (Map.Entry<String, Integer> e : s.slots.entrySet())
+                if (defined[e.getValue()]) {
+                    if (sb.length() > 0)
+                        sb.append(";");
+                    sb.append(e.getKey()).append("=").append(vars[e.getValue()]);
+                }
+        }
+    }
+
+    private static final class Scope {
+        private final Scope parent;
+        private final HashMap<String, Integer> slots;
+        private int[] slotList;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+            slots = new HashMap<>();
+            slotList = new int[0];
+        }
+    }
+
+    private static final class Ref {
+        private final String name;
+        private final int scope;
+
+        private Ref(String name, int scope) {
+            this.name = name;
+            this.scope = scope;
+        }
+    }
+
+    /**
+     * Used to compile the {@link LineEmitter}s and {@link Expression}s to a {@link TestProgram}.
+     */
+    public static final class Builder {
+        private final int width;
+        private int[] code = new int[64];
+        private int pc;
+        private final ArrayList<Long> constants = new ArrayList<>();
+        private final HashMap<Long, Integer> constantMap = new HashMap<>();
+        private final ArrayList<Value> values = new ArrayList<>();
+        private final ArrayList<Expression> expressions = new ArrayList<>();
+        private final ArrayList<ValueAppender> appenders = new ArrayList<>();
+        private final ArrayList<LineEmitter> emitters = new ArrayList<>();
+        private final ArrayList<Ref> refs = new ArrayList<>();
+        private final ArrayList<Scope> scopes = new ArrayList<>();
+        private int scope;
+        private int slotCount;
+        private int depth;
+        private int maxDepth;
+
+        /**
+         * Creates a new builder
+         *
+         * @param width the number of columns of a row
+         */
+        public Builder(int width) {
+            this.width = width;
+            scopes.add(new Scope(null));
+        }
+
+        /**
+         * Compiles the given emitter
+         *
+         * @param emitter the emitter
+         * @return the program
+         */
+        public TestProgram build(LineEmitter emitter) {
+            emitter.compile(this);
+            emit(END);
+            return new TestProgram(this);
+        }
+
+        private void emit(int... c) {
+            if (pc + c.length > code.length)
+                code = Arrays.copyOf(code, code.length * 2 + c.length);
+            for (int i : c)
+                code[pc++] = i;
+        }
+
+        private void push() {
+            depth++;
+            if (depth > maxDepth)
+                maxDepth = depth;
+        }
+
+        /**
+         * Pushes a constant to the stack
+         *
+         * @param value the value
+         */
+        public void constant(long value) {
+            Integer index = constantMap.get(value);
+            if (index == null) {
+                index = constants.size();
+                constants.add(value);
+                constantMap.put(value, index);
+            }
+            emit(CONST, index);
+            push();
+        }
+
+        /**
+         * Pushes the value of a variable to the stack
+         *
+         * @param name the name of the variable
+         */
+        public void load(String name) {
+            emit(LOAD, refs.size());
+            refs.add(new Ref(name, scope));
+            push();
+        }
+
+        /**
+         * Pops a value from the stack and stores it in a variable of the current scope
+         *
+         * @param name the name of the variable
+         */
+        public void store(String name) {
+            emit(STORE, declare(name));
+            depth--;
+        }
+
+        /**
+         * Applies an operator to the values on top of the stack
+         *
+         * @param operator the operator
+         */
+        public void operation(Operator operator) {
+            emit(OPERATION + operator.ordinal());
+            if (!operator.isUnary())
+                depth--;
+        }
+
+        /**
+         * Pushes the value of an expression which is not compiled to the stack
+         *
+         * @param expression the expression
+         */
+        public void call(Expression expression) {
+            emit(CALL, expressions.size(), scope);
+            expressions.add(expression);
+            push();
+        }
+
+        /**
+         * Adds a constant value to the current row
+         *
+         * @param value the value
+         */
+        public void column(Value value) {
+            emit(COL_VALUE, values.size());
+            values.add(value);
+        }
+
+        /**
+         * Pops a value from the stack and adds it to the current row
+         */
+        public void columnFromStack() {
+            emit(COL_POP);
+            depth--;
+        }
+
+        /**
+         * Pops a value from the stack and adds its bits to the current row
+         *
+         * @param bitCount the number of bits
+         */
+        public void columnBits(int bitCount) {
+            emit(COL_BITS, bitCount);
+            depth--;
+        }
+
+        /**
+         * Adds the values of an appender which is not compiled to the current row
+         *
+         * @param appender the appender
+         */
+        public void columnAppender(ValueAppender appender) {
+            emit(COL_APPEND, appenders.size(), scope);
+            appenders.add(appender);
+        }
+
+        /**
+         * Emits the current row
+         *
+         * @param line the source line
+         */
+        public void row(int line) {
+            emit(ROW, line, scope);
+        }
+
+        /**
+         * Executes an emitter which is not compiled
+         *
+         * @param emitter the emitter
+         */
+        public void emitter(LineEmitter emitter) {
+            emit(EMITTER, emitters.size(), scope);
+            emitters.add(emitter);
+        }
+
+        /**
+         * Repeats the inner emitter in a new scope
+         *
+         * @param name  the name of the loop variable
+         * @param count the number of iterations
+         * @param inner the emitter to repeat
+         */
+        public void repeat(String name, int count, LineEmitter inner) {
+            int outer = scope;
+            scope = scopes.size();
+            scopes.add(new Scope(scopes.get(outer)));
+            int counter = slotCount++;
+            int var = declare(name);
+
+            emit(SCOPE, scope);
+            constant(0);
+            emit(STORE, counter);
+            depth--;
+            int loop = pc;
+            emit(FOR, counter, count, 0, var);
+            int exitOperand = pc - 2;
+            inner.compile(this);
+            emit(NEXT, counter, loop);
+            code[exitOperand] = pc;
+
+            scope = outer;
+        }
+
+        /**
+         * Repeats the inner emitter as long as the condition is true
+         *
+         * @param condition the condition
+         * @param inner     the emitter to repeat
+         */
+        public void repeatWhile(Expression condition, LineEmitter inner) {
+            int loop = pc;
+            condition.compile(this);
+            emit(JUMP_ZERO, 0);
+            depth--;
+            int exitOperand = pc - 1;
+            inner.compile(this);
+            emit(JUMP, loop);
+            code[exitOperand] = pc;
+        }
+
+        private int declare(String name) {
+            Scope s = scopes.get(scope);
+            Integer slot = s.slots.get(name);
+            if (slot == null) {
+                slot = slotCount++;
+                s.slots.put(name, slot);
+                s.slotList = Arrays.copyOf(s.slotList, s.slotList.length + 1);
+                s.slotList[s.slotList.length - 1] = slot;
+            }
+            return slot;
+        }
+    }
+}
@@ -21,4 +21,15 @@ public interface ValueAppender {
      * @throws ParserException ParserException
      */
     void appendValues(ArrayList<Value> values, Context context) throws ParserException;
+
+    /**
+     * Compiles this appender.
+     * The default implementation calls the {@link #appendValues(ArrayList, Context)} method
+     * when the program is executed.
+     *
+     * @param builder the builder of the program
+     */
+    default void compile(TestProgram.Builder builder) {
+        builder.columnAppender(this);
+    }
 }
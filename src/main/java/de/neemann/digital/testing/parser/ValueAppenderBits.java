@@ -37,4 +37,10 @@ public class ValueAppenderBits implements ValueAppender {
             mask >>>= 1;
         }
     }
+
+    @Override
+    public void compile(TestProgram.Builder builder) {
+        expression.compile(builder);
+        builder.columnBits(bitCount);
+    }
 }
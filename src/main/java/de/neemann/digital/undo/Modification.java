@@ -20,4 +20,26 @@ public interface Modification<A> {
      * @throws ModifyException ModifyException
      */
     void modify(A a) throws ModifyException;
+
+    /**
+     * Returns true if this modification is able to revert itself by {@link #revert(Object)}.
+     * If not, an undo is done by replaying the modifications from the last checkpoint.
+     *
+     * @return true if revert is supported
+     */
+    default boolean isRevertible() {
+        return false;
+    }
+
+    /**
+     * Reverts the last call of {@link #modify(Object)}.
+     * Only called if {@link #isRevertible()} returns true, and only on the object which was
+     * modified by the last call of {@link #modify(Object)}.
+     *
+     * @param a the object to revert
+     * @throws ModifyException ModifyException
+     */
+    default void revert(A a) throws ModifyException {
+        throw new ModifyException("revert not supported by " + this);
+    }
 }
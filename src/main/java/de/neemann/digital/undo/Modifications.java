@@ -27,6 +27,20 @@ public final class Modifications<A extends Copyable<A>> implements Modification<
             m.modify(a);
     }
 
+    @Override
+    public boolean isRevertible() {
+        for (Modification<A> m : modifications)
+            if (!m.isRevertible())
+                return false;
+        return true;
+    }
+
+    @Override
+    public void revert(A a) throws ModifyException {
+        for (int i = modifications.size() - 1; i >= 0; i--)
+            modifications.get(i).revert(a);
+    }
+
     /**
      * @return The contained modifications
      */
@@ -6,16 +6,30 @@
 package de.neemann.digital.undo;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Class which implements Undo/Redo logic.
  * Uses an event sourcing approach.
  * Make sure that no modifications are made beside the {@link UndoManager#apply(Modification)}
  * or {@link UndoManager#applyWithoutHistory(Modification)} method!
+ * <p>
+ * To undo a modification, the modification is reverted if it supports this. Otherwise, all
+ * modifications are replayed on a copy of the last checkpoint in front of the modification.
+ * A checkpoint is a copy of the state which is taken every few modifications. If there are too
+ * many checkpoints, the checkpoint whose removal leaves the smallest gap is removed.
  *
  * @param <A> the structure to modify
  */
 public class UndoManager<A extends Copyable<A>> {
+    private static final int CHECKPOINT_INTERVAL = 20;
+    private static final int MAX_CHECKPOINTS = 10;
+
+    private final TreeMap<Integer, A> checkpoints;
+    private int checkpointInterval = CHECKPOINT_INTERVAL;
+    private int maxCheckpoints = MAX_CHECKPOINTS;
     private ArrayList<ChangedListener> listeners;
     private ArrayList<Modification<A>> modifications;
     private int modificationCounter;
@@ -30,9 +44,24 @@ public class UndoManager<A extends Copyable<A>> {
      */
     public UndoManager(A initial) {
         listeners = new ArrayList<>();
+        checkpoints = new TreeMap<>();
         setInitial(initial);
     }
 
+    /**
+     * Sets the checkpoint parameters
+     *
+     * @param interval       a checkpoint is created every interval modifications
+     * @param maxCheckpoints the maximum number of checkpoints to keep
+     * @return this for chained calls
+     */
+    public UndoManager<A> setCheckpoints(int interval, int maxCheckpoints) {
+        this.checkpointInterval = Math.max(1, interval);
+        this.maxCheckpoints = maxCheckpoints;
+        checkpoints.clear();
+        return this;
+    }
+
     /**
      * Sets the initial instance.
      * The history is lost
@@ -42,6 +71,7 @@ public class UndoManager<A extends Copyable<A>> {
     public void setInitial(A initial) {
         this.initial = initial;
         actual = null;
+        checkpoints.clear();
         modifications = new ArrayList<>();
         modificationCounter = 0;
         savedCounter = 0;
@@ -62,14 +92,48 @@ public class UndoManager<A extends Copyable<A>> {
             modification.modify(actual);
             while (modificationCounter < modifications.size())
                 modifications.remove(modifications.size() - 1);
+            checkpoints.tailMap(modificationCounter, false).clear();
             modifications.add(modification);
             modificationCounter = modifications.size();
+            if (modificationCounter % checkpointInterval == 0)
+                addCheckpoint();
             fireChangedEvent();
         } catch (ModifyException e) {
             throw createTrace(e, null);
         }
     }
 
+    private void addCheckpoint() {
+        if (maxCheckpoints <= 0)
+            return;
+        checkpoints.put(modificationCounter, actual.createDeepCopy());
+        if (checkpoints.size() > maxCheckpoints) {
+            // remove the checkpoint which leaves the smallest gap, the newest one is kept
+            int toRemove = -1;
+            int minGap = Integer.MAX_VALUE;
+            int prev = 0;
+            Iterator<Integer> it = checkpoints.keySet().iterator();
+            int cp = it.next();
+            while (it.hasNext()) {
+                int next = it.next();
+                if (next - prev < minGap) {
+                    minGap = next - prev;
+                    toRemove = cp;
+                }
+                prev = cp;
+                cp = next;
+            }
+            checkpoints.remove(toRemove);
+        }
+    }
+
+    /**
+     * @return the number of checkpoints available
+     */
+    int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
     private void fireChangedEvent() {
         for (ChangedListener l : listeners)
             l.hasChanged();
@@ -106,10 +170,32 @@ public class UndoManager<A extends Copyable<A>> {
      */
     public void undo() throws ModifyException {
         if (undoAvailable()) {
+            Modification<A> toUndo = modifications.get(modificationCounter - 1);
+            if (toUndo.isRevertible()) {
+                try {
+                    toUndo.revert(actual);
+                    modificationCounter--;
+                    fireChangedEvent();
+                    return;
+                } catch (ModifyException e) {
+                    // the state is restored by replaying the modifications
+                }
+            }
+
             Modification<A> lastWorkingModification = null;
             try {
-                A newActual = initial.createDeepCopy();
-                for (int i = 0; i < modificationCounter - 1; i++) {
+                int target = modificationCounter - 1;
+                Map.Entry<Integer, A> checkpoint = checkpoints.floorEntry(target);
+                A newActual;
+                int start;
+                if (checkpoint == null) {
+                    newActual = initial.createDeepCopy();
+                    start = 0;
+                } else {
+                    newActual = checkpoint.getValue().createDeepCopy();
+                    start = checkpoint.getKey();
+                }
+                for (int i = start; i < target; i++) {
                     Modification<A> m = modifications.get(i);
                     m.modify(newActual);
                     lastWorkingModification = m;
@@ -222,6 +308,8 @@ public class UndoManager<A extends Copyable<A>> {
     public void applyWithoutHistory(Modification<A> modification) throws ModifyException {
         if (actual != null)
             modification.modify(actual);
+        for (A cp : checkpoints.values())
+            modification.modify(cp);
         modification.modify(initial);
     }
 
@@ -5,13 +5,19 @@
  */
 package de.neemann.digital.analyse;
 
+import de.neemann.digital.analyse.bdd.BoolTableBDD;
 import de.neemann.digital.analyse.expression.Variable;
 import de.neemann.digital.analyse.quinemc.BoolTable;
 import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
 import de.neemann.digital.analyse.quinemc.ThreeStateValue;
 import de.neemann.digital.core.Model;
 import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.ObservableValue;
 import de.neemann.digital.core.Signal;
+import de.neemann.digital.core.basic.And;
+import de.neemann.digital.core.basic.Or;
+import de.neemann.digital.core.basic.XOr;
+import de.neemann.digital.core.element.ElementAttributes;
 import de.neemann.digital.draw.elements.Circuit;
 import de.neemann.digital.draw.elements.PinException;
 import de.neemann.digital.draw.library.ElementLibrary;
@@ -25,9 +31,11 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Random;
 import java.util.TreeMap;
 
 import static de.neemann.digital.analyse.quinemc.ThreeStateValue.one;
+import static de.neemann.digital.core.ObservableValues.ovs;
 import static de.neemann.digital.analyse.quinemc.ThreeStateValue.zero;
 
 /**
@@ -265,6 +273,108 @@ public class ModelAnalyserTest extends TestCase {
             assertEquals(vars[i], v.get(i).getIdentifier());
     }
 
+    /**
+     * A ripple carry adder with nine inputs is analysed bit sliced.
+     * The sum outputs depend on different inputs, so several bit sliced models are used.
+     */
+    public void testAnalyzerBitSliced() throws Exception {
+        final int bits = 4;
+        Model model = createRippleCarryAdder(bits);
+
+        TruthTable tt = new ModelAnalyser(model).analyse();
+        assertEquals(1 << (2 * bits + 1), tt.getRows());
+        assertTrue(tt.getResult("S0") instanceof BoolTableExpanded);
+
+        for (int row = 0; row < tt.getRows(); row++)
+            checkAdderRow(tt, bits, row);
+    }
+
+    /**
+     * The adder has enough rows to evaluate the bit sliced models in parallel.
+     * The result is compared with a row by row simulation of the circuit.
+     */
+    public void testAnalyzerBitSlicedParallel() throws Exception {
+        final int bits = 8;
+        final int inputs = 2 * bits + 1;
+        TruthTable tt = new ModelAnalyser(createRippleCarryAdder(bits)).analyse();
+        assertEquals(1 << inputs, tt.getRows());
+
+        Model model = createRippleCarryAdder(bits);
+        model.init();
+        ArrayList<Signal> in = model.getInputs();
+        ArrayList<Signal> out = model.getOutputs();
+        for (int row = 0; row < tt.getRows(); row++) {
+            for (int i = 0; i < inputs; i++)
+                in.get(i).getValue().setBool((row & (1 << (inputs - 1 - i))) != 0);
+            model.doStep();
+            for (int o = 0; o < out.size(); o++)
+                assertEquals("row " + row, out.get(o).getValue().getValue(), tt.getValue(row, inputs + o));
+        }
+    }
+
+    /**
+     * The adder has more inputs than a dense table can hold
+     */
+    public void testAnalyzerBDD() throws Exception {
+        final int bits = 14;
+        Model model = createRippleCarryAdder(bits);
+
+        TruthTable tt = new ModelAnalyser(model).analyseBDD();
+        assertNotNull(tt);
+        assertEquals(1 << (2 * bits + 1), tt.getRows());
+        BoolTableBDD s0 = (BoolTableBDD) tt.getResult("S0");
+        assertEquals(5, s0.getBDD().nodeCount(s0.getOnes()));
+
+        Random r = new Random(1);
+        for (int i = 0; i < 10000; i++)
+            checkAdderRow(tt, bits, r.nextInt(tt.getRows()));
+    }
+
+    private static void checkAdderRow(TruthTable tt, int bits, int row) {
+        int va = row >> (bits + 1);
+        int vb = (row >> 1) & ((1 << bits) - 1);
+        int r = va + vb + (row & 1);
+        for (int i = 0; i < bits; i++)
+            assertEquals("row " + row, (r >> (bits - 1 - i)) & 1, tt.getValue(row, 2 * bits + 1 + i));
+        assertEquals("row " + row, r >> bits, tt.getValue(row, 3 * bits + 1));
+    }
+
+    private static Model createRippleCarryAdder(int bits) throws NodeException {
+        Model model = new Model();
+        ObservableValue[] a = new ObservableValue[bits];
+        ObservableValue[] b = new ObservableValue[bits];
+        for (int i = bits - 1; i >= 0; i--) {
+            a[i] = new ObservableValue("A" + i, 1);
+            model.addInput(new Signal("A" + i, a[i]));
+        }
+        for (int i = bits - 1; i >= 0; i--) {
+            b[i] = new ObservableValue("B" + i, 1);
+            model.addInput(new Signal("B" + i, b[i]));
+        }
+        ObservableValue c = new ObservableValue("Ci", 1);
+        model.addInput(new Signal("Ci", c));
+
+        ObservableValue[] sum = new ObservableValue[bits];
+        for (int i = 0; i < bits; i++) {
+            XOr x = model.add(new XOr(new ElementAttributes()));
+            x.setInputs(ovs(a[i], b[i]));
+            XOr s = model.add(new XOr(new ElementAttributes()));
+            s.setInputs(ovs(x.getOutput(), c));
+            sum[i] = s.getOutput();
+            And a1 = model.add(new And(new ElementAttributes()));
+            a1.setInputs(ovs(a[i], b[i]));
+            And a2 = model.add(new And(new ElementAttributes()));
+            a2.setInputs(ovs(x.getOutput(), c));
+            Or carry = model.add(new Or(new ElementAttributes()));
+            carry.setInputs(ovs(a1.getOutput(), a2.getOutput()));
+            c = carry.getOutput();
+        }
+        for (int i = bits - 1; i >= 0; i--)
+            model.addOutput(new Signal("S" + i, sum[i]));
+        model.addOutput(new Signal("Co", c));
+        return model;
+    }
+
     public void testAnalyzerMultiBitPins() throws Exception {
         Model model = createModel("dig/analyze/multiBitInOutXOr.dig");
         ModelAnalyserInfo mai = new ModelAnalyser(model).analyse().getModelAnalyzerInfo();
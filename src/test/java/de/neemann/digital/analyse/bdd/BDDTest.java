@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.bdd;
+
+import de.neemann.digital.analyse.expression.ContextFiller;
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static de.neemann.digital.analyse.expression.Not.not;
+import static de.neemann.digital.analyse.expression.Operation.*;
+
+public class BDDTest extends TestCase {
+
+    public void testCanonical() throws Exception {
+        ArrayList<Variable> vars = Variable.vars(3);
+        Variable a = vars.get(0);
+        Variable b = vars.get(1);
+        Variable c = vars.get(2);
+        BDD bdd = new BDD(3);
+        int f1 = bdd.ref(bdd.create(or(a, and(b, c)), vars));
+        int f2 = bdd.ref(bdd.create(and(or(a, b), or(a, c)), vars));
+        assertEquals(f1, f2);
+        assertEquals(3, bdd.nodeCount(f1));
+        assertEquals(5.0, bdd.satCount(f1));
+
+        assertEquals(BDD.ONE, bdd.create(or(a, not(a)), vars));
+        assertEquals(BDD.ZERO, bdd.create(and(a, not(a)), vars));
+        assertEquals(BDD.ZERO, bdd.create(xor(b, b), vars));
+    }
+
+    public void testExpression() throws Exception {
+        Random r = new Random(1);
+        ArrayList<Variable> vars = Variable.vars(6);
+        for (int i = 0; i < 200; i++) {
+            Expression e = createRandom(r, vars, 5);
+            BDD bdd = new BDD(vars.size());
+            int f = bdd.create(e, vars);
+            ContextFiller cf = new ContextFiller(vars);
+            for (int row = 0; row < 1 << vars.size(); row++)
+                assertEquals(e.calculate(cf.setContextTo(row)), bdd.evaluate(f, row));
+        }
+    }
+
+    private static Expression createRandom(Random r, ArrayList<Variable> vars, int depth) {
+        if (depth == 0 || r.nextInt(4) == 0)
+            return vars.get(r.nextInt(vars.size()));
+        Expression a = createRandom(r, vars, depth - 1);
+        Expression b = createRandom(r, vars, depth - 1);
+        switch (r.nextInt(4)) {
+            case 0:
+                return and(a, b);
+            case 1:
+                return or(a, b);
+            case 2:
+                return xor(a, b);
+            default:
+                return not(a);
+        }
+    }
+
+    public void testGrowing() throws Exception {
+        // with this variable order the number of nodes grows exponentially,
+        // so the tables start small and have to grow several times
+        final int n = 8;
+        ArrayList<Variable> vars = Variable.vars(n * 2);
+        Expression e = and(vars.get(0), vars.get(n));
+        for (int i = 1; i < n; i++)
+            e = or(e, and(vars.get(i), vars.get(i + n)));
+        BDD bdd = new BDD(vars.size());
+        int f = bdd.create(e, vars);
+        assertTrue(bdd.nodeCount(f) > 256);
+        ContextFiller cf = new ContextFiller(vars);
+        for (int row = 0; row < 1 << vars.size(); row++)
+            assertEquals(e.calculate(cf.setContextTo(row)), bdd.evaluate(f, row));
+    }
+
+    public void testTable() throws Exception {
+        Random r = new Random(1);
+        byte[] data = new byte[1 << 8];
+        for (int i = 0; i < data.length; i++)
+            data[i] = (byte) r.nextInt(3);
+        BoolTableByteArray table = new BoolTableByteArray(data);
+        BoolTableBDD b = BoolTableBDD.create(table);
+        assertEquals(table.size(), b.size());
+        for (int i = 0; i < table.size(); i++)
+            assertEquals(table.get(i), b.get(i));
+        assertTrue(b.isEquivalent(b));
+    }
+
+    /**
+     * Referenced functions survive the garbage collection, all others are reclaimed
+     */
+    public void testGarbageCollection() throws Exception {
+        final int n = 16;
+        BDD bdd = new BDD(n);
+        int parity = BDD.ZERO;
+        for (int i = 0; i < n; i++) {
+            int p = bdd.ref(bdd.xor(parity, bdd.variable(i)));
+            bdd.deref(parity);
+            parity = p;
+        }
+        Random r = new Random(1);
+        for (int i = 0; i < 5000; i++) {
+            // create a lot of garbage
+            int minterm = BDD.ONE;
+            for (int v = 0; v < n; v++) {
+                int literal = r.nextBoolean() ? bdd.variable(v) : bdd.not(bdd.variable(v));
+                int m = bdd.ref(bdd.and(minterm, literal));
+                bdd.deref(minterm);
+                minterm = m;
+            }
+            bdd.or(parity, minterm);
+            bdd.deref(minterm);
+        }
+        assertTrue(bdd.getNodeCount() < 5000);
+        for (int row = 0; row < 1 << n; row++)
+            assertEquals(Integer.bitCount(row) % 2 == 1, bdd.evaluate(parity, row));
+        assertEquals(2 * n - 1, bdd.nodeCount(parity));
+
+        // the variables are kept in any case
+        bdd.gc();
+        assertEquals(3 * n - 2, bdd.getNodeCount());
+        bdd.deref(parity);
+        bdd.gc();
+        assertEquals(n, bdd.getNodeCount());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.espresso;
+
+import de.neemann.digital.analyse.expression.Constant;
+import de.neemann.digital.analyse.expression.ContextFiller;
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
+import de.neemann.digital.analyse.quinemc.TableRow;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class EspressoTest extends TestCase {
+
+    /**
+     * Every cube of the cover has to be a prime, and no cube
+     * is allowed to be covered by the other cubes.
+     */
+    public void testPrimeAndIrredundant() throws Exception {
+        Random r = new Random(1);
+        for (int n = 1; n <= 8; n++)
+            for (int i = 0; i < 50; i++) {
+                byte[] tab = new byte[1 << n];
+                for (int j = 0; j < tab.length; j++)
+                    tab[j] = (byte) r.nextInt(3);
+                ArrayList<Variable> vars = Variable.vars(n);
+
+                ArrayList<TableRow> cover = new Espresso(vars)
+                        .fillTableWith(new BoolTableByteArray(tab))
+                        .simplify()
+                        .getCover();
+
+                boolean[][] covered = new boolean[cover.size()][];
+                for (int c = 0; c < cover.size(); c++)
+                    covered[c] = rowsCovered(cover.get(c), n);
+
+                for (int row = 0; row < tab.length; row++) {
+                    boolean isCovered = false;
+                    for (boolean[] co : covered)
+                        isCovered |= co[row];
+                    if (tab[row] <= 1)
+                        assertEquals("row " + row, tab[row] == 1, isCovered);
+                }
+
+                for (int c = 0; c < cover.size(); c++) {
+                    TableRow cube = cover.get(c);
+                    for (int v = 0; v < n; v++)
+                        if (cube.toString().charAt(v) != '-') {
+                            TableRow raised = new TableRow(cube);
+                            raised.setToOptimized(v);
+                            assertTrue("not prime", hitsZero(raised, tab, n));
+                        }
+
+                    boolean onlyHere = false;
+                    for (int row = 0; row < tab.length; row++)
+                        if (covered[c][row] && tab[row] == 1) {
+                            boolean other = false;
+                            for (int o = 0; o < cover.size(); o++)
+                                other |= o != c && covered[o][row];
+                            onlyHere |= !other;
+                        }
+                    assertTrue("redundant", onlyHere);
+                }
+            }
+    }
+
+    private static boolean[] rowsCovered(TableRow cube, int n) {
+        // the string contains 0, 1 or - for every variable
+        String str = cube.toString();
+        boolean[] rows = new boolean[1 << n];
+        for (int row = 0; row < rows.length; row++) {
+            boolean match = true;
+            for (int v = 0; v < n; v++) {
+                char bit = (row & (1 << (n - 1 - v))) == 0 ? '0' : '1';
+                char c = str.charAt(v);
+                if (c != '-' && c != bit)
+                    match = false;
+            }
+            rows[row] = match;
+        }
+        return rows;
+    }
+
+    private static boolean hitsZero(TableRow cube, byte[] tab, int n) {
+        boolean[] rows = rowsCovered(cube, n);
+        for (int row = 0; row < tab.length; row++)
+            if (rows[row] && tab[row] == 0)
+                return true;
+        return false;
+    }
+
+    public void testConstant() throws Exception {
+        ArrayList<Variable> vars = Variable.vars(3);
+        assertEquals(Constant.ZERO, new Espresso(vars)
+                .fillTableWith(new BoolTableByteArray(new byte[]{0, 0, 2, 0, 0, 0, 0, 0}))
+                .simplify()
+                .getExpression());
+        assertEquals(Constant.ONE, new Espresso(vars)
+                .fillTableWith(new BoolTableByteArray(new byte[]{1, 1, 1, 2, 1, 1, 1, 1}))
+                .simplify()
+                .getExpression());
+    }
+
+    /**
+     * A table with 20 variables created from a few random cubes
+     * is minimized to at most the same number of cubes.
+     */
+    public void testLarge() throws Exception {
+        final int n = 20;
+        final int cubes = 40;
+        Random r = new Random(1);
+        int[] care = new int[cubes];
+        int[] value = new int[cubes];
+        for (int c = 0; c < cubes; c++) {
+            while (Integer.bitCount(care[c]) < 8)
+                care[c] |= 1 << r.nextInt(n);
+            value[c] = r.nextInt() & care[c];
+        }
+        byte[] tab = new byte[1 << n];
+        for (int row = 0; row < tab.length; row++)
+            for (int c = 0; c < cubes; c++)
+                if ((row & care[c]) == value[c])
+                    tab[row] = 1;
+        ArrayList<Variable> vars = Variable.vars(n);
+
+        Espresso espresso = new Espresso(vars)
+                .fillTableWith(new BoolTableByteArray(tab))
+                .simplify();
+        assertTrue(espresso.getCover().size() <= cubes);
+
+        Expression e = espresso.getExpression();
+        ContextFiller context = new ContextFiller(vars);
+        for (int i = 0; i < 10000; i++) {
+            int row = r.nextInt(tab.length);
+            assertEquals("row " + row, tab[row] == 1, e.calculate(context.setContextTo(row)));
+        }
+    }
+}
@@ -6,9 +6,11 @@
 package de.neemann.digital.analyse.quinemc;
 
 
+import de.neemann.digital.analyse.MinimizerEspresso;
 import de.neemann.digital.analyse.MinimizerInterface;
 import de.neemann.digital.analyse.MinimizerQuineMcCluskey;
 import de.neemann.digital.analyse.MinimizerQuineMcCluskeyExam;
+import de.neemann.digital.analyse.MinimizerQuineMcCluskeyCompact;
 import de.neemann.digital.analyse.expression.ContextFiller;
 import de.neemann.digital.analyse.expression.Expression;
 import de.neemann.digital.analyse.expression.ExpressionException;
@@ -35,6 +37,16 @@ public class MinimizerRegressionTest extends TestCase {
         performTests(m);
     }
 
+    public void testQuineMcCluskeyCompact() throws ExpressionException, FormatterException {
+        MinimizerInterface m = new MinimizerQuineMcCluskeyCompact();
+        performTests(m);
+    }
+
+    public void testEspresso() throws ExpressionException, FormatterException {
+        MinimizerInterface m = new MinimizerEspresso();
+        performTests(m);
+    }
+
     private void performTests(MinimizerInterface m) throws ExpressionException, FormatterException {
         performFull(m);
         performRegression(m);
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc;
+
+import de.neemann.digital.analyse.expression.Constant;
+import de.neemann.digital.analyse.expression.ContextFiller;
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.quinemc.primeselector.PrimeSelector;
+import de.neemann.digital.analyse.quinemc.primeselector.PrimeSelectorDefault;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class QuineMcCluskeyCompactTest extends TestCase {
+
+    /**
+     * Both implementations have to keep the same number of primes.
+     * If primes cover the same minterms, the implementations can keep different ones.
+     */
+    public void testSamePrimes() throws Exception {
+        Random r = new Random(1);
+        for (int n = 1; n <= 8; n++)
+            for (int i = 0; i < 50; i++) {
+                byte[] tab = new byte[1 << n];
+                for (int j = 0; j < tab.length; j++)
+                    tab[j] = (byte) r.nextInt(3);
+                ArrayList<Variable> vars = Variable.vars(n);
+
+                QuineMcCluskey qmc = new QuineMcCluskey(vars)
+                        .fillTableWith(new BoolTableByteArray(tab))
+                        .simplify((PrimeSelector) null);
+                QuineMcCluskeyCompact compact = new QuineMcCluskeyCompact(vars)
+                        .fillTableWith(new BoolTableByteArray(tab))
+                        .simplify((PrimeSelector) null);
+
+                assertEquals(qmc.getPrimes().size(), compact.getPrimes().size());
+                checkCover(tab, vars, compact.getPrimes());
+            }
+    }
+
+    private void checkCover(byte[] tab, ArrayList<Variable> vars, ArrayList<TableRow> primes) throws Exception {
+        Expression e = QuineMcCluskey.addAnd(Constant.ZERO, primes, vars);
+        ContextFiller context = new ContextFiller(vars);
+        for (int i = 0; i < tab.length; i++)
+            if (tab[i] <= 1)
+                assertEquals("row " + i, tab[i] == 1, e.calculate(context.setContextTo(i)));
+    }
+
+    public void testConstant() throws Exception {
+        ArrayList<Variable> vars = Variable.vars(3);
+        assertEquals(Constant.ZERO, new QuineMcCluskeyCompact(vars)
+                .fillTableWith(new BoolTableByteArray(new byte[8]))
+                .simplify(new PrimeSelectorDefault())
+                .getExpression());
+        assertEquals(Constant.ONE, new QuineMcCluskeyCompact(vars)
+                .fillTableWith(new BoolTableByteArray(new byte[]{1, 1, 1, 2, 1, 1, 1, 1}))
+                .simplify(new PrimeSelectorDefault())
+                .getExpression());
+    }
+
+    /**
+     * A table with 16 variables is minimized in reasonable time
+     */
+    public void testLarge() throws Exception {
+        final int n = 16;
+        Random r = new Random(1);
+        byte[] tab = new byte[1 << n];
+        for (int j = 0; j < tab.length; j++)
+            if (r.nextInt(64) == 0)
+                tab[j] = 1;
+        ArrayList<Variable> vars = Variable.vars(n);
+
+        Expression e = new QuineMcCluskeyCompact(vars)
+                .fillTableWith(new BoolTableByteArray(tab))
+                .simplify(new PrimeSelectorDefault())
+                .getExpression();
+
+        // check all ones and some zeros
+        ContextFiller context = new ContextFiller(vars);
+        for (int i = 0; i < tab.length; i++)
+            if (tab[i] == 1 || r.nextInt(64) == 0)
+                assertEquals(tab[i] == 1, e.calculate(context.setContextTo(i)));
+    }
+}
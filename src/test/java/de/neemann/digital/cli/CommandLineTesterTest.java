@@ -9,8 +9,10 @@ import de.neemann.digital.cli.cli.CLIException;
 import de.neemann.digital.integration.Resources;
 import junit.framework.TestCase;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
 
 public class CommandLineTesterTest extends TestCase {
 
@@ -22,6 +24,42 @@ public class CommandLineTesterTest extends TestCase {
         assertEquals(32, tester.getTestsPassed());
     }
 
+    public void testParallel() throws IOException {
+        File source = new File(Resources.getRoot(), "../../main/dig/lib/DIL Chips/74xx/arithmetic/74181.dig");
+        CommandLineTester tester = new CommandLineTester(source).setParallel(4);
+        int errors = tester.execute(System.out);
+        assertEquals(0, errors);
+        assertEquals(32, tester.getTestsPassed());
+    }
+
+    public void testFolderJsonLines() throws IOException {
+        File folder = new File(Resources.getRoot(), "../../main/dig/sequential");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        CommandLineTester tester = new CommandLineTester(folder)
+                .setParallel(4)
+                .setJsonLines(true);
+        int errors = tester.execute(new PrintStream(baos));
+        assertEquals(0, errors);
+        assertTrue(tester.getTestsPassed() > 1);
+
+        String[] lines = baos.toString().split("\n");
+        assertEquals(tester.getTestsPassed(), lines.length);
+        for (String l : lines) {
+            assertTrue(l.startsWith("{\"file\":\""));
+            assertTrue(l.endsWith("\"status\":\"passed\"}"));
+        }
+    }
+
+    public void testFailingJsonLines() throws IOException {
+        File source = new File(Resources.getRoot(), "dig/failingTest.dig");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        int errors = new CommandLineTester(source)
+                .setJsonLines(true)
+                .execute(new PrintStream(baos));
+        assertEquals(1, errors);
+        assertTrue(baos.toString().contains("\"status\":\"failed\""));
+    }
+
     public void testFailing() throws IOException {
         File source = new File(Resources.getRoot(), "dig/failingTest.dig");
         CommandLineTester tester = new CommandLineTester(source);
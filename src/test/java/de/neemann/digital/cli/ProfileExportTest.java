@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann.
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.cli;
+
+import de.neemann.digital.cli.cli.CLIException;
+import de.neemann.digital.integration.Resources;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+
+public class ProfileExportTest extends TestCase {
+
+    public void testProfile() throws CLIException {
+        File source = new File(Resources.getRoot(), "../../main/dig/sequential/Counter-T.dig");
+        PrintStream old = System.out;
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (PrintStream out = new PrintStream(baos)) {
+                System.setOut(out);
+                new ProfileExport().execute(new String[]{source.getPath(), "-cycles", "100"});
+            }
+            String outStr = baos.toString();
+            assertTrue(outStr.contains("oscillationHits,0"));
+            assertTrue(outStr.contains("FlipflopT,"));
+        } finally {
+            System.setOut(old);
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.core.basic.And;
+import de.neemann.digital.core.basic.NAnd;
+import de.neemann.digital.core.basic.NOr;
+import de.neemann.digital.core.basic.Not;
+import de.neemann.digital.core.basic.XNOr;
+import de.neemann.digital.core.basic.XOr;
+import de.neemann.digital.core.element.ElementAttributes;
+import de.neemann.digital.core.element.Keys;
+import de.neemann.digital.core.flipflops.FlipflopD;
+import de.neemann.digital.core.flipflops.FlipflopDAsync;
+import de.neemann.digital.draw.model.InverterConfig;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+import static de.neemann.digital.core.ObservableValues.ovs;
+
+public class BitSlicedModelTest extends TestCase {
+
+    /**
+     * A full adder built from inverting gates.
+     * The xnor gate and the inverted input c of the sum gate cancel each other out.
+     */
+    private static ObservableValue[] createAdder(Model model, ObservableValue a, ObservableValue b, ObservableValue c) throws Exception {
+        XNOr x1 = model.add(new XNOr(new ElementAttributes()));
+        x1.setInputs(ovs(a, b));
+        ObservableValue notC = new InverterConfig.Builder().add("c").build().invert("c", c);
+        XOr sum = model.add(new XOr(new ElementAttributes()));
+        sum.setInputs(ovs(x1.getOutput(), notC));
+
+        NAnd n1 = model.add(new NAnd(new ElementAttributes()));
+        n1.setInputs(ovs(a, b));
+        Not n2 = model.add(new Not(new ElementAttributes()));
+        n2.setInputs(x1.getOutput().asList());
+        NAnd n3 = model.add(new NAnd(new ElementAttributes()));
+        n3.setInputs(ovs(n2.getOutput(), c));
+        NAnd carry = model.add(new NAnd(new ElementAttributes()));
+        carry.setInputs(ovs(n1.getOutput(), n3.getOutput()));
+        return new ObservableValue[]{sum.getOutput(), carry.getOutput()};
+    }
+
+    public void testCombinatorial() throws Exception {
+        ObservableValue a = new ObservableValue("a", 1);
+        ObservableValue b = new ObservableValue("b", 1);
+        ObservableValue c = new ObservableValue("c", 1);
+        Model model = new Model();
+        ObservableValue[] out = createAdder(model, a, b, c);
+
+        BitSlicedModel bs = BitSlicedModel.create(model, Arrays.asList(a, b, c), Arrays.asList(out));
+        assertNotNull(bs);
+        assertFalse(bs.hasState());
+        // lane n holds the input vector n%8
+        long la = 0, lb = 0, lc = 0;
+        for (int l = 0; l < BitSlicedModel.LANES; l++) {
+            la |= (long) (l & 1) << l;
+            lb |= (long) ((l >> 1) & 1) << l;
+            lc |= (long) ((l >> 2) & 1) << l;
+        }
+        bs.setInput(0, la);
+        bs.setInput(1, lb);
+        bs.setInput(2, lc);
+        bs.evaluate();
+
+        model.init();
+        for (int l = 0; l < BitSlicedModel.LANES; l++) {
+            a.setValue(l & 1);
+            b.setValue((l >> 1) & 1);
+            c.setValue((l >> 2) & 1);
+            model.doStep();
+            int s = (l & 1) + ((l >> 1) & 1) + ((l >> 2) & 1);
+            assertEquals(s & 1, out[0].getValue());
+            assertEquals(s >> 1, out[1].getValue());
+            assertEquals("lane " + l, out[0].getValue(), (bs.getOutput(0) >>> l) & 1);
+            assertEquals("lane " + l, out[1].getValue(), (bs.getOutput(1) >>> l) & 1);
+        }
+    }
+
+    public void testCounter() throws Exception {
+        ObservableValue en = new ObservableValue("en", 1);
+        ObservableValue clock = new ObservableValue("clk", 1);
+        Model model = new Model();
+        FlipflopD ff0 = model.add(new FlipflopD(new ElementAttributes()));
+        FlipflopD ff1 = model.add(new FlipflopD(new ElementAttributes().set(Keys.DEFAULT, 1L)));
+        XOr x0 = model.add(new XOr(new ElementAttributes()));
+        x0.setInputs(ovs(ff0.getOutputs().get(0), en));
+        And carry = model.add(new And(new ElementAttributes()));
+        carry.setInputs(ovs(ff0.getOutputs().get(0), en));
+        XOr x1 = model.add(new XOr(new ElementAttributes()));
+        x1.setInputs(ovs(ff1.getOutputs().get(0), carry.getOutput()));
+        ff0.setInputs(ovs(x0.getOutput(), clock));
+        ff1.setInputs(ovs(x1.getOutput(), clock));
+        NOr zero = model.add(new NOr(new ElementAttributes()));
+        zero.setInputs(ovs(ff0.getOutputs().get(0), ff1.getOutputs().get(0)));
+
+        BitSlicedModel bs = BitSlicedModel.create(model, Arrays.asList(en),
+                Arrays.asList(ff0.getOutputs().get(0), ff1.getOutputs().get(0), zero.getOutput()));
+        assertNotNull(bs);
+        assertTrue(bs.hasState());
+
+        // the counter is enabled in the odd lanes only
+        bs.setInput(0, 0xAAAAAAAAAAAAAAAAL);
+        bs.evaluate();
+        for (int i = 0; i < 6; i++) {
+            long count = (2 + i) & 3;
+            assertEquals((count & 1) == 0 ? 0 : 0xAAAAAAAAAAAAAAAAL, bs.getOutput(0));
+            assertEquals((count & 2) == 0 ? 0x5555555555555555L : -1, bs.getOutput(1));
+            assertEquals(count == 0 ? 0xAAAAAAAAAAAAAAAAL : 0, bs.getOutput(2));
+            bs.clock();
+            bs.evaluate();
+        }
+
+        bs.reset();
+        bs.evaluate();
+        assertEquals(0, bs.getOutput(0));
+        assertEquals(-1, bs.getOutput(1));
+    }
+
+    public void testNotSupported() throws Exception {
+        ObservableValue a = new ObservableValue("a", 2);
+        ObservableValue b = new ObservableValue("b", 2);
+        Model model = new Model();
+        And and = model.add(new And(new ElementAttributes().setBits(2)));
+        and.setInputs(ovs(a, b));
+        assertNull(BitSlicedModel.create(model, Arrays.asList(a, b), Arrays.asList(and.getOutput())));
+    }
+
+    public void testAsyncFlipflopNotSupported() throws Exception {
+        ObservableValue set = new ObservableValue("set", 1);
+        ObservableValue d = new ObservableValue("d", 1);
+        ObservableValue clock = new ObservableValue("clk", 1);
+        ObservableValue clr = new ObservableValue("clr", 1);
+        Model model = new Model();
+        FlipflopDAsync ff = model.add(new FlipflopDAsync(new ElementAttributes()));
+        ff.setInputs(ovs(set, d, clock, clr));
+        assertNull(BitSlicedModel.create(model, Arrays.asList(set, d, clr), Arrays.asList(ff.getOutputs().get(0))));
+    }
+
+    public void testLoopNotSupported() throws Exception {
+        ObservableValue s = new ObservableValue("s", 1);
+        ObservableValue r = new ObservableValue("r", 1);
+        Model model = new Model();
+        NOr n1 = model.add(new NOr(new ElementAttributes()));
+        NOr n2 = model.add(new NOr(new ElementAttributes()));
+        n1.setInputs(ovs(s, n2.getOutput()));
+        n2.setInputs(ovs(r, n1.getOutput()));
+        assertNull(BitSlicedModel.create(model, Arrays.asList(s, r), Arrays.asList(n1.getOutput())));
+    }
+}
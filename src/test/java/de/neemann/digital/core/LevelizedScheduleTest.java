@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.TestExecuter;
+import de.neemann.digital.core.basic.And;
+import de.neemann.digital.core.basic.FanIn;
+import de.neemann.digital.core.basic.NOr;
+import de.neemann.digital.core.basic.Not;
+import de.neemann.digital.core.element.ElementAttributes;
+import junit.framework.TestCase;
+
+import static de.neemann.digital.core.ObservableValues.ovs;
+
+public class LevelizedScheduleTest extends TestCase {
+
+    /**
+     * The and gate sees the inverted and the original signal.
+     * In the event driven mode this creates a glitch and the and gate is evaluated twice.
+     * The levelized model evaluates every gate only once.
+     */
+    public void testEvaluatedOnce() throws Exception {
+        ObservableValue a = new ObservableValue("a", 1);
+
+        Model model = new Model().setLevelizedMode(true);
+        Not not = model.add(new Not(new ElementAttributes()));
+        not.setInputs(a.asList());
+        FanIn and = model.add(new And(new ElementAttributes()));
+        and.setInputs(ovs(a, not.getOutputs().get(0)));
+
+        TestExecuter te = new TestExecuter(model).setInputs(a).setOutputs(and.getOutputs());
+        assertTrue(model.isLevelized());
+        assertEquals(0, ((Node) not).getLevel());
+        assertEquals(1, ((Node) and).getLevel());
+
+        int[] changes = new int[1];
+        and.getOutputs().get(0).addObserverToValue(() -> changes[0]++);
+
+        te.check(0, 0);
+        te.check(1, 0);
+        te.check(0, 0);
+        assertEquals(0, changes[0]);
+    }
+
+    public void testFeedbackFallback() throws Exception {
+        ObservableValue r = new ObservableValue("r", 1);
+        ObservableValue s = new ObservableValue("s", 1);
+
+        Model model = new Model().setLevelizedMode(true);
+        FanIn a = model.add(new NOr(new ElementAttributes()));
+        FanIn b = model.add(new NOr(new ElementAttributes()));
+        a.setInputs(ovs(r, b.getOutput()));
+        b.setInputs(ovs(a.getOutput(), s));
+
+        TestExecuter te = new TestExecuter(model, true).setInputs(r, s).setOutputs(a.getOutputs());
+        assertFalse(model.isLevelized());
+
+        te.check(0, 1, 1);
+        te.check(0, 0, 1);
+        te.check(1, 0, 0);
+        te.check(0, 0, 0);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann.
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.core.wiring.Clock;
+import de.neemann.digital.integration.ToBreakRunner;
+import junit.framework.TestCase;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Checks that the steady state stepping of a model does not allocate memory.
+ */
+public class ModelAllocationTest extends TestCase {
+    private static final int CYCLES = 1000000;
+
+    public void testNoAllocation() throws Exception {
+        checkNoAllocation(false);
+    }
+
+    public void testNoAllocationWithObservers() throws Exception {
+        checkNoAllocation(true);
+    }
+
+    private void checkNoAllocation(boolean observers) throws Exception {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean))
+            return;
+        com.sun.management.ThreadMXBean tb = (com.sun.management.ThreadMXBean) bean;
+        if (!tb.isThreadAllocatedMemorySupported())
+            return;
+        tb.setThreadAllocatedMemoryEnabled(true);
+
+        Model model = new ToBreakRunner("dig/CounterSplitter.dig").getModel();
+        if (observers) {
+            long[] count = new long[1];
+            model.addObserver(event -> count[0]++, ModelEventType.STEP, ModelEventType.MICROSTEP);
+        }
+        Clock clock = model.getClocks().get(0);
+        ObservableValue clk = clock.getClockOutput();
+
+        // warm up to get the hot path compiled
+        run(model, clk, CYCLES / 10);
+
+        long threadId = Thread.currentThread().getId();
+        long before = tb.getThreadAllocatedBytes(threadId);
+        run(model, clk, CYCLES);
+        long allocated = tb.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(model.isRunning());
+        // allow a few bytes for the measurement itself
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private static void run(Model model, ObservableValue clk, int cycles) {
+        for (int i = 0; i < cycles; i++) {
+            clk.setBool(!clk.getBool());
+            model.doStep();
+            clk.setBool(!clk.getBool());
+            model.doStep();
+        }
+    }
+}
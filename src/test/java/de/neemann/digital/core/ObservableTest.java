@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import junit.framework.TestCase;
+
+public class ObservableTest extends TestCase {
+
+    private static final class Counter implements Observer {
+        private int count;
+
+        @Override
+        public void hasChanged() {
+            count++;
+        }
+    }
+
+    public void testAddRemove() {
+        Observable o = new Observable();
+        assertEquals(0, o.observerCount());
+        o.fireHasChanged();
+
+        Counter[] c = new Counter[5];
+        for (int i = 0; i < c.length; i++) {
+            c[i] = new Counter();
+            o.addObserver(c[i]);
+        }
+        o.addObserver(c[2]);
+        assertEquals(5, o.observerCount());
+
+        o.fireHasChanged();
+        for (Counter counter : c)
+            assertEquals(1, counter.count);
+
+        o.removeObserver(c[1]);
+        assertEquals(4, o.observerCount());
+        assertFalse(o.hasObserver(c[1]));
+        assertTrue(o.hasObserver(c[4]));
+        assertEquals(c[2], o.getObservers().get(1));
+
+        o.fireHasChanged();
+        assertEquals(1, c[1].count);
+        assertEquals(2, c[4].count);
+    }
+
+    public void testRemoveClass() {
+        Observable o = new Observable();
+        o.addObserver(new Counter());
+        o.addObserver(() -> {
+        });
+        o.addObserver(new Counter());
+        o.addObserver(new Counter());
+        assertEquals(4, o.observerCount());
+
+        o.removeObserver(Counter.class);
+        assertEquals(1, o.observerCount());
+        assertFalse(o.getObservers().get(0) instanceof Counter);
+    }
+
+    public void testRemoveWhileFiring() {
+        Observable o = new Observable();
+        Counter c1 = new Counter();
+        Counter c2 = new Counter();
+        o.addObserver(c1);
+        o.addObserver(new Observer() {
+            @Override
+            public void hasChanged() {
+                o.removeObserver(this);
+            }
+        });
+        o.addObserver(c2);
+
+        o.fireHasChanged();
+        assertEquals(1, c1.count);
+        assertEquals(1, c2.count);
+        assertEquals(2, o.observerCount());
+
+        o.fireHasChanged();
+        assertEquals(2, c1.count);
+        assertEquals(2, c2.count);
+    }
+
+    public void testAddWhileFiring() {
+        Observable o = new Observable();
+        Counter c1 = new Counter();
+        Counter c2 = new Counter();
+        o.addObserver(() -> o.addObserver(c2));
+        o.addObserver(c1);
+        o.addObserver(new Counter());
+
+        // the observer added is notified from the next event on
+        o.fireHasChanged();
+        assertEquals(1, c1.count);
+        assertEquals(0, c2.count);
+        assertEquals(4, o.observerCount());
+
+        o.fireHasChanged();
+        assertEquals(2, c1.count);
+        assertEquals(1, c2.count);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.core.basic.Not;
+import de.neemann.digital.core.basic.XOr;
+import de.neemann.digital.core.element.ElementAttributes;
+import de.neemann.digital.core.flipflops.FlipflopD;
+import de.neemann.digital.core.element.Keys;
+import de.neemann.digital.core.wiring.Stop;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+
+import static de.neemann.digital.core.ObservableValues.ovs;
+
+public class ParallelStepperTest extends TestCase {
+    private static final int WIDTH = 3000;
+    private static final int DEPTH = 4;
+
+    /**
+     * Creates a wide circuit: A clocked register of WIDTH bits. Every bit is inverted by a chain
+     * of DEPTH inverters and xored with its neighbour.
+     */
+    private static ArrayList<FlipflopD> createModel(Model model, ObservableValue clock) throws Exception {
+        ArrayList<FlipflopD> ffs = new ArrayList<>();
+        ArrayList<ObservableValue> qs = new ArrayList<>();
+        for (int i = 0; i < WIDTH; i++) {
+            FlipflopD ff = model.add(new FlipflopD(new ElementAttributes().set(Keys.DEFAULT, (long) (i % 3 == 0 ? 1 : 0))));
+            ffs.add(ff);
+            qs.add(ff.getOutputs().get(0));
+        }
+        for (int i = 0; i < WIDTH; i++) {
+            ObservableValue v = qs.get(i);
+            for (int d = 0; d < DEPTH; d++) {
+                Not not = model.add(new Not(new ElementAttributes()));
+                not.setInputs(v.asList());
+                v = not.getOutputs().get(0);
+            }
+            XOr xor = model.add(new XOr(new ElementAttributes()));
+            xor.setInputs(ovs(v, qs.get((i + 1) % WIDTH)));
+            ffs.get(i).setInputs(ovs(xor.getOutput(), clock));
+        }
+        return ffs;
+    }
+
+    private static long[] run(boolean parallel) throws Exception {
+        ObservableValue clock = new ObservableValue("clk", 1);
+        Model model = new Model().setParallelMode(parallel);
+        ArrayList<FlipflopD> ffs = createModel(model, clock);
+        model.init(false);
+        for (int i = 0; i < 20; i++) {
+            clock.setBool(!clock.getBool());
+            model.doStep();
+        }
+        assertTrue(model.isRunning());
+        long[] result = new long[WIDTH];
+        for (int i = 0; i < WIDTH; i++)
+            result[i] = ffs.get(i).getOutputs().get(0).getValue();
+        return result;
+    }
+
+    public void testParallelEqualsSequential() throws Exception {
+        long[] seq = run(false);
+        long[] par = run(true);
+        for (int i = 0; i < WIDTH; i++)
+            assertEquals("bit " + i, seq[i], par[i]);
+    }
+
+    public void testStopOnSteppingThread() throws Exception {
+        ObservableValue clock = new ObservableValue("clk", 1);
+        Model model = new Model().setParallelMode(true);
+        createModel(model, clock);
+        Stop stop = model.add(new Stop(new ElementAttributes()));
+        stop.setInputs(clock.asList());
+
+        ArrayList<Thread> closedBy = new ArrayList<>();
+        model.addObserver(event -> {
+            if (event.getType() == ModelEventType.CLOSED)
+                closedBy.add(Thread.currentThread());
+        }, ModelEventType.CLOSED);
+
+        model.init(false);
+        assertTrue(model.isRunning());
+
+        clock.setBool(true);
+        model.doStep();
+        assertFalse(model.isRunning());
+        assertEquals(1, closedBy.size());
+        assertSame(Thread.currentThread(), closedBy.get(0));
+    }
+}
@@ -48,34 +48,46 @@ public class ApplicationVHDLStdIOTest extends TestCase {
                 "\n" +
                 "architecture stdIOInterface_a of stdIOInterface is\n" +
                 "\n" +
-                "  function chr(sl: std_logic) return character is\n" +
-                "    variable c: character;\n" +
+                "  constant HEXCHARS : string(1 to 16) := \"0123456789abcdef\";\n" +
+                "\n" +
+                "  function hexval(c: character) return integer is\n" +
                 "  begin\n" +
-                "      case sl is\n" +
-                "         when 'U' => c:= 'U';\n" +
-                "         when 'X' => c:= 'X';\n" +
-                "         when '0' => c:= '0';\n" +
-                "         when '1' => c:= '1';\n" +
-                "         when 'Z' => c:= 'Z';\n" +
-                "         when 'W' => c:= 'W';\n" +
-                "         when 'L' => c:= 'L';\n" +
-                "         when 'H' => c:= 'H';\n" +
-                "         when '-' => c:= '-';\n" +
-                "      end case;\n" +
-                "    return c;\n" +
-                "  end chr;\n" +
-                "\n" +
-                "  function str(slv: std_logic_vector) return string is\n" +
-                "     variable result : string (1 to slv'length);\n" +
-                "     variable r : integer;\n" +
+                "     case c is\n" +
+                "        when '0' to '9' => return character'pos(c) - character'pos('0');\n" +
+                "        when 'a' to 'f' => return character'pos(c) - character'pos('a') + 10;\n" +
+                "        when 'A' to 'F' => return character'pos(c) - character'pos('A') + 10;\n" +
+                "        when others => return 0;\n" +
+                "     end case;\n" +
+                "  end hexval;\n" +
+                "\n" +
+                "  -- the bits of slv are packed to a hex string, if highZ is true the high z mask is created\n" +
+                "  function hex(slv: std_logic_vector; highZ: boolean) return string is\n" +
+                "     constant DIGITS : integer := (slv'length + 3) / 4;\n" +
+                "     variable result : string (1 to DIGITS);\n" +
+                "     variable n, k : integer;\n" +
+                "     variable set : boolean;\n" +
                 "  begin\n" +
-                "     r := slv'length;\n" +
-                "     for i in slv'range loop\n" +
-                "        result(r) := chr(slv(i));\n" +
-                "        r := r - 1;\n" +
+                "     for d in 0 to DIGITS-1 loop\n" +
+                "        n := 0;\n" +
+                "        for b in 3 downto 0 loop\n" +
+                "           k := (DIGITS-1-d)*4 + b;\n" +
+                "           set := false;\n" +
+                "           if k < slv'length then\n" +
+                "              if highZ then\n" +
+                "                 set := slv(k) = 'Z';\n" +
+                "              else\n" +
+                "                 set := slv(k) = '1' or slv(k) = 'H';\n" +
+                "              end if;\n" +
+                "           end if;\n" +
+                "           n := n * 2;\n" +
+                "           if set then\n" +
+                "              n := n + 1;\n" +
+                "           end if;\n" +
+                "        end loop;\n" +
+                "        result(d+1) := HEXCHARS(n+1);\n" +
                 "     end loop;\n" +
                 "     return result;\n" +
-                "  end str;\n" +
+                "  end hex;\n" +
                 "\n" +
                 "  component add\n" +
                 "    port (\n" +
@@ -112,25 +124,38 @@ public class ApplicationVHDLStdIOTest extends TestCase {
                 "\n" +
                 "\n" +
                 "\tprocess\n" +
+                "\t\tconstant DIGITS : integer := 3;\n" +
                 "\t\tvariable ll: line;\n" +
+                "\t\tvariable v, z, k : integer;\n" +
                 "\n" +
                 "\tbegin\n" +
                 "\t\twrite(ll, string'(\"\"));\n" +
                 "\t\twhile (ll.all /= \"End\") loop\n" +
                 "\t\t\tdeallocate(ll);\n" +
                 "\t\t\treadline(input, ll);\n" +
-                "\t\t\tfor i in ll'range loop\n" +
-                "\t\t\t\tcase ll(i) is\n" +
-                "\t\t\t\t\twhen '0' => mainIn(i-1) <= '0';\n" +
-                "\t\t\t\t\twhen '1' => mainIn(i-1) <= '1';\n" +
-                "\t\t\t\t\twhen 'Z' => mainIn(i-1) <= 'Z';\n" +
-                "\t\t\t\t\twhen ' ' =>  next;\n" +
-                "\t\t\t\t\twhen others => next;\n" +
-                "\t\t\t\tend case;\n" +
-                "\t\t\tend loop;\n" +
+                "\t\t\tif ll'length >= DIGITS*2+1 then\n" +
+                "\t\t\t\tfor d in 0 to DIGITS-1 loop\n" +
+                "\t\t\t\t\tv := hexval(ll(ll'low+d));\n" +
+                "\t\t\t\t\tz := hexval(ll(ll'low+DIGITS+1+d));\n" +
+                "\t\t\t\t\tfor b in 0 to 3 loop\n" +
+                "\t\t\t\t\t\tk := (DIGITS-1-d)*4 + b;\n" +
+                "\t\t\t\t\t\tif k < mainIn'length then\n" +
+                "\t\t\t\t\t\t\tif z mod 2 = 1 then\n" +
+                "\t\t\t\t\t\t\t\tmainIn(k) <= 'Z';\n" +
+                "\t\t\t\t\t\t\telsif v mod 2 = 1 then\n" +
+                "\t\t\t\t\t\t\t\tmainIn(k) <= '1';\n" +
+                "\t\t\t\t\t\t\telse\n" +
+                "\t\t\t\t\t\t\t\tmainIn(k) <= '0';\n" +
+                "\t\t\t\t\t\t\tend if;\n" +
+                "\t\t\t\t\t\tend if;\n" +
+                "\t\t\t\t\t\tv := v / 2;\n" +
+                "\t\t\t\t\t\tz := z / 2;\n" +
+                "\t\t\t\t\tend loop;\n" +
+                "\t\t\t\tend loop;\n" +
+                "\t\t\tend if;\n" +
                 "\t\t\twait for 1 ns;\n" +
                 "\t\t\tdeallocate(ll);\n" +
-                "\t\t\twrite(ll, \"Digital:\" & string'(str(mainOut)));\n" +
+                "\t\t\twrite(ll, \"Digital:\" & hex(mainOut, false) & \" \" & hex(mainOut, true));\n" +
                 "\t\t\twriteline(output, ll);\n" +
                 "\t\tend loop;\n" +
                 "\t\twait;\n" +
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core.extern.handler;
+
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.ObservableValues;
+import junit.framework.TestCase;
+
+import java.io.*;
+import java.util.ArrayList;
+
+public class StdIOInterfaceTest extends TestCase {
+
+    public void testPacked() throws IOException {
+        EchoProcess p = new EchoProcess();
+        StdIOInterface si = new StdIOInterface(p, StdIOInterface.Format.PACKED);
+
+        ObservableValues in = new ObservableValues(
+                new ObservableValue("a", 1).setValue(1),
+                new ObservableValue("b", 7).set(0x55, 0x0f),
+                new ObservableValue("c", 64).setValue(0x8000000000000001L));
+        si.writeValues(in);
+
+        ObservableValue a = new ObservableValue("a", 1);
+        ObservableValue b = new ObservableValue("b", 7);
+        ObservableValue c = new ObservableValue("c", 64);
+        si.readValues(new ObservableValues(a, b, c));
+        si.close();
+
+        assertEquals("8000000000000001a1 00000000000000001e", p.lines.get(0));
+        assertEquals(1, a.getValue());
+        assertEquals(0x50, b.getValue() & ~b.getHighZ());
+        assertEquals(0x0f, b.getHighZ());
+        assertEquals(0x8000000000000001L, c.getValue());
+        assertEquals(0, c.getHighZ());
+    }
+
+    public void testBits() throws IOException {
+        EchoProcess p = new EchoProcess();
+        StdIOInterface si = new StdIOInterface(p);
+
+        si.writeValues(new ObservableValues(
+                new ObservableValue("a", 1).setValue(1),
+                new ObservableValue("b", 3).set(2, 4)));
+
+        ObservableValue a = new ObservableValue("a", 1);
+        ObservableValue b = new ObservableValue("b", 3);
+        si.readValues(new ObservableValues(a, b));
+        si.close();
+
+        assertEquals("101Z", p.lines.get(0));
+        assertEquals(1, a.getValue());
+        assertEquals(2, b.getValue() & ~b.getHighZ());
+        assertEquals(4, b.getHighZ());
+    }
+
+    /**
+     * Simulates a process which sends every line it receives back
+     */
+    private static final class EchoProcess extends Process {
+        private final PipedOutputStream toProcess;
+        private final PipedInputStream fromProcess;
+        private final ArrayList<String> lines = new ArrayList<>();
+
+        private EchoProcess() throws IOException {
+            toProcess = new PipedOutputStream();
+            BufferedReader r = new BufferedReader(new InputStreamReader(new PipedInputStream(toProcess)));
+            fromProcess = new PipedInputStream();
+            PrintStream w = new PrintStream(new PipedOutputStream(fromProcess), true);
+            Thread t = new Thread(() -> {
+                try {
+                    String line;
+                    while ((line = r.readLine()) != null) {
+                        lines.add(line);
+                        w.println("Digital:" + line);
+                    }
+                } catch (IOException e) {
+                    // process is closed
+                }
+                w.close();
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return toProcess;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return fromProcess;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return null;
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+            try {
+                toProcess.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann.
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core.stats;
+
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.basic.Not;
+import de.neemann.digital.core.element.ElementAttributes;
+import junit.framework.TestCase;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+public class SimulationMetricsTest extends TestCase {
+
+    public void testCounters() throws Exception {
+        ObservableValue a = new ObservableValue("a", 1);
+        Model model = new Model();
+        Not n1 = model.add(new Not(new ElementAttributes()));
+        n1.setInputs(a.asList());
+        Not n2 = model.add(new Not(new ElementAttributes()));
+        n2.setInputs(n1.getOutputs());
+
+        SimulationMetrics metrics = new SimulationMetrics();
+        model.setMetrics(metrics);
+        model.init();
+        metrics.reset();
+
+        a.setBool(true);
+        model.doStep();
+        assertTrue(n2.getOutputs().get(0).getBool());
+
+        assertEquals(1, metrics.getSteps());
+        assertEquals(2, metrics.getMicroSteps());
+        assertEquals(2, metrics.getMaxMicroStepsPerStep());
+        assertEquals(1, metrics.getMaxWorklistSize());
+        assertEquals(0, metrics.getOscillationHits());
+        assertEquals(Long.valueOf(2), metrics.getEvaluations().get("Not"));
+        assertEquals(1, metrics.getMaxFanOut());
+    }
+
+    public void testOscillation() throws Exception {
+        Model model = new Model();
+        Not n = model.add(new Not(new ElementAttributes()));
+        n.setInputs(n.getOutputs());
+
+        SimulationMetrics metrics = new SimulationMetrics();
+        model.setMetrics(metrics);
+        model.init();
+
+        assertFalse(model.isRunning());
+        assertEquals(1, metrics.getOscillationHits());
+    }
+
+    public void testRegisteredWhileRunning() throws Exception {
+        ObservableValue a = new ObservableValue("a", 1);
+        Model model = new Model();
+        Not n = model.add(new Not(new ElementAttributes()));
+        n.setInputs(a.asList());
+
+        SimulationMetrics metrics = new SimulationMetrics();
+        model.setMetrics(metrics);
+        assertNull(metrics.getObjectName());
+        model.init();
+
+        ObjectName name = metrics.getObjectName();
+        assertNotNull(name);
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+
+        model.close();
+        assertNull(metrics.getObjectName());
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    public void testRegister() throws Exception {
+        SimulationMetrics metrics = new SimulationMetrics();
+        metrics.register("test");
+        try {
+            ObjectName name = new ObjectName("de.neemann.digital:type=SimulationMetrics,name=\"test\"");
+            assertEquals(0L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Steps"));
+        } finally {
+            metrics.unregister();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core.wiring.bus;
+
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.ObservableValues;
+import de.neemann.digital.core.element.ElementAttributes;
+import de.neemann.digital.core.element.PinDescription;
+import de.neemann.digital.core.switching.Switch;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class BusModelStateObserverTest extends TestCase {
+    private static final int NETS = 12;
+    private static final int SWITCHES = 20;
+
+    /**
+     * Toggles random switches and compares the state of the nets with the
+     * state obtained from the connected components of the closed switches.
+     */
+    public void testRandomSwitching() throws Exception {
+        Random r = new Random(1);
+        Model model = new Model();
+        BusModelStateObserver obs = new BusModelStateObserver();
+        model.addObserver(obs);
+
+        CommonBusValue[] nets = new CommonBusValue[NETS];
+        boolean[] driven = new boolean[NETS];
+        for (int i = 0; i < NETS; i++) {
+            ObservableValue driver = new ObservableValue("d" + i, 1);
+            driven[i] = r.nextInt(4) == 0;
+            if (driven[i])
+                driver.setValue(1);
+            else
+                driver.setToHighZ();
+            nets[i] = new CommonBusValue(1, obs, PinDescription.PullResistor.none, new ObservableValue[]{driver});
+        }
+
+        Switch[] switches = new Switch[SWITCHES];
+        int[][] contacts = new int[SWITCHES][];
+        for (int i = 0; i < SWITCHES; i++) {
+            int a = r.nextInt(NETS);
+            int b = (a + 1 + r.nextInt(NETS - 1)) % NETS;
+            contacts[i] = new int[]{a, b};
+            switches[i] = new Switch(new ElementAttributes(), false);
+            switches[i].setInputs(new ObservableValues(nets[a], nets[b]));
+            switches[i].init(model);
+        }
+
+        for (int n = 0; n < 2000; n++) {
+            Switch s = switches[r.nextInt(SWITCHES)];
+            s.setClosed(!s.isClosed());
+            check(nets, driven, switches, contacts);
+        }
+    }
+
+    private void check(CommonBusValue[] nets, boolean[] driven, Switch[] switches, int[][] contacts) {
+        int[] component = new int[NETS];
+        for (int i = 0; i < NETS; i++)
+            component[i] = i;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < switches.length; i++)
+                if (switches[i].isClosed()) {
+                    int a = component[contacts[i][0]];
+                    int b = component[contacts[i][1]];
+                    if (a != b) {
+                        int m = Math.min(a, b);
+                        for (int j = 0; j < NETS; j++)
+                            if (component[j] == a || component[j] == b)
+                                component[j] = m;
+                        changed = true;
+                    }
+                }
+        }
+
+        for (int i = 0; i < NETS; i++) {
+            boolean expected = false;
+            for (int j = 0; j < NETS; j++)
+                if (component[j] == component[i] && driven[j])
+                    expected = true;
+            assertEquals("net " + i, !expected, nets[i].isHighZ());
+            if (expected)
+                assertEquals("net " + i, 1, nets[i].getValue());
+        }
+    }
+}
@@ -10,6 +10,7 @@ import de.neemann.digital.testing.parser.TestRow;
 import junit.framework.TestCase;
 
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.StringWriter;
 
 
@@ -77,4 +78,59 @@ public class ValueTableTest extends TestCase {
         assertTrue(new Value(3).isEqualTo(t.getTableValue(1, 0)));
         assertTrue(new Value(5).isEqualTo(t.getTableValue(2, 0)));
     }
+
+    public void testMaxSize() {
+        ValueTable t = new ValueTable("A", "B").setMaxSize(10000);
+        for (int i = 0; i < 50000; i++)
+            t.add(new TestRow(new Value(i), i % 3 == 0 ? Value.getHighZ() : new Value(i & 7)));
+        assertEquals(10000, t.getRows());
+        for (int r = 0; r < t.getRows(); r++) {
+            int i = 40000 + r;
+            assertEquals(i, t.getLong(r, 0));
+            if (i % 3 == 0)
+                assertEquals(Value.Type.HIGHZ, t.getType(r, 1));
+            else
+                assertTrue(new Value(i & 7).isEqualTo(t.getValue(r, 1)));
+        }
+        assertEquals(49999, t.getMax(0));
+    }
+
+    public void testRichRows() {
+        ValueTable t = new ValueTable("A").setMaxSize(3);
+        for (int i = 0; i < 5; i++) {
+            TestRow row = new TestRow(new Value(i));
+            if ((i & 1) == 1)
+                row = new TestRow(new Value[]{new Value(i)}, "L" + i).setRow(i);
+            t.add(row);
+        }
+        assertEquals(3, t.getRows());
+        assertNull(t.getDescription(0));
+        assertEquals("L3", t.getDescription(1));
+        assertEquals(3, t.getTableRow(1).getRow());
+        assertEquals(-1, t.getTableRow(2).getRow());
+
+        ValueTable c = new ValueTable(t, 1, 3);
+        assertEquals(2, c.getRows());
+        assertEquals("L3", c.getDescription(0));
+        assertEquals(4, c.getLong(1, 0));
+    }
+
+    public void testBackingFile() throws Exception {
+        File file = File.createTempFile("digital", ".dat");
+        try (ValueTable t = new ValueTable("A", "B", "C").setBackingFile(file)) {
+            for (int i = 0; i < 10000; i++)
+                t.add(new TestRow(new Value(i), new Value(-i), new Value(i * i)));
+            assertEquals(10000, t.getRows());
+            for (int i = 0; i < 10000; i++) {
+                assertEquals(i, t.getLong(i, 0));
+                assertEquals(-i, t.getLong(i, 1));
+                assertEquals(i * i, t.getLong(i, 2));
+            }
+            ValueTable c = new ValueTable(t);
+            assertEquals(10000, c.getRows());
+            assertEquals(9999 * 9999, c.getLong(9999, 2));
+        } finally {
+            file.delete();
+        }
+    }
 }
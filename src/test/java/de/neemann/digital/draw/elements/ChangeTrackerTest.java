@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.elements;
+
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.ObservableValues;
+import de.neemann.digital.core.io.Out;
+import de.neemann.digital.draw.graphics.GraphicMinMax;
+import de.neemann.digital.draw.graphics.Vector;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.shapes.ShapeFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.neemann.digital.draw.shapes.GenericShape.SIZE;
+
+public class ChangeTrackerTest extends TestCase {
+
+    public void testWires() {
+        Circuit c = new Circuit();
+        ArrayList<Wire> wires = new ArrayList<>();
+        wires.add(new Wire(new Vector(0, 0), new Vector(SIZE * 4, 0)));
+        wires.add(new Wire(new Vector(0, SIZE * 2), new Vector(SIZE * 4, SIZE * 2)));
+        wires.add(new Wire(new Vector(0, SIZE * 4), new Vector(SIZE * 4, SIZE * 4)));
+        c.add(wires);
+
+        ObservableValue a = new ObservableValue("a", 1);
+        ObservableValue b = new ObservableValue("b", 1);
+        c.getWires().get(0).setValue(a);
+        c.getWires().get(1).setValue(b);
+        c.getWires().get(2).setValue(b);
+
+        ChangeTracker ct = new ChangeTracker(c);
+        assertEquals(0, ct.getChangedAreas(10).size());
+
+        a.setValue(1);
+        List<GraphicMinMax> areas = ct.getChangedAreas(10);
+        assertEquals(1, areas.size());
+        assertEquals(new Vector(0, 0), areas.get(0).getMin());
+        assertEquals(new Vector(SIZE * 4, 0), areas.get(0).getMax());
+        assertEquals(0, ct.getChangedAreas(10).size());
+
+        b.setValue(1);
+        assertEquals(2, ct.getChangedAreas(10).size());
+
+        b.setValue(0);
+        assertNull(ct.getChangedAreas(1));
+        assertEquals(0, ct.getChangedAreas(1).size());
+
+        ct.detach();
+        a.setValue(0);
+        assertEquals(0, ct.getChangedAreas(10).size());
+    }
+
+    public void testElement() {
+        Circuit c = new Circuit();
+        VisualElement out = new VisualElement(Out.DESCRIPTION.getName())
+                .setPos(new Vector(SIZE * 10, 0))
+                .setShapeFactory(new ShapeFactory(new ElementLibrary()));
+        c.add(out);
+
+        ObservableValue in = new ObservableValue("in", 1);
+        out.setState(new IOState(new ObservableValues(in), ObservableValues.EMPTY_LIST, null));
+
+        ChangeTracker ct = new ChangeTracker(c);
+        assertEquals(0, ct.getChangedAreas(10).size());
+
+        in.setValue(1);
+        List<GraphicMinMax> areas = ct.getChangedAreas(10);
+        assertEquals(1, areas.size());
+        GraphicMinMax bounds = out.getMinMax(true);
+        assertTrue(areas.get(0).getMin().x <= bounds.getMin().x);
+        assertTrue(areas.get(0).getMax().x >= bounds.getMax().x);
+    }
+}
@@ -6,11 +6,15 @@
 package de.neemann.digital.draw.elements;
 
 
+import de.neemann.digital.core.SyncAccess;
+import de.neemann.digital.core.basic.And;
 import de.neemann.digital.core.element.Keys;
 import de.neemann.digital.core.io.In;
 import de.neemann.digital.core.io.InValue;
 import de.neemann.digital.core.memory.DataField;
 import de.neemann.digital.core.memory.ROM;
+import de.neemann.digital.draw.graphics.GraphicMinMax;
+import de.neemann.digital.draw.graphics.Vector;
 import de.neemann.digital.draw.library.ElementLibrary;
 import de.neemann.digital.draw.shapes.ShapeFactory;
 import junit.framework.TestCase;
@@ -18,6 +22,10 @@ import junit.framework.TestCase;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static de.neemann.digital.draw.shapes.GenericShape.SIZE;
 
 public class CircuitTest extends TestCase {
 
@@ -57,4 +65,101 @@ public class CircuitTest extends TestCase {
         assertEquals(0x8fff0000ffff0000L, in.getElementAttributes().get(Keys.INPUT_DEFAULT).getValue());
     }
 
+    private static Circuit createWireGrid(int n) {
+        Circuit c = new Circuit();
+        ArrayList<Wire> wires = new ArrayList<>();
+        for (int i = 0; i < n; i++)
+            wires.add(new Wire(new Vector(0, i * SIZE * 2), new Vector(10 * SIZE, i * SIZE * 2)));
+        c.add(wires);
+        return c;
+    }
+
+    public void testWireAt() {
+        Circuit c = createWireGrid(1000);
+        Vector pos = new Vector(5 * SIZE, 500 * SIZE * 2);
+        Wire w = c.getWireAt(pos, 3);
+        assertNotNull(w);
+        assertEquals(500 * SIZE * 2, w.p1.y);
+        assertTrue(c.isWireAt(pos));
+        assertNull(c.getWireAt(new Vector(5 * SIZE, 500 * SIZE * 2 + SIZE), 3));
+        assertNull(c.getWireAt(new Vector(20 * SIZE, 500 * SIZE * 2), 3));
+
+        w.move(new Vector(0, SIZE));
+        c.geometryChanged();
+        assertFalse(c.isWireAt(pos));
+        assertSame(w, c.getWireAt(pos.add(0, SIZE), 3));
+
+        w.setP2(new Vector(30 * SIZE, w.p2.y));
+        c.geometryChanged();
+        assertSame(w, c.getWireAt(new Vector(20 * SIZE, w.p2.y), 3));
+    }
+
+    public void testElementAt() {
+        ShapeFactory sf = new ShapeFactory(new ElementLibrary());
+        Circuit c = new Circuit();
+        for (int i = 0; i < 100; i++)
+            c.add(new VisualElement(In.DESCRIPTION.getName()).setPos(new Vector(0, i * SIZE * 4)).setShapeFactory(sf));
+
+        VisualElement ve = c.getElements().get(50);
+        assertSame(ve, c.getElementAt(ve.getPos()));
+
+        ve.setPos(new Vector(40 * SIZE, 0));
+        c.geometryChanged();
+        assertSame(ve, c.getElementAt(new Vector(40 * SIZE, 0)));
+        assertNull(c.getElementAt(new Vector(0, 50 * SIZE * 4)));
+
+        c.delete(ve);
+        assertNull(c.getElementAt(new Vector(40 * SIZE, 0)));
+    }
+
+    public void testElementDeletedAndAdded() {
+        ShapeFactory sf = new ShapeFactory(new ElementLibrary());
+        Circuit c = new Circuit();
+        for (int i = 0; i < 10; i++)
+            c.add(new VisualElement(In.DESCRIPTION.getName()).setPos(new Vector(0, i * SIZE * 4)).setShapeFactory(sf));
+
+        VisualElement ve = c.getElements().get(5);
+        VisualElement moved = new VisualElement(ve).setPos(new Vector(40 * SIZE, 0));
+        assertSame(ve, c.getElementAt(ve.getPos()));
+
+        c.delete(ve);
+        c.add(moved);
+        assertEquals(10, c.getElements().size());
+        assertNull(c.getElementAt(new Vector(0, 5 * SIZE * 4)));
+        assertSame(moved, c.getElementAt(new Vector(40 * SIZE, 0)));
+    }
+
+    public void testShapeResized() {
+        ShapeFactory sf = new ShapeFactory(new ElementLibrary());
+        Circuit c = new Circuit();
+        for (int i = 0; i < 10; i++)
+            c.add(new VisualElement(In.DESCRIPTION.getName()).setPos(new Vector(100 * SIZE, i * SIZE * 4)).setShapeFactory(sf));
+        VisualElement and = new VisualElement(And.DESCRIPTION.getName()).setPos(new Vector(0, 0)).setShapeFactory(sf);
+        c.add(and);
+
+        Vector p = new Vector(SIZE, SIZE * 10);
+        assertNull(c.getElementAt(p));
+
+        and.getElementAttributes().set(Keys.INPUT_COUNT, 16);
+        c.clearState();
+        assertSame(and, c.getElementAt(p));
+    }
+
+    public void testCulledDrawing() {
+        Circuit c = createWireGrid(1000);
+
+        GraphicMinMax all = new GraphicMinMax();
+        c.drawTo(all);
+        assertEquals(0, all.getMin().y);
+        assertEquals(999 * SIZE * 2, all.getMax().y);
+
+        GraphicMinMax visible = new GraphicMinMax();
+        c.drawTo(visible, new HashSet<>(), null, SyncAccess.NOSYNC,
+                new Vector(0, 100 * SIZE * 2), new Vector(10 * SIZE, 110 * SIZE * 2));
+        assertTrue(visible.getMin().y >= 99 * SIZE * 2);
+        assertTrue(visible.getMax().y <= 111 * SIZE * 2);
+        assertTrue(visible.getMin().y <= 100 * SIZE * 2);
+        assertTrue(visible.getMax().y >= 110 * SIZE * 2);
+    }
+
 }
@@ -33,6 +33,31 @@ public class NetListTest extends TestCase {
         assertEquals(1, ns.size());
     }
 
+    public void testPosLookupAfterModification() throws Exception {
+        Circuit c1 = new Circuit();
+        c1.add(new Wire(new Vector(1 * SIZE, 1 * SIZE), new Vector(2 * SIZE, 1 * SIZE)));
+        NetList ns = new NetList(c1);
+
+        Circuit c2 = new Circuit();
+        c2.add(new Wire(new Vector(1 * SIZE, 4 * SIZE), new Vector(2 * SIZE, 4 * SIZE)));
+        NetList other = new NetList(c2);
+
+        Vector p1 = new Vector(1 * SIZE, 1 * SIZE);
+        Vector p2 = new Vector(1 * SIZE, 4 * SIZE);
+        Net n1 = ns.getNetOfPos(p1);
+        assertNotNull(n1);
+        assertNull(ns.getNetOfPos(p2));
+
+        ns.add(other);
+        assertEquals(2, ns.size());
+        assertNotNull(ns.getNetOfPos(p2));
+
+        ns.remove(n1);
+        assertEquals(1, ns.size());
+        assertNull(ns.getNetOfPos(p1));
+        assertNotNull(ns.getNetOfPos(p2));
+    }
+
     private void addTunnel(Circuit c, Vector pos, String name, ShapeFactory sf) {
         VisualElement ve = new VisualElement("Tunnel")
                 .setPos(pos).setShapeFactory(sf);
@@ -102,5 +127,49 @@ public class NetListTest extends TestCase {
         assertEquals(1, ns.size());
     }
 
-}
+    /**
+     * A circuit made of chains of wire segments which are pairwise
+     * connected by tunnels. The chains zigzag, so no segments are merged.
+     */
+    private Circuit createChains(int chains, int segments) throws Exception {
+        ShapeFactory sf = new ShapeFactory(new ElementLibrary());
+        Circuit c = new Circuit();
+        for (int ch = 0; ch < chains; ch++) {
+            int y = ch * 4 * SIZE;
+            for (int i = 0; i < segments; i++) {
+                int x = i * SIZE;
+                int y1 = (i & 1) == 0 ? y : y + SIZE;
+                int y2 = (i & 1) == 0 ? y + SIZE : y;
+                c.getWires().add(new Wire(new Vector(x, y1), new Vector(x + SIZE, y2)));
+            }
+            addTunnel(c, new Vector(0, y), "N" + (ch / 2), sf);
+        }
+        return c;
+    }
+
+    public void testChains() throws Exception {
+        Circuit c = createChains(4, 6);
 
+        NetList ns = new NetList(c);
+        assertEquals(2, ns.size());
+        for (Net n : ns) {
+            assertEquals(1, n.getLabels().size());
+            assertEquals(12, n.getWires().size());
+        }
+        assertEquals(ns.getNetOfPos(new Vector(0, 0)), ns.getNetOfPos(new Vector(6 * SIZE, 4 * SIZE)));
+        assertNotSame(ns.getNetOfPos(new Vector(0, 0)), ns.getNetOfPos(new Vector(0, 8 * SIZE)));
+    }
+
+    public void testChainsDuplicateWire() throws Exception {
+        Circuit c = createChains(4, 6);
+        // a duplicate wire is not handled by the wire net cache
+        c.getWires().add(new Wire(c.getWires().get(0).p1, c.getWires().get(0).p2));
+
+        NetList ns = new NetList(c);
+        assertEquals(2, ns.size());
+        int wires = 0;
+        for (Net n : ns)
+            wires += n.getWires().size();
+        assertEquals(25, wires);
+    }
+}
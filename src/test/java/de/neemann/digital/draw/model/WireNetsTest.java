@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.model;
+
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.Wire;
+import de.neemann.digital.draw.graphics.Vector;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import static de.neemann.digital.draw.shapes.GenericShape.SIZE;
+
+public class WireNetsTest extends TestCase {
+
+    private static Wire randomWire(Random r) {
+        Vector p1 = new Vector(r.nextInt(8) * SIZE, r.nextInt(8) * SIZE);
+        Vector p2;
+        if (r.nextBoolean())
+            p2 = p1.add(SIZE, 0);
+        else
+            p2 = p1.add(0, SIZE);
+        return new Wire(p1, p2);
+    }
+
+    private static HashSet<HashSet<Vector>> getNets(NetList netList, int wires) {
+        HashSet<HashSet<Vector>> nets = new HashSet<>();
+        int wireCount = 0;
+        for (Net n : netList) {
+            HashSet<Vector> points = new HashSet<>();
+            for (Wire w : n.getWires()) {
+                points.add(w.p1);
+                points.add(w.p2);
+            }
+            wireCount += n.getWires().size();
+            nets.add(points);
+        }
+        assertEquals(wires, wireCount);
+        return nets;
+    }
+
+    public void testIncrementalEqualsComplete() throws Exception {
+        Random r = new Random(1);
+        Circuit circuit = new Circuit();
+        ArrayList<Wire> wires = circuit.getWires();
+        for (int i = 0; i < 40; i++)
+            wires.add(randomWire(r));
+
+        for (int step = 0; step < 200; step++) {
+            // remove or add some wires
+            for (int i = 0; i < 3; i++) {
+                if (r.nextBoolean() && !wires.isEmpty())
+                    wires.remove(r.nextInt(wires.size()));
+                else
+                    wires.add(randomWire(r));
+            }
+
+            Circuit fresh = new Circuit();
+            fresh.getWires().addAll(wires);
+
+            NetList incremental = new NetList(circuit);
+            NetList complete = new NetList(fresh);
+            assertEquals(complete.size(), incremental.size());
+            assertEquals(getNets(complete, wires.size()), getNets(incremental, wires.size()));
+        }
+    }
+
+    public void testCopySharesCache() throws Exception {
+        Circuit circuit = new Circuit();
+        circuit.getWires().add(new Wire(new Vector(0, 0), new Vector(SIZE, 0)));
+        circuit.getWires().add(new Wire(new Vector(SIZE, 0), new Vector(SIZE, SIZE)));
+        assertEquals(1, new NetList(circuit).size());
+
+        Circuit copy = circuit.createDeepCopy();
+        assertSame(circuit.getWireNets(), copy.getWireNets());
+
+        copy.getWires().remove(1);
+        assertEquals(1, new NetList(copy).size());
+        copy.getWires().add(new Wire(new Vector(0, SIZE), new Vector(SIZE, SIZE)));
+        assertEquals(2, new NetList(copy).size());
+        assertEquals(1, new NetList(circuit).size());
+    }
+}
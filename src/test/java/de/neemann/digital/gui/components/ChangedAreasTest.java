@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.gui.components;
+
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.SyncAccess;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.Wire;
+import de.neemann.digital.draw.graphics.Vector;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+
+import static de.neemann.digital.draw.shapes.GenericShape.SIZE;
+
+public class ChangedAreasTest extends TestCase {
+
+    private static Circuit createCircuit(ObservableValue[] values) {
+        Circuit c = new Circuit();
+        ArrayList<Wire> wires = new ArrayList<>();
+        for (int i = 0; i < values.length; i++)
+            wires.add(new Wire(new Vector(0, i * SIZE * 2), new Vector(SIZE * 4, i * SIZE * 2)));
+        c.add(wires);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new ObservableValue("v" + i, 1);
+            c.getWires().get(i).setValue(values[i]);
+        }
+        return c;
+    }
+
+    public void testFallbackKeepsTracker() {
+        ObservableValue[] values = new ObservableValue[10];
+        Circuit c = createCircuit(values);
+        ChangedAreas ca = new ChangedAreas(5);
+
+        assertNull(ca.getChangedAreas());
+        assertTrue(ca.update(c, SyncAccess.NOSYNC));
+        assertEquals(1, values[0].observerCount());
+
+        values[0].setValue(1);
+        assertEquals(1, ca.getChangedAreas().size());
+
+        // too many changes, the complete circuit is redrawn but the tracker is kept
+        for (ObservableValue v : values)
+            v.setValue(v.getValue() ^ 1);
+        assertNull(ca.getChangedAreas());
+        assertFalse(ca.update(c, SyncAccess.NOSYNC));
+        assertEquals(1, values[0].observerCount());
+
+        values[3].setValue(0);
+        assertEquals(1, ca.getChangedAreas().size());
+        assertEquals(0, ca.getChangedAreas().size());
+    }
+
+    public void testInvalidate() {
+        ObservableValue[] values = new ObservableValue[3];
+        Circuit c = createCircuit(values);
+        ChangedAreas ca = new ChangedAreas(5);
+        assertTrue(ca.update(c, SyncAccess.NOSYNC));
+
+        ca.invalidate();
+        assertNull(ca.getChangedAreas());
+        assertTrue(ca.update(c, SyncAccess.NOSYNC));
+        assertEquals(1, values[0].observerCount());
+
+        ca.detach(SyncAccess.NOSYNC);
+        assertEquals(0, values[0].observerCount());
+        assertNull(ca.getChangedAreas());
+    }
+}
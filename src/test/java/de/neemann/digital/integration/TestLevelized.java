@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.integration;
+
+import de.neemann.digital.core.memory.Register;
+import junit.framework.TestCase;
+
+/**
+ * Runs some circuits in levelized mode
+ */
+public class TestLevelized extends TestCase {
+
+    private ToBreakRunner createLevelized(String file) throws Exception {
+        ToBreakRunner runner = new ToBreakRunner(file, false);
+        runner.getModel().setLevelizedMode(true).init(true);
+        return runner;
+    }
+
+    public void testRunToBreak() throws Exception {
+        ToBreakRunner runner = createLevelized("dig/runToBreak.dig");
+        assertTrue(runner.getModel().isLevelized());
+        runner.runToBreak(509);
+    }
+
+    public void testCounterSplitter() throws Exception {
+        ToBreakRunner runner = createLevelized("dig/CounterSplitter.dig");
+        assertTrue(runner.getModel().isLevelized());
+        Register r = runner
+                .runToBreak(2045)
+                .getSingleNode(Register.class);
+
+        assertEquals(0x3fe, r.getOutputs().get(0).getValue());
+    }
+}
@@ -6,6 +6,7 @@
 package de.neemann.digital.integration;
 
 import de.neemann.digital.TestExecuter;
+import de.neemann.digital.core.Node;
 import de.neemann.digital.core.NodeException;
 import de.neemann.digital.draw.elements.PinException;
 import de.neemann.digital.draw.library.ElementLibrary;
@@ -116,4 +117,27 @@ public class TestNesting extends TestCase {
         te.check(0, 1, 0, 0);  // Red
         te.check(1, 1, 0, 0);
     }
+
+    /**
+     * Creates the traffic light two times using the same library.
+     * The second model is created from the templates of the nested circuits created by the first one.
+     */
+    public void testNestingTemplateReused() throws NodeException, PinException, IOException, ElementNotFoundException {
+        ElementLibrary library = new ElementLibrary();
+        library.setRootFilePath(new File(Resources.getRoot(), "dig"));
+        TestExecuter te1 = TestExecuter.createFromFile("dig/trafficLight.dig", library);
+        TestExecuter te2 = TestExecuter.createFromFile("dig/trafficLight.dig", library);
+
+        assertEquals(te1.getModel().getNodes().size(), te2.getModel().getNodes().size());
+        for (Node n : te1.getModel().getNodes())
+            assertFalse(te2.getModel().getNodes().contains(n));
+
+        te2.clockUntil(1, 0, 0);
+        //        C  R  Y  G
+        te2.check(0, 1, 0, 0);  // Red
+        te2.check(1, 1, 0, 0);
+        te2.check(0, 1, 1, 0);  // Red / Yellow
+        te2.check(1, 1, 1, 0);
+        te2.check(0, 0, 0, 1);  // Green
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing;
+
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.ModelEventType;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.model.ModelCreator;
+import de.neemann.digital.draw.shapes.ShapeFactory;
+import de.neemann.digital.integration.Resources;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BatchExecutorTest extends TestCase {
+    private static final int ROWS = 1000;
+
+    private BatchExecutor create(String... outputs) throws Exception {
+        ElementLibrary library = new ElementLibrary();
+        Circuit circuit = Circuit.loadCircuit(new File(Resources.getRoot(), "dig/and.dig"), new ShapeFactory(library));
+        return new BatchExecutor(circuit, library, new String[]{"A", "B"}, outputs);
+    }
+
+    private static long[][] createInputs() {
+        long[][] in = new long[2][ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            in[0][i] = i & 1;
+            in[1][i] = (i >> 1) & 1;
+        }
+        return in;
+    }
+
+    public void testSingleThread() throws Exception {
+        long[][] in = createInputs();
+        long[][] out = create("Out").execute(in);
+        assertEquals(1, out.length);
+        for (int i = 0; i < ROWS; i++)
+            assertEquals(in[0][i] & in[1][i], out[0][i]);
+    }
+
+    public void testParallel() throws Exception {
+        long[][] in = createInputs();
+        long[][] out = create("Out").setThreads(3).execute(in);
+        for (int i = 0; i < ROWS; i++)
+            assertEquals(in[0][i] & in[1][i], out[0][i]);
+    }
+
+    public void testParallelMultiBit() throws Exception {
+        // a four bit adder can not be bit sliced, so every thread uses its own model
+        ElementLibrary library = new ElementLibrary();
+        Circuit circuit = Circuit.loadCircuit(new File(Resources.getRoot(), "dig/test/vhdl/adder.dig"), new ShapeFactory(library));
+        AtomicInteger created = new AtomicInteger();
+        BatchExecutor.ModelFactory factory = () -> {
+            created.incrementAndGet();
+            return new ModelCreator(circuit, library).createModel(false);
+        };
+        String[] inputs = {"A", "B", "C"};
+        String[] outputs = {"S", "Co"};
+
+        long[][] in = new long[3][ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            in[0][i] = i & 15;
+            in[1][i] = (i >> 4) & 15;
+            in[2][i] = (i >> 8) & 1;
+        }
+
+        long[][] seq = new BatchExecutor(factory, inputs, outputs).execute(in);
+        assertEquals(1, created.get());
+        created.set(0);
+        long[][] par = new BatchExecutor(factory, inputs, outputs).setThreads(3).execute(in);
+        assertEquals(3, created.get());
+
+        for (int i = 0; i < ROWS; i++) {
+            long sum = in[0][i] + in[1][i] + in[2][i];
+            assertEquals(sum & 15, seq[0][i]);
+            assertEquals(sum >> 4, seq[1][i]);
+            assertEquals(seq[0][i], par[0][i]);
+            assertEquals(seq[1][i], par[1][i]);
+        }
+    }
+
+    public void testModelsClosed() throws Exception {
+        ElementLibrary library = new ElementLibrary();
+        Circuit circuit = Circuit.loadCircuit(new File(Resources.getRoot(), "dig/and.dig"), new ShapeFactory(library));
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        BatchExecutor be = new BatchExecutor(() -> {
+            created.incrementAndGet();
+            Model model = new ModelCreator(circuit, library).createModel(false);
+            model.addObserver(event -> {
+                if (event.getType() == ModelEventType.CLOSED)
+                    closed.incrementAndGet();
+            }, ModelEventType.CLOSED);
+            return model;
+        }, new String[]{"A", "B"}, new String[]{"Out"});
+
+        be.setThreads(3).execute(createInputs());
+        assertEquals(1, created.get());
+        assertEquals(1, closed.get());
+    }
+
+    public void testMissingSignal() throws Exception {
+        try {
+            create("Y").execute(createInputs());
+            fail();
+        } catch (TestingDataException e) {
+            assertTrue(true);
+        }
+    }
+}
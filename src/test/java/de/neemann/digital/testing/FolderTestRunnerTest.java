@@ -5,6 +5,10 @@
  */
 package de.neemann.digital.testing;
 
+import de.neemann.digital.core.element.Keys;
+import de.neemann.digital.core.memory.ROM;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.VisualElement;
 import de.neemann.digital.draw.library.ElementLibrary;
 import de.neemann.digital.draw.shapes.ShapeFactory;
 import de.neemann.digital.integration.Resources;
@@ -12,6 +16,8 @@ import junit.framework.TestCase;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 public class FolderTestRunnerTest extends TestCase {
 
@@ -23,17 +29,110 @@ public class FolderTestRunnerTest extends TestCase {
         assertEquals(5, ft.getFiles().size());
 
 
-        ElementLibrary library = new ElementLibrary();
-        library.setRootFilePath(f.getParentFile());
-        ShapeFactory shapeFactory = new ShapeFactory(library);
         ft.startTests(
                 (fileToTest, row) -> {
-                    assertEquals("row " + row, ROWS[row], fileToTest.getRowCount());
-                    assertEquals(FolderTestRunner.FileToTest.Status.passed, fileToTest.getStatus());
                 },
-                shapeFactory,
-                library);
+                libraryFactory(f.getParentFile()));
+
+        ft.waitUntilFinished();
+        checkPassed(ft);
+    }
+
+    private static FolderTestRunner.LibraryFactory libraryFactory(File root) {
+        return () -> {
+            ElementLibrary library = new ElementLibrary();
+            library.setRootFilePath(root);
+            new ShapeFactory(library);
+            return library;
+        };
+    }
+
+    private void checkPassed(FolderTestRunner ft) {
+        for (int row = 0; row < ROWS.length; row++) {
+            FolderTestRunner.FileToTest fileToTest = ft.getFiles().get(row);
+            assertEquals("row " + row, ROWS[row], fileToTest.getRowCount());
+            assertEquals(FolderTestRunner.FileToTest.Status.passed, fileToTest.getStatus());
+        }
+    }
+
+    public void testCache() throws Exception {
+        File f = new File(Resources.getRoot(), "dig/test/arith");
+        ElementLibrary library = new ElementLibrary();
+        library.setRootFilePath(f.getParentFile());
+        ShapeFactory shapeFactory = new ShapeFactory(library);
+
+        TestResultCache cache = new TestResultCache();
+        FolderTestRunner ft = new FolderTestRunner(f).setCache(cache);
+        ft.startTests((fileToTest, row) -> {
+        }, libraryFactory(f.getParentFile()));
+        ft.waitUntilFinished();
+        checkPassed(ft);
+        assertEquals(5, cache.size());
+
+        // replace a result to see if the cached value is used
+        File file = ft.getFiles().get(0).getFile();
+        String key = TestResultCache.createKey(file, Circuit.loadCircuit(file, shapeFactory), library);
+        assertNotNull(cache.get(file, key));
+        assertNull(cache.get(file, key + "x"));
+        cache.put(file, key, FolderTestRunner.FileToTest.Status.failed, "cached", 0);
 
+        ft = new FolderTestRunner(f).setCache(cache).setThreads(2);
+        ft.startTests((fileToTest, row) -> {
+        }, libraryFactory(f.getParentFile()));
         ft.waitUntilFinished();
+        assertEquals("cached", ft.getFiles().get(0).getMessage());
+        assertEquals(FolderTestRunner.FileToTest.Status.failed, ft.getFiles().get(0).getStatus());
+        assertEquals(FolderTestRunner.FileToTest.Status.passed, ft.getFiles().get(1).getStatus());
+    }
+
+    public void testCacheKeyContainsRomData() throws Exception {
+        File f = new File(Resources.getRoot(), "dig/test/arith/FullSub.dig");
+        ElementLibrary library = new ElementLibrary();
+        new ShapeFactory(library);
+
+        File hex = File.createTempFile("digital_rom_", ".hex");
+        try {
+            Files.write(hex.toPath(), "v2.0 raw\n1\n2\n".getBytes(StandardCharsets.UTF_8));
+            VisualElement rom = new VisualElement(ROM.DESCRIPTION.getName())
+                    .setAttribute(Keys.AUTO_RELOAD_ROM, true);
+            rom.getElementAttributes().setFile(ROM.LAST_DATA_FILE_KEY, hex);
+            Circuit circuit = new Circuit().add(rom);
+
+            String key = TestResultCache.createKey(f, circuit, library);
+            assertEquals(key, TestResultCache.createKey(f, circuit, library));
+
+            Files.write(hex.toPath(), "v2.0 raw\n1\n3\n".getBytes(StandardCharsets.UTF_8));
+            assertFalse(key.equals(TestResultCache.createKey(f, circuit, library)));
+        } finally {
+            assertTrue(hex.delete());
+        }
+    }
+
+    public void testParallelNestedCircuits() throws Exception {
+        // many files using the same nested circuits are tested at the same time
+        File arith = new File(Resources.getRoot(), "dig/test/arith");
+        File dir = Files.createTempDirectory("digital_parallel_").toFile();
+        try {
+            for (String name : new String[]{"FullSub.dig", "FullSubRC.dig", "HalfAdder.dig", "HalfSub.dig"})
+                Files.copy(new File(arith, name).toPath(), new File(dir, name).toPath());
+            for (int i = 0; i < 16; i++)
+                Files.copy(new File(arith, "subTest.dig").toPath(), new File(dir, "subTest" + i + ".dig").toPath());
+
+            FolderTestRunner ft = new FolderTestRunner(dir).setThreads(8);
+            assertEquals(20, ft.getFiles().size());
+            ft.startTests((fileToTest, row) -> {
+            }, libraryFactory(dir));
+            ft.waitUntilFinished();
+
+            for (FolderTestRunner.FileToTest fileToTest : ft.getFiles())
+                assertEquals(fileToTest.getName() + ": " + fileToTest.getMessage(),
+                        FolderTestRunner.FileToTest.Status.passed, fileToTest.getStatus());
+        } finally {
+            File[] files = dir.listFiles();
+            if (files != null)
+                for (File file : files)
+                    file.delete();
+            dir.delete();
+        }
     }
-}
\ No newline at end of file
+}
@@ -21,6 +21,7 @@ import de.neemann.digital.draw.model.ModelCreator;
 import de.neemann.digital.draw.shapes.ShapeFactory;
 import junit.framework.TestCase;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 
@@ -120,4 +121,66 @@ public class TestResultTest extends TestCase {
         assertTrue(tr.allPassed());
     }
 
+    private static final String XOR_WITH_ERROR = "A B Y\n"
+            + "loop(i,1000)\n"
+            + "  bits(2,i) ((((i>>1)^i)&1)^(i=500))\n"
+            + "end loop\n";
+
+    public void testStreaming() throws Exception {
+        Model model = getModel("A^B");
+        TestResult tr = new TestExecutor(new TestCaseDescription(XOR_WITH_ERROR), model)
+                .setStreaming(true)
+                .execute();
+        assertFalse(tr.allPassed());
+        assertEquals(1000, tr.getRowsTested());
+        assertTrue(tr.toManyResults());
+
+        // the failing row and eight rows before and after
+        ValueTable valueTable = tr.getValueTable();
+        assertEquals(17, valueTable.getRows());
+        for (int i = 0; i < 17; i++) {
+            assertEquals(492 + i, valueTable.getTableRow(i).getRow());
+            assertEquals(i != 8, ((MatchedValue) valueTable.getValue(i, 2)).isPassed());
+        }
+        assertEquals(0, valueTable.getValue(8, 0).getValue());
+        assertEquals(0, valueTable.getValue(8, 1).getValue());
+    }
+
+    public void testStreamingPassed() throws Exception {
+        Model model = getModel("A^B");
+        TestResult tr = new TestExecutor(new TestCaseDescription(
+                "A B Y\nloop(i,1000)\n bits(2,i) ((i>>1)^i)\nend loop\n"), model)
+                .setStreaming(true)
+                .execute();
+        assertTrue(tr.allPassed());
+        assertEquals(1000, tr.getRowsTested());
+        assertEquals(0, tr.getValueTable().getRows());
+    }
+
+    public void testSpillFile() throws Exception {
+        Model model = getModel("A^B");
+        File file = File.createTempFile("digital", ".bin");
+        try {
+            TestResult tr = new TestExecutor(new TestCaseDescription(XOR_WITH_ERROR), model)
+                    .setStreaming(true)
+                    .setSpillFile(file)
+                    .execute();
+            assertFalse(tr.allPassed());
+
+            ValueTable valueTable = TestResultFile.read(file, 495, 10);
+            assertEquals(10, valueTable.getRows());
+            assertEquals("Y", valueTable.getColumnName(2));
+            for (int i = 0; i < 10; i++) {
+                int row = 495 + i;
+                assertEquals(row, valueTable.getTableRow(i).getRow());
+                assertEquals((row >> 1) & 1, valueTable.getValue(i, 0).getValue());
+                assertEquals(row & 1, valueTable.getValue(i, 1).getValue());
+                assertEquals(row != 500, ((MatchedValue) valueTable.getValue(i, 2)).isPassed());
+            }
+
+            assertEquals(1000, TestResultFile.read(file, 0, Integer.MAX_VALUE).getRows());
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
 }
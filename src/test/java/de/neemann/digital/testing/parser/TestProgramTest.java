@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing.parser;
+
+import de.neemann.digital.data.Value;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+public class TestProgramTest extends TestCase {
+
+    public void testShadowing() throws IOException, ParserException {
+        Parser parser = new Parser("A B\n"
+                + "let a=1;\n"
+                + "loop(i,3)\n"
+                + "  (a) (i)\n"
+                + "  let a=a+1;\n"
+                + "end loop\n"
+                + "(a) 0").parse();
+        LineCollector td = new LineCollector(parser);
+
+        long[][] expected = {{1, 0}, {2, 1}, {3, 2}, {1, 0}};
+        assertEquals(expected.length, td.getLines().size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i][0], td.getLines().get(i).getValue(0).getValue());
+            assertEquals(expected[i][1], td.getLines().get(i).getValue(1).getValue());
+        }
+    }
+
+    public void testScopeIsClearedOnEntry() throws IOException, ParserException {
+        Parser parser = new Parser("A\n"
+                + "let a=10;\n"
+                + "loop(i,2)\n"
+                + "  loop(j,2)\n"
+                + "    (a)\n"
+                + "    let a=a+1;\n"
+                + "  end loop\n"
+                + "end loop").parse();
+        LineCollector td = new LineCollector(parser);
+
+        long[] expected = {10, 11, 10, 11};
+        assertEquals(expected.length, td.getLines().size());
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(expected[i], td.getLines().get(i).getValue(0).getValue());
+    }
+
+    public void testRowBufferIsReused() throws IOException, ParserException {
+        Parser parser = new Parser("A B C D\n"
+                + "repeat(1<<16) bits(3,n) (n*n)").parse();
+        ArrayList<RowBuffer> buffers = new ArrayList<>();
+        long[] count = new long[1];
+        parser.getLines().execute(row -> {
+            if (buffers.isEmpty())
+                buffers.add(row);
+            assertSame(buffers.get(0), row);
+            long n = count[0]++;
+            assertEquals((n >> 2) & 1, row.getValue(0));
+            assertEquals((n >> 1) & 1, row.getValue(1));
+            assertEquals(n & 1, row.getValue(2));
+            assertEquals(n * n, row.getValue(3));
+            assertEquals(Value.Type.NORMAL, row.getType(3));
+        }, new Context());
+        assertEquals(1 << 16, count[0]);
+    }
+
+    public void testDescription() throws IOException, ParserException {
+        Parser parser = new Parser("A B\n"
+                + "X Z\n"
+                + "loop(i,2)\n"
+                + "  C (i)\n"
+                + "end loop").parse();
+        ArrayList<String> descriptions = new ArrayList<>();
+        ArrayList<Value.Type> types = new ArrayList<>();
+        parser.getLines().execute(row -> {
+            descriptions.add(row.getDescription());
+            types.add(row.getType(0));
+            types.add(row.getType(1));
+        }, new Context());
+
+        assertEquals(3, descriptions.size());
+        assertEquals("L2", descriptions.get(0));
+        assertEquals("L4;i=0", descriptions.get(1));
+        assertEquals("L4;i=1", descriptions.get(2));
+        assertEquals(Value.Type.DONTCARE, types.get(0));
+        assertEquals(Value.Type.HIGHZ, types.get(1));
+        assertEquals(Value.Type.CLOCK, types.get(2));
+        assertEquals(Value.Type.NORMAL, types.get(3));
+    }
+
+    public void testFunctionsUseLoopVariables() throws IOException, ParserException {
+        Parser parser = new Parser("A B\n"
+                + "loop(i,4)\n"
+                + "  (ite(i&1,i,0)) (signExt(2,i))\n"
+                + "end loop").parse();
+        LineCollector td = new LineCollector(parser);
+
+        assertEquals(4, td.getLines().size());
+        long[] a = {0, 1, 0, 3};
+        long[] b = {0, 1, -2, -1};
+        for (int i = 0; i < 4; i++) {
+            assertEquals(a[i], td.getLines().get(i).getValue(0).getValue());
+            assertEquals(b[i], td.getLines().get(i).getValue(1).getValue());
+        }
+    }
+
+    public void testWhile() throws IOException, ParserException {
+        Parser parser = new Parser("A\n"
+                + "let a=0;\n"
+                + "while(a<5)\n"
+                + "  (a)\n"
+                + "  let a=a+2;\n"
+                + "end while").parse();
+        LineCollector td = new LineCollector(parser);
+
+        assertEquals(3, td.getLines().size());
+        for (int i = 0; i < 3; i++)
+            assertEquals(i * 2, td.getLines().get(i).getValue(0).getValue());
+    }
+
+    public void testMissingColumnAtExecution() throws IOException, ParserException {
+        TestProgram p = new Parser("A B\nloop(i,2)\n(i)\nend loop").parse().getLines();
+        try {
+            p.execute(row -> {
+            }, new Context());
+            fail();
+        } catch (ParserException e) {
+            assertTrue(true);
+        }
+    }
+}
@@ -7,6 +7,8 @@ package de.neemann.digital.undo;
 
 import junit.framework.TestCase;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class UndoManagerTest extends TestCase {
 
     private int changedCount;
@@ -46,6 +48,45 @@ public class UndoManagerTest extends TestCase {
         }
     }
 
+    public static class CountingAppend extends Append {
+        private final AtomicInteger calls;
+
+        private CountingAppend(String app, AtomicInteger calls) {
+            super(app);
+            this.calls = calls;
+        }
+
+        @Override
+        public void modify(MyString myString) {
+            calls.incrementAndGet();
+            super.modify(myString);
+        }
+    }
+
+    public static class Revertible extends Append {
+        private String previous;
+
+        private Revertible(String app) {
+            super(app);
+        }
+
+        @Override
+        public void modify(MyString myString) {
+            previous = myString.text;
+            super.modify(myString);
+        }
+
+        @Override
+        public boolean isRevertible() {
+            return true;
+        }
+
+        @Override
+        public void revert(MyString myString) {
+            myString.text = previous;
+        }
+    }
+
     public static class Error implements Modification<MyString> {
         private int count;
 
@@ -196,4 +237,86 @@ public class UndoManagerTest extends TestCase {
         }
     }
 
-}
\ No newline at end of file
+    public void testCheckpoints() throws ModifyException {
+        UndoManager<MyString> mm = new UndoManager<>(new MyString("")).setCheckpoints(10, 100);
+        AtomicInteger calls = new AtomicInteger();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 95; i++) {
+            mm.apply(new CountingAppend(Integer.toString(i % 10), calls));
+            expected.append(i % 10);
+        }
+        assertEquals(9, mm.getCheckpointCount());
+
+        for (int i = 94; i >= 0; i--) {
+            calls.set(0);
+            mm.undo();
+            // the modifications between the last checkpoint and the undo target are replayed
+            assertEquals(i % 10, calls.get());
+            expected.setLength(expected.length() - 1);
+            assertEquals(expected.toString(), mm.getActual().text);
+        }
+        assertFalse(mm.undoAvailable());
+
+        for (int i = 0; i < 95; i++)
+            mm.redo();
+        assertEquals(95, mm.getActual().text.length());
+    }
+
+    public void testCheckpointsDiscarded() throws ModifyException {
+        UndoManager<MyString> mm = new UndoManager<>(new MyString("")).setCheckpoints(2, 100);
+        for (int i = 0; i < 6; i++)
+            mm.apply(new Append("a"));
+        assertEquals(3, mm.getCheckpointCount());
+        for (int i = 0; i < 3; i++)
+            mm.undo();
+        mm.apply(new Append("b"));
+        mm.apply(new Append("b"));
+        assertEquals(2, mm.getCheckpointCount());
+        mm.undo();
+        mm.undo();
+        assertEquals("aaa", mm.getActual().text);
+        mm.undo();
+        assertEquals("aa", mm.getActual().text);
+    }
+
+    public void testCheckpointEviction() throws ModifyException {
+        UndoManager<MyString> mm = new UndoManager<>(new MyString("")).setCheckpoints(1, 4);
+        for (int i = 0; i < 100; i++)
+            mm.apply(new Append("a"));
+        assertEquals(4, mm.getCheckpointCount());
+        for (int i = 99; i >= 0; i--) {
+            mm.undo();
+            assertEquals(i, mm.getActual().text.length());
+        }
+    }
+
+    public void testCheckpointWithoutHistory() throws ModifyException {
+        UndoManager<MyString> mm = new UndoManager<>(new MyString("")).setCheckpoints(2, 10);
+        for (int i = 0; i < 5; i++)
+            mm.apply(new Append("a"));
+        mm.applyWithoutHistory(m -> m.text = m.text.toUpperCase());
+        mm.undo();
+        assertEquals("AAAA", mm.getActual().text);
+        mm.undo();
+        mm.undo();
+        assertEquals("AA", mm.getActual().text);
+    }
+
+    public void testRevert() throws ModifyException {
+        UndoManager<MyString> mm = new UndoManager<>(new MyString("initial"));
+        AtomicInteger calls = new AtomicInteger();
+        mm.apply(new CountingAppend("_1", calls));
+        mm.apply(new Revertible("_2"));
+        mm.apply(new Revertible("_3"));
+        calls.set(0);
+        mm.undo();
+        mm.undo();
+        assertEquals("initial_1", mm.getActual().text);
+        assertEquals(0, calls.get());
+        mm.redo();
+        assertEquals("initial_1_2", mm.getActual().text);
+        mm.undo();
+        mm.undo();
+        assertEquals("initial", mm.getActual().text);
+    }
+}